@@ -27,6 +27,7 @@ public enum HandlerNames {
     WriteTransformer("write-transformer"),
     ClientReadTimeoutHandler("client-read-timeout-handler"),
     ClientChannelActiveBufferingHandler("client-channel-active-buffer-handler"),
+    HttpProxyConnectHandler("http-proxy-connect-handler"),
     ;
 
     private final String name;
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.channel;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.netty.channel.unix.DomainSocketChannel;
+
+import java.net.SocketAddress;
+
+/**
+ * Utility methods for clients and servers bound to a unix domain socket ({@link DomainSocketAddress}).
+ *
+ * Domain sockets are only supported by netty's native epoll transport, which is an optional dependency. All methods
+ * here are safe to call when the native transport is not on the classpath, in which case, no address is treated as a
+ * domain socket address.
+ */
+public final class DomainSockets {
+
+    private static final boolean UNIX_TRANSPORT_PRESENT;
+
+    static {
+        boolean present;
+        try {
+            Class.forName("io.netty.channel.unix.DomainSocketAddress", false, DomainSockets.class.getClassLoader());
+            present = true;
+        } catch (ClassNotFoundException e) {
+            present = false;
+        }
+        UNIX_TRANSPORT_PRESENT = present;
+    }
+
+    private DomainSockets() {
+    }
+
+    /**
+     * Returns {@code true} if the passed address is a unix domain socket address.
+     *
+     * @param address Address to inspect.
+     *
+     * @return {@code true} if the passed address is a unix domain socket address.
+     */
+    public static boolean isDomainSocketAddress(SocketAddress address) {
+        return UNIX_TRANSPORT_PRESENT && address instanceof DomainSocketAddress;
+    }
+
+    /**
+     * Returns {@code true} if the passed channel class can connect to a unix domain socket address.
+     *
+     * @param channelClass Channel class to inspect.
+     *
+     * @return {@code true} if the passed channel class can connect to a unix domain socket address.
+     */
+    public static boolean isDomainSocketChannel(Class<? extends Channel> channelClass) {
+        return UNIX_TRANSPORT_PRESENT && DomainSocketChannel.class.isAssignableFrom(channelClass);
+    }
+
+    /**
+     * Returns the channel class to be used by clients connecting to a unix domain socket.
+     *
+     * @return The channel class to be used by clients connecting to a unix domain socket.
+     *
+     * @throws IllegalStateException If the native epoll transport is not available.
+     */
+    public static Class<? extends Channel> clientChannelClass() {
+        ensureAvailable();
+        return EpollDomainSocketChannel.class;
+    }
+
+    /**
+     * Returns the channel class to be used by servers listening on a unix domain socket.
+     *
+     * @return The channel class to be used by servers listening on a unix domain socket.
+     *
+     * @throws IllegalStateException If the native epoll transport is not available.
+     */
+    public static Class<? extends ServerChannel> serverChannelClass() {
+        ensureAvailable();
+        return EpollServerDomainSocketChannel.class;
+    }
+
+    private static void ensureAvailable() {
+        if (!UNIX_TRANSPORT_PRESENT || !Epoll.isAvailable()) {
+            throw new IllegalStateException("Unix domain sockets are only supported by the native epoll transport.",
+                                            UNIX_TRANSPORT_PRESENT ? Epoll.unavailabilityCause() : null);
+        }
+    }
+}
@@ -33,6 +33,7 @@ import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.netty.util.concurrent.EventExecutorGroup;
@@ -40,13 +41,16 @@ import io.reactivex.netty.RxNetty;
 import io.reactivex.netty.channel.ChannelSubscriberEvent;
 import io.reactivex.netty.channel.ConnectionCreationFailedEvent;
 import io.reactivex.netty.channel.DetachedChannelPipeline;
+import io.reactivex.netty.channel.DomainSockets;
 import io.reactivex.netty.channel.WriteTransformer;
 import io.reactivex.netty.client.events.ClientEventListener;
 import io.reactivex.netty.events.Clock;
 import io.reactivex.netty.events.EventPublisher;
 import io.reactivex.netty.events.EventSource;
+import io.reactivex.netty.ssl.ClientSslCodec;
 import io.reactivex.netty.ssl.DefaultSslCodec;
 import io.reactivex.netty.ssl.SslCodec;
+import io.reactivex.netty.threads.RxEventLoopProvider;
 import io.reactivex.netty.util.LoggingHandlerFactory;
 import rx.Observable;
 import rx.exceptions.Exceptions;
@@ -55,6 +59,7 @@ import rx.functions.Func0;
 import rx.functions.Func1;
 
 import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
 import java.net.SocketAddress;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -256,6 +261,32 @@ public class ClientState<W, R> {
     }
 
     public Bootstrap newBootstrap(final EventPublisher eventPublisher, final ClientEventListener eventListener) {
+        return newBootstrap(eventPublisher, eventListener, eventLoopGroup, channelClass);
+    }
+
+    /**
+     * Creates a new {@link Bootstrap} to connect to the passed {@code remoteAddress}. If the address is a unix domain
+     * socket address and the channel class of this state can not connect to a domain socket, the bootstrap uses the
+     * native domain socket channel and {@link RxEventLoopProvider#globalClientDomainSocketEventLoop()} instead.
+     *
+     * @param eventPublisher Event publisher for the created channels.
+     * @param eventListener Event listener for the created channels.
+     * @param remoteAddress Address to which the bootstrap will connect.
+     *
+     * @return A new {@link Bootstrap}.
+     */
+    public Bootstrap newBootstrap(final EventPublisher eventPublisher, final ClientEventListener eventListener,
+                                  SocketAddress remoteAddress) {
+        if (DomainSockets.isDomainSocketAddress(remoteAddress) && !DomainSockets.isDomainSocketChannel(channelClass)) {
+            return newBootstrap(eventPublisher, eventListener,
+                                RxNetty.getRxEventLoopProvider().globalClientDomainSocketEventLoop(),
+                                DomainSockets.clientChannelClass());
+        }
+        return newBootstrap(eventPublisher, eventListener);
+    }
+
+    private Bootstrap newBootstrap(final EventPublisher eventPublisher, final ClientEventListener eventListener,
+                                   EventLoopGroup eventLoopGroup, Class<? extends Channel> channelClass) {
         final Bootstrap nettyBootstrap = new Bootstrap().group(eventLoopGroup)
                                                         .channel(channelClass)
                                                         .option(ChannelOption.AUTO_READ, false);// by default do not read content unless asked.
@@ -301,20 +332,22 @@ public class ClientState<W, R> {
         return new ClientState<>(this, sslCodec);
     }
 
+    public ClientState<W, R> secure(SslContext sslContext) {
+        return secure(new ClientSslCodec(sslContext));
+    }
+
     public ClientState<W, R> unsafeSecure() {
-        return secure(new DefaultSslCodec(new Func1<ByteBufAllocator, SSLEngine>() {
-            @Override
-            public SSLEngine call(ByteBufAllocator allocator) {
-                try {
-                    return SslContextBuilder.forClient()
-                                            .trustManager(InsecureTrustManagerFactory.INSTANCE)
-                                            .build()
-                                            .newEngine(allocator);
-                } catch (Exception e) {
-                    throw Exceptions.propagate(e);
-                }
-            }
-        }));
+        /*A single context for all connections, so that sessions are resumed on reconnects.*/
+        final SslContext sslContext;
+        try {
+            sslContext = SslContextBuilder.forClient()
+                                          .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                                          .build();
+        } catch (SSLException e) {
+            throw Exceptions.propagate(e);
+        }
+        /*Trusts every certificate, so verifying the host of the certificate adds nothing.*/
+        return secure(ClientSslCodec.withoutHostnameVerification(sslContext));
     }
 
     private <WW, RR> ClientState<WW, RR> copy() {
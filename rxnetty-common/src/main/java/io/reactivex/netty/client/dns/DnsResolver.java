@@ -0,0 +1,483 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.dns;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.AddressedEnvelope;
+import io.netty.channel.EventLoop;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.handler.codec.dns.DefaultDnsQuestion;
+import io.netty.handler.codec.dns.DnsRawRecord;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponse;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.handler.codec.dns.DnsSection;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.resolver.dns.DnsServerAddresses;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.reactivex.netty.RxNetty;
+import io.reactivex.netty.client.Host;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Observable.OnSubscribe;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.subjects.PublishSubject;
+import rx.subscriptions.Subscriptions;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * A non-blocking DNS resolver, that caches resolved addresses as per the time to live of the DNS records.
+ *
+ * Unlike resolving a host name via {@link InetSocketAddress}, resolution does not block the calling thread (queries
+ * are sent on an event loop) and addresses are re-resolved once their time to live expires. Host names that do not
+ * exist, or have no addresses, are cached for the negative time to live of the {@link DnsResolverConfig}. Cached
+ * entries are removed once they expire, so the cache only holds host names resolved within their time to live.
+ *
+ * <h2>Host streams</h2>
+ *
+ * {@link #hosts(String, int)} provides the addresses of a host name as a stream of {@link Host}, as consumed by
+ * clients and {@link io.reactivex.netty.client.loadbalancer.LoadBalancerFactory}. The host name is re-resolved when
+ * the time to live of its addresses expires; a new address is emitted as a new {@link Host} and the
+ * {@link Host#getCloseNotifier()} of an address that is no longer returned completes, removing it from the client.
+ *
+ * This requires {@code netty-resolver-dns} on the classpath.
+ */
+public final class DnsResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(DnsResolver.class);
+
+    private static final long MIN_REFRESH_NANOS = SECONDS.toNanos(1);
+
+    private final DnsResolverConfig config;
+    private final EventLoop eventLoop;
+    private final DnsNameResolver resolver;
+    private final ConcurrentMap<String, Resolution> cache = new ConcurrentHashMap<>();
+
+    private DnsResolver(DnsResolverConfig config) {
+        this.config = config;
+        eventLoop = null != config.getEventLoop() ? config.getEventLoop()
+                : RxNetty.getRxEventLoopProvider().globalClientEventLoop(false).next();
+        DnsNameResolverBuilder builder = new DnsNameResolverBuilder(eventLoop)
+                .channelType(NioDatagramChannel.class)
+                .queryTimeoutMillis(config.getQueryTimeoutMillis());
+        if (!config.getNameServers().isEmpty()) {
+            builder.nameServerAddresses(DnsServerAddresses.sequential(config.getNameServers()));
+        }
+        resolver = builder.build();
+    }
+
+    /**
+     * Resolves the passed host name to all of its addresses, using the cached addresses, if not expired.
+     *
+     * @param hostname Host name to resolve, can also be an IP address literal.
+     *
+     * @return Stream with a single list of addresses. The stream errors with an {@link UnknownHostException} if the
+     * host name does not exist or has no addresses.
+     */
+    public Observable<List<InetAddress>> resolve(final String hostname) {
+        return resolution(hostname).flatMap(new Func1<Resolution, Observable<List<InetAddress>>>() {
+            @Override
+            public Observable<List<InetAddress>> call(Resolution resolution) {
+                if (resolution.addresses.isEmpty()) {
+                    return Observable.error(new UnknownHostException(hostname));
+                }
+                return Observable.just(resolution.addresses);
+            }
+        });
+    }
+
+    /**
+     * Creates a stream of {@link Host}, one per address of the passed host name, re-resolving the host name when the
+     * time to live of its addresses expires. See the class level documentation for details.
+     *
+     * Transient resolution failures do not change the hosts; if the host name no longer exists (or has no addresses)
+     * all hosts are removed. Unsubscribing from the stream removes all hosts.
+     *
+     * @param hostname Host name to resolve.
+     * @param port Port of the hosts.
+     *
+     * @return Stream of hosts for the host name.
+     */
+    public Observable<Host> hosts(final String hostname, final int port) {
+        return Observable.create(new OnSubscribe<Host>() {
+            @Override
+            public void call(Subscriber<? super Host> subscriber) {
+                final HostTracker tracker = new HostTracker(hostname, port, subscriber);
+                subscriber.add(Subscriptions.create(new Action0() {
+                    @Override
+                    public void call() {
+                        tracker.shutdown();
+                    }
+                }));
+                eventLoop.execute(tracker);
+            }
+        });
+    }
+
+    /**
+     * Removes all cached addresses.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Closes this resolver. No queries can be sent after closing.
+     */
+    public void close() {
+        resolver.close();
+    }
+
+    public static DnsResolver create() {
+        return create(new DnsResolverConfig());
+    }
+
+    public static DnsResolver create(DnsResolverConfig config) {
+        return new DnsResolver(config);
+    }
+
+    private Observable<Resolution> resolution(final String hostname) {
+        return Observable.defer(new Func0<Observable<Resolution>>() {
+            @Override
+            public Observable<Resolution> call() {
+                final String name = hostname.toLowerCase(Locale.ENGLISH);
+                final byte[] literal = NetUtil.createByteArrayFromIpAddressString(name);
+                if (null != literal) {
+                    try {
+                        return Observable.just(Resolution.permanent(InetAddress.getByAddress(name, literal)));
+                    } catch (UnknownHostException e) {
+                        return Observable.error(e);
+                    }
+                }
+
+                final Resolution cached = cache.get(name);
+                if (null != cached && !cached.isExpired(System.nanoTime())) {
+                    return Observable.just(cached);
+                }
+
+                return query(name).doOnNext(new Action1<Resolution>() {
+                    @Override
+                    public void call(Resolution resolution) {
+                        final long nowNanos = System.nanoTime();
+                        if (!resolution.isExpired(nowNanos)) {
+                            cache.put(name, resolution);
+                            evictOnExpiry(name, resolution, nowNanos);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void evictOnExpiry(final String name, final Resolution resolution, long nowNanos) {
+        eventLoop.schedule(new Runnable() {
+            @Override
+            public void run() {
+                /*No op if the name is resolved again after this was scheduled.*/
+                cache.remove(name, resolution);
+            }
+        }, resolution.expiresAtNanos - nowNanos, NANOSECONDS);
+    }
+
+    /*Visible for testing*/ int getCacheSize() {
+        return cache.size();
+    }
+
+    private Observable<Resolution> query(final String name) {
+        final Observable<Answer> a = query(name, DnsRecordType.A);
+        if (!config.isResolveIpv6()) {
+            return a.map(new Func1<Answer, Resolution>() {
+                @Override
+                public Resolution call(Answer answer) {
+                    return toResolution(answer, Answer.NONE);
+                }
+            }).flatMap(new ErrorIfFailed());
+        }
+
+        return Observable.zip(a, query(name, DnsRecordType.AAAA), new Func2<Answer, Answer, Resolution>() {
+            @Override
+            public Resolution call(Answer ipv4, Answer ipv6) {
+                return toResolution(ipv4, ipv6);
+            }
+        }).flatMap(new ErrorIfFailed());
+    }
+
+    private Resolution toResolution(Answer first, Answer second) {
+        final long nowNanos = System.nanoTime();
+        if (first.addresses.isEmpty() && second.addresses.isEmpty()) {
+            /*A failed query (eg: SERVFAIL or a timeout) is transient, so it must not be cached as a negative answer.*/
+            if (null != first.error) {
+                return Resolution.failed(first.error);
+            }
+            if (null != second.error) {
+                return Resolution.failed(second.error);
+            }
+            return new Resolution(Collections.<InetAddress>emptyList(),
+                                  nowNanos + SECONDS.toNanos(config.getNegativeTtlSeconds()), null);
+        }
+
+        final List<InetAddress> addresses = new ArrayList<>(first.addresses.size() + second.addresses.size());
+        addresses.addAll(first.addresses);
+        addresses.addAll(second.addresses);
+        long ttlSeconds = Math.min(first.ttlSeconds, second.ttlSeconds);
+        ttlSeconds = Math.max(config.getMinTtlSeconds(), Math.min(config.getMaxTtlSeconds(), ttlSeconds));
+        return new Resolution(Collections.unmodifiableList(addresses), nowNanos + SECONDS.toNanos(ttlSeconds), null);
+    }
+
+    private Observable<Answer> query(final String name, final DnsRecordType type) {
+        return Observable.create(new OnSubscribe<Answer>() {
+            @Override
+            public void call(final Subscriber<? super Answer> subscriber) {
+                /*Query the fully qualified name, so that the question in the response matches the query.*/
+                final String fqdn = name.endsWith(".") ? name : name + '.';
+                resolver.query(new DefaultDnsQuestion(fqdn, type))
+                        .addListener(new FutureListener<AddressedEnvelope<DnsResponse, InetSocketAddress>>() {
+                            @Override
+                            public void operationComplete(Future<AddressedEnvelope<DnsResponse, InetSocketAddress>> f) {
+                                if (!f.isSuccess()) {
+                                    subscriber.onNext(Answer.failed(f.cause()));
+                                    subscriber.onCompleted();
+                                    return;
+                                }
+
+                                final AddressedEnvelope<DnsResponse, InetSocketAddress> envelope = f.getNow();
+                                final Answer answer;
+                                try {
+                                    answer = Answer.from(name, type, envelope.content());
+                                } finally {
+                                    envelope.release();
+                                }
+                                subscriber.onNext(answer);
+                                subscriber.onCompleted();
+                            }
+                        });
+            }
+        });
+    }
+
+    /**
+     * Result of resolving a host name. A resolution with no addresses is a negative answer.
+     */
+    private static final class Resolution {
+
+        private final List<InetAddress> addresses;
+        private final long expiresAtNanos;
+        private final boolean permanent;
+        private final Throwable error;
+
+        private Resolution(List<InetAddress> addresses, long expiresAtNanos, Throwable error) {
+            this(addresses, expiresAtNanos, false, error);
+        }
+
+        private Resolution(List<InetAddress> addresses, long expiresAtNanos, boolean permanent, Throwable error) {
+            this.addresses = addresses;
+            this.expiresAtNanos = expiresAtNanos;
+            this.permanent = permanent;
+            this.error = error;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return !permanent && nowNanos - expiresAtNanos >= 0;
+        }
+
+        private static Resolution permanent(InetAddress address) {
+            return new Resolution(Collections.singletonList(address), 0, true, null);
+        }
+
+        private static Resolution failed(Throwable error) {
+            return new Resolution(Collections.<InetAddress>emptyList(), 0, error);
+        }
+    }
+
+    private static final class ErrorIfFailed implements Func1<Resolution, Observable<Resolution>> {
+        @Override
+        public Observable<Resolution> call(Resolution resolution) {
+            return null != resolution.error ? Observable.<Resolution>error(resolution.error)
+                    : Observable.just(resolution);
+        }
+    }
+
+    /**
+     * Answer to a single query.
+     */
+    private static final class Answer {
+
+        private static final Answer NONE = new Answer(Collections.<InetAddress>emptyList(), Long.MAX_VALUE, null);
+
+        private final List<InetAddress> addresses;
+        private final long ttlSeconds;
+        private final Throwable error;
+
+        private Answer(List<InetAddress> addresses, long ttlSeconds, Throwable error) {
+            this.addresses = addresses;
+            this.ttlSeconds = ttlSeconds;
+            this.error = error;
+        }
+
+        private static Answer failed(Throwable error) {
+            return new Answer(Collections.<InetAddress>emptyList(), Long.MAX_VALUE, error);
+        }
+
+        private static Answer from(String name, DnsRecordType type, DnsResponse response) {
+            final DnsResponseCode code = response.code();
+            if (DnsResponseCode.NXDOMAIN.equals(code)) {
+                return NONE;
+            }
+            if (!DnsResponseCode.NOERROR.equals(code)) {
+                /*Eg: SERVFAIL or REFUSED, says nothing about the name.*/
+                return failed(new UnknownHostException("Failed to resolve " + name + ", response code: " + code));
+            }
+
+            final int count = response.count(DnsSection.ANSWER);
+            final List<InetAddress> addresses = new ArrayList<>(count);
+            long ttlSeconds = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                final DnsRecord record = response.recordAt(DnsSection.ANSWER, i);
+                /*The answer may contain CNAME records, whose TTL bounds the TTL of the addresses.*/
+                ttlSeconds = Math.min(ttlSeconds, record.timeToLive());
+                if (type.equals(record.type()) && record instanceof DnsRawRecord) {
+                    final ByteBuf content = ((DnsRawRecord) record).content();
+                    final byte[] address = new byte[content.readableBytes()];
+                    content.getBytes(content.readerIndex(), address);
+                    try {
+                        addresses.add(InetAddress.getByAddress(name, address));
+                    } catch (UnknownHostException e) {
+                        logger.debug("Ignoring invalid address record for " + name, e);
+                    }
+                }
+            }
+            return new Answer(addresses, ttlSeconds, null);
+        }
+    }
+
+    /**
+     * Tracks the addresses of a host name for a {@link #hosts(String, int)} subscriber. All state is only accessed on
+     * the resolver's event loop.
+     */
+    private final class HostTracker implements Runnable {
+
+        private final String hostname;
+        private final int port;
+        private final Subscriber<? super Host> subscriber;
+        private final Map<InetAddress, PublishSubject<Void>> current = new HashMap<>();
+        private ScheduledFuture<?> nextRefresh;
+        private volatile boolean shutdown;
+
+        private HostTracker(String hostname, int port, Subscriber<? super Host> subscriber) {
+            this.hostname = hostname;
+            this.port = port;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void run() {
+            if (shutdown) {
+                return;
+            }
+            resolution(hostname).subscribe(new Action1<Resolution>() {
+                @Override
+                public void call(Resolution resolution) {
+                    update(resolution);
+                }
+            }, new Action1<Throwable>() {
+                @Override
+                public void call(Throwable throwable) {
+                    logger.warn("Failed to resolve " + hostname + ", retaining current hosts.", throwable);
+                    scheduleRefresh(Math.max(MIN_REFRESH_NANOS, SECONDS.toNanos(config.getNegativeTtlSeconds())));
+                }
+            });
+        }
+
+        private void update(Resolution resolution) {
+            if (shutdown) {
+                return;
+            }
+
+            final Set<InetAddress> latest = new HashSet<>(resolution.addresses);
+            final Iterator<Entry<InetAddress, PublishSubject<Void>>> it = current.entrySet().iterator();
+            while (it.hasNext()) {
+                final Entry<InetAddress, PublishSubject<Void>> next = it.next();
+                if (!latest.contains(next.getKey())) {
+                    it.remove();
+                    next.getValue().onCompleted();
+                }
+            }
+
+            for (InetAddress address : resolution.addresses) {
+                if (!current.containsKey(address)) {
+                    final PublishSubject<Void> closeNotifier = PublishSubject.create();
+                    current.put(address, closeNotifier);
+                    subscriber.onNext(new Host(new InetSocketAddress(address, port), closeNotifier));
+                }
+            }
+
+            if (!resolution.permanent) {
+                scheduleRefresh(Math.max(MIN_REFRESH_NANOS, resolution.expiresAtNanos - System.nanoTime()));
+            }
+        }
+
+        private void scheduleRefresh(long delayNanos) {
+            if (!shutdown) {
+                nextRefresh = eventLoop.schedule(this, delayNanos, NANOSECONDS);
+            }
+        }
+
+        private void shutdown() {
+            shutdown = true;
+            eventLoop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (null != nextRefresh) {
+                        nextRefresh.cancel(false);
+                    }
+                    for (PublishSubject<Void> closeNotifier : current.values()) {
+                        closeNotifier.onCompleted();
+                    }
+                    current.clear();
+                }
+            });
+        }
+    }
+}
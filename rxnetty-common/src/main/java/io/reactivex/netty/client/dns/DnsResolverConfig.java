@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.dns;
+
+import io.netty.channel.EventLoop;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A configuration for a {@link DnsResolver}.
+ */
+public class DnsResolverConfig {
+
+    public static final long DEFAULT_MAX_TTL_SECONDS = TimeUnit.DAYS.toSeconds(1);
+    public static final long DEFAULT_NEGATIVE_TTL_SECONDS = 30;
+    public static final long DEFAULT_QUERY_TIMEOUT_MILLIS = 5000;
+
+    private final List<InetSocketAddress> nameServers = new ArrayList<>();
+    private EventLoop eventLoop;
+    private long minTtlSeconds;
+    private long maxTtlSeconds;
+    private long negativeTtlSeconds;
+    private long queryTimeoutMillis;
+    private boolean resolveIpv6;
+
+    public DnsResolverConfig() {
+        maxTtlSeconds = DEFAULT_MAX_TTL_SECONDS;
+        negativeTtlSeconds = DEFAULT_NEGATIVE_TTL_SECONDS;
+        queryTimeoutMillis = DEFAULT_QUERY_TIMEOUT_MILLIS;
+        resolveIpv6 = true;
+    }
+
+    /**
+     * Adds a name server to query. If no name server is added, the name servers configured for the system are used.
+     *
+     * @param nameServer Address of the name server.
+     *
+     * @return This config.
+     */
+    public DnsResolverConfig nameServer(InetSocketAddress nameServer) {
+        nameServers.add(nameServer);
+        return this;
+    }
+
+    /**
+     * Event loop used for DNS queries and for re-resolving host streams. If not set, an event loop of the global client
+     * event loop group (for the NIO transport) is used.
+     *
+     * @param eventLoop Event loop to use.
+     *
+     * @return This config.
+     */
+    public DnsResolverConfig eventLoop(EventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+        return this;
+    }
+
+    /**
+     * Bounds the time to live of the resolved addresses, overriding the time to live of the records, if outside these
+     * bounds.
+     *
+     * @param minTtl Minimum time to live.
+     * @param maxTtl Maximum time to live.
+     * @param timeUnit Time unit for the time to live.
+     *
+     * @return This config.
+     */
+    public DnsResolverConfig ttl(long minTtl, long maxTtl, TimeUnit timeUnit) {
+        if (minTtl > maxTtl) {
+            throw new IllegalArgumentException("Minimum TTL can not be more than the maximum TTL.");
+        }
+        minTtlSeconds = timeUnit.toSeconds(minTtl);
+        maxTtlSeconds = timeUnit.toSeconds(maxTtl);
+        return this;
+    }
+
+    /**
+     * Time for which a host name that does not exist (or has no addresses) is cached.
+     *
+     * @param negativeTtl Time to live for negative answers, {@code 0} to disable negative caching.
+     * @param timeUnit Time unit for the time to live.
+     *
+     * @return This config.
+     */
+    public DnsResolverConfig negativeTtl(long negativeTtl, TimeUnit timeUnit) {
+        negativeTtlSeconds = timeUnit.toSeconds(negativeTtl);
+        return this;
+    }
+
+    public DnsResolverConfig queryTimeout(long queryTimeout, TimeUnit timeUnit) {
+        queryTimeoutMillis = timeUnit.toMillis(queryTimeout);
+        return this;
+    }
+
+    /**
+     * Enables/disables querying {@code AAAA} records along with {@code A} records. Enabled by default.
+     *
+     * @param resolveIpv6 {@code true} to query {@code AAAA} records.
+     *
+     * @return This config.
+     */
+    public DnsResolverConfig resolveIpv6(boolean resolveIpv6) {
+        this.resolveIpv6 = resolveIpv6;
+        return this;
+    }
+
+    public List<InetSocketAddress> getNameServers() {
+        return Collections.unmodifiableList(nameServers);
+    }
+
+    public EventLoop getEventLoop() {
+        return eventLoop;
+    }
+
+    public long getMinTtlSeconds() {
+        return minTtlSeconds;
+    }
+
+    public long getMaxTtlSeconds() {
+        return maxTtlSeconds;
+    }
+
+    public long getNegativeTtlSeconds() {
+        return negativeTtlSeconds;
+    }
+
+    public long getQueryTimeoutMillis() {
+        return queryTimeoutMillis;
+    }
+
+    public boolean isResolveIpv6() {
+        return resolveIpv6;
+    }
+}
@@ -47,6 +47,28 @@ public class ClientEventListener extends ConnectionEventListener {
     @SuppressWarnings("unused")
     public void onConnectFailed(long duration, TimeUnit timeUnit, Throwable throwable) {}
 
+    /**
+     * Event whenever a TLS handshake on a new connection completes successfully. This is only published for clients
+     * secured with {@code io.reactivex.netty.ssl.ClientSslCodec}.
+     *
+     * @param duration Duration between handshake start and completion.
+     * @param timeUnit Timeunit for the duration.
+     * @param sessionResumed {@code true} if a previously negotiated TLS session was resumed.
+     */
+    @SuppressWarnings("unused")
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {}
+
+    /**
+     * Event whenever a TLS handshake on a new connection failed. This is only published for clients secured with
+     * {@code io.reactivex.netty.ssl.ClientSslCodec}.
+     *
+     * @param duration Duration between handshake start and failure.
+     * @param timeUnit Timeunit for the duration.
+     * @param throwable Error that caused the failure.
+     */
+    @SuppressWarnings("unused")
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable throwable) {}
+
     /**
      * Event whenever a connection release to the pool is initiated (by closing the connection)
      */
@@ -49,6 +49,10 @@ public abstract class AbstractP2CStrategy<W, R, L extends ClientEventListener> i
                         noUsableHostsFound();
                         return Observable.error(new NoHostsAvailableException("No usable hosts found."));
                     }
+                    if (!tryAcquirePermission(eventListener)) {
+                        noUsableHostsFound();
+                        return Observable.error(new NoHostsAvailableException("Circuit open for the only host."));
+                    }
                     selected = holder;
                 } else {
                     ThreadLocalRandom rand = ThreadLocalRandom.current();
@@ -59,21 +63,32 @@ public abstract class AbstractP2CStrategy<W, R, L extends ClientEventListener> i
                         HostHolder<W, R> second = hosts.get(pos2);
 
                         @SuppressWarnings("unchecked")
-                        double w1 = getWeight((L) first.getEventListener());
+                        L l1 = (L) first.getEventListener();
                         @SuppressWarnings("unchecked")
-                        double w2 = getWeight((L) second.getEventListener());
+                        L l2 = (L) second.getEventListener();
+                        double w1 = getWeight(l1);
+                        double w2 = getWeight(l2);
+                        boolean usable1 = !isUnusable(w1) && isCallPermitted(l1);
+                        boolean usable2 = !isUnusable(w2) && isCallPermitted(l2);
+
+                        if (!usable1 && !usable2) {
+                            foundTwoUnusableHosts();
+                            continue;
+                        }
 
-                        if (w1 > w2) {
+                        L selectedListener;
+                        if (usable1 && (!usable2 || w1 >= w2)) {
                             selected = first;
-                            break;
-                        } else if (w1 < w2) {
+                            selectedListener = l1;
+                        } else {
                             selected = second;
-                            break;
-                        } else if (!isUnusable(w1)) {
-                            selected = first;
+                            selectedListener = l2;
+                        }
+
+                        if (tryAcquirePermission(selectedListener)) {
                             break;
                         }
-                        foundTwoUnusableHosts();
+                        selected = null; // Lost the trial request of a half-open circuit to a concurrent request.
                     }
                     if (null == selected) {
                         noUsableHostsFound();
@@ -90,6 +105,19 @@ public abstract class AbstractP2CStrategy<W, R, L extends ClientEventListener> i
         return weight < 0.0;
     }
 
+    /**
+     * Returns the circuit breaker for the host to which the passed listener is attached. A host with a circuit that
+     * does not permit requests is treated as unusable. If no host is usable, the connection request fails fast with
+     * a {@link NoHostsAvailableException}.
+     *
+     * @param listener Listener for the host, as created by {@link #newListener(Host)}.
+     *
+     * @return The circuit breaker for the host, {@code null} (default) if the host does not have a circuit breaker.
+     */
+    protected CircuitBreaker getCircuitBreaker(L listener) {
+        return null;
+    }
+
     @Override
     public HostHolder<W, R> toHolder(HostConnector<W, R> connector) {
         return new HostHolder<>(connector, newListener(connector.getHost()));
@@ -99,6 +127,16 @@ public abstract class AbstractP2CStrategy<W, R, L extends ClientEventListener> i
 
     protected abstract double getWeight(L listener);
 
+    private boolean isCallPermitted(L listener) {
+        CircuitBreaker circuitBreaker = getCircuitBreaker(listener);
+        return null == circuitBreaker || circuitBreaker.isCallPermitted();
+    }
+
+    private boolean tryAcquirePermission(L listener) {
+        CircuitBreaker circuitBreaker = getCircuitBreaker(listener);
+        return null == circuitBreaker || circuitBreaker.tryAcquirePermission();
+    }
+
     protected void noUsableHostsFound() {
         // No Op by default
     }
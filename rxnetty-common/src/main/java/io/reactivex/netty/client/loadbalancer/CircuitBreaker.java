@@ -0,0 +1,241 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * A circuit breaker for a single host, used by {@link AbstractP2CStrategy} to stop sending requests to a failing host.
+ *
+ * <h2>States</h2>
+ *
+ * <ul>
+ * <li>{@link State#Closed}: Requests are permitted and their results are recorded in a rolling window. When the
+ * window has at least the configured minimum results and the failure rate reaches the configured threshold, the
+ * circuit opens.</li>
+ * <li>{@link State#Open}: No request is permitted till the configured open duration elapses, after which the circuit
+ * is half-open.</li>
+ * <li>{@link State#HalfOpen}: A single trial request is permitted. A success closes the circuit and a failure opens it
+ * again. If the result of the trial is not reported within the open duration, another trial is permitted.</li>
+ * </ul>
+ *
+ * Results are reported by an event listener of the host via {@link #onSuccess(long, TimeUnit)} and
+ * {@link #onFailure(long, TimeUnit)}, with the time elapsed since the request started. As results are not otherwise
+ * correlated with requests, the elapsed time tells the result of the trial apart from late results of requests started
+ * before the trial (eg: before the circuit opened), which do not change the state of a half-open circuit. Results
+ * reported via {@link #onSuccess()} and {@link #onFailure()} have an unknown start and hence are also ignored by a
+ * half-open circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        Closed,
+        Open,
+        HalfOpen
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumRequests;
+    private final long bucketNanos;
+    private final long openDurationNanos;
+    private final int[] successes;
+    private final int[] failures;
+
+    private State state = State.Closed;
+    private int currentBucket;
+    private long currentBucketStartNanos;
+    private long openedAtNanos;
+    private long trialStartNanos;
+    private boolean trialInProgress;
+
+    public CircuitBreaker() {
+        this(new CircuitBreakerConfig());
+    }
+
+    public CircuitBreaker(CircuitBreakerConfig config) {
+        failureRateThreshold = config.getFailureRateThreshold();
+        minimumRequests = config.getMinimumRequests();
+        bucketNanos = MILLISECONDS.toNanos(config.getWindowMillis()) / config.getWindowBuckets();
+        openDurationNanos = MILLISECONDS.toNanos(config.getOpenDurationMillis());
+        successes = new int[config.getWindowBuckets()];
+        failures = new int[config.getWindowBuckets()];
+        currentBucketStartNanos = System.nanoTime();
+    }
+
+    public synchronized State getState() {
+        updateState(System.nanoTime());
+        return state;
+    }
+
+    /**
+     * Returns {@code true} if a request would be permitted now, without acquiring the permission.
+     *
+     * @return {@code true} if a request would be permitted now.
+     */
+    public synchronized boolean isCallPermitted() {
+        final long nowNanos = System.nanoTime();
+        updateState(nowNanos);
+        return isCallPermitted(nowNanos);
+    }
+
+    /**
+     * Acquires the permission to send a request. For a half-open circuit, this starts the trial request.
+     *
+     * @return {@code true} if the request is permitted.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        final long nowNanos = System.nanoTime();
+        updateState(nowNanos);
+        if (!isCallPermitted(nowNanos)) {
+            return false;
+        }
+        if (State.HalfOpen == state) {
+            trialInProgress = true;
+            trialStartNanos = nowNanos;
+        }
+        return true;
+    }
+
+    /**
+     * Records a successful request, whose start is unknown.
+     */
+    public void onSuccess() {
+        onResult(true, false, 0);
+    }
+
+    /**
+     * Records a successful request.
+     *
+     * @param elapsed Time elapsed since the request started.
+     * @param timeUnit Time unit for the elapsed time.
+     */
+    public void onSuccess(long elapsed, TimeUnit timeUnit) {
+        onResult(true, true, System.nanoTime() - timeUnit.toNanos(elapsed));
+    }
+
+    /**
+     * Records a failed request, whose start is unknown.
+     */
+    public void onFailure() {
+        onResult(false, false, 0);
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @param elapsed Time elapsed since the request started.
+     * @param timeUnit Time unit for the elapsed time.
+     */
+    public void onFailure(long elapsed, TimeUnit timeUnit) {
+        onResult(false, true, System.nanoTime() - timeUnit.toNanos(elapsed));
+    }
+
+    private synchronized void onResult(boolean success, boolean startKnown, long startNanos) {
+        final long nowNanos = System.nanoTime();
+        updateState(nowNanos);
+        switch (state) {
+        case Closed:
+            rotate(nowNanos);
+            if (success) {
+                successes[currentBucket]++;
+            } else {
+                failures[currentBucket]++;
+                if (isFailureRateExceeded()) {
+                    open(nowNanos);
+                }
+            }
+            break;
+        case HalfOpen:
+            if (!trialInProgress || !startKnown || startNanos - trialStartNanos < 0) {
+                break; // Not the result of the trial request.
+            }
+            if (success) {
+                close(nowNanos);
+            } else {
+                open(nowNanos);
+            }
+            break;
+        case Open:
+            break; // Result of a request sent before the circuit opened.
+        }
+    }
+
+    private boolean isCallPermitted(long nowNanos) {
+        switch (state) {
+        case Closed:
+            return true;
+        case HalfOpen:
+            return !trialInProgress || nowNanos - trialStartNanos >= openDurationNanos;
+        default:
+            return false;
+        }
+    }
+
+    private void updateState(long nowNanos) {
+        if (State.Open == state && nowNanos - openedAtNanos >= openDurationNanos) {
+            state = State.HalfOpen;
+            trialInProgress = false;
+        }
+    }
+
+    private boolean isFailureRateExceeded() {
+        int total = 0;
+        int failed = 0;
+        for (int i = 0; i < successes.length; i++) {
+            total += successes[i] + failures[i];
+            failed += failures[i];
+        }
+        return total >= minimumRequests && failed >= failureRateThreshold * total;
+    }
+
+    /**
+     * Moves the current bucket forward to the bucket for the passed time, clearing buckets that fell out of the window.
+     */
+    private void rotate(long nowNanos) {
+        final long elapsedBuckets = (nowNanos - currentBucketStartNanos) / bucketNanos;
+        if (elapsedBuckets <= 0) {
+            return;
+        }
+        final int toClear = (int) Math.min(elapsedBuckets, successes.length);
+        for (int i = 1; i <= toClear; i++) {
+            final int bucket = (currentBucket + i) % successes.length;
+            successes[bucket] = 0;
+            failures[bucket] = 0;
+        }
+        currentBucket = (int) ((currentBucket + elapsedBuckets) % successes.length);
+        currentBucketStartNanos += elapsedBuckets * bucketNanos;
+    }
+
+    private void open(long nowNanos) {
+        state = State.Open;
+        openedAtNanos = nowNanos;
+        trialInProgress = false;
+    }
+
+    private void close(long nowNanos) {
+        state = State.Closed;
+        trialInProgress = false;
+        for (int i = 0; i < successes.length; i++) {
+            successes[i] = 0;
+            failures[i] = 0;
+        }
+        currentBucket = 0;
+        currentBucketStartNanos = nowNanos;
+    }
+}
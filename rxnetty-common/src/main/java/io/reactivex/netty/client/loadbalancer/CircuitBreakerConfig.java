@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A configuration for a {@link CircuitBreaker}.
+ */
+public class CircuitBreakerConfig {
+
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    public static final int DEFAULT_MINIMUM_REQUESTS = 20;
+    public static final long DEFAULT_WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    public static final int DEFAULT_WINDOW_BUCKETS = 10;
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private double failureRateThreshold;
+    private int minimumRequests;
+    private long windowMillis;
+    private int windowBuckets;
+    private long openDurationMillis;
+
+    public CircuitBreakerConfig() {
+        failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        minimumRequests = DEFAULT_MINIMUM_REQUESTS;
+        windowMillis = DEFAULT_WINDOW_MILLIS;
+        windowBuckets = DEFAULT_WINDOW_BUCKETS;
+        openDurationMillis = DEFAULT_OPEN_DURATION_MILLIS;
+    }
+
+    /**
+     * Failure rate in the rolling window, at or above which the circuit opens.
+     *
+     * @param failureRateThreshold Failure rate between {@code 0} (exclusive) and {@code 1} (inclusive).
+     *
+     * @return This config.
+     */
+    public CircuitBreakerConfig failureRateThreshold(double failureRateThreshold) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1], found: "
+                                               + failureRateThreshold);
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    /**
+     * Minimum number of results in the rolling window, before the failure rate is evaluated. This avoids opening the
+     * circuit on a few failures after a period of low traffic.
+     *
+     * @param minimumRequests Minimum number of results.
+     *
+     * @return This config.
+     */
+    public CircuitBreakerConfig minimumRequests(int minimumRequests) {
+        if (minimumRequests < 1) {
+            throw new IllegalArgumentException("Minimum requests must be at least 1, found: " + minimumRequests);
+        }
+        this.minimumRequests = minimumRequests;
+        return this;
+    }
+
+    /**
+     * Duration of the rolling window over which the failure rate is computed. The window slides in
+     * {@code window/buckets} steps.
+     *
+     * @param window Duration of the window.
+     * @param buckets Number of buckets in the window.
+     * @param timeUnit Time unit for the window.
+     *
+     * @return This config.
+     */
+    public CircuitBreakerConfig window(long window, int buckets, TimeUnit timeUnit) {
+        if (buckets < 1 || timeUnit.toMillis(window) < buckets) {
+            throw new IllegalArgumentException("Window must be at least a millisecond per bucket.");
+        }
+        windowMillis = timeUnit.toMillis(window);
+        windowBuckets = buckets;
+        return this;
+    }
+
+    /**
+     * Time for which an open circuit rejects all requests, before allowing a trial request.
+     *
+     * @param openDuration Duration for which the circuit stays open.
+     * @param timeUnit Time unit for the duration.
+     *
+     * @return This config.
+     */
+    public CircuitBreakerConfig openDuration(long openDuration, TimeUnit timeUnit) {
+        openDurationMillis = timeUnit.toMillis(openDuration);
+        return this;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public int getMinimumRequests() {
+        return minimumRequests;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public int getWindowBuckets() {
+        return windowBuckets;
+    }
+
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.pool;
+
+import rx.Observable;
+
+/**
+ * A validator of idle connections in a pool, used to find connections that are broken without the channel being
+ * closed (eg: a connection silently dropped by a firewall or a load balancer), before a request is sent on them.
+ *
+ * Validation is performed by {@link PooledConnectionProviderImpl} on every tick of the idle connections cleanup
+ * timer ({@link PoolConfig#getIdleConnectionsCleanupTimer()}), so it never adds latency to acquiring a connection.
+ * While a connection is being validated, it is removed from the pool and hence not available to any request. Closing
+ * the connection during validation (eg: as an HTTP client does when a response completes) does not return it to the
+ * pool, the pool returns or discards the connection based on the result of the validation.
+ *
+ * @param <W> Type of object that is written to the connections validated by this validator.
+ * @param <R> Type of object that is read from the connections validated by this validator.
+ */
+public interface IdleConnectionValidator<W, R> {
+
+    /**
+     * Validates the passed idle connection.
+     *
+     * @param connection Connection to validate.
+     *
+     * @return An {@link Observable} emitting {@code true} if the connection is healthy. If the stream emits
+     * {@code false}, completes without emitting or emits an error, the connection is discarded.
+     */
+    Observable<Boolean> validate(PooledConnection<R, W> connection);
+}
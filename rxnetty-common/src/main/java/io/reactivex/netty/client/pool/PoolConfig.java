@@ -23,20 +23,37 @@ import java.util.concurrent.TimeUnit;
 /**
  * A configuration for connection pooling for a client.
  *
+ * <h2>Detecting broken idle connections</h2>
+ *
+ * A connection that is broken without being closed (eg: dropped by a firewall or a load balancer) is, by default,
+ * only detected when a request is sent on it. Such connections can be detected earlier by:
+ *
+ * <ul>
+ <li>Enabling TCP keep-alive on the client using {@code ChannelOption.SO_KEEPALIVE} (and, with the native transport,
+ {@code EpollChannelOption.TCP_KEEPIDLE} to send probes sooner than the OS default).</li>
+ <li>Providing an {@link IdleConnectionValidator} with {@link #idleConnectionValidator(IdleConnectionValidator)}, which
+ sends an application level probe on every idle connection, on every tick of the idle connections cleanup timer.</li>
+ </ul>
+ *
  * @param <W> Type of object that is written to the client using this pool config.
  * @param <R> Type of object that is read from the the client using this pool config.
  */
 public class PoolConfig<W, R> {
 
     public static final long DEFAULT_MAX_IDLE_TIME_MILLIS = TimeUnit.MILLISECONDS.convert(30, TimeUnit.SECONDS);
+    public static final long DEFAULT_IDLE_VALIDATION_TIMEOUT_MILLIS =
+            TimeUnit.MILLISECONDS.convert(5, TimeUnit.SECONDS);
 
     private Observable<Long> idleConnCleanupTicker;
     private PoolLimitDeterminationStrategy limitDeterminationStrategy;
     private IdleConnectionsHolder<W, R> idleConnectionsHolder;
     private long maxIdleTimeMillis;
+    private IdleConnectionValidator<W, R> idleConnectionValidator;
+    private long idleValidationTimeoutMillis;
 
     public PoolConfig() {
         maxIdleTimeMillis = DEFAULT_MAX_IDLE_TIME_MILLIS;
+        idleValidationTimeoutMillis = DEFAULT_IDLE_VALIDATION_TIMEOUT_MILLIS;
         idleConnCleanupTicker = Observable.interval(maxIdleTimeMillis, maxIdleTimeMillis, TimeUnit.MILLISECONDS);
         idleConnectionsHolder = new FIFOIdleConnectionsHolder<>();
         limitDeterminationStrategy = UnboundedPoolLimitDeterminationStrategy.INSTANCE;
@@ -90,4 +107,40 @@ public class PoolConfig<W, R> {
     public Observable<Long> getIdleConnCleanupTicker() {
         return idleConnCleanupTicker;
     }
+
+    /**
+     * Validates idle connections using the passed validator, on every tick of the idle connections cleanup timer.
+     *
+     * @param validator Validator for the idle connections.
+     *
+     * @return This config.
+     */
+    public PoolConfig<W, R> idleConnectionValidator(IdleConnectionValidator<W, R> validator) {
+        idleConnectionValidator = validator;
+        return this;
+    }
+
+    /**
+     * Maximum time for the validation of an idle connection, after which the connection is discarded.
+     *
+     * @param timeout Validation timeout.
+     * @param timeUnit Timeunit for the timeout.
+     *
+     * @return This config.
+     */
+    public PoolConfig<W, R> idleConnectionValidationTimeout(long timeout, TimeUnit timeUnit) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Validation timeout must be positive.");
+        }
+        idleValidationTimeoutMillis = TimeUnit.MILLISECONDS.convert(timeout, timeUnit);
+        return this;
+    }
+
+    public IdleConnectionValidator<W, R> getIdleConnectionValidator() {
+        return idleConnectionValidator;
+    }
+
+    public long getIdleValidationTimeoutMillis() {
+        return idleValidationTimeoutMillis;
+    }
 }
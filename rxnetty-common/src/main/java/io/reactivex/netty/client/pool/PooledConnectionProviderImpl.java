@@ -16,6 +16,7 @@
  */
 package io.reactivex.netty.client.pool;
 
+import io.netty.util.AttributeKey;
 import io.reactivex.netty.channel.Connection;
 import io.reactivex.netty.client.ClientConnectionToChannelBridge.PooledConnectionReleaseEvent;
 import io.reactivex.netty.client.HostConnector;
@@ -34,6 +35,11 @@ import rx.functions.Action1;
 import rx.functions.Actions;
 import rx.functions.Func1;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static io.reactivex.netty.events.EventAttributeKeys.*;
 import static java.util.concurrent.TimeUnit.*;
 
@@ -47,6 +53,8 @@ import static java.util.concurrent.TimeUnit.*;
  created as part of the user request.</li>
  <li>{@link PoolConfig#getIdleConnectionsCleanupTimer()}: The schedule for cleaning up idle connections in the pool.</li>
  <li>{@link PoolConfig#getMaxIdleTimeMillis()}: Maximum time a connection can be idle in this pool.</li>
+ <li>{@link PoolConfig#getIdleConnectionValidator()}: An optional validator for idle connections, run on the cleanup
+ schedule.</li>
  </ul>
  *
  * @param <W> Type of object that is written to the client using this factory.
@@ -56,12 +64,20 @@ public final class PooledConnectionProviderImpl<W, R> extends PooledConnectionPr
 
     private static final Logger logger = LoggerFactory.getLogger(PooledConnectionProviderImpl.class);
 
+    /*A connection may be discarded more than once (eg: a discard closes the channel, which releases the connection
+    again), but the permit it holds must only be released once.*/
+    private static final AttributeKey<Boolean> PERMIT_RELEASED =
+            AttributeKey.valueOf("rxnetty_pool_permit_released");
+
     private final Subscription idleConnCleanupSubscription;
     private final IdleConnectionsHolder<W, R> idleConnectionsHolder;
 
     private final PoolLimitDeterminationStrategy limitDeterminationStrategy;
     private final long maxIdleTimeMillis;
     private final HostConnector<W, R> hostConnector;
+    private final IdleConnectionValidator<W, R> idleConnectionValidator;
+    private final long idleValidationTimeoutMillis;
+    private final Set<PooledConnection<R, W>> underValidation;
     private volatile boolean isShutdown;
 
     public PooledConnectionProviderImpl(PoolConfig<W, R> poolConfig, HostConnector<W, R> hostConnector) {
@@ -69,6 +85,9 @@ public final class PooledConnectionProviderImpl<W, R> extends PooledConnectionPr
         idleConnectionsHolder = poolConfig.getIdleConnectionsHolder();
         limitDeterminationStrategy = poolConfig.getPoolLimitDeterminationStrategy();
         maxIdleTimeMillis = poolConfig.getMaxIdleTimeMillis();
+        idleConnectionValidator = poolConfig.getIdleConnectionValidator();
+        idleValidationTimeoutMillis = poolConfig.getIdleValidationTimeoutMillis();
+        underValidation = Collections.newSetFromMap(new ConcurrentHashMap<PooledConnection<R, W>, Boolean>());
         // In case, there is no cleanup required, this observable should never give a tick.
         idleConnCleanupSubscription = poolConfig.getIdleConnCleanupTicker()
             .doOnError(LogErrorAction.INSTANCE)
@@ -91,6 +110,14 @@ public final class PooledConnectionProviderImpl<W, R> extends PooledConnectionPr
                          public void call() {
                              isShutdown = true;
                              idleConnCleanupSubscription.unsubscribe();
+                             /*No connection is acquired after shutdown, so close the idle ones right away.*/
+                             idleConnectionsHolder.poll()
+                                                  .subscribe(new Action1<PooledConnection<R, W>>() {
+                                                      @Override
+                                                      public void call(PooledConnection<R, W> idle) {
+                                                          discardNow(idle);
+                                                      }
+                                                  });
                          }
                      })
                      .onErrorResumeNext(new Func1<Throwable, Observable<Void>>() {
@@ -156,6 +183,10 @@ public final class PooledConnectionProviderImpl<W, R> extends PooledConnectionPr
 
     @Override
     public Observable<Void> discard(final PooledConnection<?, ?> connection) {
+        if (underValidation.contains(connection)) {
+            /*Discarded, if required, when the validation completes.*/
+            return Observable.empty();
+        }
         return connection.discard().doOnSubscribe(new Action0() {
             @Override
             public void call() {
@@ -165,7 +196,9 @@ public final class PooledConnectionProviderImpl<W, R> extends PooledConnectionPr
                                                                      .attr(CLIENT_EVENT_LISTENER).get();
                     eventListener.onPooledConnectionEviction();
                 }
-                limitDeterminationStrategy.releasePermit();/*Since, an idle connection took a permit*/
+                if (!Boolean.TRUE.equals(connection.unsafeNettyChannel().attr(PERMIT_RELEASED).getAndSet(true))) {
+                    limitDeterminationStrategy.releasePermit();/*Since, an idle connection took a permit*/
+                }
             }
         });
     }
@@ -209,6 +242,50 @@ public final class PooledConnectionProviderImpl<W, R> extends PooledConnectionPr
         });
     }
 
+    private Observable<Void> validate(final PooledConnection<R, W> connection) {
+        underValidation.add(connection);
+        return Observable.create(new OnSubscribe<PooledConnection<R, W>>() {
+            @Override
+            public void call(Subscriber<? super PooledConnection<R, W>> subscriber) {
+                connection.reuse(subscriber); /*Resets the state of the connection, same as for a request.*/
+            }
+        }).take(1)
+          .flatMap(new Func1<PooledConnection<R, W>, Observable<Boolean>>() {
+              @Override
+              public Observable<Boolean> call(PooledConnection<R, W> c) {
+                  return idleConnectionValidator.validate(c);
+              }
+          })
+          .timeout(idleValidationTimeoutMillis, MILLISECONDS)
+          .firstOrDefault(false)
+          .onErrorReturn(new Func1<Throwable, Boolean>() {
+              @Override
+              public Boolean call(Throwable throwable) {
+                  logger.debug("Idle connection validation failed, discarding the connection.", throwable);
+                  return false;
+              }
+          })
+          .map(new Func1<Boolean, Void>() {
+              @Override
+              public Void call(final Boolean healthy) {
+                  /*Executed on the eventloop, after any release of the connection by the validator.*/
+                  connection.unsafeNettyChannel().eventLoop().execute(new Runnable() {
+                      @Override
+                      public void run() {
+                          underValidation.remove(connection);
+                          if (healthy && !isShutdown && connection.isUsable()) {
+                              idleConnectionsHolder.add(connection);
+                          } else {
+                              discardNow(connection);
+                          }
+                      }
+                  });
+                  return null;
+              }
+          })
+          .ignoreElements();
+    }
+
     private static class LogErrorAction implements Action1<Throwable> {
 
         public static final LogErrorAction INSTANCE = new LogErrorAction();
@@ -222,17 +299,30 @@ public final class PooledConnectionProviderImpl<W, R> extends PooledConnectionPr
     private class IdleConnectionCleanupTask implements Func1<Long, Observable<Void>> {
         @Override
         public Observable<Void> call(Long aLong) {
+            /*Snapshot the idle connections, as validated connections are added back to the holder.*/
             return idleConnectionsHolder.peek()
-                                        .map(new Func1<PooledConnection<R, W>, Void>() {
+                                        .toList()
+                                        .flatMap(new Func1<List<PooledConnection<R, W>>, Observable<Void>>() {
                                             @Override
-                                            public Void call(PooledConnection<R, W> connection) {
-                                                if (!connection.isUsable()) {
-                                                    idleConnectionsHolder.remove(connection);
-                                                    discardNow(connection);
-                                                }
-                                                return null;
+                                            public Observable<Void> call(List<PooledConnection<R, W>> idle) {
+                                                return Observable.from(idle)
+                                                                 .flatMap(new IdleConnectionCheck());
                                             }
-                                        }).ignoreElements();
+                                        });
+        }
+    }
+
+    private class IdleConnectionCheck implements Func1<PooledConnection<R, W>, Observable<Void>> {
+        @Override
+        public Observable<Void> call(PooledConnection<R, W> connection) {
+            if (!connection.isUsable()) {
+                idleConnectionsHolder.remove(connection);
+                discardNow(connection);
+            } else if (null != idleConnectionValidator && idleConnectionsHolder.remove(connection)) {
+                /*Removed from the holder, so that no request acquires the connection while it is validated.*/
+                return validate(connection);
+            }
+            return Observable.empty();
         }
     }
 
@@ -261,7 +351,8 @@ public final class PooledConnectionProviderImpl<W, R> extends PooledConnectionPr
                 }
                 if (isShutdown || !connection.isUsable()) {
                     discardNow(connection);
-                } else {
+                } else if (!underValidation.contains(connection)) {
+                    /*If closed by a validator, the connection is returned to the pool when the validation completes.*/
                     idleConnectionsHolder.add(connection);
                 }
 
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.net.InetSocketAddress;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * A handler that sends a {@code CONNECT} request on an active channel and waits for the proxy response. The handler
+ * removes itself once the tunnel is established and completes the handshake promise. Any failure fails the promise,
+ * the owner of the promise is responsible to close the channel.
+ *
+ * Since the handler is added before the client pipeline, the response is parsed without the HTTP codec.
+ */
+final class HttpConnectHandler extends ChannelInboundHandlerAdapter {
+
+    private static final int MAX_RESPONSE_HEADER_LENGTH = 8192;
+
+    private final String authority;
+    private final String proxyAuthorization;
+    private final long timeoutMillis;
+    private final ChannelPromise handshakePromise;
+    private ByteBuf response;
+    private ScheduledFuture<?> timeoutFuture;
+
+    HttpConnectHandler(InetSocketAddress target, String proxyAuthorization, long timeoutMillis,
+                       ChannelPromise handshakePromise) {
+        final String host = target.getHostString();
+        authority = (host.indexOf(':') >= 0 ? '[' + host + ']' : host) + ':' + target.getPort();
+        this.proxyAuthorization = proxyAuthorization;
+        this.timeoutMillis = timeoutMillis;
+        this.handshakePromise = handshakePromise;
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
+        response = ctx.alloc().heapBuffer(256);
+
+        if (!ctx.channel().isActive()) {
+            fail(new ProxyConnectException("Connection to the proxy closed before the tunnel was established."));
+            return;
+        }
+
+        if (timeoutMillis > 0) {
+            timeoutFuture = ctx.executor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    fail(new ProxyConnectException("Proxy did not respond to CONNECT " + authority + " within "
+                                                   + timeoutMillis + " milliseconds."));
+                }
+            }, timeoutMillis, MILLISECONDS);
+        }
+
+        final StringBuilder request = new StringBuilder(128);
+        request.append("CONNECT ").append(authority).append(" HTTP/1.1\r\n")
+               .append("Host: ").append(authority).append("\r\n");
+        if (null != proxyAuthorization) {
+            request.append("Proxy-Authorization: ").append(proxyAuthorization).append("\r\n");
+        }
+        request.append("\r\n");
+
+        ctx.writeAndFlush(Unpooled.copiedBuffer(request, CharsetUtil.US_ASCII))
+           .addListener(new ChannelFutureListener() {
+               @Override
+               public void operationComplete(ChannelFuture future) throws Exception {
+                   if (!future.isSuccess()) {
+                       fail(new ProxyConnectException("Failed to send CONNECT to the proxy.", future.cause()));
+                   }
+               }
+           });
+        ctx.read(); // Auto-read is disabled for client channels.
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        if (null != timeoutFuture) {
+            timeoutFuture.cancel(false);
+        }
+        if (null != response) {
+            response.release();
+            response = null;
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (!(msg instanceof ByteBuf) || handshakePromise.isDone()) {
+            ReferenceCountUtil.release(msg);
+            return;
+        }
+
+        final ByteBuf data = (ByteBuf) msg;
+        try {
+            response.writeBytes(data);
+        } finally {
+            data.release();
+        }
+
+        final int headerEnd = indexOfHeaderEnd(response);
+        if (headerEnd < 0) {
+            if (response.readableBytes() > MAX_RESPONSE_HEADER_LENGTH) {
+                fail(new ProxyConnectException("Proxy response to CONNECT exceeds " + MAX_RESPONSE_HEADER_LENGTH
+                                               + " bytes."));
+            } else {
+                ctx.read();
+            }
+            return;
+        }
+
+        final String statusLine = readStatusLine(response);
+        final int statusCode = parseStatusCode(statusLine);
+        if (statusCode < 200 || statusCode >= 300) {
+            fail(new ProxyConnectException("Proxy refused CONNECT " + authority + ": " + statusLine, statusCode));
+            return;
+        }
+
+        /*Anything after the response head belongs to the tunnel.*/
+        response.readerIndex(headerEnd);
+        final ByteBuf remaining = response.isReadable() ? response.retainedSlice() : null;
+        ctx.pipeline().remove(this);
+        handshakePromise.trySuccess();
+        if (null != remaining) {
+            ctx.fireChannelRead(remaining);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        fail(new ProxyConnectException("Connection to the proxy closed before the tunnel was established."));
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        if (!fail(new ProxyConnectException("Failed to establish a tunnel through the proxy.", cause))) {
+            super.exceptionCaught(ctx, cause);
+        }
+    }
+
+    private boolean fail(ProxyConnectException cause) {
+        return handshakePromise.tryFailure(cause);
+    }
+
+    /**
+     * Returns the index after the empty line terminating the response head, or {@code -1} if not yet received.
+     */
+    private static int indexOfHeaderEnd(ByteBuf buffer) {
+        final int end = buffer.writerIndex();
+        for (int i = buffer.readerIndex(); i + 3 < end; i++) {
+            if (buffer.getByte(i) == '\r' && buffer.getByte(i + 1) == '\n'
+                && buffer.getByte(i + 2) == '\r' && buffer.getByte(i + 3) == '\n') {
+                return i + 4;
+            }
+        }
+        return -1;
+    }
+
+    private static String readStatusLine(ByteBuf buffer) {
+        final int start = buffer.readerIndex();
+        int end = start;
+        while (end < buffer.writerIndex() && buffer.getByte(end) != '\r') {
+            end++;
+        }
+        return buffer.toString(start, end - start, CharsetUtil.US_ASCII);
+    }
+
+    private static int parseStatusCode(String statusLine) {
+        /*Status-Line = HTTP-Version SP Status-Code SP Reason-Phrase*/
+        if (!statusLine.startsWith("HTTP/")) {
+            return ProxyConnectException.NO_STATUS;
+        }
+        final int codeStart = statusLine.indexOf(' ') + 1;
+        if (codeStart <= 0 || statusLine.length() < codeStart + 3) {
+            return ProxyConnectException.NO_STATUS;
+        }
+        try {
+            return Integer.parseInt(statusLine.substring(codeStart, codeStart + 3));
+        } catch (NumberFormatException e) {
+            return ProxyConnectException.NO_STATUS;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.base64.Base64;
+import io.netty.util.AttributeKey;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.HandlerNames;
+import io.reactivex.netty.client.ChannelProvider;
+import io.reactivex.netty.client.ChannelProviderFactory;
+import io.reactivex.netty.client.Host;
+import io.reactivex.netty.client.events.ClientEventListener;
+import io.reactivex.netty.events.EventPublisher;
+import io.reactivex.netty.events.EventSource;
+import rx.Observable;
+import rx.Observable.OnSubscribe;
+import rx.Subscriber;
+import rx.functions.Func1;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ChannelProviderFactory} that tunnels every connection through an HTTP forward proxy using {@code CONNECT}
+ * (<a href="https://tools.ietf.org/html/rfc7231#section-4.3.6">RFC 7231, section 4.3.6</a>).
+ *
+ * A client using this factory must connect to the proxy, ie: the hosts of the client are the proxy hosts and the
+ * target of the tunnel is configured here. For every new connection to the proxy, a {@code CONNECT} request for the
+ * target is sent and the connection is handed to the client pipeline only after the proxy accepts the tunnel with a
+ * {@code 2xx} response. Since the client pipeline (including SSL) is added after the tunnel is established, a secure
+ * client negotiates SSL with the target and not with the proxy.
+ *
+ * The handshake is done once per connection, so a pooled client reuses tunnelled connections for the target without
+ * paying for the handshake per request. Since a tunnel is for a single target, a client (and hence a connection pool)
+ * is required per target origin.
+ *
+ * If the proxy rejects the tunnel, closes the connection or does not respond within the handshake timeout, the
+ * connection is closed and the connection request fails with a {@link ProxyConnectException}.
+ *
+ * Instances of this class are immutable.
+ */
+public final class HttpConnectTunnel implements ChannelProviderFactory {
+
+    /**
+     * Attribute set on every tunnelled channel, holding the (unresolved) target address of the tunnel.
+     */
+    public static final AttributeKey<InetSocketAddress> TUNNEL_TARGET =
+            AttributeKey.valueOf("rxnetty_http_connect_tunnel_target");
+
+    public static final long DEFAULT_HANDSHAKE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final InetSocketAddress target;
+    private final String proxyAuthorization;
+    private final long handshakeTimeoutMillis;
+
+    private HttpConnectTunnel(InetSocketAddress target, String proxyAuthorization, long handshakeTimeoutMillis) {
+        this.target = target;
+        this.proxyAuthorization = proxyAuthorization;
+        this.handshakeTimeoutMillis = handshakeTimeoutMillis;
+    }
+
+    /**
+     * Creates a new tunnel factory for the passed target. The target host is sent as-is to the proxy, so it is not
+     * resolved locally.
+     *
+     * @param host Host of the target.
+     * @param port Port of the target.
+     *
+     * @return A new tunnel factory.
+     */
+    public static HttpConnectTunnel to(String host, int port) {
+        return new HttpConnectTunnel(InetSocketAddress.createUnresolved(host, port), null,
+                                     DEFAULT_HANDSHAKE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a new tunnel factory, from this factory, which authenticates with the proxy using basic authentication.
+     *
+     * @param username Username for the proxy.
+     * @param password Password for the proxy.
+     *
+     * @return A new tunnel factory.
+     */
+    public HttpConnectTunnel proxyCredentials(String username, String password) {
+        final ByteBuf credentials = Unpooled.copiedBuffer(username + ':' + password, CharsetUtil.UTF_8);
+        final ByteBuf encoded = Base64.encode(credentials, false);
+        try {
+            return new HttpConnectTunnel(target, "Basic " + encoded.toString(CharsetUtil.US_ASCII),
+                                         handshakeTimeoutMillis);
+        } finally {
+            credentials.release();
+            encoded.release();
+        }
+    }
+
+    /**
+     * Creates a new tunnel factory, from this factory, with the passed handshake timeout.
+     *
+     * @param timeout Maximum time to wait for the proxy to respond to {@code CONNECT}. A non-positive value disables
+     * the timeout.
+     * @param timeUnit Time unit for the timeout.
+     *
+     * @return A new tunnel factory.
+     */
+    public HttpConnectTunnel handshakeTimeout(long timeout, TimeUnit timeUnit) {
+        return new HttpConnectTunnel(target, proxyAuthorization, timeUnit.toMillis(timeout));
+    }
+
+    public InetSocketAddress getTarget() {
+        return target;
+    }
+
+    @Override
+    public ChannelProvider newProvider(Host host, EventSource<? super ClientEventListener> eventSource,
+                                       EventPublisher publisher, ClientEventListener clientPublisher) {
+        return new ChannelProvider() {
+            @Override
+            public Observable<Channel> newChannel(Observable<Channel> input) {
+                return input.flatMap(new Func1<Channel, Observable<Channel>>() {
+                    @Override
+                    public Observable<Channel> call(final Channel channel) {
+                        return establishTunnel(channel);
+                    }
+                });
+            }
+        };
+    }
+
+    private Observable<Channel> establishTunnel(final Channel channel) {
+        return Observable.create(new OnSubscribe<Channel>() {
+            @Override
+            public void call(final Subscriber<? super Channel> subscriber) {
+                final ChannelPromise handshakePromise = channel.newPromise();
+                handshakePromise.addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) throws Exception {
+                        if (future.isSuccess()) {
+                            subscriber.onNext(channel);
+                            subscriber.onCompleted();
+                        } else {
+                            channel.close();
+                            subscriber.onError(future.cause());
+                        }
+                    }
+                });
+                channel.attr(TUNNEL_TARGET).set(target);
+                channel.pipeline().addFirst(HandlerNames.HttpProxyConnectHandler.getName(),
+                                            new HttpConnectHandler(target, proxyAuthorization, handshakeTimeoutMillis,
+                                                                   handshakePromise));
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.proxy;
+
+import java.io.IOException;
+
+/**
+ * Exception raised when a tunnel could not be established through an HTTP proxy using {@code CONNECT}.
+ */
+public class ProxyConnectException extends IOException {
+
+    private static final long serialVersionUID = 2687217305475462386L;
+
+    /**
+     * Status code returned by a proxy, when the proxy did not respond with a status.
+     */
+    public static final int NO_STATUS = -1;
+
+    private final int statusCode;
+
+    public ProxyConnectException(String message) {
+        this(message, NO_STATUS);
+    }
+
+    public ProxyConnectException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public ProxyConnectException(String message, Throwable cause) {
+        super(message, cause);
+        statusCode = NO_STATUS;
+    }
+
+    /**
+     * Returns the status code of the proxy response to {@code CONNECT}.
+     *
+     * @return The status code of the proxy response or {@link #NO_STATUS} if the proxy did not respond.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -150,6 +150,33 @@ public final class ListenersHolder<T extends EventListener> implements EventSour
         }
     }
 
+    /**
+     * Invoke listeners with an action expressed by the passed {@code invocationAction}. This method does the necessary
+     * validations required for invoking a listener and also guards against a listener throwing exceptions on invocation.
+     *
+     * @param invocationAction The action to perform on all listeners.
+     * @param arg1 First count.
+     * @param arg2 Second count.
+     */
+    public void invokeListeners(Action3<T, Long, Long> invocationAction, long arg1, long arg2) {
+        ListenerInvocationException exception = null;
+        for (ListenerHolder<T> listener : listeners) {
+            if (!listener.subscription.isUnsubscribed()) {
+                try {
+                    invocationAction.call(listener.delegate, arg1, arg2);
+                } catch (Throwable e) {
+                    exception = handleListenerError(exception, listener, e);
+                }
+            }
+        }
+
+        if (null != exception) {
+            exception.finish();
+            /*Do not bubble event notification errors to the caller, event notifications are best effort.*/
+            logger.error("Error occured while invoking event listeners.", exception);
+        }
+    }
+
     /**
      * Invoke listeners with an action expressed by the passed {@code invocationAction}. This method does the necessary
      * validations required for invoking a listener and also guards against a listener throwing exceptions on invocation.
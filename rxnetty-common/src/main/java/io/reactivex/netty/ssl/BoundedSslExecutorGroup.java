@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.ssl;
+
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.reactivex.netty.threads.RxDefaultThreadFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link io.netty.util.concurrent.EventExecutorGroup} to offload the {@link io.netty.handler.ssl.SslHandler} from
+ * the event loops, as described in {@link SslCodec}.
+ *
+ * Since every read and write of an established connection is executed on this group, tasks are never rejected, nor
+ * does submitting a task ever block the submitting event loop. Instead, this group bounds the number of handshakes in
+ * progress: when the bound is reached, the handshake of a new connection fails right away and the connection is
+ * closed, without any work being queued on this group. So, saturation only affects new connections.
+ */
+public class BoundedSslExecutorGroup extends DefaultEventExecutorGroup {
+
+    public static final int DEFAULT_MAX_PENDING_HANDSHAKES = 1024;
+
+    private final int maxPendingHandshakes;
+    private final AtomicInteger pendingHandshakes = new AtomicInteger();
+
+    /**
+     * Creates a new group with the passed number of threads and at most {@link #DEFAULT_MAX_PENDING_HANDSHAKES}
+     * handshakes in progress.
+     *
+     * @param nThreads Number of threads in this group.
+     */
+    public BoundedSslExecutorGroup(int nThreads) {
+        this(nThreads, DEFAULT_MAX_PENDING_HANDSHAKES);
+    }
+
+    /**
+     * Creates a new group with the passed number of threads and maximum number of handshakes in progress.
+     *
+     * @param nThreads Number of threads in this group.
+     * @param maxPendingHandshakes Maximum number of handshakes in progress, across all threads.
+     */
+    public BoundedSslExecutorGroup(int nThreads, int maxPendingHandshakes) {
+        super(nThreads, new RxDefaultThreadFactory("rxnetty-ssl-executor"));
+        if (maxPendingHandshakes < 1) {
+            throw new IllegalArgumentException("Max pending handshakes must be positive.");
+        }
+        this.maxPendingHandshakes = maxPendingHandshakes;
+    }
+
+    /**
+     * Returns the number of handshakes currently in progress.
+     *
+     * @return The number of handshakes currently in progress.
+     */
+    public int getPendingHandshakes() {
+        return pendingHandshakes.get();
+    }
+
+    /**
+     * Returns the maximum number of handshakes in progress.
+     *
+     * @return The maximum number of handshakes in progress.
+     */
+    public int getMaxPendingHandshakes() {
+        return maxPendingHandshakes;
+    }
+
+    /*package private*/ boolean tryStartHandshake() {
+        for (;;) {
+            final int current = pendingHandshakes.get();
+            if (current >= maxPendingHandshakes) {
+                return false;
+            }
+            if (pendingHandshakes.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /*package private*/ void onHandshakeComplete() {
+        pendingHandshakes.decrementAndGet();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.ssl;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import io.reactivex.netty.client.events.ClientEventListener;
+import io.reactivex.netty.client.proxy.HttpConnectTunnel;
+import io.reactivex.netty.events.Clock;
+import io.reactivex.netty.events.EventAttributeKeys;
+import io.reactivex.netty.events.EventPublisher;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * An {@link SslCodec} for clients that creates all {@link SSLEngine}s from a single, shared, {@link SslContext}.
+ *
+ * <h2>Session resumption</h2>
+ *
+ * TLS sessions are cached by the {@link SslContext} and looked up using the host and port of the server. Since
+ * every engine created by this codec is created from the same context, for the host and port of the server that the
+ * connection is made to, a new connection to a server resumes the session negotiated by an earlier connection, if
+ * any, instead of performing a full handshake. This matters most for pooled connections, where connections are
+ * recreated frequently, after being evicted from the pool. The session cache size and timeout can be configured
+ * while building the context, using {@code SslContextBuilder#sessionCacheSize(long)} and
+ * {@code SslContextBuilder#sessionTimeout(long)}.
+ *
+ * The server host and port is the remote address of the channel; or the target of a tunnel for connections made via
+ * {@link HttpConnectTunnel}; or the host and port passed to this codec, if any.
+ *
+ * <h2>Hostname verification</h2>
+ *
+ * The certificate of the server is verified to be issued for the server host, as described in
+ * <a href="https://tools.ietf.org/html/rfc2818#section-3.1">RFC 2818</a>, i.e. the {@code HTTPS} endpoint
+ * identification algorithm is enabled on every engine. <b>Without it, any certificate trusted by the context is
+ * accepted for any server</b>, so, a connection can be intercepted by anyone with a certificate trusted by the
+ * context. A connection made to an IP address requires the address to be present in the certificate. A connection
+ * without a server host, eg: over a unix domain socket, is not verified.
+ *
+ * Use {@link #withoutHostnameVerification(SslContext)} only when the identity of the server is established by other
+ * means, eg: in tests with a self-signed certificate.
+ *
+ * <h2>Events</h2>
+ *
+ * The duration of every handshake and whether the session was resumed is published to the client's event listeners
+ * via {@link ClientEventListener#onTlsHandshakeSuccess(long, java.util.concurrent.TimeUnit, boolean)} and
+ * {@link ClientEventListener#onTlsHandshakeFailed(long, java.util.concurrent.TimeUnit, Throwable)}.
+ */
+public class ClientSslCodec extends SslCodec {
+
+    private final SslContext sslContext;
+    private final String peerHost;
+    private final int peerPort;
+    private final boolean verifyHostname;
+
+    /**
+     * Creates a new codec using the passed context and the address of the connected server for session resumption.
+     *
+     * @param sslContext Client context used to create the engines for all connections.
+     */
+    public ClientSslCodec(SslContext sslContext) {
+        this(sslContext, null, -1);
+    }
+
+    /**
+     * Creates a new codec using the passed context and the passed host and port for session resumption and server
+     * name indication. This is useful when the client connects to an address, which is different from the host name
+     * of the server, eg: a resolved IP address.
+     *
+     * @param sslContext Client context used to create the engines for all connections.
+     * @param peerHost Host name of the server.
+     * @param peerPort Port of the server.
+     */
+    public ClientSslCodec(SslContext sslContext, String peerHost, int peerPort) {
+        this(sslContext, peerHost, peerPort, null);
+    }
+
+    /**
+     * Creates a new codec, same as {@link #ClientSslCodec(SslContext, String, int)}, that executes the
+     * {@link SslHandler} on the passed group, instead of the event loop of the channel. See {@link SslCodec} for
+     * details.
+     *
+     * @param sslContext Client context used to create the engines for all connections.
+     * @param peerHost Host name of the server, {@code null} to use the address of the connected server.
+     * @param peerPort Port of the server.
+     * @param sslExecutor Group on which the {@link SslHandler} is executed.
+     */
+    public ClientSslCodec(SslContext sslContext, String peerHost, int peerPort, EventExecutorGroup sslExecutor) {
+        this(sslContext, peerHost, peerPort, sslExecutor, true);
+    }
+
+    /**
+     * Creates a new codec, same as {@link #ClientSslCodec(SslContext, String, int, EventExecutorGroup)}, optionally
+     * disabling hostname verification. See {@link ClientSslCodec} for the implications of disabling hostname
+     * verification.
+     *
+     * @param sslContext Client context used to create the engines for all connections.
+     * @param peerHost Host name of the server, {@code null} to use the address of the connected server.
+     * @param peerPort Port of the server.
+     * @param sslExecutor Group on which the {@link SslHandler} is executed, {@code null} to execute it on the event
+     * loop of the channel.
+     * @param verifyHostname {@code false} to disable hostname verification.
+     */
+    public ClientSslCodec(SslContext sslContext, String peerHost, int peerPort, EventExecutorGroup sslExecutor,
+                          boolean verifyHostname) {
+        super(sslExecutor);
+        if (!sslContext.isClient()) {
+            throw new IllegalArgumentException("SSL context is not a client context.");
+        }
+        this.sslContext = sslContext;
+        this.peerHost = peerHost;
+        this.peerPort = peerPort;
+        this.verifyHostname = verifyHostname;
+    }
+
+    /**
+     * Creates a new codec using the passed context, which does not verify that the certificate of the server is
+     * issued for the server host. <b>This is insecure</b>, see {@link ClientSslCodec} for details.
+     *
+     * @param sslContext Client context used to create the engines for all connections.
+     *
+     * @return A new codec.
+     */
+    public static ClientSslCodec withoutHostnameVerification(SslContext sslContext) {
+        return new ClientSslCodec(sslContext, null, -1, null, false);
+    }
+
+    @Override
+    protected SslHandler newSslHandler(ChannelPipeline pipeline) {
+        final Channel channel = pipeline.channel();
+        final SSLEngine engine = newEngine(channel);
+        final SslHandler toReturn = new SslHandler(engine);
+        final long startTimeNanos = Clock.newStartTimeNanos();
+        final long startTimeMillis = System.currentTimeMillis();
+
+        toReturn.handshakeFuture().addListener(new GenericFutureListener<Future<Channel>>() {
+            @Override
+            public void operationComplete(Future<Channel> future) throws Exception {
+                EventPublisher eventPublisher = channel.attr(EventAttributeKeys.EVENT_PUBLISHER).get();
+                ClientEventListener eventListener = channel.attr(EventAttributeKeys.CLIENT_EVENT_LISTENER).get();
+                if (null == eventPublisher || null == eventListener || !eventPublisher.publishingEnabled()) {
+                    return;
+                }
+
+                if (future.isSuccess()) {
+                    /*A resumed session was created before this handshake started.*/
+                    final SSLSession session = engine.getSession();
+                    final boolean resumed = session.getCreationTime() < startTimeMillis;
+                    eventListener.onTlsHandshakeSuccess(Clock.onEndNanos(startTimeNanos), NANOSECONDS, resumed);
+                } else {
+                    eventListener.onTlsHandshakeFailed(Clock.onEndNanos(startTimeNanos), NANOSECONDS,
+                                                       future.cause());
+                }
+            }
+        });
+
+        configureHandler(toReturn);
+        return toReturn;
+    }
+
+    /**
+     * An optional method that can be overridden to add any custom configurations to the {@link SslHandler} returned
+     * by {@link #newSslHandler(ChannelPipeline)}
+     *
+     * @param handler Handler to configure.
+     */
+    protected void configureHandler(@SuppressWarnings("unused")SslHandler handler) {
+        // No Op ..
+    }
+
+    public SslContext getSslContext() {
+        return sslContext;
+    }
+
+    public boolean isHostnameVerificationEnabled() {
+        return verifyHostname;
+    }
+
+    private SSLEngine newEngine(Channel channel) {
+        if (null != peerHost) {
+            return verifyHostname(sslContext.newEngine(channel.alloc(), peerHost, peerPort));
+        }
+
+        SocketAddress peer = channel.attr(HttpConnectTunnel.TUNNEL_TARGET).get();
+        if (null == peer) {
+            peer = channel.remoteAddress();
+        }
+
+        if (peer instanceof InetSocketAddress) {
+            final InetSocketAddress inetPeer = (InetSocketAddress) peer;
+            /*Don't use host name, as that does a reverse lookup for resolved addresses.*/
+            return verifyHostname(sslContext.newEngine(channel.alloc(), inetPeer.getHostString(),
+                                                       inetPeer.getPort()));
+        }
+
+        /*No host to key sessions, eg: a unix domain socket, so sessions are not resumed and there is no host to
+        verify.*/
+        return sslContext.newEngine(channel.alloc());
+    }
+
+    private SSLEngine verifyHostname(SSLEngine engine) {
+        if (verifyHostname) {
+            /*The engine verifies the certificate against the peer host it is created with.*/
+            final SSLParameters parameters = engine.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS");
+            engine.setSSLParameters(parameters);
+        }
+        return engine;
+    }
+}
@@ -19,6 +19,7 @@ package io.reactivex.netty.ssl;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.EventExecutorGroup;
 import rx.functions.Func1;
 
 import javax.net.ssl.SSLEngine;
@@ -35,16 +36,39 @@ public class DefaultSslCodec extends SslCodec {
     private final Func1<ByteBufAllocator, SSLEngine> engineFactory;
 
     public DefaultSslCodec(Func1<ByteBufAllocator, SSLEngine> engineFactory) {
-        this.engineFactory = engineFactory;
+        this(engineFactory, null);
     }
 
     public DefaultSslCodec(final SSLEngine sslEngine) {
+        this(sslEngine, null);
+    }
+
+    /**
+     * Creates a new codec that executes the {@link SslHandler} on the passed group, instead of the event loop of the
+     * channel. See {@link SslCodec} for details.
+     *
+     * @param engineFactory Factory to create an {@link SSLEngine} per channel.
+     * @param sslExecutor Group on which the {@link SslHandler} is executed.
+     */
+    public DefaultSslCodec(Func1<ByteBufAllocator, SSLEngine> engineFactory, EventExecutorGroup sslExecutor) {
+        super(sslExecutor);
+        this.engineFactory = engineFactory;
+    }
+
+    /**
+     * Creates a new codec that executes the {@link SslHandler} on the passed group, instead of the event loop of the
+     * channel. See {@link SslCodec} for details.
+     *
+     * @param sslEngine Engine to use.
+     * @param sslExecutor Group on which the {@link SslHandler} is executed.
+     */
+    public DefaultSslCodec(final SSLEngine sslEngine, EventExecutorGroup sslExecutor) {
         this(new Func1<ByteBufAllocator, SSLEngine>() {
             @Override
             public SSLEngine call(ByteBufAllocator allocator) {
                 return sslEngine;
             }
-        });
+        }, sslExecutor);
     }
 
     @Override
@@ -19,13 +19,20 @@ package io.reactivex.netty.ssl;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.ssl.SslHandshakeCompletionEvent;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
 import io.reactivex.netty.channel.ConnectionCreationFailedEvent;
 import io.reactivex.netty.channel.EmitConnectionEvent;
 import rx.functions.Action1;
 
+import javax.net.ssl.SSLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static io.reactivex.netty.HandlerNames.*;
 
 /**
@@ -34,21 +41,69 @@ import static io.reactivex.netty.HandlerNames.*;
  *
  * This codec requires an {@link SslHandler} instance and adds the necessary infrastructure required for the
  * TCP client/server to work.
+ *
+ * <h2>Offloading handshakes</h2>
+ *
+ * By default, the {@link SslHandler} runs on the event loop of the channel, which means that the CPU intensive parts
+ * of a full handshake (key exchange and certificate verification, executed as delegated tasks of the
+ * {@link javax.net.ssl.SSLEngine}) block all other channels registered with the same event loop. When a large number
+ * of connections are established at the same time, eg: all clients reconnecting after a deployment, this shows up as
+ * latency for every connection on the event loop.
+ *
+ * A codec created with an {@link EventExecutorGroup} adds the {@link SslHandler} to the pipeline with that group, so
+ * that all work done by the handler, including the delegated tasks, is executed on the group instead of the event
+ * loop. Every channel is pinned to a single executor of the group, so the ordering of data on a channel is retained.
+ * Use {@link BoundedSslExecutorGroup} to bound the number of handshakes in progress, so that when the group can not
+ * keep up, handshakes of new connections fail, instead of queueing more work for the established connections to wait
+ * behind.
+ *
+ * Since every read and write on the channel is then handed over to the group, this trades some throughput on
+ * established connections for flat event loop latency during connection storms.
  */
 public abstract class SslCodec implements Action1<ChannelPipeline> {
 
+    private final EventExecutorGroup sslExecutor;
+
     protected SslCodec() {
+        this(null);
+    }
+
+    /**
+     * Creates a new codec which executes the {@link SslHandler} on the passed group.
+     *
+     * @param sslExecutor Group on which the {@link SslHandler} is executed, {@code null} to execute it on the event
+     * loop of the channel.
+     */
+    protected SslCodec(EventExecutorGroup sslExecutor) {
+        this.sslExecutor = sslExecutor;
     }
 
     @Override
     public final void call(final ChannelPipeline pipeline) {
+        BoundedSslExecutorGroup boundedExecutor = null;
+        if (sslExecutor instanceof BoundedSslExecutorGroup) {
+            boundedExecutor = (BoundedSslExecutorGroup) sslExecutor;
+            if (!boundedExecutor.tryStartHandshake()) {
+                /*The handler (and hence, the engine) is never created, so no work is queued on the executor.*/
+                pipeline.addFirst(SslHandler.getName(), new HandshakeRejectionHandler());
+                return;
+            }
+        }
+
         final SslHandler sslHandler = newSslHandler(pipeline);
+        if (null != boundedExecutor) {
+            /*Handshake future is not completed if the channel is closed before being active, eg: connect failure.*/
+            final HandshakeCompletionListener l = new HandshakeCompletionListener(boundedExecutor);
+            sslHandler.handshakeFuture().addListener(l);
+            pipeline.channel().closeFuture().addListener(l);
+        }
+
         ChannelHandler wireLogging = pipeline.get(WireLogging.getName());
         if (null != wireLogging) {
             /*So that, all activity on the channel is printed including SSL.*/
-            pipeline.addAfter(WireLogging.getName(), SslHandler.getName(), sslHandler);
+            pipeline.addAfter(sslExecutor, WireLogging.getName(), SslHandler.getName(), sslHandler);
         } else {
-            pipeline.addFirst(SslHandler.getName(), sslHandler);
+            pipeline.addFirst(sslExecutor, SslHandler.getName(), sslHandler);
         }
 
         pipeline.addAfter(SslHandler.getName(), SslConnectionEmissionHandler.getName(), new SslConnEmissionHandler());
@@ -56,6 +111,43 @@ public abstract class SslCodec implements Action1<ChannelPipeline> {
 
     protected abstract SslHandler newSslHandler(ChannelPipeline pipeline);
 
+    /**
+     * Returns the group on which the {@link SslHandler} is executed, if any.
+     *
+     * @return The group on which the {@link SslHandler} is executed, {@code null} if it is executed on the event loop
+     * of the channel.
+     */
+    public EventExecutorGroup getSslExecutor() {
+        return sslExecutor;
+    }
+
+    private static final class HandshakeCompletionListener implements GenericFutureListener<Future<Object>> {
+
+        private final BoundedSslExecutorGroup executor;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private HandshakeCompletionListener(BoundedSslExecutorGroup executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void operationComplete(Future<Object> future) throws Exception {
+            if (completed.compareAndSet(false, true)) {
+                executor.onHandshakeComplete();
+            }
+        }
+    }
+
+    private static final class HandshakeRejectionHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            ctx.fireUserEventTriggered(new ConnectionCreationFailedEvent(
+                    new SSLException("Handshake rejected, too many handshakes in progress.")));
+            ctx.close();
+        }
+    }
+
     private static final class SslConnEmissionHandler extends ChannelDuplexHandler {
 
         private boolean handshakeDone;
@@ -80,4 +80,30 @@ public abstract class RxEventLoopProvider {
      * return the {@link EventLoopGroup} for native transport.
      */
     public abstract EventLoopGroup globalServerParentEventLoop(boolean nativeTransport);
+
+    /**
+     * The {@link EventLoopGroup} to be used by all client instances connecting to a unix domain socket, if it is not
+     * explicitly provided. Domain sockets are only supported by the native epoll transport, so the returned group must
+     * be an epoll group, irrespective of whether native transport is globally enabled.
+     *
+     * The default implementation returns {@link #globalClientEventLoop(boolean)} for native transport.
+     *
+     * @return The {@link EventLoopGroup} to be used for all clients connecting to a unix domain socket.
+     */
+    public EventLoopGroup globalClientDomainSocketEventLoop() {
+        return globalClientEventLoop(true);
+    }
+
+    /**
+     * The {@link EventLoopGroup} to be used by all server instances listening on a unix domain socket, if it is not
+     * explicitly provided. Domain sockets are only supported by the native epoll transport, so the returned group must
+     * be an epoll group, irrespective of whether native transport is globally enabled.
+     *
+     * The default implementation returns {@link #globalServerEventLoop(boolean)} for native transport.
+     *
+     * @return The {@link EventLoopGroup} to be used for all servers listening on a unix domain socket.
+     */
+    public EventLoopGroup globalServerDomainSocketEventLoop() {
+        return globalServerEventLoop(true);
+    }
 }
@@ -104,6 +104,16 @@ public class SingleNioLoopProvider extends RxEventLoopProvider {
         return globalServerParentEventLoop();
     }
 
+    @Override
+    public EventLoopGroup globalClientDomainSocketEventLoop() {
+        return getNativeClientEventLoop();
+    }
+
+    @Override
+    public EventLoopGroup globalServerDomainSocketEventLoop() {
+        return getNativeEventLoop();
+    }
+
     private EventLoopGroup getNativeParentEventLoop() {
         if (nativeParentEventLoop == nativeEventLoop) { // Means using same event loop for acceptor and worker pool.
             return getNativeEventLoop();
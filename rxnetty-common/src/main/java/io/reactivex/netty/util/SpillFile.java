@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.util;
+
+import io.netty.buffer.ByteBuf;
+import io.reactivex.netty.threads.RxDefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Observable.OnSubscribe;
+import rx.Subscriber;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A temporary file, to spill content that exceeds a memory threshold, eg: by {@link SpoolBytes}. The file is created
+ * and written on a writer executor, instead of the thread adding the content, which for content read from a connection
+ * is the event loop of the connection.
+ *
+ * Content added by {@link #write(ByteBuf)} is held in memory till it is written. The returned stream completes
+ * immediately while the total size of the pending content is within the configured maximum, otherwise it completes
+ * when enough of the pending content is written; so, a producer that waits for the completion before adding more
+ * content, holds bounded memory.
+ *
+ * All operations on a file are executed in order, even if the writer executor has multiple threads. A file is used by
+ * a single producer, ie: {@link #write(ByteBuf)} and {@link #finish()} must not be called concurrently.
+ */
+public final class SpillFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpillFile.class);
+
+    public static final long DEFAULT_MAX_PENDING_BYTES = 16 * 1024 * 1024;
+
+    private final String prefix;
+    private final String suffix;
+    private final File directory;
+    private final Executor writer;
+    private final long maxPendingBytes;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Runnable drainer = new Runnable() {
+        @Override
+        public void run() {
+            do {
+                Runnable task;
+                while (null != (task = tasks.poll())) {
+                    task.run();
+                }
+                draining.set(false);
+            } while (!tasks.isEmpty() && draining.compareAndSet(false, true));
+        }
+    };
+
+    private long pendingBytes; // Guarded by this
+    private Subscriber<? super Void> drainWaiter; // Guarded by this
+    private volatile IOException failure;
+    private volatile boolean discarded;
+    /*Only accessed by the tasks, which are executed in order.*/
+    private File file;
+    private FileChannel channel;
+
+    private SpillFile(String prefix, String suffix, File directory, Executor writer, long maxPendingBytes) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.directory = directory;
+        this.writer = writer;
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Queues the readable bytes of the passed buffer to be written to this file. The buffer is released after it is
+     * written.
+     *
+     * @param content Content to write.
+     *
+     * @return Stream which completes when the pending content of this file is within the configured maximum, or errors
+     * if writing to this file failed.
+     */
+    public Observable<Void> write(final ByteBuf content) {
+        if (null != failure) {
+            content.release();
+            return Observable.error(failure);
+        }
+
+        final int size = content.readableBytes();
+        final boolean overLimit;
+        synchronized (this) {
+            pendingBytes += size;
+            overLimit = pendingBytes > maxPendingBytes;
+        }
+
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (!discarded && null == failure) {
+                        open();
+                        while (content.isReadable()) {
+                            content.readBytes(channel, content.readableBytes());
+                        }
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                } finally {
+                    content.release();
+                    written(size);
+                }
+            }
+        });
+
+        if (!overLimit) {
+            return Observable.empty();
+        }
+
+        return Observable.create(new OnSubscribe<Void>() {
+            @Override
+            public void call(Subscriber<? super Void> subscriber) {
+                synchronized (SpillFile.this) {
+                    if (pendingBytes > maxPendingBytes) {
+                        drainWaiter = subscriber;
+                        return;
+                    }
+                }
+                subscriber.onCompleted();
+            }
+        });
+    }
+
+    /**
+     * Closes this file after all pending content is written. The file is no longer deleted by {@link #discard()} once
+     * the returned stream emits it; the subscriber owns the file.
+     *
+     * @return Stream which emits the written file, on the writer executor, or errors if writing the file failed.
+     */
+    public Observable<File> finish() {
+        return Observable.create(new OnSubscribe<File>() {
+            @Override
+            public void call(final Subscriber<? super File> subscriber) {
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (null == failure) {
+                            try {
+                                open();
+                                channel.close();
+                            } catch (IOException e) {
+                                failure = e;
+                            }
+                        }
+
+                        if (null != failure) {
+                            subscriber.onError(failure);
+                            return;
+                        }
+                        final File finished = file;
+                        file = null;
+                        subscriber.onNext(finished);
+                        subscriber.onCompleted();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Discards this file, deleting it after the pending content, which is not written, is released.
+     */
+    public void discard() {
+        discarded = true;
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                if (null != channel) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        logger.debug("Failed to close the spill file " + file + ", deleting it anyways.", e);
+                    }
+                }
+                if (null != file && !file.delete()) {
+                    file.deleteOnExit();
+                }
+                file = null;
+            }
+        });
+    }
+
+    /**
+     * Creates a new file, written on a shared writer thread, that holds at most {@link #DEFAULT_MAX_PENDING_BYTES}
+     * in memory.
+     *
+     * @param prefix Prefix of the name of the temporary file.
+     * @param suffix Suffix of the name of the temporary file.
+     * @param directory Directory for the temporary file, {@code null} for the default temporary directory.
+     *
+     * @return A new file. The temporary file is only created when the first content is written.
+     */
+    public static SpillFile create(String prefix, String suffix, File directory) {
+        return create(prefix, suffix, directory, DefaultWriterHolder.INSTANCE, DEFAULT_MAX_PENDING_BYTES);
+    }
+
+    /**
+     * Creates a new file, written using the passed executor.
+     *
+     * @param prefix Prefix of the name of the temporary file.
+     * @param suffix Suffix of the name of the temporary file.
+     * @param directory Directory for the temporary file, {@code null} for the default temporary directory.
+     * @param writer Executor for all file operations. This must not be an event loop.
+     * @param maxPendingBytes Maximum size, in bytes, of the content waiting to be written, after which
+     * {@link #write(ByteBuf)} waits for the pending content to be written.
+     *
+     * @return A new file. The temporary file is only created when the first content is written.
+     */
+    public static SpillFile create(String prefix, String suffix, File directory, Executor writer,
+                                   long maxPendingBytes) {
+        if (maxPendingBytes <= 0) {
+            throw new IllegalArgumentException("Max pending bytes must be positive, provided: " + maxPendingBytes);
+        }
+        return new SpillFile(prefix, suffix, directory, writer, maxPendingBytes);
+    }
+
+    private void open() throws IOException {
+        if (null == channel) {
+            file = File.createTempFile(prefix, suffix, directory);
+            channel = new FileOutputStream(file).getChannel();
+        }
+    }
+
+    private void written(int size) {
+        final Subscriber<? super Void> toNotify;
+        synchronized (this) {
+            pendingBytes -= size;
+            if (null == drainWaiter || pendingBytes > maxPendingBytes) {
+                return;
+            }
+            toNotify = drainWaiter;
+            drainWaiter = null;
+        }
+        toNotify.onCompleted();
+    }
+
+    private void execute(Runnable task) {
+        tasks.add(task);
+        if (draining.compareAndSet(false, true)) {
+            writer.execute(drainer);
+        }
+    }
+
+    private static final class DefaultWriterHolder {
+
+        /*Daemon thread, so it does not prevent the JVM from exiting.*/
+        private static final ExecutorService INSTANCE =
+                Executors.newSingleThreadExecutor(new RxDefaultThreadFactory("rxnetty-spill-writer"));
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import rx.Observable;
+import rx.Observable.Transformer;
+import rx.exceptions.Exceptions;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link Observable.Transformer} to buffer a stream of {@link ByteBuf ByteBufs} into a single, replayable
+ * {@link SpooledContent}. Unlike {@link CollectBytes}, which holds the entire content in memory, this holds at most
+ * the configured number of bytes in memory (the received buffers, without copying) and writes the remainder to a
+ * temporary file, which is memory-mapped when the content is replayed. This makes it feasible to buffer large bodies,
+ * eg: for signature verification or retries, without exhausting the direct memory.
+ *
+ * The temporary file is a {@link SpillFile}, written on a dedicated writer thread and not on the thread emitting the
+ * buffers. Buffers are requested from the upstream one at a time, and not requested while too many bytes wait to be
+ * written, so a slow disk slows down reading the content instead of the content piling up in memory.
+ *
+ * On success, the receiver must release the returned {@link SpooledContent}, which also deletes the temporary file. On
+ * failure, this will release all received ByteBufs and delete the temporary file.
+ *
+ * This Transformer should not be used with {@link io.reactivex.netty.channel.ContentSource#autoRelease()} as this will
+ * release the underlying buffered ByteBufs.
+ */
+public class SpoolBytes implements Transformer<ByteBuf, SpooledContent> {
+
+    private static final String TEMP_FILE_PREFIX = "rxnetty-spool-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final int memoryThreshold;
+    private final File tempDirectory;
+
+    /**
+     * Buffer the emitted ByteBufs, holding at most {@code memoryThreshold} bytes in memory and writing the remainder to
+     * a temporary file in the default temporary directory.
+     *
+     * @param memoryThreshold the maximum number of bytes to hold in memory.
+     * @throws IllegalArgumentException when memoryThreshold is negative
+     */
+    public static SpoolBytes inMemoryUpTo(int memoryThreshold) {
+        return new SpoolBytes(memoryThreshold, null);
+    }
+
+    /**
+     * Buffer the emitted ByteBufs, holding at most {@code memoryThreshold} bytes in memory and writing the remainder to
+     * a temporary file in the passed directory.
+     *
+     * @param memoryThreshold the maximum number of bytes to hold in memory.
+     * @param tempDirectory directory for the temporary file, {@code null} for the default temporary directory.
+     * @throws IllegalArgumentException when memoryThreshold is negative
+     */
+    public static SpoolBytes inMemoryUpTo(int memoryThreshold, File tempDirectory) {
+        return new SpoolBytes(memoryThreshold, tempDirectory);
+    }
+
+    private SpoolBytes(int memoryThreshold, File tempDirectory) {
+        if (memoryThreshold < 0) {
+            throw new IllegalArgumentException("memoryThreshold must not be negative");
+        }
+        this.memoryThreshold = memoryThreshold;
+        this.tempDirectory = tempDirectory;
+    }
+
+    @Override
+    public Observable<SpooledContent> call(final Observable<ByteBuf> upstream) {
+        return Observable.defer(new Func0<Observable<SpooledContent>>() {
+            @Override
+            public Observable<SpooledContent> call() {
+                final Spool spool = new Spool();
+                final Action0 discard = new Action0() {
+                    @Override
+                    public void call() {
+                        spool.discard();
+                    }
+                };
+                return upstream.flatMap(new Func1<ByteBuf, Observable<Void>>() {
+                                   @Override
+                                   public Observable<Void> call(ByteBuf byteBuf) {
+                                       return spool.add(byteBuf);
+                                   }
+                               }, 1)
+                               .ignoreElements()
+                               .cast(SpooledContent.class)
+                               .concatWith(Observable.defer(new Func0<Observable<SpooledContent>>() {
+                                   @Override
+                                   public Observable<SpooledContent> call() {
+                                       return spool.complete();
+                                   }
+                               }))
+                               .doOnTerminate(discard)
+                               .doOnUnsubscribe(discard);
+            }
+        });
+    }
+
+    /**
+     * Buffering state for a single subscription.
+     */
+    private final class Spool {
+
+        private CompositeByteBuf memory;
+        private SpillFile spill;
+        private long length;
+
+        Observable<Void> add(ByteBuf byteBuf) {
+            length += byteBuf.readableBytes();
+            if (null == memory) {
+                /*Avoid consolidation (copy) of the components, which is the default for more than 16 components.*/
+                memory = byteBuf.alloc().compositeBuffer(Integer.MAX_VALUE);
+            }
+
+            final int memoryRemaining = memoryThreshold - memory.readableBytes();
+            if (null == spill && byteBuf.readableBytes() <= memoryRemaining) {
+                memory.addComponent(true, byteBuf);
+                return Observable.empty();
+            }
+
+            if (null == spill) {
+                if (memoryRemaining > 0) {
+                    memory.addComponent(true, byteBuf.readRetainedSlice(memoryRemaining));
+                }
+                spill = SpillFile.create(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, tempDirectory);
+            }
+            return spill.write(byteBuf);
+        }
+
+        Observable<SpooledContent> complete() {
+            if (null == spill) {
+                final SpooledContent spooled = new SpooledContent(null == memory ? Unpooled.EMPTY_BUFFER : memory, null,
+                                                                  null, length);
+                memory = null;
+                return Observable.just(spooled);
+            }
+
+            /*Mapped on the writer thread, as the file is emitted there.*/
+            return spill.finish().map(new Func1<File, SpooledContent>() {
+                @Override
+                public SpooledContent call(File file) {
+                    final SpooledContent spooled;
+                    try {
+                        spooled = new SpooledContent(memory, file, map(file), length);
+                    } catch (IOException e) {
+                        if (!file.delete()) {
+                            file.deleteOnExit();
+                        }
+                        throw Exceptions.propagate(e);
+                    }
+                    memory = null;
+                    spill = null;
+                    return spooled;
+                }
+            });
+        }
+
+        void discard() {
+            if (null != memory) {
+                memory.release();
+                memory = null;
+            }
+            if (null != spill) {
+                spill.discard();
+                spill = null;
+            }
+        }
+
+        private List<MappedByteBuffer> map(File file) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                final FileChannel fileChannel = raf.getChannel();
+                final long fileLength = fileChannel.size();
+                final List<MappedByteBuffer> regions = new ArrayList<>();
+                for (long position = 0; position < fileLength; position += SpooledContent.MAX_REGION_SIZE) {
+                    final long regionSize = Math.min(SpooledContent.MAX_REGION_SIZE, fileLength - position);
+                    regions.add(fileChannel.map(MapMode.READ_ONLY, position, regionSize));
+                }
+                /*Mappings stay valid after the channel is closed.*/
+                return regions;
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AbstractReferenceCounted;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Content buffered by {@link SpoolBytes}, partly in memory and partly in a memory-mapped temporary file. The content
+ * can be replayed any number of times using {@link #getContent()}, till this is released.
+ *
+ * Releasing this content releases the in-memory buffers and deletes the temporary file. The file is unmapped when the
+ * buffers emitted by {@link #getContent()} are garbage collected, so they must not be used after this content is
+ * released.
+ */
+public final class SpooledContent extends AbstractReferenceCounted {
+
+    static final long MAX_REGION_SIZE = 1 << 30;
+    private static final int FILE_CHUNK_SIZE = 64 * 1024;
+
+    private final ByteBuf memory;
+    private final File file;
+    private final List<MappedByteBuffer> regions;
+    private final long length;
+    private final long fileLength;
+
+    SpooledContent(ByteBuf memory, File file, List<MappedByteBuffer> regions, long length) {
+        this.memory = memory;
+        this.file = file;
+        this.regions = null == regions ? Collections.<MappedByteBuffer>emptyList() : regions;
+        this.length = length;
+        fileLength = length - memory.readableBytes();
+    }
+
+    /**
+     * Returns the total length of the content.
+     *
+     * @return The total length of the content, in bytes.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Checks whether the entire content is held in memory.
+     *
+     * @return {@code true} if the entire content is held in memory.
+     */
+    public boolean isInMemory() {
+        return null == file;
+    }
+
+    /**
+     * Returns a stream replaying the content. Every subscription emits the entire content, the in-memory part as a
+     * single buffer followed by the file part in chunks. Every subscriber must release the emitted buffers.
+     *
+     * @return A stream replaying the content.
+     */
+    public Observable<ByteBuf> getContent() {
+        return Observable.create(new Observable.OnSubscribe<ByteBuf>() {
+            @Override
+            public void call(Subscriber<? super ByteBuf> subscriber) {
+                if (0 == refCnt()) {
+                    subscriber.onError(new IllegalStateException("Spooled content is already released."));
+                    return;
+                }
+
+                Observable<ByteBuf> content = Observable.empty();
+                if (memory.isReadable()) {
+                    content = Observable.defer(new Func0<Observable<ByteBuf>>() {
+                        @Override
+                        public Observable<ByteBuf> call() {
+                            return Observable.just(memory.retainedDuplicate());
+                        }
+                    });
+                }
+
+                if (fileLength > 0) {
+                    final int chunks = (int) ((fileLength + FILE_CHUNK_SIZE - 1) / FILE_CHUNK_SIZE);
+                    content = content.concatWith(Observable.range(0, chunks).map(new Func1<Integer, ByteBuf>() {
+                        @Override
+                        public ByteBuf call(Integer chunkIndex) {
+                            return fileChunk(chunkIndex);
+                        }
+                    }));
+                }
+
+                content.unsafeSubscribe(subscriber);
+            }
+        });
+    }
+
+    @Override
+    public SpooledContent retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public SpooledContent retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public SpooledContent touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public SpooledContent touch(Object hint) {
+        memory.touch(hint);
+        return this;
+    }
+
+    @Override
+    protected void deallocate() {
+        memory.release();
+        if (null != file) {
+            file.delete();
+        }
+    }
+
+    private ByteBuf fileChunk(int chunkIndex) {
+        final long position = (long) chunkIndex * FILE_CHUNK_SIZE;
+        final int offset = (int) (position % MAX_REGION_SIZE);
+        final int chunkLength = (int) Math.min(FILE_CHUNK_SIZE, fileLength - position);
+        final ByteBuffer chunk = regions.get((int) (position / MAX_REGION_SIZE)).duplicate();
+        chunk.limit(offset + chunkLength).position(offset);
+        return Unpooled.wrappedBuffer(chunk);
+    }
+
+    @Override
+    public String toString() {
+        return "SpooledContent{length=" + length + ", inMemory=" + memory.readableBytes() + ", file=" + file + '}';
+    }
+}
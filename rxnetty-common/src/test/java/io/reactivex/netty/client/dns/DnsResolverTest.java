@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.dns;
+
+import io.reactivex.netty.client.Host;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.observers.TestSubscriber;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class DnsResolverTest {
+
+    @Rule
+    public final DnsServerRule dnsServer = new DnsServerRule();
+
+    private DnsResolver resolver;
+
+    @Before
+    public void setUp() throws Exception {
+        dnsServer.setRecords("backend.test", "10.0.0.1", "10.0.0.2");
+        resolver = DnsResolver.create(new DnsResolverConfig().nameServer(dnsServer.getAddress())
+                                                             .resolveIpv6(false)
+                                                             .ttl(0, 1, TimeUnit.MINUTES)
+                                                             .queryTimeout(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        resolver.close();
+    }
+
+    @Test(timeout = 60000)
+    public void testResolve() throws Exception {
+        List<InetAddress> addresses = resolve("backend.test");
+
+        assertThat("Unexpected addresses.", addresses, contains(InetAddress.getByName("10.0.0.1"),
+                                                                InetAddress.getByName("10.0.0.2")));
+    }
+
+    @Test(timeout = 60000)
+    public void testResolvedAddressesCached() throws Exception {
+        resolve("backend.test");
+        resolve("backend.test");
+
+        assertThat("Cached addresses not used.", dnsServer.getQueryCount(), is(1));
+    }
+
+    @Test(timeout = 60000)
+    public void testExpiredAddressesResolvedAgain() throws Exception {
+        dnsServer.setTtl(0);
+
+        resolve("backend.test");
+        resolve("backend.test");
+
+        assertThat("Expired addresses used.", dnsServer.getQueryCount(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testExpiredAddressesEvicted() throws Exception {
+        dnsServer.setTtl(1);
+
+        resolve("backend.test");
+        assertThat("Addresses not cached.", resolver.getCacheSize(), is(1));
+
+        while (resolver.getCacheSize() > 0) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testNegativeCaching() throws Exception {
+        assertUnknownHost("missing.test");
+        assertUnknownHost("missing.test");
+
+        assertThat("Negative answer not cached.", dnsServer.getQueryCount(), is(1));
+    }
+
+    @Test(timeout = 60000)
+    public void testIpLiteralNotQueried() throws Exception {
+        List<InetAddress> addresses = resolve("127.0.0.1");
+
+        assertThat("Unexpected addresses.", addresses, contains(InetAddress.getByName("127.0.0.1")));
+        assertThat("IP literal queried.", dnsServer.getQueryCount(), is(0));
+    }
+
+    @Test(timeout = 60000)
+    public void testHostStreamTracksRecords() throws Exception {
+        dnsServer.setTtl(1);
+        TestSubscriber<Host> subscriber = new TestSubscriber<>();
+        resolver.hosts("backend.test", 80).subscribe(subscriber);
+
+        subscriber.awaitValueCount(2, 10, TimeUnit.SECONDS);
+        Host removed = subscriber.getOnNextEvents().get(0);
+        assertThat("Unexpected host.", removed.getHost(),
+                   equalTo((Object) new InetSocketAddress(InetAddress.getByName("10.0.0.1"), 80)));
+
+        dnsServer.setRecords("backend.test", "10.0.0.2", "10.0.0.3");
+
+        subscriber.awaitValueCount(3, 10, TimeUnit.SECONDS);
+        assertThat("Unexpected added host.", subscriber.getOnNextEvents().get(2).getHost(),
+                   equalTo((Object) new InetSocketAddress(InetAddress.getByName("10.0.0.3"), 80)));
+
+        TestSubscriber<Void> removal = new TestSubscriber<>();
+        removed.getCloseNotifier().subscribe(removal);
+        removal.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        removal.assertCompleted();
+
+        subscriber.unsubscribe();
+    }
+
+    @Test(timeout = 60000)
+    public void testServerFailureNotCached() throws Exception {
+        dnsServer.setServerFailure(true);
+        assertUnknownHost("backend.test");
+
+        dnsServer.setServerFailure(false);
+        List<InetAddress> addresses = resolve("backend.test");
+
+        assertThat("Server failure cached as a negative answer.", addresses, hasSize(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testHostStreamRetainsHostsOnServerFailure() throws Exception {
+        dnsServer.setTtl(1);
+        TestSubscriber<Host> subscriber = new TestSubscriber<>();
+        resolver.hosts("backend.test", 80).subscribe(subscriber);
+
+        subscriber.awaitValueCount(2, 10, TimeUnit.SECONDS);
+        TestSubscriber<Void> removal = new TestSubscriber<>();
+        subscriber.getOnNextEvents().get(0).getCloseNotifier().subscribe(removal);
+
+        int queryCount = dnsServer.getQueryCount();
+        dnsServer.setServerFailure(true);
+        while (dnsServer.getQueryCount() == queryCount) { // Wait for a refresh after the failure started.
+            Thread.sleep(50);
+        }
+        Thread.sleep(500); // Give the resolver some time to process the failed answer.
+
+        removal.assertNoTerminalEvent();
+        subscriber.assertNoTerminalEvent();
+        assertThat("Unexpected hosts.", subscriber.getOnNextEvents(), hasSize(2));
+
+        subscriber.unsubscribe();
+    }
+
+    private List<InetAddress> resolve(String hostname) {
+        TestSubscriber<List<InetAddress>> subscriber = new TestSubscriber<>();
+        resolver.resolve(hostname).subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        assertThat("Unexpected resolution count.", subscriber.getOnNextEvents(), hasSize(1));
+        return subscriber.getOnNextEvents().get(0);
+    }
+
+    private void assertUnknownHost(String hostname) {
+        TestSubscriber<List<InetAddress>> subscriber = new TestSubscriber<>();
+        resolver.resolve(hostname).subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertError(UnknownHostException.class);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.dns;
+
+import org.junit.rules.ExternalResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A stand-in DNS server, answering {@code A} queries (over UDP) from a map of records. Names without records are
+ * answered with {@code NXDOMAIN} and {@code AAAA} queries for known names are answered with no records. All queries
+ * are answered with {@code SERVFAIL} when {@link #setServerFailure(boolean)} is enabled.
+ */
+public class DnsServerRule extends ExternalResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(DnsServerRule.class);
+
+    private static final int TYPE_A = 1;
+
+    private final Map<String, List<byte[]>> records = new ConcurrentHashMap<>();
+    private final AtomicInteger queryCount = new AtomicInteger();
+    private volatile int ttlSeconds = 60;
+    private volatile boolean serverFailure;
+    private DatagramSocket socket;
+    private Thread serverThread;
+
+    @Override
+    protected void before() throws Throwable {
+        socket = new DatagramSocket(new InetSocketAddress("127.0.0.1", 0));
+        serverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve();
+            }
+        }, "stand-in-dns-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+    }
+
+    @Override
+    protected void after() {
+        socket.close();
+        try {
+            serverThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) socket.getLocalSocketAddress();
+    }
+
+    public DnsServerRule setRecords(String name, String... ipv4Addresses) throws IOException {
+        List<byte[]> addresses = new ArrayList<>();
+        for (String address : ipv4Addresses) {
+            addresses.add(InetAddress.getByName(address).getAddress());
+        }
+        records.put(name, addresses);
+        return this;
+    }
+
+    public DnsServerRule setTtl(int ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+        return this;
+    }
+
+    public DnsServerRule setServerFailure(boolean serverFailure) {
+        this.serverFailure = serverFailure;
+        return this;
+    }
+
+    public int getQueryCount() {
+        return queryCount.get();
+    }
+
+    private void serve() {
+        byte[] buffer = new byte[512];
+        while (!socket.isClosed()) {
+            DatagramPacket query = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(query);
+                queryCount.incrementAndGet();
+                byte[] response = answer(query.getData(), query.getLength());
+                socket.send(new DatagramPacket(response, response.length, query.getSocketAddress()));
+            } catch (SocketException e) {
+                return; // Socket closed.
+            } catch (IOException e) {
+                logger.error("Failed to answer a DNS query.", e);
+            }
+        }
+    }
+
+    private byte[] answer(byte[] query, int length) {
+        ByteBuffer in = ByteBuffer.wrap(query, 0, length);
+        short id = in.getShort();
+        in.position(12); // Skip header.
+        StringBuilder name = new StringBuilder();
+        for (int labelLength = in.get() & 0xFF; labelLength != 0; labelLength = in.get() & 0xFF) {
+            if (name.length() > 0) {
+                name.append('.');
+            }
+            name.append(new String(query, in.position(), labelLength, StandardCharsets.US_ASCII));
+            in.position(in.position() + labelLength);
+        }
+        int type = in.getShort() & 0xFFFF;
+        in.getShort(); // Class
+        int questionEnd = in.position();
+
+        boolean failed = serverFailure;
+        List<byte[]> addresses = records.get(name.toString());
+        List<byte[]> answers = failed || null == addresses || TYPE_A != type ? Collections.<byte[]>emptyList()
+                                                                             : addresses;
+
+        ByteBuffer out = ByteBuffer.allocate(512);
+        out.putShort(id);
+        // Response, RD, RA, SERVFAIL/NXDOMAIN/NOERROR
+        out.putShort((short) (failed ? 0x8182 : null == addresses ? 0x8183 : 0x8180));
+        out.putShort((short) 1);
+        out.putShort((short) answers.size());
+        out.putShort((short) 0);
+        out.putShort((short) 0);
+        out.put(query, 12, questionEnd - 12);
+        for (byte[] address : answers) {
+            out.putShort((short) 0xC00C); // Pointer to the name in the question.
+            out.putShort((short) TYPE_A);
+            out.putShort((short) 1); // IN
+            out.putInt(ttlSeconds);
+            out.putShort((short) address.length);
+            out.put(address);
+        }
+        return Arrays.copyOf(out.array(), out.position());
+    }
+}
@@ -101,6 +101,47 @@ public class AbstractP2CStrategyTest {
         Assert.assertEquals("Unexpected number of no usable hosts count.", 0,rule.strategy.allUnusable);
     }
 
+    @Test
+    public void testOpenCircuitNotSelected() {
+        ConnectionProvider<ByteBuf, ByteBuf> cp =
+                rule.strategy.newStrategy(rule.newHostStream(rule.openCircuit(10), rule.closedCircuit(5)));
+        TestSubscriber<Connection<ByteBuf, ByteBuf>> sub = new TestSubscriber<>();
+        cp.newConnectionRequest().subscribe(sub);
+
+        sub.awaitTerminalEvent();
+        sub.assertNoErrors();
+
+        Assert.assertEquals("Unexpected number of Unusable hosts found count.", 0, rule.strategy.twoUnusableHosts);
+        Assert.assertEquals("Unexpected number of no usable hosts count.", 0, rule.strategy.allUnusable);
+    }
+
+    @Test
+    public void testAllCircuitsOpen() {
+        ConnectionProvider<ByteBuf, ByteBuf> cp =
+                rule.strategy.newStrategy(rule.newHostStream(rule.openCircuit(10), rule.openCircuit(5)));
+        TestSubscriber<Connection<ByteBuf, ByteBuf>> sub = new TestSubscriber<>();
+        cp.newConnectionRequest().subscribe(sub);
+
+        sub.awaitTerminalEvent();
+        sub.assertError(NoHostsAvailableException.class);
+
+        Assert.assertEquals("Unexpected number of Unusable hosts found count.", 5, rule.strategy.twoUnusableHosts);
+        Assert.assertEquals("Unexpected number of no usable hosts count.", 1, rule.strategy.allUnusable);
+    }
+
+    @Test
+    public void testSingleHostOpenCircuit() {
+        ConnectionProvider<ByteBuf, ByteBuf> cp =
+                rule.strategy.newStrategy(rule.newHostStream(rule.openCircuit(10)));
+        TestSubscriber<Connection<ByteBuf, ByteBuf>> sub = new TestSubscriber<>();
+        cp.newConnectionRequest().subscribe(sub);
+
+        sub.awaitTerminalEvent();
+        sub.assertError(NoHostsAvailableException.class);
+
+        Assert.assertEquals("Unexpected number of no usable hosts count.", 1, rule.strategy.allUnusable);
+    }
+
     public static class StrategyRule extends ExternalResource {
 
         private MockP2CStrategy strategy;
@@ -117,8 +158,26 @@ public class AbstractP2CStrategyTest {
         }
 
         public List<HostHolder<ByteBuf, ByteBuf>> newHostStream(int... weights) {
+            ClientListenerImpl[] listeners = new ClientListenerImpl[weights.length];
+            for (int i = 0; i < weights.length; i++) {
+                listeners[i] = new ClientListenerImpl(weights[i]);
+            }
+            return newHostStream(listeners);
+        }
+
+        public ClientListenerImpl closedCircuit(double weight) {
+            return new ClientListenerImpl(weight, new CircuitBreaker());
+        }
+
+        public ClientListenerImpl openCircuit(double weight) {
+            CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerConfig().minimumRequests(1));
+            circuitBreaker.onFailure();
+            return new ClientListenerImpl(weight, circuitBreaker);
+        }
+
+        public List<HostHolder<ByteBuf, ByteBuf>> newHostStream(ClientListenerImpl... listeners) {
             List<HostHolder<ByteBuf, ByteBuf>> toReturn = new ArrayList<>();
-            for (int weight : weights) {
+            for (ClientListenerImpl listener : listeners) {
                 ConnectionProvider<ByteBuf, ByteBuf> dummy = new ConnectionProvider<ByteBuf, ByteBuf>() {
                     @Override
                     public Observable<Connection<ByteBuf, ByteBuf>> newConnectionRequest() {
@@ -128,7 +187,7 @@ public class AbstractP2CStrategyTest {
                 Host h = new Host(new InetSocketAddress(0));
                 EventPublisher publisher = MockEventPublisher.disabled();
                 HostConnector<ByteBuf, ByteBuf> connector = new HostConnector<>(h, dummy, null, publisher, null);
-                toReturn.add(new HostHolder<>(connector, new ClientListenerImpl(weight)));
+                toReturn.add(new HostHolder<>(connector, listener));
             }
             return toReturn;
         }
@@ -136,14 +195,24 @@ public class AbstractP2CStrategyTest {
         private static class ClientListenerImpl extends ClientEventListener {
 
             private volatile double weight;
+            private final CircuitBreaker circuitBreaker;
 
             public ClientListenerImpl(double weight) {
+                this(weight, null);
+            }
+
+            public ClientListenerImpl(double weight, CircuitBreaker circuitBreaker) {
                 this.weight = weight;
+                this.circuitBreaker = circuitBreaker;
             }
 
             public double getWeight() {
                 return weight;
             }
+
+            public CircuitBreaker getCircuitBreaker() {
+                return circuitBreaker;
+            }
         }
 
         private static class MockP2CStrategy extends AbstractP2CStrategy<ByteBuf, ByteBuf, ClientListenerImpl> {
@@ -162,6 +231,11 @@ public class AbstractP2CStrategyTest {
                 return listener.getWeight();
             }
 
+            @Override
+            protected CircuitBreaker getCircuitBreaker(ClientListenerImpl listener) {
+                return listener.getCircuitBreaker();
+            }
+
             @Override
             protected void noUsableHostsFound() {
                 allUnusable++;
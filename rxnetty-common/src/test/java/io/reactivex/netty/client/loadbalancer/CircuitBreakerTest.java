@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.client.loadbalancer;
+
+import io.reactivex.netty.client.loadbalancer.CircuitBreaker.State;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MILLIS = 50;
+
+    @Test(timeout = 60000)
+    public void testOpensOnFailureRate() throws Exception {
+        CircuitBreaker breaker = newBreaker();
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertThat("Circuit opened below the failure rate.", breaker.getState(), is(State.Closed));
+
+        breaker.onFailure();
+        assertThat("Circuit not opened at the failure rate.", breaker.getState(), is(State.Open));
+        assertThat("Open circuit permits requests.", breaker.isCallPermitted(), is(false));
+        assertThat("Open circuit permits requests.", breaker.tryAcquirePermission(), is(false));
+    }
+
+    @Test(timeout = 60000)
+    public void testMinimumRequests() throws Exception {
+        CircuitBreaker breaker = newBreaker();
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat("Circuit opened below minimum requests.", breaker.getState(), is(State.Closed));
+
+        breaker.onFailure();
+        assertThat("Circuit not opened at minimum requests.", breaker.getState(), is(State.Open));
+    }
+
+    @Test(timeout = 60000)
+    public void testHalfOpenTrialSuccess() throws Exception {
+        CircuitBreaker breaker = openBreaker();
+
+        Thread.sleep(OPEN_DURATION_MILLIS * 2);
+
+        assertThat("Circuit not half-open after open duration.", breaker.getState(), is(State.HalfOpen));
+        assertThat("Trial request not permitted.", breaker.tryAcquirePermission(), is(true));
+        assertThat("Second trial request permitted.", breaker.tryAcquirePermission(), is(false));
+
+        breaker.onSuccess(0, TimeUnit.MILLISECONDS);
+
+        assertThat("Circuit not closed after a successful trial.", breaker.getState(), is(State.Closed));
+        assertThat("Closed circuit does not permit requests.", breaker.tryAcquirePermission(), is(true));
+    }
+
+    @Test(timeout = 60000)
+    public void testHalfOpenTrialFailure() throws Exception {
+        CircuitBreaker breaker = openBreaker();
+
+        Thread.sleep(OPEN_DURATION_MILLIS * 2);
+
+        assertThat("Trial request not permitted.", breaker.tryAcquirePermission(), is(true));
+        breaker.onFailure(0, TimeUnit.MILLISECONDS);
+
+        assertThat("Circuit not opened after a failed trial.", breaker.getState(), is(State.Open));
+    }
+
+    @Test(timeout = 60000)
+    public void testHalfOpenIgnoresResultsOfEarlierRequests() throws Exception {
+        CircuitBreaker breaker = openBreaker();
+
+        Thread.sleep(OPEN_DURATION_MILLIS * 2);
+
+        assertThat("Trial request not permitted.", breaker.tryAcquirePermission(), is(true));
+        /*Requests started before the circuit opened.*/
+        breaker.onSuccess(OPEN_DURATION_MILLIS * 3, TimeUnit.MILLISECONDS);
+        breaker.onFailure(OPEN_DURATION_MILLIS * 3, TimeUnit.MILLISECONDS);
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat("Late results changed the state.", breaker.getState(), is(State.HalfOpen));
+        assertThat("Second trial request permitted.", breaker.tryAcquirePermission(), is(false));
+
+        breaker.onSuccess(0, TimeUnit.MILLISECONDS);
+
+        assertThat("Circuit not closed after a successful trial.", breaker.getState(), is(State.Closed));
+    }
+
+    private static CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertThat("Circuit not opened.", breaker.getState(), is(State.Open));
+        return breaker;
+    }
+
+    private static CircuitBreaker newBreaker() {
+        return new CircuitBreaker(new CircuitBreakerConfig().failureRateThreshold(0.5)
+                                                            .minimumRequests(4)
+                                                            .window(1, 10, TimeUnit.MINUTES)
+                                                            .openDuration(OPEN_DURATION_MILLIS,
+                                                                          TimeUnit.MILLISECONDS));
+    }
+}
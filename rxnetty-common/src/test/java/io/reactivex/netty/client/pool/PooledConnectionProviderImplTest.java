@@ -132,6 +132,32 @@ public class PooledConnectionProviderImplTest {
         pooledFactoryRule.assertNoIdleConnection();
     }
 
+    @Test(timeout = 60000)
+    public void testIdleConnectionValidationSuccess() throws Exception {
+        pooledFactoryRule.init(DEFAULT_MAX_CONNECTIONS, new ConstantValidator(true));
+        PooledConnection<String, String> idleConnection = _testRelease();
+
+        pooledFactoryRule.testScheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+        ((EmbeddedChannel) idleConnection.unsafeNettyChannel()).runPendingTasks();
+
+        PooledConnection<String, String> connIdle =
+                pooledFactoryRule.holder.peek().defaultIfEmpty(null).toBlocking().single();
+        assertThat("Healthy connection not returned to the pool.", connIdle, is(idleConnection));
+        assertThat("Healthy connection closed.", idleConnection.unsafeNettyChannel().isActive(), is(true));
+    }
+
+    @Test(timeout = 60000)
+    public void testIdleConnectionValidationFailure() throws Exception {
+        pooledFactoryRule.init(DEFAULT_MAX_CONNECTIONS, new ConstantValidator(false));
+        PooledConnection<String, String> idleConnection = _testRelease();
+
+        pooledFactoryRule.testScheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+        ((EmbeddedChannel) idleConnection.unsafeNettyChannel()).runPendingTasks();
+
+        pooledFactoryRule.assertNoIdleConnection();
+        assertThat("Broken connection not closed.", idleConnection.unsafeNettyChannel().isActive(), is(false));
+    }
+
     @MaxConnections(1)
     @Test(timeout = 60000)
     public void testPoolExhaustion() throws Exception {
@@ -254,15 +280,28 @@ public class PooledConnectionProviderImplTest {
             };
         }
 
+        protected void init(int maxConnections, IdleConnectionValidator<String, String> validator) {
+            ClientEventListener listener = new ClientEventListener();
+            MockEventPublisher<ClientEventListener> publisher = MockEventPublisher.disabled();
+            init(maxConnections, publisher, publisher, listener, validator);
+        }
+
         protected void init(int maxConnections, EventSource<? extends ClientEventListener> eventSource,
                             EventPublisher publisher, ClientEventListener clientListener) {
+            init(maxConnections, eventSource, publisher, clientListener, null);
+        }
+
+        protected void init(int maxConnections, EventSource<? extends ClientEventListener> eventSource,
+                            EventPublisher publisher, ClientEventListener clientListener,
+                            IdleConnectionValidator<String, String> validator) {
             testScheduler = Schedulers.test();
             Observable<Long> idleConnCleaner = Observable.timer(1, TimeUnit.MINUTES, testScheduler);
             holder = new FIFOIdleConnectionsHolder<>();
             PoolConfig<String, String> config = new PoolConfig<>();
             config.idleConnectionsCleanupTimer(idleConnCleaner)
                   .maxConnections(maxConnections)
-                  .idleConnectionsHolder(holder);
+                  .idleConnectionsHolder(holder)
+                  .idleConnectionValidator(validator);
             Host host = new Host(new InetSocketAddress("127.0.0.1", 0));
             ConnectionProvider<String, String> cp = new EmbeddedConnectionProvider(publisher, clientListener);
             HostConnector<String, String> connector = new HostConnector<>(host, cp, eventSource, publisher,
@@ -374,6 +413,20 @@ public class PooledConnectionProviderImplTest {
         }
     }
 
+    private static class ConstantValidator implements IdleConnectionValidator<String, String> {
+
+        private final boolean healthy;
+
+        private ConstantValidator(boolean healthy) {
+            this.healthy = healthy;
+        }
+
+        @Override
+        public Observable<Boolean> validate(PooledConnection<String, String> connection) {
+            return Observable.just(healthy);
+        }
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target(METHOD)
     public @interface MaxConnections {
@@ -28,13 +28,14 @@ public class MockClientEventListener extends ClientEventListener {
 
     public enum ClientEvent {
         ConnectStart, ConnectSuccess, ConnectFailed, ReleaseStart, ReleaseSuccess, ReleaseFailed, Eviction, Reuse,
-        AcquireStart, AcquireSuccess, AcquireFailed
+        AcquireStart, AcquireSuccess, AcquireFailed, TlsHandshakeSuccess, TlsHandshakeFailed
     }
 
     private final List<ClientEvent> methodsCalled = new ArrayList<>();
     private long duration;
     private TimeUnit timeUnit;
     private Throwable recievedError;
+    private boolean sessionResumed;
 
     private final MockConnectionEventListener delegate = new MockConnectionEventListener();
 
@@ -58,6 +59,22 @@ public class MockClientEventListener extends ClientEventListener {
         this.recievedError = recievedError;
     }
 
+    @Override
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {
+        methodsCalled.add(ClientEvent.TlsHandshakeSuccess);
+        this.duration = duration;
+        this.timeUnit = timeUnit;
+        this.sessionResumed = sessionResumed;
+    }
+
+    @Override
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable recievedError) {
+        methodsCalled.add(ClientEvent.TlsHandshakeFailed);
+        this.duration = duration;
+        this.timeUnit = timeUnit;
+        this.recievedError = recievedError;
+    }
+
     @Override
     public void onPoolReleaseStart() {
         methodsCalled.add(ClientEvent.ReleaseStart);
@@ -218,6 +235,10 @@ public class MockClientEventListener extends ClientEventListener {
         return timeUnit;
     }
 
+    public boolean isSessionResumed() {
+        return sessionResumed;
+    }
+
     public Throwable getRecievedError() {
         return recievedError;
     }
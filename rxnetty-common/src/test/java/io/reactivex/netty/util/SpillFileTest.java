@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.observers.TestSubscriber;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class SpillFileTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ManualExecutor writer = new ManualExecutor();
+
+    @Test(timeout = 60000)
+    public void testWriteOnWriter() throws Exception {
+        SpillFile spill = SpillFile.create("spill-", ".tmp", folder.getRoot(), writer, 1024);
+
+        TestSubscriber<Void> written = new TestSubscriber<>();
+        spill.write(buffer("ab")).subscribe(written);
+
+        written.assertCompleted();
+        assertThat("File created on the calling thread.", folder.getRoot().list(), emptyArray());
+
+        writer.runAll();
+        File file = finish(spill);
+
+        assertThat("Unexpected content.", new String(Files.readAllBytes(file.toPath()), CharsetUtil.UTF_8),
+                   equalTo("ab"));
+    }
+
+    @Test(timeout = 60000)
+    public void testWriteWaitsForPendingBytes() throws Exception {
+        SpillFile spill = SpillFile.create("spill-", ".tmp", folder.getRoot(), writer, 3);
+
+        TestSubscriber<Void> first = new TestSubscriber<>();
+        spill.write(buffer("ab")).subscribe(first);
+        TestSubscriber<Void> second = new TestSubscriber<>();
+        spill.write(buffer("cd")).subscribe(second);
+
+        first.assertCompleted();
+        second.assertNoTerminalEvent();
+
+        writer.runAll();
+
+        second.assertCompleted();
+        File file = finish(spill);
+        assertThat("Unexpected content.", new String(Files.readAllBytes(file.toPath()), CharsetUtil.UTF_8),
+                   equalTo("abcd"));
+    }
+
+    @Test(timeout = 60000)
+    public void testDiscardReleasesPendingContent() throws Exception {
+        SpillFile spill = SpillFile.create("spill-", ".tmp", folder.getRoot(), writer, 1024);
+        spill.write(buffer("ab"));
+        writer.runAll();
+        ByteBuf pending = buffer("cd");
+        spill.write(pending);
+
+        spill.discard();
+        writer.runAll();
+
+        assertThat("Pending content not released.", pending.refCnt(), is(0));
+        assertThat("File not deleted.", folder.getRoot().list(), emptyArray());
+    }
+
+    private File finish(SpillFile spill) {
+        TestSubscriber<File> subscriber = new TestSubscriber<>();
+        spill.finish().subscribe(subscriber);
+        writer.runAll();
+
+        subscriber.assertNoErrors();
+        subscriber.assertValueCount(1);
+        return subscriber.getOnNextEvents().get(0);
+    }
+
+    private static ByteBuf buffer(String content) {
+        return Unpooled.copiedBuffer(content, CharsetUtil.UTF_8);
+    }
+
+    private static final class ManualExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        private void runAll() {
+            Runnable task;
+            while (null != (task = tasks.poll())) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class SpoolBytesTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 60000)
+    public void testContentInMemory() throws Exception {
+        SpooledContent spooled = spool(SpoolBytes.inMemoryUpTo(10, folder.getRoot()), "ab", "cd");
+
+        assertThat("Content not in memory.", spooled.isInMemory(), is(true));
+        assertThat("Unexpected length.", spooled.length(), is(4L));
+        assertThat("Unexpected content.", replay(spooled), equalTo("abcd"));
+        assertThat("Unexpected temporary files.", folder.getRoot().list(), emptyArray());
+
+        spooled.release();
+    }
+
+    @Test(timeout = 60000)
+    public void testContentSpilledToFile() throws Exception {
+        SpooledContent spooled = spool(SpoolBytes.inMemoryUpTo(3, folder.getRoot()), "ab", "cd", "ef");
+
+        assertThat("Content not spilled to file.", spooled.isInMemory(), is(false));
+        assertThat("Unexpected length.", spooled.length(), is(6L));
+        assertThat("Unexpected temporary files.", folder.getRoot().list(), arrayWithSize(1));
+
+        assertThat("Unexpected content.", replay(spooled), equalTo("abcdef"));
+        assertThat("Unexpected replayed content.", replay(spooled), equalTo("abcdef"));
+
+        spooled.release();
+        assertThat("Temporary file not deleted on release.", folder.getRoot().list(), emptyArray());
+    }
+
+    @Test(timeout = 60000)
+    public void testEmptyContent() throws Exception {
+        SpooledContent spooled = spool(SpoolBytes.inMemoryUpTo(0, folder.getRoot()));
+
+        assertThat("Unexpected length.", spooled.length(), is(0L));
+        assertThat("Unexpected content.", replay(spooled), equalTo(""));
+
+        spooled.release();
+    }
+
+    @Test(timeout = 60000)
+    public void testErrorDeletesFile() throws Exception {
+        TestSubscriber<SpooledContent> subscriber = new TestSubscriber<>();
+        Observable.just(buffer("abcdef"))
+                  .concatWith(Observable.<ByteBuf>error(new IOException("Deliberate exception.")))
+                  .compose(SpoolBytes.inMemoryUpTo(2, folder.getRoot()))
+                  .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertError(IOException.class);
+        while (folder.getRoot().list().length > 0) { // The file is deleted on the writer thread.
+            Thread.sleep(10);
+        }
+        assertThat("Temporary file not deleted on error.", folder.getRoot().list(), emptyArray());
+    }
+
+    @Test(timeout = 60000)
+    public void testReplayAfterRelease() throws Exception {
+        SpooledContent spooled = spool(SpoolBytes.inMemoryUpTo(10, folder.getRoot()), "ab");
+        spooled.release();
+
+        TestSubscriber<ByteBuf> subscriber = new TestSubscriber<>();
+        spooled.getContent().subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertError(IllegalStateException.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThreshold() throws Exception {
+        SpoolBytes.inMemoryUpTo(-1);
+    }
+
+    private static SpooledContent spool(SpoolBytes spoolBytes, String... chunks) {
+        ByteBuf[] buffers = new ByteBuf[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            buffers[i] = buffer(chunks[i]);
+        }
+
+        TestSubscriber<SpooledContent> subscriber = new TestSubscriber<>();
+        Observable.from(buffers).compose(spoolBytes).subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        subscriber.assertValueCount(1);
+        return subscriber.getOnNextEvents().get(0);
+    }
+
+    private static String replay(SpooledContent spooled) {
+        TestSubscriber<ByteBuf> subscriber = new TestSubscriber<>();
+        spooled.getContent().subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        StringBuilder content = new StringBuilder();
+        for (ByteBuf byteBuf : subscriber.getOnNextEvents()) {
+            content.append(byteBuf.toString(CharsetUtil.UTF_8));
+            byteBuf.release();
+        }
+        return content.toString();
+    }
+
+    private static ByteBuf buffer(String content) {
+        return Unpooled.copiedBuffer(content, CharsetUtil.UTF_8);
+    }
+}
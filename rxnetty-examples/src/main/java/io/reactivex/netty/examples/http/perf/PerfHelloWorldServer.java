@@ -19,6 +19,7 @@ package io.reactivex.netty.examples.http.perf;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.util.AsciiString;
 import io.reactivex.netty.examples.ExamplesEnvironment;
 import io.reactivex.netty.examples.http.helloworld.HelloWorldServer;
 import io.reactivex.netty.protocol.http.server.HttpServer;
@@ -47,8 +48,10 @@ public final class PerfHelloWorldServer {
             * not get recycled. Every write will release the buffer once.*/
             .doOnSubscribe(WELCOME_MSG_BUFFER::retain);
 
-    // Does not use int as this omits conversion to string for every response.
-    private static final String CONTENT_LENGTH_HEADER_VAL = String.valueOf(WELCOME_MSG_BUFFER.readableBytes());
+    // Does not use int as this omits conversion to string for every response. AsciiString is written by the encoder
+    // as is, without encoding the characters for every response.
+    private static final AsciiString CONTENT_LENGTH_HEADER_VAL =
+            new AsciiString(String.valueOf(WELCOME_MSG_BUFFER.readableBytes()));
 
     public static void main(final String[] args) {
 
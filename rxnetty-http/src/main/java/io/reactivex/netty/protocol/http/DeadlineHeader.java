@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http;
+
+import io.netty.util.AsciiString;
+
+/**
+ * The header used to propagate the deadline of a request from a client to a server, as the time, in milliseconds,
+ * remaining till the deadline when the request is written. A relative value is used so that the deadline does not
+ * depend on the clocks of the client and server being synchronized.
+ *
+ * @see io.reactivex.netty.protocol.http.client.HttpClientRequest#deadline(long, java.util.concurrent.TimeUnit)
+ * @see io.reactivex.netty.protocol.http.server.HttpServer#readDeadlineHeader(boolean)
+ */
+public final class DeadlineHeader {
+
+    /**
+     * Name of the header.
+     */
+    public static final AsciiString NAME = AsciiString.cached("x-request-timeout-ms");
+
+    private DeadlineHeader() {
+    }
+
+    /**
+     * Parses the value of the header.
+     *
+     * @param value Value of the header, can be {@code null}.
+     *
+     * @return The remaining time, in milliseconds, {@code -1} if the value is absent or invalid.
+     */
+    public static long parseRemainingMillis(String value) {
+        if (null == value) {
+            return -1;
+        }
+        try {
+            final long remaining = Long.parseLong(value.trim());
+            return remaining < 0 ? -1 : remaining;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
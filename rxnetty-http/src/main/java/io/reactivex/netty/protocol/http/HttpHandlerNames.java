@@ -22,6 +22,7 @@ package io.reactivex.netty.protocol.http;
 public enum HttpHandlerNames {
 
     HttpClientCodec("http-client-codec"),
+    HttpClientContentDecompressor("http-client-content-decompressor"),
     HttpServerDecoder("http-server-request-decoder"),
     HttpServerEncoder("http-server-response-encoder"),
     WsServerDecoder("ws-server-request-decoder"),
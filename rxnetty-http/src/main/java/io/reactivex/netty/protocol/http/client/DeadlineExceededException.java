@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Error raised when the deadline of a request, set by {@link HttpClientRequest#deadline(long, java.util.concurrent.TimeUnit)},
+ * is reached before the response is completely received.
+ */
+public class DeadlineExceededException extends TimeoutException {
+
+    private static final long serialVersionUID = -3415372096475846362L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
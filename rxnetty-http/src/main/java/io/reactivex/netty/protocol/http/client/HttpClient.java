@@ -24,11 +24,15 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.reactivex.netty.client.ChannelProviderFactory;
 import io.reactivex.netty.client.ConnectionProviderFactory;
 import io.reactivex.netty.client.Host;
+import io.reactivex.netty.protocol.http.HttpHandlerNames;
+import io.reactivex.netty.protocol.http.client.events.HttpClientEventsListener;
+import io.reactivex.netty.ssl.ClientSslCodec;
 import io.reactivex.netty.ssl.SslCodec;
 import rx.Observable;
 import rx.functions.Action1;
@@ -65,6 +69,24 @@ public abstract class HttpClient<I, O> extends InterceptingHttpClient<I,O> {
      */
     public abstract HttpClient<I, O> readTimeOut(int timeOut, TimeUnit timeUnit);
 
+    /**
+     * Creates a new client instances, inheriting all configurations from this client and enabling transparent
+     * decompression of {@code gzip} and {@code deflate} encoded response content for all requests created by the newly
+     * created client instance.
+     *
+     * All requests are sent with an {@code Accept-Encoding} header advertising the supported encodings, unless the
+     * request explicitly sets the header. The response content is decoded as it arrives, without buffering the entire
+     * response, and the encoded and decoded size of every decompressed response is published to
+     * {@link HttpClientEventsListener#onResponseContentDecoded(long, long)}
+     *
+     * The decompressor is added right after the HTTP codec, so that content decoders, eg: the decoder for
+     * {@link HttpClientResponse#getContentAsServerSentEvents()}, receive decompressed content. Custom content decoders
+     * must be added after {@link HttpHandlerNames#HttpClientContentDecompressor}, when decompression is enabled.
+     *
+     * @return A new {@link HttpClient} instance.
+     */
+    public abstract HttpClient<I, O> enableContentDecompression();
+
     /**
      * Creates a new client instances, inheriting all configurations from this client and adding a
      * {@link ChannelOption} for the connections created by the newly created client instance.
@@ -259,6 +281,22 @@ public abstract class HttpClient<I, O> extends InterceptingHttpClient<I,O> {
      */
     public abstract HttpClient<I, O> secure(SslCodec sslCodec);
 
+    /**
+     * Creates a new client instance, inheriting all configurations from this client and using the passed
+     * {@code sslContext} for all secured connections created by the newly created client instance.
+     *
+     * All connections share the passed context, so a new connection to a server resumes the TLS session negotiated
+     * by an earlier connection to the same server, instead of performing a full handshake. The server certificate is
+     * verified against the host this client connects to; use {@link ClientSslCodec#withoutHostnameVerification}
+     * with {@link #secure(SslCodec)} to opt-out. See {@link ClientSslCodec} for details.
+     *
+     * @param sslContext Client {@link SslContext} for all secured connections created by the newly created client
+     * instance.
+     *
+     * @return A new {@link HttpClient} instance.
+     */
+    public abstract HttpClient<I, O> secure(SslContext sslContext);
+
     /**
      * Creates a new client instance, inheriting all configurations from this client and using a trust-all
      * {@link TrustManagerFactory}for all secured connections created by the newly created client instance.
@@ -318,7 +356,9 @@ public abstract class HttpClient<I, O> extends InterceptingHttpClient<I,O> {
     }
 
     /**
-     * Creates a new HTTP client instance with the passed address of the target server.
+     * Creates a new HTTP client instance with the passed address of the target server. If the address is a unix domain
+     * socket address ({@code io.netty.channel.unix.DomainSocketAddress}), the client connects using the native epoll
+     * transport and sends {@code localhost} as the {@code Host} header unless one is set on the request.
      *
      * @param serverAddress Socket address for the target server.
      *
@@ -360,4 +400,26 @@ public abstract class HttpClient<I, O> extends InterceptingHttpClient<I,O> {
      * @return A new {@link HttpClient} instance.
      */
     public abstract HttpClient<I, O> followRedirects(boolean follow);
+
+    /**
+     * Creates a new client instances, inheriting all configurations from this client and pipelining requests, i.e.
+     * writing up to the passed number of requests on a connection, without waiting for the responses of the requests
+     * previously written on the connection. Responses on a connection are correlated with the requests in the order
+     * the requests were written. This reduces the number of connections and round trips required for a large number of
+     * concurrent requests to a server that supports pipelining.
+     *
+     * Only {@code HTTP/1.1} requests with an idempotent method ({@code GET}, {@code HEAD}, {@code OPTIONS},
+     * {@code TRACE}, {@code PUT} and {@code DELETE}), without content, are pipelined. Other requests, and requests with
+     * a deadline or content transformers, are written on a connection of their own. Pipelined requests are retried
+     * once on another connection, if the connection is closed before their responses are received.
+     *
+     * The content of a response to a pipelined request must be subscribed (or discarded) when the response is emitted,
+     * as the next response on the connection is read right after.
+     *
+     * @param maxPipelinedRequests Maximum number of requests on a connection awaiting a response. {@code 1} disables
+     * pipelining.
+     *
+     * @return A new {@link HttpClient} instance.
+     */
+    public abstract HttpClient<I, O> pipelining(int maxPipelinedRequests);
 }
@@ -25,6 +25,7 @@ import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.logging.LogLevel;
+import io.netty.handler.ssl.SslContext;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.reactivex.netty.client.ChannelProviderFactory;
 import io.reactivex.netty.client.ConnectionProvider;
@@ -35,9 +36,11 @@ import io.reactivex.netty.protocol.http.HttpHandlerNames;
 import io.reactivex.netty.protocol.http.client.events.HttpClientEventPublisher;
 import io.reactivex.netty.protocol.http.client.events.HttpClientEventsListener;
 import io.reactivex.netty.protocol.http.client.internal.HttpChannelProviderFactory;
+import io.reactivex.netty.protocol.http.client.internal.HttpClientContentDecompressor;
 import io.reactivex.netty.protocol.http.client.internal.HttpClientRequestImpl;
 import io.reactivex.netty.protocol.http.client.internal.HttpClientToConnectionBridge;
 import io.reactivex.netty.protocol.http.client.internal.Redirector;
+import io.reactivex.netty.protocol.http.client.internal.RequestPipeline;
 import io.reactivex.netty.protocol.http.ws.client.Ws7To13UpgradeHandler;
 import io.reactivex.netty.protocol.tcp.client.TcpClient;
 import io.reactivex.netty.protocol.tcp.client.TcpClientImpl;
@@ -53,23 +56,30 @@ import java.net.SocketAddress;
 import java.util.concurrent.TimeUnit;
 
 import static io.reactivex.netty.protocol.http.client.internal.HttpClientRequestImpl.*;
+import static io.reactivex.netty.protocol.http.client.internal.RequestPipeline.*;
 
 public final class HttpClientImpl<I, O> extends HttpClient<I, O> {
 
     private final TcpClient<?, HttpClientResponse<O>> client;
     private final int maxRedirects;
+    private final int maxPipelinedRequests;
     private final HttpClientEventPublisher clientEventPublisher;
     private final RequestProvider<I, O> requestProvider;
 
     private HttpClientImpl(final TcpClient<?, HttpClientResponse<O>> client, final int maxRedirects,
-                           HttpClientEventPublisher clientEventPublisher) {
+                           int maxPipelinedRequests, HttpClientEventPublisher clientEventPublisher) {
         this.client = client;
         this.maxRedirects = maxRedirects;
+        this.maxPipelinedRequests = maxPipelinedRequests;
         this.clientEventPublisher = clientEventPublisher;
+        /*Connections of a pipeline are shared by all requests created by this client instance.*/
+        final RequestPipeline pipeline = NO_PIPELINING == maxPipelinedRequests
+                ? null
+                : new RequestPipeline(client, maxPipelinedRequests);
         requestProvider = new RequestProvider<I, O>() {
             @Override
             public HttpClientRequest<I, O> createRequest(HttpVersion version, HttpMethod method, String uri) {
-                return HttpClientRequestImpl.create(version, method, uri, client, maxRedirects);
+                return HttpClientRequestImpl.create(version, method, uri, client, maxRedirects, pipeline);
             }
         };
     }
@@ -139,6 +149,18 @@ public final class HttpClientImpl<I, O> extends HttpClient<I, O> {
         return _copy(client.readTimeOut(timeOut, timeUnit), maxRedirects);
     }
 
+    @Override
+    public HttpClientImpl<I, O> enableContentDecompression() {
+        return _copy(HttpClientImpl.<O>castClient(client.pipelineConfigurator(new Action1<ChannelPipeline>() {
+            @Override
+            public void call(ChannelPipeline pipeline) {
+                pipeline.addAfter(HttpHandlerNames.HttpClientCodec.getName(),
+                                  HttpHandlerNames.HttpClientContentDecompressor.getName(),
+                                  new HttpClientContentDecompressor());
+            }
+        })), maxRedirects);
+    }
+
     @Override
     public HttpClientImpl<I, O> followRedirects(int maxRedirects) {
         return _copy(client, maxRedirects);
@@ -149,6 +171,14 @@ public final class HttpClientImpl<I, O> extends HttpClient<I, O> {
         return _copy(client, follow ? Redirector.DEFAULT_MAX_REDIRECTS : NO_REDIRECTS);
     }
 
+    @Override
+    public HttpClientImpl<I, O> pipelining(int maxPipelinedRequests) {
+        if (maxPipelinedRequests < NO_PIPELINING) {
+            throw new IllegalArgumentException("Max pipelined requests must be at least " + NO_PIPELINING);
+        }
+        return new HttpClientImpl<>(client, maxRedirects, maxPipelinedRequests, clientEventPublisher);
+    }
+
     @Override
     public <T> HttpClientImpl<I, O> channelOption(ChannelOption<T> option, T value) {
         return _copy(client.channelOption(option, value), maxRedirects);
@@ -231,6 +261,11 @@ public final class HttpClientImpl<I, O> extends HttpClient<I, O> {
         return _copy(client.secure(sslCodec), maxRedirects);
     }
 
+    @Override
+    public HttpClientImpl<I, O> secure(SslContext sslContext) {
+        return _copy(client.secure(sslContext), maxRedirects);
+    }
+
     @Override
     public HttpClientImpl<I, O> unsafeSecure() {
         return _copy(client.unsafeSecure(), maxRedirects);
@@ -258,6 +293,10 @@ public final class HttpClientImpl<I, O> extends HttpClient<I, O> {
         return clientEventPublisher.subscribe(listener);
     }
 
+    public TcpClient<?, HttpClientResponse<O>> unsafeTcpClient() {
+        return client;
+    }
+
     public static HttpClient<ByteBuf, ByteBuf> create(final ConnectionProviderFactory<ByteBuf, ByteBuf> providerFactory,
                                                       Observable<Host> hostStream) {
         ConnectionProviderFactory<ByteBuf, ByteBuf> cpf = new ConnectionProviderFactory<ByteBuf, ByteBuf>() {
@@ -298,7 +337,7 @@ public final class HttpClientImpl<I, O> extends HttpClient<I, O> {
 
         client.subscribe(clientEventPublisher);
 
-        return new HttpClientImpl<>(client, NO_REDIRECTS, clientEventPublisher);
+        return new HttpClientImpl<>(client, NO_REDIRECTS, NO_PIPELINING, clientEventPublisher);
     }
 
     @SuppressWarnings("unchecked")
@@ -307,6 +346,6 @@ public final class HttpClientImpl<I, O> extends HttpClient<I, O> {
     }
 
     private <II, OO> HttpClientImpl<II, OO> _copy(TcpClient<?, HttpClientResponse<OO>> newClient, int maxRedirects) {
-        return new HttpClientImpl<>(newClient, maxRedirects, clientEventPublisher);
+        return new HttpClientImpl<>(newClient, maxRedirects, maxPipelinedRequests, clientEventPublisher);
     }
 }
@@ -276,6 +276,43 @@ public abstract class HttpClientRequest<I, O> extends Observable<HttpClientRespo
      */
     public abstract HttpClientRequest<I, O> readTimeOut(int timeOut, TimeUnit timeUnit);
 
+    /**
+     * Sets a deadline for every execution of the newly created and returned request. The deadline starts when the
+     * returned request is subscribed and covers acquiring a connection, writing the request, receiving the response
+     * (including following any redirects) and receiving the entire response content. If the deadline is reached, the
+     * response (or response content) stream terminates with a {@link DeadlineExceededException} and the connection in
+     * use is closed, instead of being returned to the pool.
+     *
+     * The time remaining till the deadline, when the request is written, is sent to the server in the
+     * {@link io.reactivex.netty.protocol.http.DeadlineHeader#NAME} header, so that the server can stop processing the
+     * request once the client has given up on it.
+     *
+     * @param timeout Duration after which the deadline is reached.
+     * @param timeUnit Time unit for the timeout.
+     *
+     * @return A new instance of the {@link HttpClientRequest} sharing all existing state from this request.
+     */
+    public abstract HttpClientRequest<I, O> deadline(long timeout, TimeUnit timeUnit);
+
+    /**
+     * Sends the newly created and returned request with an {@code Expect: 100-continue} header, so that the server can
+     * reject the request (eg: due to authentication or size of the content) before the content is sent.
+     *
+     * The request headers are written and flushed first, and the content {@link Observable} is only subscribed when
+     * the server responds with a {@code 100 (Continue)} status or when the passed timeout elapses without a response
+     * from the server, as the server may not support {@code 100-continue}. If the server responds with a final status
+     * before that, the content is never subscribed and the response is emitted as is. Since the server would not
+     * have read the entire request in this case, the connection is not reused for any other request.
+     *
+     * This is a no-op for requests without content.
+     *
+     * @param timeout Maximum duration to wait for the server to respond, before sending the content.
+     * @param timeUnit Time unit for the timeout.
+     *
+     * @return A new instance of the {@link HttpClientRequest} sharing all existing state from this request.
+     */
+    public abstract HttpClientRequest<I, O> expectContinue(long timeout, TimeUnit timeUnit);
+
     /**
      * Enables following HTTP redirects for the newly created and returned request.
      *
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.client.pool.IdleConnectionValidator;
+import io.reactivex.netty.client.pool.PoolConfig;
+import io.reactivex.netty.client.pool.PooledConnection;
+import io.reactivex.netty.internal.VoidToAnythingCast;
+import io.reactivex.netty.protocol.http.client.internal.HttpClientResponseImpl;
+import rx.Observable;
+import rx.functions.Func1;
+
+/**
+ * An {@link IdleConnectionValidator} for {@link HttpClient} connection pools, which validates an idle connection by
+ * sending a request without content (typically {@code OPTIONS *} or a {@code HEAD}) on the connection and waiting for
+ * the response. Any response proves that the connection is alive, irrespective of the status; a response that does
+ * not keep the connection alive makes the pool discard the connection.
+ *
+ * Use with {@link PoolConfig#idleConnectionValidator(IdleConnectionValidator)}, eg:
+ *
+ <PRE>
+     PoolConfig&lt;ByteBuf, ByteBuf&gt; config = new PoolConfig&lt;ByteBuf, ByteBuf&gt;()
+                                    .idleConnectionValidator(HttpIdleConnectionProbe.options());
+     HttpClient.newClient(SingleHostPoolingProviderFactory.create(config), hosts);
+ </PRE>
+ */
+public final class HttpIdleConnectionProbe implements IdleConnectionValidator<ByteBuf, ByteBuf> {
+
+    private final HttpMethod method;
+    private final String uri;
+
+    private HttpIdleConnectionProbe(HttpMethod method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    /**
+     * Creates a probe sending an {@code OPTIONS *} request, which queries the server and not any resource.
+     *
+     * @return A new probe.
+     */
+    public static HttpIdleConnectionProbe options() {
+        return new HttpIdleConnectionProbe(HttpMethod.OPTIONS, "*");
+    }
+
+    /**
+     * Creates a probe sending a {@code HEAD} request for the passed {@code uri}, for servers that do not support
+     * {@code OPTIONS *}.
+     *
+     * @param uri URI of the probe request.
+     *
+     * @return A new probe.
+     */
+    public static HttpIdleConnectionProbe head(String uri) {
+        return new HttpIdleConnectionProbe(HttpMethod.HEAD, uri);
+    }
+
+    @Override
+    public Observable<Boolean> validate(PooledConnection<ByteBuf, ByteBuf> connection) {
+        /*Connections of a HTTP client read responses and write requests, irrespective of the declared types.*/
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Connection<HttpClientResponse<ByteBuf>, Object> conn = (Connection) connection;
+        final HttpRequest probe = new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, uri);
+
+        return conn.write(Observable.<Object>just(probe, LastHttpContent.EMPTY_LAST_CONTENT))
+                   .map(new VoidToAnythingCast<HttpClientResponse<ByteBuf>>())
+                   .ignoreElements()
+                   .concatWith(conn.getInput().take(1))
+                   .flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<Boolean>>() {
+                       @Override
+                       public Observable<Boolean> call(HttpClientResponse<ByteBuf> response) {
+                           /*The connection can only be reused after the response content is read completely.*/
+                           return HttpClientResponseImpl.newInstance(response, conn)
+                                                        .discardContent()
+                                                        .map(new VoidToAnythingCast<Boolean>())
+                                                        .concatWith(Observable.just(true));
+                       }
+                   });
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+}
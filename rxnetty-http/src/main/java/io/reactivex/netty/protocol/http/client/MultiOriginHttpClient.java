@@ -0,0 +1,579 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.client.ConnectionProvider;
+import io.reactivex.netty.client.ConnectionProviderFactory;
+import io.reactivex.netty.client.Host;
+import io.reactivex.netty.client.HostConnector;
+import io.reactivex.netty.client.dns.DnsResolver;
+import io.reactivex.netty.client.pool.PooledConnectionProvider;
+import io.reactivex.netty.client.pool.SingleHostPoolingProviderFactory;
+import io.reactivex.netty.protocol.http.client.internal.HttpClientRequestImpl;
+import io.reactivex.netty.protocol.http.client.internal.RawRequest;
+import io.reactivex.netty.protocol.http.client.internal.Redirector;
+import io.reactivex.netty.protocol.tcp.client.TcpClient;
+import io.reactivex.netty.ssl.ClientSslCodec;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.observers.Subscribers;
+import rx.subjects.BehaviorSubject;
+import rx.subjects.PublishSubject;
+
+import javax.net.ssl.SSLException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An HTTP client for requests to any origin (scheme, host and port), using absolute request URIs.
+ *
+ * An {@link HttpClient} is tied to a single host, so this client lazily creates an {@link HttpClient} per origin, when
+ * the origin is first requested, and reuses it for all subsequent requests to that origin. This means that requests
+ * (and redirects) to an origin share the connection pool of that origin, instead of creating a new client (and
+ * connections) for every request.
+ *
+ * <h2>Redirects</h2>
+ *
+ * Requests created by this client follow redirects, including absolute redirects to other origins (eg: to a CDN), using
+ * the client for the origin of the redirect location. When a redirect switches the origin, the {@code Authorization},
+ * {@code Proxy-Authorization} and {@code Cookie} headers of the original request are not sent to the new origin.
+ * Calling {@link HttpClientRequest#followRedirects(int)} on a request created by this client, replaces this behavior
+ * with the default relative-only redirects.
+ *
+ * <h2>Eviction</h2>
+ *
+ * Origins that are not used (by a request or a redirect) for the configured maximum idle time are evicted. Eviction
+ * is done lazily, when a client for an origin is requested, and shuts down the connection pool of the evicted origin.
+ * A request made to an evicted origin creates a new client for that origin.
+ *
+ * <h2>Name resolution</h2>
+ *
+ * The host of an origin is never resolved when the client for the origin is created, so neither a request nor a
+ * redirect resolves a host name on the calling thread. By default, the host is resolved by netty when a new connection
+ * is made, using the resolver of the JVM. A client created with a {@link DnsResolver} instead tracks the addresses of
+ * every origin host as per the time to live of its DNS records and makes new connections to the current addresses of
+ * the origin, see {@link #newClient(DnsResolver, long, TimeUnit)}.
+ *
+ * <h2>HTTPS</h2>
+ *
+ * Clients created by the default factory, for {@code https} origins, verify that the certificate of the server is
+ * trusted and is issued for the host of the origin, see {@link ClientSslCodec}. A certificate issued for any other
+ * host fails the request, even if it is trusted.
+ *
+ * @param <I> The type of the content of request.
+ * @param <O> The type of the content of response.
+ */
+public final class MultiOriginHttpClient<I, O> {
+
+    public static final long DEFAULT_MAX_IDLE_TIME_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final ConcurrentMap<Origin, OriginClient<I, O>> clients = new ConcurrentHashMap<>();
+    private final Func2<Origin, Host, HttpClient<I, O>> clientFactory;
+    private final long maxIdleTimeNanos;
+    private final int maxRedirects;
+    private final Func1<URI, TcpClient<?, HttpClientResponse<O>>> redirectClients;
+    private volatile long nextEvictionNanos;
+
+    private MultiOriginHttpClient(Func2<Origin, Host, HttpClient<I, O>> clientFactory, long maxIdleTime,
+                                  TimeUnit timeUnit, int maxRedirects) {
+        this.clientFactory = clientFactory;
+        this.maxRedirects = maxRedirects;
+        maxIdleTimeNanos = timeUnit.toNanos(maxIdleTime);
+        nextEvictionNanos = System.nanoTime() + maxIdleTimeNanos;
+        redirectClients = new Func1<URI, TcpClient<?, HttpClientResponse<O>>>() {
+            @Override
+            public TcpClient<?, HttpClientResponse<O>> call(URI uri) {
+                return getOriginClient(uri).tcpClient;
+            }
+        };
+    }
+
+    /**
+     * Creates a new request for the passed absolute URI, using HTTP/1.1.
+     *
+     * @param method HTTP method for the request.
+     * @param uri Absolute URI for the request.
+     *
+     * @return A new request.
+     *
+     * @throws IllegalArgumentException If the URI is not an absolute {@code http} or {@code https} URI.
+     */
+    public HttpClientRequest<I, O> createRequest(HttpMethod method, String uri) {
+        return createRequest(HttpVersion.HTTP_1_1, method, uri);
+    }
+
+    /**
+     * Creates a new request for the passed absolute URI.
+     *
+     * @param version HTTP version for the request.
+     * @param method HTTP method for the request.
+     * @param uri Absolute URI for the request.
+     *
+     * @return A new request.
+     *
+     * @throws IllegalArgumentException If the URI is not an absolute {@code http} or {@code https} URI.
+     */
+    public HttpClientRequest<I, O> createRequest(HttpVersion version, HttpMethod method, String uri) {
+        final URI absoluteUri = URI.create(uri);
+        final OriginClient<I, O> originClient = getOriginClient(absoluteUri);
+
+        final Redirector<I, O> redirector = new Redirector<>(maxRedirects, originClient.tcpClient, absoluteUri,
+                                                             redirectClients);
+        final RawRequest<I, O> rawRequest = RawRequest.create(version, method, requestUri(absoluteUri), redirector);
+        redirector.setOriginalRequest(rawRequest);
+        return HttpClientRequestImpl.create(rawRequest, originClient.tcpClient);
+    }
+
+    public HttpClientRequest<I, O> createGet(String uri) {
+        return createRequest(HttpMethod.GET, uri);
+    }
+
+    public HttpClientRequest<I, O> createPost(String uri) {
+        return createRequest(HttpMethod.POST, uri);
+    }
+
+    public HttpClientRequest<I, O> createPut(String uri) {
+        return createRequest(HttpMethod.PUT, uri);
+    }
+
+    public HttpClientRequest<I, O> createDelete(String uri) {
+        return createRequest(HttpMethod.DELETE, uri);
+    }
+
+    public HttpClientRequest<I, O> createHead(String uri) {
+        return createRequest(HttpMethod.HEAD, uri);
+    }
+
+    /**
+     * Returns the client for the origin of the passed absolute URI, creating one if it does not exist.
+     *
+     * @param uri Absolute URI.
+     *
+     * @return The client for the origin of the URI.
+     *
+     * @throws IllegalArgumentException If the URI is not an absolute {@code http} or {@code https} URI.
+     */
+    public HttpClient<I, O> getClient(String uri) {
+        return getOriginClient(URI.create(uri)).client;
+    }
+
+    /**
+     * Returns the number of origins for which a client currently exists.
+     *
+     * @return The number of origins for which a client currently exists.
+     */
+    public int getOriginCount() {
+        return clients.size();
+    }
+
+    /**
+     * Evicts all origins that are not used for the maximum idle time. This is done lazily when a client is requested,
+     * so this method is only required to eagerly release resources.
+     */
+    public void evictIdleOrigins() {
+        final long nowNanos = System.nanoTime();
+        nextEvictionNanos = nowNanos + maxIdleTimeNanos;
+        Iterator<Entry<Origin, OriginClient<I, O>>> it = clients.entrySet().iterator();
+        while (it.hasNext()) {
+            final Entry<Origin, OriginClient<I, O>> next = it.next();
+            final OriginClient<I, O> originClient = next.getValue();
+            if (nowNanos - originClient.lastUsedNanos >= maxIdleTimeNanos
+                && clients.remove(next.getKey(), originClient)) {
+                originClient.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Evicts all origins, shutting down their connection pools.
+     */
+    public void shutdown() {
+        for (Origin origin : clients.keySet()) {
+            final OriginClient<I, O> removed = clients.remove(origin);
+            if (null != removed) {
+                removed.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates a new client that uses an unbounded connection pool per origin, evicts origins that are idle for
+     * {@link #DEFAULT_MAX_IDLE_TIME_MILLIS} and follows a maximum of {@link Redirector#DEFAULT_MAX_REDIRECTS}
+     * redirects.
+     *
+     * @return A new client.
+     */
+    public static MultiOriginHttpClient<ByteBuf, ByteBuf> newClient() {
+        return newClient(DEFAULT_MAX_IDLE_TIME_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a new client that uses an unbounded connection pool per origin and follows a maximum of
+     * {@link Redirector#DEFAULT_MAX_REDIRECTS} redirects. {@code https} origins use the default trust store of the JVM.
+     *
+     * @param maxIdleTime Time after which an unused origin is evicted.
+     * @param timeUnit Time unit for the max idle time.
+     *
+     * @return A new client.
+     */
+    public static MultiOriginHttpClient<ByteBuf, ByteBuf> newClient(long maxIdleTime, TimeUnit timeUnit) {
+        return newClient(new DefaultClientFactory(null, null), maxIdleTime, timeUnit,
+                         Redirector.DEFAULT_MAX_REDIRECTS);
+    }
+
+    /**
+     * Creates a new client that uses an unbounded connection pool per origin and follows a maximum of
+     * {@link Redirector#DEFAULT_MAX_REDIRECTS} redirects. {@code https} origins use the passed context, eg: to trust
+     * certificates that are not in the default trust store of the JVM.
+     *
+     * @param sslContext Client context for all {@code https} origins.
+     * @param maxIdleTime Time after which an unused origin is evicted.
+     * @param timeUnit Time unit for the max idle time.
+     *
+     * @return A new client.
+     */
+    public static MultiOriginHttpClient<ByteBuf, ByteBuf> newClient(SslContext sslContext, long maxIdleTime,
+                                                                    TimeUnit timeUnit) {
+        if (!sslContext.isClient()) {
+            throw new IllegalArgumentException("SSL context is not a client context.");
+        }
+        return newClient(new DefaultClientFactory(sslContext, null), maxIdleTime, timeUnit,
+                         Redirector.DEFAULT_MAX_REDIRECTS);
+    }
+
+    /**
+     * Creates a new client that uses an unbounded connection pool per address of an origin and follows a maximum of
+     * {@link Redirector#DEFAULT_MAX_REDIRECTS} redirects. {@code https} origins use the default trust store of the JVM.
+     *
+     * The host of every origin is resolved using the passed resolver, which re-resolves it when the time to live of
+     * its addresses expires. New connections are made to one of the current addresses of the origin, and pooled
+     * connections to an address that is no longer returned by the resolver are closed.
+     *
+     * @param resolver Resolver for the origin hosts.
+     * @param maxIdleTime Time after which an unused origin is evicted.
+     * @param timeUnit Time unit for the max idle time.
+     *
+     * @return A new client.
+     */
+    public static MultiOriginHttpClient<ByteBuf, ByteBuf> newClient(DnsResolver resolver, long maxIdleTime,
+                                                                    TimeUnit timeUnit) {
+        if (null == resolver) {
+            throw new IllegalArgumentException("Resolver can not be null.");
+        }
+        return newClient(new DefaultClientFactory(null, resolver), maxIdleTime, timeUnit,
+                         Redirector.DEFAULT_MAX_REDIRECTS);
+    }
+
+    /**
+     * Creates a new client using the passed factory to create a client for an origin.
+     *
+     * @param clientFactory Factory to create a client for an origin. The factory is passed the {@link Host} to connect
+     * to, with an unresolved address, whose close notifier completes when the origin is evicted. Clients must be
+     * created using {@link HttpClient#newClient(ConnectionProviderFactory, Observable)} with this host, so that the
+     * connection pool of an origin is shut down on eviction.
+     * @param maxIdleTime Time after which an unused origin is evicted.
+     * @param timeUnit Time unit for the max idle time.
+     * @param maxRedirects Maximum number of redirects to follow for a request.
+     *
+     * @return A new client.
+     */
+    public static <I, O> MultiOriginHttpClient<I, O> newClient(Func2<Origin, Host, HttpClient<I, O>> clientFactory,
+                                                               long maxIdleTime, TimeUnit timeUnit,
+                                                               int maxRedirects) {
+        return new MultiOriginHttpClient<>(clientFactory, maxIdleTime, timeUnit, maxRedirects);
+    }
+
+    private OriginClient<I, O> getOriginClient(URI uri) {
+        final long nowNanos = System.nanoTime();
+        if (nowNanos - nextEvictionNanos >= 0) {
+            evictIdleOrigins();
+        }
+
+        final Origin origin = Origin.from(uri);
+        OriginClient<I, O> originClient = clients.get(origin);
+        if (null == originClient) {
+            final OriginClient<I, O> newClient = newOriginClient(origin);
+            originClient = clients.putIfAbsent(origin, newClient);
+            if (null == originClient) {
+                originClient = newClient;
+            } else {
+                newClient.shutdown(); // Lost the race, no connections are created till a request is made.
+            }
+        }
+
+        originClient.lastUsedNanos = nowNanos;
+        return originClient;
+    }
+
+    private OriginClient<I, O> newOriginClient(Origin origin) {
+        final PublishSubject<Void> closeNotifier = PublishSubject.create();
+        /*Resolved on connect, the client for an origin may be created on an event loop, eg: for a redirect.*/
+        final Host host = new Host(InetSocketAddress.createUnresolved(origin.getHost(), origin.getPort()),
+                                   closeNotifier);
+        final HttpClient<I, O> client = clientFactory.call(origin, host);
+        if (!(client instanceof HttpClientImpl)) {
+            throw new IllegalArgumentException("Client factory must return a client created by "
+                                               + "HttpClient.newClient().");
+        }
+        return new OriginClient<>(client, ((HttpClientImpl<I, O>) client).unsafeTcpClient(), closeNotifier);
+    }
+
+    private static String requestUri(URI uri) {
+        final StringBuilder requestUri = new StringBuilder();
+        final String path = uri.getRawPath();
+        requestUri.append(null == path || path.isEmpty() ? "/" : path);
+        if (null != uri.getRawQuery()) {
+            requestUri.append('?').append(uri.getRawQuery());
+        }
+        return requestUri.toString();
+    }
+
+    /**
+     * An origin, as defined by <a href="https://tools.ietf.org/html/rfc6454">RFC 6454</a>, for which a client is
+     * created.
+     */
+    public static final class Origin {
+
+        private final String scheme;
+        private final String host;
+        private final int port;
+
+        private Origin(String scheme, String host, int port) {
+            this.scheme = scheme;
+            this.host = host;
+            this.port = port;
+        }
+
+        public String getScheme() {
+            return scheme;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public boolean isSecure() {
+            return "https".equals(scheme);
+        }
+
+        static Origin from(URI uri) {
+            final String scheme = null == uri.getScheme() ? null : uri.getScheme().toLowerCase();
+            if (!"http".equals(scheme) && !"https".equals(scheme)) {
+                throw new IllegalArgumentException("Not an absolute http(s) URI: " + uri);
+            }
+            if (null == uri.getHost()) {
+                throw new IllegalArgumentException("No host in URI: " + uri);
+            }
+            final int port = -1 != uri.getPort() ? uri.getPort() : "https".equals(scheme) ? 443 : 80;
+            return new Origin(scheme, uri.getHost().toLowerCase(), port);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Origin)) {
+                return false;
+            }
+            Origin origin = (Origin) o;
+            return port == origin.port && scheme.equals(origin.scheme) && host.equals(origin.host);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = scheme.hashCode();
+            result = 31 * result + host.hashCode();
+            result = 31 * result + port;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return scheme + "://" + host + ':' + port;
+        }
+    }
+
+    private static final class OriginClient<I, O> {
+
+        private final HttpClient<I, O> client;
+        private final TcpClient<?, HttpClientResponse<O>> tcpClient;
+        private final PublishSubject<Void> closeNotifier;
+        private volatile long lastUsedNanos;
+
+        private OriginClient(HttpClient<I, O> client, TcpClient<?, HttpClientResponse<O>> tcpClient,
+                             PublishSubject<Void> closeNotifier) {
+            this.client = client;
+            this.tcpClient = tcpClient;
+            this.closeNotifier = closeNotifier;
+        }
+
+        private void shutdown() {
+            closeNotifier.onCompleted();
+        }
+    }
+
+    private static final class DefaultClientFactory implements Func2<Origin, Host, HttpClient<ByteBuf, ByteBuf>> {
+
+        private final DnsResolver resolver;
+        private volatile SslContext sslContext; /*Created lazily, as it is only required for https origins.*/
+
+        private DefaultClientFactory(SslContext sslContext, DnsResolver resolver) {
+            this.sslContext = sslContext;
+            this.resolver = resolver;
+        }
+
+        @Override
+        public HttpClient<ByteBuf, ByteBuf> call(final Origin origin, Host host) {
+            HttpClient<ByteBuf, ByteBuf> client;
+            if (null == resolver) {
+                client = HttpClient.newClient(SingleHostPoolingProviderFactory.<ByteBuf, ByteBuf>createUnbounded(),
+                                              Observable.just(host));
+            } else {
+                /*The resolver stops tracking the host, and removes all its addresses, when the origin is evicted.*/
+                final Observable<Host> hosts = resolver.hosts(origin.getHost(), origin.getPort())
+                                                       .takeUntil(host.getCloseNotifier().materialize());
+                client = HttpClient.newClient(new ResolvedHostsProviderFactory(resolver, origin.getHost()), hosts);
+            }
+            if (origin.isSecure()) {
+                /*Verifies the certificate against the origin host, not the resolved address of the host.*/
+                client = client.secure(new ClientSslCodec(getSslContext(), origin.getHost(), origin.getPort(), null,
+                                                          true));
+            }
+            return client;
+        }
+
+        private SslContext getSslContext() {
+            SslContext ctx = sslContext;
+            if (null == ctx) {
+                try {
+                    ctx = SslContextBuilder.forClient().build();
+                } catch (SSLException e) {
+                    throw new IllegalStateException("Failed to create SSL context for https origins.", e);
+                }
+                sslContext = ctx;
+            }
+            return ctx;
+        }
+    }
+
+    /**
+     * Creates connections to the current addresses of an origin, as emitted by {@link DnsResolver#hosts(String, int)},
+     * using a connection pool per address. A connection request made before the first addresses of the origin are
+     * emitted waits for them.
+     */
+    private static final class ResolvedHostsProviderFactory implements ConnectionProviderFactory<ByteBuf, ByteBuf> {
+
+        private final Observable<List<InetAddress>> resolution;
+
+        private ResolvedHostsProviderFactory(DnsResolver resolver, String hostname) {
+            resolution = resolver.resolve(hostname);
+        }
+
+        @Override
+        public ConnectionProvider<ByteBuf, ByteBuf> newProvider(Observable<HostConnector<ByteBuf, ByteBuf>> hosts) {
+            final BehaviorSubject<List<HostConnector<ByteBuf, ByteBuf>>> current =
+                    BehaviorSubject.create(Collections.<HostConnector<ByteBuf, ByteBuf>>emptyList());
+
+            hosts.subscribe(new Action1<HostConnector<ByteBuf, ByteBuf>>() {
+                @Override
+                public void call(HostConnector<ByteBuf, ByteBuf> hc) {
+                    final HostConnector<ByteBuf, ByteBuf> pooled =
+                            new HostConnector<>(hc, PooledConnectionProvider.createUnbounded(hc));
+                    update(current, pooled, true);
+                    hc.getHost().getCloseNotifier()
+                      .onErrorResumeNext(Observable.<Void>empty())
+                      .doOnCompleted(new Action0() {
+                          @Override
+                          public void call() {
+                              update(current, pooled, false);
+                          }
+                      })
+                      .subscribe(Subscribers.<Void>empty());
+                }
+            }, new Action1<Throwable>() {
+                @Override
+                public void call(Throwable throwable) {
+                    // The host stream of the resolver does not error, hosts are only removed on failures.
+                }
+            });
+
+            return new ConnectionProvider<ByteBuf, ByteBuf>() {
+                @Override
+                public Observable<Connection<ByteBuf, ByteBuf>> newConnectionRequest() {
+                    /*Resolving first (from the cache, mostly) fails the request if the host does not exist, instead of
+                    waiting for addresses that never arrive.*/
+                    return resolution.flatMap(new Func1<List<InetAddress>, Observable<Connection<ByteBuf, ByteBuf>>>() {
+                        @Override
+                        public Observable<Connection<ByteBuf, ByteBuf>> call(List<InetAddress> addresses) {
+                            return current.filter(new Func1<List<HostConnector<ByteBuf, ByteBuf>>, Boolean>() {
+                                @Override
+                                public Boolean call(List<HostConnector<ByteBuf, ByteBuf>> connectors) {
+                                    return !connectors.isEmpty();
+                                }
+                            }).first().flatMap(new Func1<List<HostConnector<ByteBuf, ByteBuf>>,
+                                    Observable<Connection<ByteBuf, ByteBuf>>>() {
+                                @Override
+                                public Observable<Connection<ByteBuf, ByteBuf>> call(
+                                        List<HostConnector<ByteBuf, ByteBuf>> connectors) {
+                                    final int index = ThreadLocalRandom.current().nextInt(connectors.size());
+                                    return connectors.get(index).getConnectionProvider().newConnectionRequest();
+                                }
+                            });
+                        }
+                    });
+                }
+            };
+        }
+
+        private static void update(BehaviorSubject<List<HostConnector<ByteBuf, ByteBuf>>> current,
+                                   HostConnector<ByteBuf, ByteBuf> connector, boolean add) {
+            synchronized (current) {
+                final List<HostConnector<ByteBuf, ByteBuf>> next = new ArrayList<>(current.getValue());
+                if (add) {
+                    next.add(connector);
+                } else {
+                    next.remove(connector);
+                }
+                current.onNext(Collections.unmodifiableList(next));
+            }
+        }
+    }
+}
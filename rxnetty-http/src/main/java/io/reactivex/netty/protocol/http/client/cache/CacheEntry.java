@@ -0,0 +1,280 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.reactivex.netty.protocol.http.client.HttpClientRequest;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.client.internal.HttpClientResponseImpl;
+import io.reactivex.netty.protocol.http.util.CacheControl;
+import rx.Observable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * A response stored in a {@link CacheStorage}, along with the information required to compute its age and freshness
+ * (RFC 7234, section 4.2) and to select it for a request ({@code Vary}).
+ *
+ * The content is an unreleasable buffer, so it can be served any number of times (as a duplicate), concurrently, without
+ * copying. Instances are immutable, a {@link CacheStorage} that moves the content elsewhere (eg: to a file) uses
+ * {@link #withContent(ByteBuf)} to create a new entry.
+ */
+public final class CacheEntry {
+
+    private static final String NO_CACHE = "no-cache";
+    private static final String MAX_AGE = "max-age";
+    private static final String MIN_FRESH = "min-fresh";
+
+    private final HttpVersion version;
+    private final HttpResponseStatus status;
+    private final HttpHeaders headers;
+    private final ByteBuf content;
+    private final List<String> varyNames;
+    private final String variantKey;
+    private final long requestTimeMillis;
+    private final long responseTimeMillis;
+    private final long size;
+
+    CacheEntry(HttpVersion version, HttpResponseStatus status, HttpHeaders headers, ByteBuf content,
+               List<String> varyNames, String variantKey, long requestTimeMillis, long responseTimeMillis) {
+        this.version = version;
+        this.status = status;
+        this.headers = headers;
+        this.content = content;
+        this.varyNames = varyNames;
+        this.variantKey = variantKey;
+        this.requestTimeMillis = requestTimeMillis;
+        this.responseTimeMillis = responseTimeMillis;
+        size = content.readableBytes() + headersSize(headers);
+    }
+
+    /**
+     * Creates a new entry, identical to this entry but with the passed content.
+     *
+     * @param newContent New content, which must have the same bytes as the content of this entry and must not be
+     * released by anyone, eg: an {@link io.netty.buffer.Unpooled#unreleasableBuffer(ByteBuf)}.
+     *
+     * @return A new entry with the passed content.
+     */
+    public CacheEntry withContent(ByteBuf newContent) {
+        return new CacheEntry(version, status, headers, newContent, varyNames, variantKey, requestTimeMillis,
+                              responseTimeMillis);
+    }
+
+    public HttpVersion getHttpVersion() {
+        return version;
+    }
+
+    public HttpResponseStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the stored headers of the response. The returned headers must not be modified.
+     *
+     * @return The stored headers of the response.
+     */
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns a duplicate of the stored content, which does not have to be released.
+     *
+     * @return A duplicate of the stored content.
+     */
+    public ByteBuf getContent() {
+        return content.duplicate();
+    }
+
+    public long getRequestTimeMillis() {
+        return requestTimeMillis;
+    }
+
+    public long getResponseTimeMillis() {
+        return responseTimeMillis;
+    }
+
+    /**
+     * Returns the approximate size of this entry, used by storages to bound their size.
+     *
+     * @return The size, in bytes, of the content and the headers.
+     */
+    public long size() {
+        return size;
+    }
+
+    boolean matches(HttpClientRequest<?, ?> request) {
+        return variantKey.equals(variantKey(request, varyNames));
+    }
+
+    boolean hasValidators() {
+        return headers.contains(ETAG) || headers.contains(LAST_MODIFIED);
+    }
+
+    boolean isFresh(long nowMillis, String requestCacheControl) {
+        if (CacheControl.hasDirective(headers.get(CACHE_CONTROL), NO_CACHE)) {
+            return false; // Must always be revalidated.
+        }
+
+        long ageMillis = currentAgeMillis(nowMillis);
+        final long maxAge = CacheControl.directiveSeconds(requestCacheControl, MAX_AGE);
+        if (maxAge >= 0 && ageMillis > SECONDS.toMillis(maxAge)) {
+            return false;
+        }
+        final long minFresh = CacheControl.directiveSeconds(requestCacheControl, MIN_FRESH);
+        if (minFresh > 0) {
+            ageMillis += SECONDS.toMillis(minFresh);
+        }
+        return freshnessLifetimeMillis() > ageMillis;
+    }
+
+    /**
+     * Returns the freshness lifetime of the response: RFC 7234, section 4.2.1. {@code s-maxage} is ignored as this is
+     * a private cache.
+     */
+    long freshnessLifetimeMillis() {
+        final long maxAge = CacheControl.directiveSeconds(headers.get(CACHE_CONTROL), MAX_AGE);
+        if (maxAge >= 0) {
+            return SECONDS.toMillis(maxAge);
+        }
+
+        final long expires = headers.getTimeMillis(EXPIRES, -1);
+        if (expires >= 0) {
+            return Math.max(0, expires - dateMillis());
+        }
+
+        final long lastModified = headers.getTimeMillis(LAST_MODIFIED, -1);
+        if (lastModified >= 0 && CacheControl.isCacheableByDefault(status)) {
+            /*Heuristic freshness: RFC 7234, section 4.2.2*/
+            return Math.max(0, (dateMillis() - lastModified) / 10);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Returns the current age of the response: RFC 7234, section 4.2.3
+     */
+    long currentAgeMillis(long nowMillis) {
+        final long apparentAge = Math.max(0, responseTimeMillis - dateMillis());
+        final long ageValue = SECONDS.toMillis(Math.max(0, headers.getInt(AGE, 0)));
+        final long correctedAgeValue = ageValue + (responseTimeMillis - requestTimeMillis);
+        final long correctedInitialAge = Math.max(apparentAge, correctedAgeValue);
+        return correctedInitialAge + Math.max(0, nowMillis - responseTimeMillis);
+    }
+
+    /**
+     * Creates a new entry after this entry is revalidated by a {@code 304} response: RFC 7234, section 4.3.4.
+     */
+    CacheEntry revalidated(HttpClientResponse<?> notModified, long requestTimeMillis, long responseTimeMillis) {
+        final HttpHeaders newHeaders = headers.copy();
+        for (String name : notModified.getHeaderNames()) {
+            if (isStoredHeader(name)) {
+                newHeaders.set(name, notModified.getAllHeaderValues(name));
+            }
+        }
+        return new CacheEntry(version, status, newHeaders, content, varyNames, variantKey, requestTimeMillis,
+                              responseTimeMillis);
+    }
+
+    HttpClientResponse<ByteBuf> newResponse(long nowMillis) {
+        final DefaultHttpResponse nettyResponse = new DefaultHttpResponse(version, status);
+        nettyResponse.headers()
+                     .set(headers)
+                     .set(AGE, MILLISECONDS.toSeconds(currentAgeMillis(nowMillis)))
+                     .set(CONTENT_LENGTH, content.readableBytes());
+        final Observable<ByteBuf> responseContent = content.isReadable() ? Observable.just(content.duplicate())
+                                                                          : Observable.<ByteBuf>empty();
+        return HttpClientResponseImpl.newDetachedInstance(nettyResponse, responseContent);
+    }
+
+    static CacheEntry newEntry(HttpClientRequest<?, ?> request, HttpClientResponse<?> response, ByteBuf content,
+                               long requestTimeMillis, long responseTimeMillis) {
+        final HttpHeaders headers = new DefaultHttpHeaders();
+        for (String name : response.getHeaderNames()) {
+            if (isStoredHeader(name)) {
+                headers.set(name, response.getAllHeaderValues(name));
+            }
+        }
+        final List<String> varyNames = varyNames(headers);
+        return new CacheEntry(response.getHttpVersion(), response.getStatus(), headers, content, varyNames,
+                              variantKey(request, varyNames), requestTimeMillis, responseTimeMillis);
+    }
+
+    static List<String> varyNames(HttpHeaders headers) {
+        final List<String> varyValues = headers.getAll(VARY);
+        if (varyValues.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> names = new ArrayList<>();
+        for (String varyValue : varyValues) {
+            for (String name : varyValue.split(",")) {
+                final String trimmed = name.trim();
+                if (!trimmed.isEmpty()) {
+                    names.add(trimmed.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    private static String variantKey(HttpClientRequest<?, ?> request, List<String> varyNames) {
+        if (varyNames.isEmpty()) {
+            return "";
+        }
+        final StringBuilder key = new StringBuilder();
+        for (String name : varyNames) {
+            key.append(request.getAllHeaders(name)).append('\n');
+        }
+        return key.toString();
+    }
+
+    private static boolean isStoredHeader(String name) {
+        /*Hop-by-hop headers are not stored, length is set when served.*/
+        return !CONNECTION.contentEqualsIgnoreCase(name) && !KEEP_ALIVE.contentEqualsIgnoreCase(name)
+               && !TRANSFER_ENCODING.contentEqualsIgnoreCase(name) && !CONTENT_LENGTH.contentEqualsIgnoreCase(name);
+    }
+
+    private static long headersSize(HttpHeaders headers) {
+        long size = 0;
+        final Iterator<Entry<CharSequence, CharSequence>> headerIterator = headers.iteratorCharSequence();
+        while (headerIterator.hasNext()) {
+            final Entry<CharSequence, CharSequence> header = headerIterator.next();
+            size += header.getKey().length() + header.getValue().length() + 4; // ": " and CRLF
+        }
+        return size;
+    }
+
+    private long dateMillis() {
+        return headers.getTimeMillis(DATE, responseTimeMillis);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.cache;
+
+/**
+ * Storage of the responses cached by {@link HttpClientCache}. Implementations must be thread-safe and are responsible
+ * for bounding their size, by evicting entries as required.
+ *
+ * Available implementations are {@link InMemoryCacheStorage} and {@link MappedFileCacheStorage}, which can be combined
+ * as tiers, see {@link InMemoryCacheStorage#InMemoryCacheStorage(long, CacheStorage)}.
+ */
+public interface CacheStorage {
+
+    /**
+     * Returns the entry stored for the passed key.
+     *
+     * @param key Key of the entry.
+     *
+     * @return The stored entry, {@code null} if none is stored.
+     */
+    CacheEntry get(String key);
+
+    /**
+     * Stores the passed entry, replacing any entry stored for the same key.
+     *
+     * @param key Key of the entry.
+     * @param entry Entry to store.
+     */
+    void put(String key, CacheEntry entry);
+
+    /**
+     * Removes the entry stored for the passed key, if any.
+     *
+     * @param key Key of the entry.
+     */
+    void remove(String key);
+
+    /**
+     * Removes all stored entries.
+     */
+    void clear();
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.reactivex.netty.events.EventSource;
+import io.reactivex.netty.protocol.http.client.HttpClient;
+import io.reactivex.netty.protocol.http.client.HttpClientRequest;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.client.Interceptor;
+import io.reactivex.netty.protocol.http.client.RequestProvider;
+import io.reactivex.netty.protocol.http.client.events.HttpClientEventPublisher;
+import io.reactivex.netty.protocol.http.client.events.HttpClientEventsListener;
+import io.reactivex.netty.protocol.http.util.CacheControl;
+import rx.Observable;
+import rx.Observable.Transformer;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.observers.Subscribers;
+
+import java.util.Date;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+
+/**
+ * A private HTTP cache (RFC 7234) for an {@link HttpClient}, used as an interceptor:
+ *
+ <PRE>
+    HttpClientCache<ByteBuf> cache = HttpClientCache.inMemory(64 * 1024 * 1024);
+    HttpClient.newClient(serverAddress)
+              .intercept()
+              .next(cache)
+              .finish()
+ </PRE>
+ *
+ * <h2>What is cached?</h2>
+ *
+ * Responses to {@code GET} requests, keyed by the request URI (and the {@code Host} header, if set) and the values of
+ * the request headers listed in the {@code Vary} header of the response. A single response is stored per key. Only
+ * responses with a status that is cacheable by default, without {@code no-store} or {@code Vary: *} and with either
+ * freshness information ({@code max-age}, {@code Expires}, {@code Last-Modified}) or a validator ({@code ETag},
+ * {@code Last-Modified}) are stored. The content of a response is stored when it is completely read, responses larger
+ * than the maximum entry size are not stored.
+ *
+ * Requests with {@code Cache-Control: no-store}, an {@code Authorization} header or with their own conditional or
+ * range headers bypass the cache. Requests with content or with an unsafe method invalidate the stored response for
+ * their URI, when successful.
+ *
+ * <h2>Serving from the cache</h2>
+ *
+ * A fresh response is served without contacting the server, with an {@code Age} header and a duplicate of the stored
+ * content, which does not have to be released. A stale response (or one with {@code no-cache}) with a validator is
+ * revalidated with a conditional request ({@code If-None-Match}, {@code If-Modified-Since}); a {@code 304} response
+ * refreshes and serves the stored response. Requests with {@code no-cache}, {@code max-age} and {@code min-fresh} are
+ * honored.
+ *
+ * <h2>Storage</h2>
+ *
+ * Responses are kept in a pluggable {@link CacheStorage}, eg: an {@link InMemoryCacheStorage}, optionally with a
+ * {@link MappedFileCacheStorage} as an overflow tier.
+ *
+ * <h2>Events</h2>
+ *
+ * Hits, misses and revalidations are published as {@link HttpClientEventsListener#onCacheHit()},
+ * {@link HttpClientEventsListener#onCacheMiss()} and {@link HttpClientEventsListener#onCacheRevalidated(boolean)} to
+ * the listeners subscribed to this cache. The listener of the client can be subscribed to the cache as well.
+ *
+ * @param <I> The type of the content of request.
+ */
+public class HttpClientCache<I> implements Interceptor<I, ByteBuf>, EventSource<HttpClientEventsListener> {
+
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final String MAX_AGE = "max-age";
+
+    private final CacheStorage storage;
+    private final int maxEntrySize;
+    private final HttpClientEventPublisher eventPublisher = new HttpClientEventPublisher();
+
+    /**
+     * Creates a new cache with the passed storage and the {@link #DEFAULT_MAX_ENTRY_SIZE}.
+     *
+     * @param storage Storage for the cached responses.
+     */
+    public HttpClientCache(CacheStorage storage) {
+        this(storage, DEFAULT_MAX_ENTRY_SIZE);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param storage Storage for the cached responses.
+     * @param maxEntrySize Maximum size, in bytes, of the content of a cached response.
+     */
+    public HttpClientCache(CacheStorage storage, int maxEntrySize) {
+        if (maxEntrySize <= 0) {
+            throw new IllegalArgumentException("Max entry size must be positive, provided: " + maxEntrySize);
+        }
+        this.storage = storage;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Creates a new cache keeping responses in memory.
+     *
+     * @param maxSize Maximum total size, in bytes, of the cached responses.
+     *
+     * @return A new cache.
+     */
+    public static <I> HttpClientCache<I> inMemory(long maxSize) {
+        return new HttpClientCache<>(new InMemoryCacheStorage(maxSize));
+    }
+
+    @Override
+    public RequestProvider<I, ByteBuf> intercept(final RequestProvider<I, ByteBuf> provider) {
+        return new RequestProvider<I, ByteBuf>() {
+            @Override
+            public HttpClientRequest<I, ByteBuf> createRequest(HttpVersion version, HttpMethod method, String uri) {
+                return new CachingRequest<>(provider.createRequest(version, method, uri), HttpClientCache.this);
+            }
+        };
+    }
+
+    @Override
+    public Subscription subscribe(HttpClientEventsListener listener) {
+        return eventPublisher.subscribe(listener);
+    }
+
+    /**
+     * Removes all responses from this cache.
+     */
+    public void invalidateAll() {
+        storage.clear();
+    }
+
+    /**
+     * Returns the storage of this cache.
+     *
+     * @return The storage of this cache.
+     */
+    public CacheStorage getStorage() {
+        return storage;
+    }
+
+    void execute(final HttpClientRequest<I, ByteBuf> request,
+                 final Subscriber<? super HttpClientResponse<ByteBuf>> subscriber) {
+        final HttpMethod method = request.getMethod();
+        if (!HttpMethod.GET.equals(method)) {
+            invalidateOnSuccess(request, request).unsafeSubscribe(subscriber);
+            return;
+        }
+
+        final String requestCacheControl = request.getHeader(CACHE_CONTROL);
+        if (CacheControl.hasDirective(requestCacheControl, NO_STORE) || request.containsHeader(AUTHORIZATION)
+            || request.containsHeader(IF_NONE_MATCH) || request.containsHeader(IF_MODIFIED_SINCE)
+            || request.containsHeader(RANGE)) {
+            request.unsafeSubscribe(subscriber);
+            return;
+        }
+
+        final String key = cacheKey(request);
+        final long nowMillis = System.currentTimeMillis();
+        CacheEntry entry = storage.get(key);
+        if (null != entry && !entry.matches(request)) {
+            entry = null;
+        }
+
+        if (null != entry && !CacheControl.hasDirective(requestCacheControl, NO_CACHE)
+            && entry.isFresh(nowMillis, requestCacheControl)) {
+            if (eventPublisher.publishingEnabled()) {
+                eventPublisher.onCacheHit();
+            }
+            subscriber.onNext(entry.newResponse(nowMillis));
+            subscriber.onCompleted();
+            return;
+        }
+
+        if (null != entry && entry.hasValidators()) {
+            revalidate(key, request, entry, nowMillis).unsafeSubscribe(subscriber);
+            return;
+        }
+
+        if (eventPublisher.publishingEnabled()) {
+            eventPublisher.onCacheMiss();
+        }
+        request.map(new Func1<HttpClientResponse<ByteBuf>, HttpClientResponse<ByteBuf>>() {
+            @Override
+            public HttpClientResponse<ByteBuf> call(HttpClientResponse<ByteBuf> response) {
+                return store(key, request, response, nowMillis);
+            }
+        }).unsafeSubscribe(subscriber);
+    }
+
+    Observable<HttpClientResponse<ByteBuf>> invalidateOnSuccess(HttpClientRequest<?, ?> request,
+                                                                Observable<HttpClientResponse<ByteBuf>> responses) {
+        if (!isUnsafe(request.getMethod())) {
+            return responses;
+        }
+        final String key = cacheKey(request);
+        return responses.doOnNext(new Action1<HttpClientResponse<ByteBuf>>() {
+            @Override
+            public void call(HttpClientResponse<ByteBuf> response) {
+                /*RFC 7234, section 4.4*/
+                if (response.getStatus().code() < 400) {
+                    storage.remove(key);
+                }
+            }
+        });
+    }
+
+    private Observable<HttpClientResponse<ByteBuf>> revalidate(final String key,
+                                                               final HttpClientRequest<I, ByteBuf> request,
+                                                               final CacheEntry stale, final long requestTimeMillis) {
+        HttpClientRequest<I, ByteBuf> conditional = request;
+        final String etag = stale.getHeaders().get(ETAG);
+        if (null != etag) {
+            conditional = conditional.setHeader(IF_NONE_MATCH, etag);
+        }
+        final long lastModified = stale.getHeaders().getTimeMillis(LAST_MODIFIED, -1);
+        if (lastModified >= 0) {
+            conditional = conditional.setHeader(IF_MODIFIED_SINCE, DateFormatter.format(new Date(lastModified)));
+        }
+
+        return conditional.map(new Func1<HttpClientResponse<ByteBuf>, HttpClientResponse<ByteBuf>>() {
+            @Override
+            public HttpClientResponse<ByteBuf> call(HttpClientResponse<ByteBuf> response) {
+                final boolean notModified = NOT_MODIFIED.equals(response.getStatus());
+                if (eventPublisher.publishingEnabled()) {
+                    eventPublisher.onCacheRevalidated(notModified);
+                }
+                if (!notModified) {
+                    return store(key, request, response, requestTimeMillis);
+                }
+
+                response.discardContent().subscribe(Subscribers.<Void>empty());
+                final long responseTimeMillis = System.currentTimeMillis();
+                final CacheEntry refreshed = stale.revalidated(response, requestTimeMillis, responseTimeMillis);
+                storage.put(key, refreshed);
+                return refreshed.newResponse(responseTimeMillis);
+            }
+        });
+    }
+
+    private HttpClientResponse<ByteBuf> store(final String key, final HttpClientRequest<I, ByteBuf> request,
+                                              final HttpClientResponse<ByteBuf> response,
+                                              final long requestTimeMillis) {
+        if (!isStorable(response)) {
+            storage.remove(key);
+            return response;
+        }
+
+        final long responseTimeMillis = System.currentTimeMillis();
+        return response.transformContent(new Transformer<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<ByteBuf> call(Observable<ByteBuf> content) {
+                final ContentCapture capture = new ContentCapture(key, request, response, requestTimeMillis,
+                                                                  responseTimeMillis);
+                return content.doOnNext(capture)
+                              .doOnCompleted(capture);
+            }
+        });
+    }
+
+    private boolean isStorable(HttpClientResponse<ByteBuf> response) {
+        final String cacheControl = response.getHeader(CACHE_CONTROL);
+        return CacheControl.isCacheableByDefault(response.getStatus())
+               && !CacheControl.hasDirective(cacheControl, NO_STORE)
+               && !"*".equals(response.getHeader(VARY))
+               && response.getContentLength(-1) <= maxEntrySize
+               && (CacheControl.directiveSeconds(cacheControl, MAX_AGE) >= 0 || response.containsHeader(EXPIRES)
+                   || response.containsHeader(LAST_MODIFIED) || response.containsHeader(ETAG));
+    }
+
+    private static boolean isUnsafe(HttpMethod method) {
+        return !HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)
+               && !HttpMethod.OPTIONS.equals(method) && !HttpMethod.TRACE.equals(method);
+    }
+
+    private static String cacheKey(HttpClientRequest<?, ?> request) {
+        final String host = request.getHeader(HOST);
+        return null == host ? request.getUri() : host + request.getUri();
+    }
+
+    /**
+     * Copies the content of a response, as it is read, and stores the response when the content completes.
+     */
+    private final class ContentCapture implements Action1<ByteBuf>, Action0 {
+
+        private final String key;
+        private final HttpClientRequest<I, ByteBuf> request;
+        private final HttpClientResponse<ByteBuf> response;
+        private final long requestTimeMillis;
+        private final long responseTimeMillis;
+        private ByteBuf captured = Unpooled.buffer();
+
+        private ContentCapture(String key, HttpClientRequest<I, ByteBuf> request, HttpClientResponse<ByteBuf> response,
+                               long requestTimeMillis, long responseTimeMillis) {
+            this.key = key;
+            this.request = request;
+            this.response = response;
+            this.requestTimeMillis = requestTimeMillis;
+            this.responseTimeMillis = responseTimeMillis;
+        }
+
+        @Override
+        public void call(ByteBuf chunk) {
+            if (null == captured) {
+                return;
+            }
+            if (captured.readableBytes() + chunk.readableBytes() > maxEntrySize) {
+                captured = null; // Too large to be cached.
+                return;
+            }
+            captured.writeBytes(chunk, chunk.readerIndex(), chunk.readableBytes());
+        }
+
+        @Override
+        public void call() {
+            if (null == captured) {
+                return;
+            }
+            storage.put(key, CacheEntry.newEntry(request, response, Unpooled.unreleasableBuffer(captured),
+                                                 requestTimeMillis, responseTimeMillis));
+            captured = null;
+        }
+    }
+}
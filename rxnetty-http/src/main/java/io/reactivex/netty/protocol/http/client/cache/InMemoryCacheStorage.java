@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * A {@link CacheStorage} that keeps entries on the heap, bounded by the total size of the entries. When full, the least
+ * recently used entries are evicted.
+ *
+ * <h2>Overflow tier</h2>
+ *
+ * An optional overflow storage (eg: a {@link MappedFileCacheStorage}) receives the entries evicted from memory and is
+ * looked up for entries that are not in memory. Entries found in the overflow storage are served from there and not
+ * moved back to memory. Evictions happen on the thread storing an entry, typically an event loop, so the overflow must
+ * not block; a {@link MappedFileCacheStorage} writes and deletes files on its own writer.
+ */
+public class InMemoryCacheStorage implements CacheStorage {
+
+    private final long maxSize;
+    private final CacheStorage overflow;
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size; // Guarded by entries
+
+    /**
+     * Creates a new storage without an overflow tier.
+     *
+     * @param maxSize Maximum total size, in bytes, of the stored entries.
+     */
+    public InMemoryCacheStorage(long maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * Creates a new storage with an overflow tier.
+     *
+     * @param maxSize Maximum total size, in bytes, of the entries stored in memory.
+     * @param overflow Storage for the entries evicted from memory, {@code null} to discard evicted entries.
+     */
+    public InMemoryCacheStorage(long maxSize, CacheStorage overflow) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive, provided: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.overflow = overflow;
+    }
+
+    @Override
+    public CacheEntry get(String key) {
+        final CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (null == entry && null != overflow) {
+            return overflow.get(key);
+        }
+        return entry;
+    }
+
+    @Override
+    public void put(String key, CacheEntry entry) {
+        final long entrySize = entry.size();
+        if (entrySize > maxSize) {
+            remove(key);
+            if (null != overflow) {
+                overflow.put(key, entry);
+            }
+            return;
+        }
+
+        final List<Entry<String, CacheEntry>> evicted = new ArrayList<>(1);
+        synchronized (entries) {
+            final CacheEntry existing = entries.put(key, entry);
+            size += entrySize - (null == existing ? 0 : existing.size());
+
+            final Iterator<Entry<String, CacheEntry>> lru = entries.entrySet().iterator();
+            while (size > maxSize && lru.hasNext()) {
+                final Entry<String, CacheEntry> eldest = lru.next();
+                size -= eldest.getValue().size();
+                evicted.add(eldest);
+                lru.remove();
+            }
+        }
+
+        if (null != overflow) {
+            /*The overflow may have an older version of this entry, which must not be served after eviction.*/
+            overflow.remove(key);
+            for (Entry<String, CacheEntry> eldest : evicted) {
+                overflow.put(eldest.getKey(), eldest.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        synchronized (entries) {
+            final CacheEntry removed = entries.remove(key);
+            if (null != removed) {
+                size -= removed.size();
+            }
+        }
+        if (null != overflow) {
+            overflow.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+        if (null != overflow) {
+            overflow.clear();
+        }
+    }
+
+    /**
+     * Returns the total size of the entries stored in memory.
+     *
+     * @return The total size, in bytes, of the entries stored in memory.
+     */
+    public long size() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.reactivex.netty.threads.RxDefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A {@link CacheStorage} that keeps the content of entries in files, memory-mapped when stored, so that the content
+ * does not occupy the heap and is paged in and out by the operating system as required. The status and headers of the
+ * entries are kept on the heap. The storage is bounded by the total size of the entries, when full, the least recently
+ * used entries are evicted and their files deleted.
+ *
+ * <h2>Writes</h2>
+ *
+ * Entries are stored from the thread that reads the response, typically an event loop, so all file operations (write,
+ * map and delete) are done on a dedicated writer, never on the calling thread. Till the file of an entry is written,
+ * the entry is served from its original content in memory. The total size of entries waiting to be written is bounded
+ * by {@link #DEFAULT_MAX_PENDING_WRITE_BYTES}, entries stored when the writer is that far behind are not cached.
+ *
+ * This storage is typically used as an overflow tier for an {@link InMemoryCacheStorage}. Files are not reused across
+ * restarts, files left over by a previous process can be deleted.
+ */
+public class MappedFileCacheStorage implements CacheStorage {
+
+    public static final long DEFAULT_MAX_PENDING_WRITE_BYTES = 16 * 1024 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileCacheStorage.class);
+
+    private final File directory;
+    private final long maxSize;
+    private final long maxPendingWriteBytes;
+    private final Executor writer;
+    private final LinkedHashMap<String, MappedEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashMap<String, CacheEntry> pendingWrites = new HashMap<>(); // Guarded by entries
+    private long size; // Guarded by entries
+    private long pendingWriteBytes; // Guarded by entries
+
+    /**
+     * Creates a new storage, which writes files on a single thread shared by all storages created by this constructor.
+     *
+     * @param directory Directory for the content files, created if it does not exist.
+     * @param maxSize Maximum total size, in bytes, of the stored entries.
+     */
+    public MappedFileCacheStorage(File directory, long maxSize) {
+        this(directory, maxSize, DefaultWriterHolder.INSTANCE, DEFAULT_MAX_PENDING_WRITE_BYTES);
+    }
+
+    /**
+     * Creates a new storage, which writes files using the passed executor.
+     *
+     * @param directory Directory for the content files, created if it does not exist.
+     * @param maxSize Maximum total size, in bytes, of the stored entries.
+     * @param writer Executor for all file operations. This must not be an event loop.
+     * @param maxPendingWriteBytes Maximum total size, in bytes, of the entries waiting to be written.
+     */
+    public MappedFileCacheStorage(File directory, long maxSize, Executor writer, long maxPendingWriteBytes) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive, provided: " + maxSize);
+        }
+        if (maxPendingWriteBytes <= 0) {
+            throw new IllegalArgumentException("Max pending write bytes must be positive, provided: "
+                                               + maxPendingWriteBytes);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Failed to create directory: " + directory);
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.writer = writer;
+        this.maxPendingWriteBytes = maxPendingWriteBytes;
+    }
+
+    @Override
+    public CacheEntry get(String key) {
+        synchronized (entries) {
+            /*A pending write is newer than the mapped entry, if any.*/
+            final CacheEntry pending = pendingWrites.get(key);
+            if (null != pending) {
+                return pending;
+            }
+            final MappedEntry mapped = entries.get(key);
+            return null == mapped ? null : mapped.entry;
+        }
+    }
+
+    @Override
+    public void put(final String key, final CacheEntry entry) {
+        final long entrySize = entry.size();
+        if (entrySize > maxSize) {
+            remove(key);
+            return;
+        }
+
+        boolean accepted = false;
+        synchronized (entries) {
+            final CacheEntry existing = pendingWrites.get(key);
+            final long existingSize = null == existing ? 0 : existing.size();
+            if (pendingWriteBytes - existingSize + entrySize <= maxPendingWriteBytes) {
+                pendingWrites.put(key, entry);
+                pendingWriteBytes += entrySize - existingSize;
+                accepted = true;
+            }
+        }
+
+        if (!accepted) {
+            logger.debug("Too many cached responses waiting to be written to files, the response will not be cached.");
+            /*An older version of this entry must not be served.*/
+            remove(key);
+            return;
+        }
+
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    write(key, entry);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Cache file writer rejected the write, the response will not be cached.", e);
+            synchronized (entries) {
+                removePendingWrite(key, entry);
+            }
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        final MappedEntry removed;
+        synchronized (entries) {
+            final CacheEntry pending = pendingWrites.remove(key);
+            if (null != pending) {
+                pendingWriteBytes -= pending.size();
+            }
+            removed = entries.remove(key);
+            if (null != removed) {
+                size -= removed.entry.size();
+            }
+        }
+        if (null != removed) {
+            deleteLater(Collections.singletonList(removed));
+        }
+    }
+
+    @Override
+    public void clear() {
+        final List<MappedEntry> removed;
+        synchronized (entries) {
+            removed = new ArrayList<>(entries.values());
+            entries.clear();
+            pendingWrites.clear();
+            size = 0;
+            pendingWriteBytes = 0;
+        }
+        deleteLater(removed);
+    }
+
+    /**
+     * Returns the total size of the entries written to files.
+     *
+     * @return The total size, in bytes, of the entries written to files.
+     */
+    public long size() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    /**
+     * Returns the total size of the entries waiting to be written to files.
+     *
+     * @return The total size, in bytes, of the entries waiting to be written to files.
+     */
+    public long pendingWriteBytes() {
+        synchronized (entries) {
+            return pendingWriteBytes;
+        }
+    }
+
+    /*Invoked on the writer.*/
+    private void write(String key, CacheEntry entry) {
+        synchronized (entries) {
+            if (pendingWrites.get(key) != entry) {
+                return; // Removed or replaced before the write started.
+            }
+        }
+
+        MappedEntry mapped = null;
+        try {
+            mapped = map(entry);
+        } catch (IOException e) {
+            logger.warn("Failed to write cached content to a file, the response will not be cached.", e);
+        }
+
+        final List<MappedEntry> removed = new ArrayList<>(1);
+        synchronized (entries) {
+            if (!removePendingWrite(key, entry)) {
+                /*Removed or replaced while writing.*/
+                if (null != mapped) {
+                    removed.add(mapped);
+                }
+            } else if (null == mapped) {
+                /*An older version of this entry must not be served.*/
+                final MappedEntry existing = entries.remove(key);
+                if (null != existing) {
+                    size -= existing.entry.size();
+                    removed.add(existing);
+                }
+            } else {
+                final MappedEntry existing = entries.put(key, mapped);
+                size += mapped.entry.size();
+                if (null != existing) {
+                    size -= existing.entry.size();
+                    removed.add(existing);
+                }
+
+                final Iterator<MappedEntry> lru = entries.values().iterator();
+                while (size > maxSize && lru.hasNext()) {
+                    final MappedEntry eldest = lru.next();
+                    size -= eldest.entry.size();
+                    removed.add(eldest);
+                    lru.remove();
+                }
+            }
+        }
+
+        for (MappedEntry toDelete : removed) {
+            toDelete.delete();
+        }
+    }
+
+    /*Guarded by entries*/
+    private boolean removePendingWrite(String key, CacheEntry entry) {
+        if (pendingWrites.get(key) != entry) {
+            return false;
+        }
+        pendingWrites.remove(key);
+        pendingWriteBytes -= entry.size();
+        return true;
+    }
+
+    private void deleteLater(final List<MappedEntry> toDelete) {
+        if (toDelete.isEmpty()) {
+            return;
+        }
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (MappedEntry entry : toDelete) {
+                        entry.delete();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Cache file writer rejected deleting files, the files will be deleted on exit.", e);
+            for (MappedEntry entry : toDelete) {
+                entry.file.deleteOnExit();
+            }
+        }
+    }
+
+    private MappedEntry map(CacheEntry entry) throws IOException {
+        final ByteBuf content = entry.getContent();
+        final File file = File.createTempFile("rxnetty-cache-", ".content", directory);
+        boolean mapped = false;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final FileChannel channel = raf.getChannel();
+            final int length = content.readableBytes();
+            for (ByteBuffer nioBuffer : content.nioBuffers()) {
+                while (nioBuffer.hasRemaining()) {
+                    channel.write(nioBuffer);
+                }
+            }
+            /*The mapping stays valid after the channel is closed, till it is garbage collected.*/
+            final ByteBuf mappedContent = Unpooled.unreleasableBuffer(
+                    Unpooled.wrappedBuffer(channel.map(MapMode.READ_ONLY, 0, length)));
+            mapped = true;
+            return new MappedEntry(entry.withContent(mappedContent), file);
+        } finally {
+            if (!mapped && !file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    private static final class MappedEntry {
+
+        private final CacheEntry entry;
+        private final File file;
+
+        private MappedEntry(CacheEntry entry, File file) {
+            this.entry = entry;
+            this.file = file;
+        }
+
+        private void delete() {
+            /*Entries being served continue to read from the mapping, after the file is deleted.*/
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    private static final class DefaultWriterHolder {
+
+        /*Daemon thread, so it does not prevent the JVM from exiting.*/
+        private static final ExecutorService INSTANCE =
+                Executors.newSingleThreadExecutor(new RxDefaultThreadFactory("rxnetty-cache-writer"));
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.coalescing;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.reactivex.netty.channel.DisposableContentSource;
+import io.reactivex.netty.protocol.http.client.HttpClient;
+import io.reactivex.netty.protocol.http.client.HttpClientRequest;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.client.Interceptor;
+import io.reactivex.netty.protocol.http.client.RequestProvider;
+import rx.Observable;
+import rx.Observable.Transformer;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Func1;
+import rx.observers.Subscribers;
+import rx.subscriptions.Subscriptions;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link HttpClient} interceptor that coalesces concurrent identical requests into a single upstream request
+ * (single-flight), eg: to protect a backend from a thundering herd of requests for a hot key in a proxy:
+ *
+ <PRE>
+    HttpClient.newClient(backend)
+              .intercept()
+              .next(new CoalescingInterceptor<ByteBuf>())
+              .finish()
+ </PRE>
+ *
+ * <h2>Identical requests</h2>
+ *
+ * By default, {@code GET} and {@code HEAD} requests without content, with the same method, URI, HTTP version and
+ * headers are considered identical. A custom key function can be provided to change this behavior, eg: to ignore
+ * headers that do not change the response.
+ *
+ * <h2>Sharing the response</h2>
+ *
+ * A request that is executed while an identical request is waiting for the response from the upstream server, does
+ * not create a new upstream request but waits for the same response. When the response is received, every waiting
+ * request receives its own {@link HttpClientResponse} with the same status and headers, and content which is a
+ * duplicate (sharing the memory but with independent indexes) of the upstream content. The upstream content is held
+ * till all waiting requests have consumed (or discarded) their content, so, as for any response, the content of every
+ * response must be consumed or discarded.
+ *
+ * If only a single request was waiting for a response, the response is passed as is, without any overhead.
+ *
+ * <h2>Cancellation</h2>
+ *
+ * A waiting request that is unsubscribed before the response is received stops waiting. When no request is waiting any
+ * more, the upstream request is unsubscribed, so that an abandoned response does not hold a connection, and the next
+ * identical request creates a new upstream request.
+ *
+ * @param <I> The type of the content of request.
+ */
+public class CoalescingInterceptor<I> implements Interceptor<I, ByteBuf> {
+
+    private final Func1<HttpClientRequest<?, ?>, String> keyFunction;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Creates a new interceptor that coalesces {@code GET} and {@code HEAD} requests with the same method, URI,
+     * HTTP version and headers.
+     */
+    public CoalescingInterceptor() {
+        this(new Func1<HttpClientRequest<?, ?>, String>() {
+            @Override
+            public String call(HttpClientRequest<?, ?> request) {
+                return defaultKey(request);
+            }
+        });
+    }
+
+    /**
+     * Creates a new interceptor that coalesces requests with the same key.
+     *
+     * @param keyFunction Function to compute the key of a request, which returns {@code null} for requests that must
+     * not be coalesced.
+     */
+    public CoalescingInterceptor(Func1<HttpClientRequest<?, ?>, String> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    @Override
+    public RequestProvider<I, ByteBuf> intercept(final RequestProvider<I, ByteBuf> provider) {
+        return new RequestProvider<I, ByteBuf>() {
+            @Override
+            public HttpClientRequest<I, ByteBuf> createRequest(HttpVersion version, HttpMethod method, String uri) {
+                return new CoalescingRequest<>(provider.createRequest(version, method, uri),
+                                               CoalescingInterceptor.this);
+            }
+        };
+    }
+
+    /**
+     * Returns the number of requests that did not create an upstream request but shared the response of an identical
+     * request.
+     *
+     * @return The number of coalesced requests.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    void execute(HttpClientRequest<I, ByteBuf> request, Subscriber<? super HttpClientResponse<ByteBuf>> subscriber) {
+        final String key = keyFunction.call(request);
+        if (null == key) {
+            request.unsafeSubscribe(subscriber);
+            return;
+        }
+
+        for (;;) {
+            final InFlight existing = inFlight.get(key);
+            if (null != existing) {
+                if (existing.join(subscriber)) {
+                    coalescedCount.incrementAndGet();
+                    return;
+                }
+                /*Response already received, the existing entry is being removed.*/
+                inFlight.remove(key, existing);
+                continue;
+            }
+
+            final InFlight newInFlight = new InFlight(key);
+            if (null == inFlight.putIfAbsent(key, newInFlight)) {
+                /*Joined only once added, so that a subscriber never waits on an entry that lost the race to another.
+                The join fails if identical requests joined and all left before this, the entry is then removed.*/
+                if (newInFlight.join(subscriber)) {
+                    newInFlight.start(request);
+                    return;
+                }
+            }
+        }
+    }
+
+    static String defaultKey(HttpClientRequest<?, ?> request) {
+        final HttpMethod method = request.getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return null;
+        }
+
+        /*Header order does not change the request.*/
+        final TreeMap<String, List<String>> headers = new TreeMap<>();
+        final Iterator<Entry<CharSequence, CharSequence>> headerIterator = request.headerIterator();
+        while (headerIterator.hasNext()) {
+            final Entry<CharSequence, CharSequence> header = headerIterator.next();
+            final String name = header.getKey().toString().toLowerCase();
+            List<String> values = headers.get(name);
+            if (null == values) {
+                values = new ArrayList<>(1);
+                headers.put(name, values);
+            }
+            values.add(header.getValue().toString());
+        }
+        return method.name() + ' ' + request.getUri() + ' ' + request.getHttpVersion() + ' ' + headers;
+    }
+
+    /**
+     * An upstream request in flight, with the requests waiting for its response.
+     */
+    private final class InFlight {
+
+        private final String key;
+        private final List<Subscriber<? super HttpClientResponse<ByteBuf>>> waiting = new ArrayList<>(2);
+        private final Upstream upstream = new Upstream();
+        private boolean responseReceived; // Guarded by this
+        private boolean cancelled; // Guarded by this
+
+        private InFlight(String key) {
+            this.key = key;
+        }
+
+        private boolean join(final Subscriber<? super HttpClientResponse<ByteBuf>> subscriber) {
+            synchronized (this) {
+                if (responseReceived || cancelled) {
+                    return false;
+                }
+                waiting.add(subscriber);
+            }
+            subscriber.add(Subscriptions.create(new Action0() {
+                @Override
+                public void call() {
+                    leave(subscriber);
+                }
+            }));
+            return true;
+        }
+
+        private void leave(Subscriber<? super HttpClientResponse<ByteBuf>> subscriber) {
+            synchronized (this) {
+                if (responseReceived || cancelled || !waiting.remove(subscriber) || !waiting.isEmpty()) {
+                    return;
+                }
+                cancelled = true;
+            }
+            /*No request is waiting for the response, so the next identical request must create a new upstream
+            request.*/
+            inFlight.remove(key, this);
+            upstream.unsubscribe();
+        }
+
+        private void start(HttpClientRequest<I, ByteBuf> request) {
+            synchronized (this) {
+                if (cancelled) {
+                    /*All waiting requests unsubscribed before start, eg: the subscriber was already unsubscribed.*/
+                    return;
+                }
+            }
+            /*If cancelled after the above check, the upstream subscriber is already unsubscribed, which unsubscribes
+            the upstream request as soon as it is subscribed.*/
+            request.unsafeSubscribe(upstream);
+        }
+
+        private List<Subscriber<? super HttpClientResponse<ByteBuf>>> complete() {
+            inFlight.remove(key, this);
+            synchronized (this) {
+                responseReceived = true;
+                return new ArrayList<>(waiting);
+            }
+        }
+
+        private void emit(Subscriber<? super HttpClientResponse<ByteBuf>> subscriber,
+                          HttpClientResponse<ByteBuf> response) {
+            if (subscriber.isUnsubscribed()) {
+                response.discardContent().subscribe(Subscribers.<Void>empty());
+                return;
+            }
+            subscriber.onNext(response);
+            subscriber.onCompleted();
+        }
+
+        private void fanOut(List<Subscriber<? super HttpClientResponse<ByteBuf>>> subscribers,
+                            final HttpClientResponse<ByteBuf> response) {
+            final DisposableContentSource<ByteBuf> sharedContent = response.getContent().replayable();
+            final AtomicInteger pendingContent = new AtomicInteger(subscribers.size());
+            final Action0 onContentDone = new Action0() {
+                @Override
+                public void call() {
+                    if (0 == pendingContent.decrementAndGet()) {
+                        sharedContent.dispose();
+                    }
+                }
+            };
+
+            boolean contentRequired = false;
+            for (Subscriber<? super HttpClientResponse<ByteBuf>> subscriber : subscribers) {
+                if (subscriber.isUnsubscribed()) {
+                    onContentDone.call();
+                    continue;
+                }
+                contentRequired = true;
+                subscriber.onNext(response.transformContent(new SharedContent(sharedContent, onContentDone)));
+                subscriber.onCompleted();
+            }
+
+            if (!contentRequired) {
+                response.discardContent().subscribe(Subscribers.<Void>empty());
+            }
+        }
+
+        /**
+         * Subscriber of the upstream request, unsubscribed when no request is waiting for the response.
+         */
+        private final class Upstream extends Subscriber<HttpClientResponse<ByteBuf>> {
+
+            @Override
+            public void onCompleted() {
+                // No Op, the waiting subscribers are completed on receiving the response.
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                for (Subscriber<? super HttpClientResponse<ByteBuf>> subscriber : complete()) {
+                    subscriber.onError(e);
+                }
+            }
+
+            @Override
+            public void onNext(HttpClientResponse<ByteBuf> response) {
+                final List<Subscriber<? super HttpClientResponse<ByteBuf>>> subscribers = complete();
+                if (subscribers.isEmpty()) {
+                    /*Received while the upstream request was being cancelled.*/
+                    response.discardContent().subscribe(Subscribers.<Void>empty());
+                } else if (1 == subscribers.size()) {
+                    emit(subscribers.get(0), response);
+                } else {
+                    fanOut(subscribers, response);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the content of a response with a duplicate of the shared content.
+     */
+    private static final class SharedContent implements Transformer<ByteBuf, ByteBuf> {
+
+        private final Observable<ByteBuf> sharedContent;
+        private final Action0 onContentDone;
+
+        private SharedContent(Observable<ByteBuf> sharedContent, Action0 onContentDone) {
+            this.sharedContent = sharedContent;
+            this.onContentDone = onContentDone;
+        }
+
+        @Override
+        public Observable<ByteBuf> call(Observable<ByteBuf> ignored) {
+            final AtomicBoolean done = new AtomicBoolean();
+            final Action0 doneOnce = new Action0() {
+                @Override
+                public void call() {
+                    if (done.compareAndSet(false, true)) {
+                        onContentDone.call();
+                    }
+                }
+            };
+            return sharedContent.map(new Func1<ByteBuf, ByteBuf>() {
+                                    @Override
+                                    public ByteBuf call(ByteBuf byteBuf) {
+                                        /*Shared source retains the same buffer for every subscriber.*/
+                                        final ByteBuf duplicate = byteBuf.retainedDuplicate();
+                                        byteBuf.release();
+                                        return duplicate;
+                                    }
+                                })
+                                .doOnTerminate(doneOnce)
+                                .doOnUnsubscribe(doneOnce);
+        }
+    }
+}
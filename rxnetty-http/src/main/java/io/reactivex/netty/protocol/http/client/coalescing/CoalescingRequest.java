@@ -0,0 +1,319 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.coalescing;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.reactivex.netty.channel.AllocatingTransformer;
+import io.reactivex.netty.protocol.http.TrailingHeaders;
+import io.reactivex.netty.protocol.http.client.HttpClientRequest;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.ws.client.WebSocketRequest;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link HttpClientRequest} which is executed via {@link CoalescingInterceptor} when subscribed, so that concurrent
+ * identical requests share a single upstream request. Requests with content ({@code write*Content}) and requests with
+ * transformed content are not coalesced and are delegated as is.
+ */
+final class CoalescingRequest<I> extends HttpClientRequest<I, ByteBuf> {
+
+    private final HttpClientRequest<I, ByteBuf> delegate;
+    private final CoalescingInterceptor<I> interceptor;
+
+    CoalescingRequest(final HttpClientRequest<I, ByteBuf> delegate, final CoalescingInterceptor<I> interceptor) {
+        super(new OnSubscribe<HttpClientResponse<ByteBuf>>() {
+            @Override
+            public void call(Subscriber<? super HttpClientResponse<ByteBuf>> subscriber) {
+                interceptor.execute(delegate, subscriber);
+            }
+        });
+        this.delegate = delegate;
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public Observable<HttpClientResponse<ByteBuf>> writeContent(Observable<I> contentSource) {
+        return delegate.writeContent(contentSource);
+    }
+
+    @Override
+    public Observable<HttpClientResponse<ByteBuf>> writeContentAndFlushOnEach(Observable<I> contentSource) {
+        return delegate.writeContentAndFlushOnEach(contentSource);
+    }
+
+    @Override
+    public Observable<HttpClientResponse<ByteBuf>> writeContent(Observable<I> contentSource,
+                                                                Func1<I, Boolean> flushSelector) {
+        return delegate.writeContent(contentSource, flushSelector);
+    }
+
+    @Override
+    public <T extends TrailingHeaders> Observable<HttpClientResponse<ByteBuf>> writeContent(Observable<I> contentSource,
+                                                                                            Func0<T> trailerFactory,
+                                                                                            Func2<T, I, T> trailerMutator) {
+        return delegate.writeContent(contentSource, trailerFactory, trailerMutator);
+    }
+
+    @Override
+    public <T extends TrailingHeaders> Observable<HttpClientResponse<ByteBuf>> writeContent(Observable<I> contentSource,
+                                                                                            Func0<T> trailerFactory,
+                                                                                            Func2<T, I, T> trailerMutator,
+                                                                                            Func1<I, Boolean> flushSelector) {
+        return delegate.writeContent(contentSource, trailerFactory, trailerMutator, flushSelector);
+    }
+
+    @Override
+    public Observable<HttpClientResponse<ByteBuf>> writeStringContent(Observable<String> contentSource) {
+        return delegate.writeStringContent(contentSource);
+    }
+
+    @Override
+    public Observable<HttpClientResponse<ByteBuf>> writeStringContent(Observable<String> contentSource,
+                                                                      Func1<String, Boolean> flushSelector) {
+        return delegate.writeStringContent(contentSource, flushSelector);
+    }
+
+    @Override
+    public <T extends TrailingHeaders> Observable<HttpClientResponse<ByteBuf>> writeStringContent(Observable<String> contentSource,
+                                                                                                  Func0<T> trailerFactory,
+                                                                                                  Func2<T, String, T> trailerMutator) {
+        return delegate.writeStringContent(contentSource, trailerFactory, trailerMutator);
+    }
+
+    @Override
+    public <T extends TrailingHeaders> Observable<HttpClientResponse<ByteBuf>> writeStringContent(Observable<String> contentSource,
+                                                                                                  Func0<T> trailerFactory,
+                                                                                                  Func2<T, String, T> trailerMutator,
+                                                                                                  Func1<String, Boolean> flushSelector) {
+        return delegate.writeStringContent(contentSource, trailerFactory, trailerMutator, flushSelector);
+    }
+
+    @Override
+    public Observable<HttpClientResponse<ByteBuf>> writeBytesContent(Observable<byte[]> contentSource) {
+        return delegate.writeBytesContent(contentSource);
+    }
+
+    @Override
+    public Observable<HttpClientResponse<ByteBuf>> writeBytesContent(Observable<byte[]> contentSource,
+                                                                     Func1<byte[], Boolean> flushSelector) {
+        return delegate.writeBytesContent(contentSource, flushSelector);
+    }
+
+    @Override
+    public <T extends TrailingHeaders> Observable<HttpClientResponse<ByteBuf>> writeBytesContent(Observable<byte[]> contentSource,
+                                                                                                 Func0<T> trailerFactory,
+                                                                                                 Func2<T, byte[], T> trailerMutator) {
+        return delegate.writeBytesContent(contentSource, trailerFactory, trailerMutator);
+    }
+
+    @Override
+    public <T extends TrailingHeaders> Observable<HttpClientResponse<ByteBuf>> writeBytesContent(Observable<byte[]> contentSource,
+                                                                                                 Func0<T> trailerFactory,
+                                                                                                 Func2<T, byte[], T> trailerMutator,
+                                                                                                 Func1<byte[], Boolean> flushSelector) {
+        return delegate.writeBytesContent(contentSource, trailerFactory, trailerMutator, flushSelector);
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> readTimeOut(int timeOut, TimeUnit timeUnit) {
+        return wrap(delegate.readTimeOut(timeOut, timeUnit));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> deadline(long timeout, TimeUnit timeUnit) {
+        return wrap(delegate.deadline(timeout, timeUnit));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> expectContinue(long timeout, TimeUnit timeUnit) {
+        return wrap(delegate.expectContinue(timeout, timeUnit));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> followRedirects(int maxRedirects) {
+        return wrap(delegate.followRedirects(maxRedirects));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> followRedirects(boolean follow) {
+        return wrap(delegate.followRedirects(follow));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setMethod(HttpMethod method) {
+        return wrap(delegate.setMethod(method));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setUri(String newUri) {
+        return wrap(delegate.setUri(newUri));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> addHeader(CharSequence name, Object value) {
+        return wrap(delegate.addHeader(name, value));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> addHeaders(Map<? extends CharSequence, ? extends Iterable<Object>> headers) {
+        return wrap(delegate.addHeaders(headers));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> addCookie(Cookie cookie) {
+        return wrap(delegate.addCookie(cookie));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> addDateHeader(CharSequence name, Date value) {
+        return wrap(delegate.addDateHeader(name, value));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> addDateHeader(CharSequence name, Iterable<Date> values) {
+        return wrap(delegate.addDateHeader(name, values));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> addHeaderValues(CharSequence name, Iterable<Object> values) {
+        return wrap(delegate.addHeaderValues(name, values));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setDateHeader(CharSequence name, Date value) {
+        return wrap(delegate.setDateHeader(name, value));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setHeader(CharSequence name, Object value) {
+        return wrap(delegate.setHeader(name, value));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setHeaders(Map<? extends CharSequence, ? extends Iterable<Object>> headers) {
+        return wrap(delegate.setHeaders(headers));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setDateHeader(CharSequence name, Iterable<Date> values) {
+        return wrap(delegate.setDateHeader(name, values));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setHeaderValues(CharSequence name, Iterable<Object> values) {
+        return wrap(delegate.setHeaderValues(name, values));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> removeHeader(CharSequence name) {
+        return wrap(delegate.removeHeader(name));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setKeepAlive(boolean keepAlive) {
+        return wrap(delegate.setKeepAlive(keepAlive));
+    }
+
+    @Override
+    public HttpClientRequest<I, ByteBuf> setTransferEncodingChunked() {
+        return wrap(delegate.setTransferEncodingChunked());
+    }
+
+    @Override
+    public <II> HttpClientRequest<II, ByteBuf> transformContent(AllocatingTransformer<II, I> transformer) {
+        return delegate.transformContent(transformer);
+    }
+
+    @Override
+    public <OO> HttpClientRequest<I, OO> transformResponseContent(Transformer<ByteBuf, OO> transformer) {
+        return delegate.transformResponseContent(transformer);
+    }
+
+    @Override
+    public WebSocketRequest<ByteBuf> requestWebSocketUpgrade() {
+        return delegate.requestWebSocketUpgrade();
+    }
+
+    @Override
+    public boolean containsHeader(CharSequence name) {
+        return delegate.containsHeader(name);
+    }
+
+    @Override
+    public boolean containsHeaderWithValue(CharSequence name, CharSequence value, boolean caseInsensitiveValueMatch) {
+        return delegate.containsHeaderWithValue(name, value, caseInsensitiveValueMatch);
+    }
+
+    @Override
+    public String getHeader(CharSequence name) {
+        return delegate.getHeader(name);
+    }
+
+    @Override
+    public List<String> getAllHeaders(CharSequence name) {
+        return delegate.getAllHeaders(name);
+    }
+
+    @Override
+    public Iterator<Entry<CharSequence, CharSequence>> headerIterator() {
+        return delegate.headerIterator();
+    }
+
+    @Override
+    public Set<String> getHeaderNames() {
+        return delegate.getHeaderNames();
+    }
+
+    @Override
+    public HttpVersion getHttpVersion() {
+        return delegate.getHttpVersion();
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+        return delegate.getMethod();
+    }
+
+    @Override
+    public String getUri() {
+        return delegate.getUri();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    private HttpClientRequest<I, ByteBuf> wrap(HttpClientRequest<I, ByteBuf> newDelegate) {
+        return new CoalescingRequest<>(newDelegate, interceptor);
+    }
+}
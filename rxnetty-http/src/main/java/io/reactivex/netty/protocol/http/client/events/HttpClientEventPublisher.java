@@ -91,6 +91,14 @@ public final class HttpClientEventPublisher extends HttpClientEventsListener
                 }
             };
 
+    private static final Action3<HttpClientEventsListener, Long, Long> RESP_CONTENT_DECODED_ACTION =
+            new Action3<HttpClientEventsListener, Long, Long>() {
+                @Override
+                public void call(HttpClientEventsListener listener, Long encodedBytes, Long decodedBytes) {
+                    listener.onResponseContentDecoded(encodedBytes, decodedBytes);
+                }
+            };
+
     private static final Action2<HttpClientEventsListener, Throwable> RESP_FAILED_ACTION =
             new Action2<HttpClientEventsListener, Throwable>() {
                 @Override
@@ -107,6 +115,30 @@ public final class HttpClientEventPublisher extends HttpClientEventsListener
                 }
             };
 
+    private static final Action1<HttpClientEventsListener> CACHE_HIT_ACTION =
+            new Action1<HttpClientEventsListener>() {
+                @Override
+                public void call(HttpClientEventsListener listener) {
+                    listener.onCacheHit();
+                }
+            };
+
+    private static final Action1<HttpClientEventsListener> CACHE_MISS_ACTION =
+            new Action1<HttpClientEventsListener>() {
+                @Override
+                public void call(HttpClientEventsListener listener) {
+                    listener.onCacheMiss();
+                }
+            };
+
+    private static final Action2<HttpClientEventsListener, Boolean> CACHE_REVALIDATED_ACTION =
+            new Action2<HttpClientEventsListener, Boolean>() {
+                @Override
+                public void call(HttpClientEventsListener listener, Boolean notModified) {
+                    listener.onCacheRevalidated(notModified);
+                }
+            };
+
     private final ListenersHolder<HttpClientEventsListener> listeners;
     private final TcpClientEventPublisher tcpDelegate;
 
@@ -155,6 +187,11 @@ public final class HttpClientEventPublisher extends HttpClientEventsListener
         listeners.invokeListeners(RESP_RECIEVE_COMPLETE_ACTION, duration, timeUnit);
     }
 
+    @Override
+    public void onResponseContentDecoded(long encodedBytes, long decodedBytes) {
+        listeners.invokeListeners(RESP_CONTENT_DECODED_ACTION, encodedBytes, decodedBytes);
+    }
+
     @Override
     public void onResponseFailed(final Throwable throwable) {
         listeners.invokeListeners(RESP_FAILED_ACTION, throwable);
@@ -165,6 +202,21 @@ public final class HttpClientEventPublisher extends HttpClientEventsListener
         listeners.invokeListeners(PROCESSING_COMPLETE_ACTION, duration, timeUnit);
     }
 
+    @Override
+    public void onCacheHit() {
+        listeners.invokeListeners(CACHE_HIT_ACTION);
+    }
+
+    @Override
+    public void onCacheMiss() {
+        listeners.invokeListeners(CACHE_MISS_ACTION);
+    }
+
+    @Override
+    public void onCacheRevalidated(boolean notModified) {
+        listeners.invokeListeners(CACHE_REVALIDATED_ACTION, notModified);
+    }
+
     @Override
     public void onConnectionCloseFailed(long duration, TimeUnit timeUnit,
                                         Throwable throwable) {
@@ -187,6 +239,16 @@ public final class HttpClientEventPublisher extends HttpClientEventsListener
         tcpDelegate.onConnectFailed(duration, timeUnit, throwable);
     }
 
+    @Override
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {
+        tcpDelegate.onTlsHandshakeSuccess(duration, timeUnit, sessionResumed);
+    }
+
+    @Override
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+        tcpDelegate.onTlsHandshakeFailed(duration, timeUnit, throwable);
+    }
+
     @Override
     public void onPoolReleaseStart() {
         tcpDelegate.onPoolReleaseStart();
@@ -80,6 +80,16 @@ public abstract class HttpClientEventsListener extends TcpClientEventListener {
     @SuppressWarnings("unused")
     public void onResponseReceiveComplete(long duration, TimeUnit timeUnit) {}
 
+    /**
+     * Event when the content of a response, encoded with a content-coding (eg: gzip, deflate), is completely decoded.
+     * This event is only published when content decompression is enabled for the client.
+     *
+     * @param encodedBytes Total number of bytes of the response content as received, before decoding.
+     * @param decodedBytes Total number of bytes of the response content after decoding.
+     */
+    @SuppressWarnings("unused")
+    public void onResponseContentDecoded(long encodedBytes, long decodedBytes) {}
+
     /**
      * Event when the response failed (either it did not arrive or not arrived completely)
      *
@@ -96,4 +106,24 @@ public abstract class HttpClientEventsListener extends TcpClientEventListener {
      */
     @SuppressWarnings("unused")
     public void onRequestProcessingComplete(long duration, TimeUnit timeUnit) {}
+
+    /**
+     * Event when a response is served from a client cache, without sending the request to the server.
+     */
+    public void onCacheHit() {}
+
+    /**
+     * Event when a client cache does not have a response for a cacheable request, so the request is sent to the
+     * server.
+     */
+    public void onCacheMiss() {}
+
+    /**
+     * Event when a stale response in a client cache is revalidated with the server using a conditional request.
+     *
+     * @param notModified {@code true} if the server responded with {@code 304 Not Modified} and the cached response
+     * was served, {@code false} if the server sent a new response.
+     */
+    @SuppressWarnings("unused")
+    public void onCacheRevalidated(boolean notModified) {}
 }
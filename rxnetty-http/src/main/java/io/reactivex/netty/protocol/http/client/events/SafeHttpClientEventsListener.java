@@ -88,6 +88,13 @@ final class SafeHttpClientEventsListener extends HttpClientEventsListener implem
         }
     }
 
+    @Override
+    public void onResponseContentDecoded(long encodedBytes, long decodedBytes) {
+        if (!completed.get()) {
+            delegate.onResponseContentDecoded(encodedBytes, decodedBytes);
+        }
+    }
+
     @Override
     public void onResponseFailed(Throwable throwable) {
         if (!completed.get()) {
@@ -102,6 +109,27 @@ final class SafeHttpClientEventsListener extends HttpClientEventsListener implem
         }
     }
 
+    @Override
+    public void onCacheHit() {
+        if (!completed.get()) {
+            delegate.onCacheHit();
+        }
+    }
+
+    @Override
+    public void onCacheMiss() {
+        if (!completed.get()) {
+            delegate.onCacheMiss();
+        }
+    }
+
+    @Override
+    public void onCacheRevalidated(boolean notModified) {
+        if (!completed.get()) {
+            delegate.onCacheRevalidated(notModified);
+        }
+    }
+
     @Override
     public void onConnectStart() {
         if (!completed.get()) {
@@ -123,6 +151,20 @@ final class SafeHttpClientEventsListener extends HttpClientEventsListener implem
         }
     }
 
+    @Override
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {
+        if (!completed.get()) {
+            delegate.onTlsHandshakeSuccess(duration, timeUnit, sessionResumed);
+        }
+    }
+
+    @Override
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+        if (!completed.get()) {
+            delegate.onTlsHandshakeFailed(duration, timeUnit, throwable);
+        }
+    }
+
     @Override
     public void onPoolReleaseStart() {
         if (!completed.get()) {
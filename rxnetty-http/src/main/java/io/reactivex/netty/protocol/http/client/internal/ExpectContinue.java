@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.internal;
+
+import io.netty.handler.codec.http.HttpRequest;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.channel.FlushSelectorOperator;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.subjects.AsyncSubject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * Expectation of a {@code 100 (Continue)} response for a request written with an {@code Expect: 100-continue} header.
+ *
+ * This instance is sent as a user event on the channel before the request headers are written, so that
+ * {@link HttpClientToConnectionBridge} can decide whether the content is to be sent, when it receives a response
+ * from the server. The content is sent if the server responds with a {@code 100 (Continue)} or if the server does not
+ * respond in the configured timeout. The content is not sent if the server responds with a final status.
+ */
+final class ExpectContinue {
+
+    private static final int UNDECIDED = 0;
+    private static final int SEND_CONTENT = 1;
+    private static final int SKIP_CONTENT = 2;
+
+    private static final Func1<Object, Boolean> FLUSH_HEADERS = new Func1<Object, Boolean>() {
+        @Override
+        public Boolean call(Object headers) {
+            return true;
+        }
+    };
+
+    private final AtomicInteger decision = new AtomicInteger(UNDECIDED);
+    private final AsyncSubject<Boolean> decisionSubject = AsyncSubject.create();
+
+    private ExpectContinue() {
+    }
+
+    /**
+     * Invoked when the server responds with a {@code 100 (Continue)} status.
+     *
+     * @return {@code true} if the content is sent due to this response.
+     */
+    boolean continueReceived() {
+        return decide(SEND_CONTENT);
+    }
+
+    /**
+     * Invoked when the server responds with a final status.
+     *
+     * @return {@code true} if the content is not sent due to this response, i.e. the content was not already being
+     * sent due to a {@code 100 (Continue)} or a timeout.
+     */
+    boolean finalResponseReceived() {
+        return decide(SKIP_CONTENT);
+    }
+
+    private boolean decide(int newDecision) {
+        if (decision.compareAndSet(UNDECIDED, newDecision)) {
+            decisionSubject.onNext(SEND_CONTENT == newDecision);
+            decisionSubject.onCompleted();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a stream which writes (and flushes) the passed headers, waits for the server to respond with a
+     * {@code 100 (Continue)} for a maximum of the passed timeout and then emits the passed content. If the server
+     * responds with a final status before the content is sent, the content is never subscribed.
+     *
+     * @return Stream of all objects to write for the request.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static Observable awaitBeforeContent(final HttpRequest headers, final Observable content,
+                                         final Connection<?, ?> connection, final long timeoutMillis) {
+        return Observable.defer(new Func0<Observable>() {
+            @Override
+            public Observable call() {
+                final ExpectContinue expectation = new ExpectContinue();
+                connection.unsafeNettyChannel().pipeline().fireUserEventTriggered(expectation);
+
+                final Observable<Boolean> onTimeout = Observable.defer(new Func0<Observable<Boolean>>() {
+                    @Override
+                    public Observable<Boolean> call() {
+                        /*Server may not support 100-continue, so send the content, unless already decided.*/
+                        expectation.decide(SEND_CONTENT);
+                        return Observable.just(SEND_CONTENT == expectation.decision.get());
+                    }
+                });
+
+                final Observable<Boolean> sendContent = expectation.decisionSubject.timeout(timeoutMillis, MILLISECONDS,
+                                                                                            onTimeout);
+
+                return Observable.just(headers)
+                                 .lift(new FlushSelectorOperator(FLUSH_HEADERS, connection))
+                                 .concatWith(sendContent.concatMap(new Func1<Boolean, Observable<Object>>() {
+                                     @Override
+                                     public Observable<Object> call(Boolean send) {
+                                         return send ? content : Observable.<Object>empty();
+                                     }
+                                 }));
+            }
+        });
+    }
+}
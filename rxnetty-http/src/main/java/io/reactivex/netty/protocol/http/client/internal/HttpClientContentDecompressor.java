@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.internal;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandler;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AsciiString;
+import io.reactivex.netty.events.EventAttributeKeys;
+import io.reactivex.netty.events.EventPublisher;
+import io.reactivex.netty.protocol.http.client.events.HttpClientEventsListener;
+
+import java.net.SocketAddress;
+import java.util.List;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static io.netty.handler.codec.http.HttpHeaderValues.*;
+
+/**
+ * An extension of {@link HttpContentDecompressor} that transparently decodes {@code gzip} and {@code deflate} encoded
+ * response content for an HTTP client.
+ *
+ * <h2>Request</h2>
+ * Every request written on the channel is sent with an {@code Accept-Encoding} header advertising the supported
+ * encodings, unless the request already specifies the header, in which case the header is left untouched.
+ *
+ * <h2>Response</h2>
+ * Decompression is streaming, every {@link HttpContent} received is inflated into buffers allocated from the channel's
+ * allocator and passed on as soon as it is decoded. The response content is never aggregated.
+ *
+ * <h2>Events</h2>
+ * On completion of a decoded response, the total size of the content as received and after decoding is published to
+ * {@link HttpClientEventsListener#onResponseContentDecoded(long, long)}
+ */
+public class HttpClientContentDecompressor extends HttpContentDecompressor implements ChannelOutboundHandler {
+
+    public static final AsciiString SUPPORTED_ENCODINGS = new AsciiString(GZIP + ", " + DEFLATE);
+
+    private boolean decodingContent;
+    private long encodedBytes;
+    private long decodedBytes;
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
+        if (msg instanceof HttpResponse) {
+            /*Content-Encoding header is modified by the parent, so read it before decoding.*/
+            decodingContent = isSupportedEncoding(((HttpResponse) msg).headers().get(CONTENT_ENCODING));
+            encodedBytes = 0;
+            decodedBytes = 0;
+        }
+
+        if (!decodingContent || !(msg instanceof HttpContent)) {
+            super.decode(ctx, msg, out);
+            return;
+        }
+
+        /*Read size before decoding as the content buffer is released post decode.*/
+        encodedBytes += ((HttpContent) msg).content().readableBytes();
+
+        final int sizeBeforeDecode = out.size();
+        super.decode(ctx, msg, out);
+        for (int i = sizeBeforeDecode; i < out.size(); i++) {
+            Object decoded = out.get(i);
+            if (decoded instanceof HttpContent) {
+                decodedBytes += ((HttpContent) decoded).content().readableBytes();
+            }
+        }
+
+        if (msg instanceof LastHttpContent) {
+            decodingContent = false;
+            publishDecodedEvent(ctx);
+        }
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest) msg;
+            if (!request.headers().contains(ACCEPT_ENCODING)) {
+                request.headers().set(ACCEPT_ENCODING, SUPPORTED_ENCODINGS);
+            }
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void bind(ChannelHandlerContext ctx, SocketAddress localAddress, ChannelPromise promise) throws Exception {
+        ctx.bind(localAddress, promise);
+    }
+
+    @Override
+    public void connect(ChannelHandlerContext ctx, SocketAddress remoteAddress, SocketAddress localAddress,
+                        ChannelPromise promise) throws Exception {
+        ctx.connect(remoteAddress, localAddress, promise);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        ctx.close(promise);
+    }
+
+    @Override
+    public void deregister(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        ctx.deregister(promise);
+    }
+
+    @Override
+    public void read(ChannelHandlerContext ctx) throws Exception {
+        ctx.read();
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        ctx.flush();
+    }
+
+    private void publishDecodedEvent(ChannelHandlerContext ctx) {
+        final EventPublisher eventPublisher = ctx.channel().attr(EventAttributeKeys.EVENT_PUBLISHER).get();
+        final HttpClientEventsListener eventsListener =
+                ctx.channel().attr(HttpChannelProvider.HTTP_CLIENT_EVENT_LISTENER).get();
+        if (null != eventPublisher && null != eventsListener && eventPublisher.publishingEnabled()) {
+            eventsListener.onResponseContentDecoded(encodedBytes, decodedBytes);
+        }
+    }
+
+    private static boolean isSupportedEncoding(String contentEncoding) {
+        if (null == contentEncoding) {
+            return false;
+        }
+        String encoding = contentEncoding.trim();
+        return GZIP.contentEqualsIgnoreCase(encoding) || X_GZIP.contentEqualsIgnoreCase(encoding)
+               || DEFLATE.contentEqualsIgnoreCase(encoding) || X_DEFLATE.contentEqualsIgnoreCase(encoding);
+    }
+}
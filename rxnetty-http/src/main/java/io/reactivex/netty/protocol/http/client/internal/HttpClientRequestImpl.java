@@ -26,6 +26,7 @@ import io.reactivex.netty.events.Clock;
 import io.reactivex.netty.events.EventAttributeKeys;
 import io.reactivex.netty.events.EventPublisher;
 import io.reactivex.netty.internal.VoidToAnythingCast;
+import io.reactivex.netty.protocol.http.DeadlineHeader;
 import io.reactivex.netty.protocol.http.TrailingHeaders;
 import io.reactivex.netty.protocol.http.client.HttpClientRequest;
 import io.reactivex.netty.protocol.http.client.HttpClientResponse;
@@ -54,11 +55,15 @@ import static java.util.concurrent.TimeUnit.*;
 public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
 
     public static final int NO_REDIRECTS = -1;
+    private static final long NO_DEADLINE = 0;
 
     private final List<AppendTransformerEvent> immutableTransformers;
     private final List<Transformer> immutableResponseTransformers;
     private final RawRequest<I, O> rawRequest;
     private final TcpClient<?, HttpClientResponse<O>> client;
+    private final long deadlineTimeoutNanos;
+    private final RequestPipeline pipeline;
+    private final OnSubscribeFuncImpl<I, O> onSubscribe;
     private final Func1<I, Boolean> flushOnEachSelector = new Func1<I, Boolean>() {
         @Override
         public Boolean call(I next) {
@@ -68,12 +73,25 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
 
     private HttpClientRequestImpl(final RawRequest<I, O> rawRequest, final TcpClient<?, HttpClientResponse<O>> client,
                                   List<AppendTransformerEvent> immutableTransformers,
-                                  List<Transformer> immutableResponseTransformers) {
-        super(new OnSubscribeFuncImpl<>(client, rawRequest, immutableResponseTransformers, immutableTransformers));
+                                  List<Transformer> immutableResponseTransformers, long deadlineTimeoutNanos,
+                                  RequestPipeline pipeline) {
+        this(rawRequest, client, immutableTransformers, immutableResponseTransformers, deadlineTimeoutNanos, pipeline,
+             new OnSubscribeFuncImpl<>(client, rawRequest, immutableResponseTransformers, immutableTransformers,
+                                       deadlineTimeoutNanos, pipeline));
+    }
+
+    private HttpClientRequestImpl(final RawRequest<I, O> rawRequest, final TcpClient<?, HttpClientResponse<O>> client,
+                                  List<AppendTransformerEvent> immutableTransformers,
+                                  List<Transformer> immutableResponseTransformers, long deadlineTimeoutNanos,
+                                  RequestPipeline pipeline, OnSubscribeFuncImpl<I, O> onSubscribe) {
+        super(onSubscribe);
+        this.onSubscribe = onSubscribe;
         this.rawRequest = rawRequest;
         this.client = client;
         this.immutableTransformers = immutableTransformers;
         this.immutableResponseTransformers = immutableResponseTransformers;
+        this.deadlineTimeoutNanos = deadlineTimeoutNanos;
+        this.pipeline = pipeline;
     }
 
     @Override
@@ -189,6 +207,23 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
         return _copy(client.readTimeOut(timeOut, timeUnit));
     }
 
+    @Override
+    public HttpClientRequestImpl<I, O> deadline(long timeout, TimeUnit timeUnit) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Deadline timeout must be positive.");
+        }
+        return new HttpClientRequestImpl<>(rawRequest, client, immutableTransformers, immutableResponseTransformers,
+                                           timeUnit.toNanos(timeout), pipeline);
+    }
+
+    @Override
+    public HttpClientRequestImpl<I, O> expectContinue(long timeout, TimeUnit timeUnit) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Continue timeout must be positive.");
+        }
+        return _copy(client, rawRequest.expectContinue(timeUnit.toMillis(timeout)));
+    }
+
     @Override
     public HttpClientRequestImpl<I, O> followRedirects(int maxRedirects) {
         final Redirector<I, O> redirector = new Redirector<>(maxRedirects, client);
@@ -290,7 +325,8 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
         newTransformers.add(e);
         @SuppressWarnings("unchecked")
         RawRequest<II, O> cast = (RawRequest<II, O>) this.rawRequest;
-        return new HttpClientRequestImpl<>(cast, client, newTransformers, immutableResponseTransformers);
+        return new HttpClientRequestImpl<>(cast, client, newTransformers, immutableResponseTransformers,
+                                           deadlineTimeoutNanos, pipeline);
     }
 
     @Override
@@ -302,7 +338,8 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
         TcpClient rawClient = client;
         @SuppressWarnings("unchecked")
         TcpClient<?, HttpClientResponse<OO>> _client = (TcpClient<?, HttpClientResponse<OO>>)rawClient;
-        return new HttpClientRequestImpl<>(cast, _client, immutableTransformers, newTransformers);
+        return new HttpClientRequestImpl<>(cast, _client, immutableTransformers, newTransformers,
+                                           deadlineTimeoutNanos, pipeline);
     }
 
     @Override
@@ -359,6 +396,13 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
                                                         final String uri,
                                                         final TcpClient<?, HttpClientResponse<O>> client,
                                                         int maxRedirects) {
+        return create(version, httpMethod, uri, client, maxRedirects, null);
+    }
+
+    public static <I, O> HttpClientRequestImpl<I, O> create(final HttpVersion version, final HttpMethod httpMethod,
+                                                        final String uri,
+                                                        final TcpClient<?, HttpClientResponse<O>> client,
+                                                        int maxRedirects, RequestPipeline pipeline) {
         Redirector<I, O> redirector = NO_REDIRECTS == maxRedirects
                                                                 ? null
                                                                 : new Redirector<I, O>(maxRedirects, client
@@ -370,7 +414,8 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
             redirector.setOriginalRequest(rawRequest);
         }
 
-        return create(rawRequest, client);
+        return new HttpClientRequestImpl<>(rawRequest, client, Collections.<AppendTransformerEvent>emptyList(),
+                                           Collections.<Transformer>emptyList(), NO_DEADLINE, pipeline);
     }
 
     public static <I, O> HttpClientRequestImpl<I, O> create(final HttpVersion version, final HttpMethod httpMethod,
@@ -382,7 +427,7 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
     public static <I, O> HttpClientRequestImpl<I, O> create(final RawRequest<I, O> rawRequest,
                                                         final TcpClient<?, HttpClientResponse<O>> client) {
         return new HttpClientRequestImpl<>(rawRequest, client, Collections.<AppendTransformerEvent>emptyList(),
-                                           Collections.<Transformer>emptyList());
+                                           Collections.<Transformer>emptyList(), NO_DEADLINE, null);
     }
 
     public TcpClient<?, HttpClientResponse<O>> getClient() {
@@ -397,7 +442,9 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
     @SuppressWarnings("unchecked")
     private <II, OO> HttpClientRequestImpl<II, OO> _copy(TcpClient<?, HttpClientResponse<OO>> c,
                                                      RawRequest<II, OO> rawRequest) {
-        return new HttpClientRequestImpl<>(rawRequest, c, immutableTransformers, immutableResponseTransformers);
+        /*Requests with a different client (eg: a different read timeout) can not use the connections of the pipeline.*/
+        return new HttpClientRequestImpl<>(rawRequest, c, immutableTransformers, immutableResponseTransformers,
+                                           deadlineTimeoutNanos, c == client ? pipeline : null);
     }
 
     @SuppressWarnings("rawtypes")
@@ -409,34 +456,46 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
     private Observable<HttpClientResponse<O>> _writeContentRaw(Observable rawContent,
                                                                Func1<?, Boolean> flushSelector, boolean hasTrailers) {
         final RawRequest<I, O> r = RawRequest.create(rawRequest.getHeaders(), rawContent, flushSelector, hasTrailers,
-                                                     rawRequest.getRedirector());
-        return new HttpClientRequestImpl<>(r, client, immutableTransformers, immutableResponseTransformers);
+                                                     rawRequest.getRedirector(),
+                                                     rawRequest.getContinueTimeoutMillis());
+        return new HttpClientRequestImpl<>(r, client, immutableTransformers, immutableResponseTransformers,
+                                           deadlineTimeoutNanos, pipeline);
     }
 
     public RawRequest<I, O> unsafeRawRequest() {
         return rawRequest;
     }
 
+    /**
+     * Returns a stream executing this request as a part of an execution guarded by the passed deadline, eg: as a
+     * redirect, so that the deadline tracks the connection used by this request.
+     */
+    Observable<HttpClientResponse<O>> executeWithin(RequestDeadline deadline) {
+        return onSubscribe.newSource(deadline);
+    }
+
     private static class OnSubscribeFuncImpl<I, O> implements OnSubscribe<HttpClientResponse<O>> {
         @SuppressWarnings("rawtypes")
         private final Observable source;
         private final TcpClient<?, HttpClientResponse<O>> client;
+        private final RawRequest<I, O> rawRequest;
+        private final List<Transformer> responseTransformers;
+        private final List<AppendTransformerEvent> requestTransformers;
+        private final long deadlineTimeoutNanos;
+        private final RequestPipeline pipeline;
 
         public OnSubscribeFuncImpl(final TcpClient<?, HttpClientResponse<O>> client, RawRequest<I, O> rawRequest,
                                    List<Transformer> responseTransformers,
-                                   List<AppendTransformerEvent> requestTransformers) {
+                                   List<AppendTransformerEvent> requestTransformers, long deadlineTimeoutNanos,
+                                   RequestPipeline pipeline) {
             this.client = client;
-            ConnToResponseFunc<I, O> connToResponseFunc = new ConnToResponseFunc<>(rawRequest, responseTransformers,
-                                                                                   requestTransformers);
-            Observable<HttpClientResponse<O>> source = this.client.createConnectionRequest()
-                                                                  .take(1)
-                                                                  .switchMap(connToResponseFunc);
-
-            if (null != rawRequest.getRedirector()) {
-                source = source.switchMap(rawRequest.getRedirector());
-            }
-
-            this.source = source;
+            this.rawRequest = rawRequest;
+            this.responseTransformers = responseTransformers;
+            this.requestTransformers = requestTransformers;
+            this.deadlineTimeoutNanos = deadlineTimeoutNanos;
+            this.pipeline = pipeline;
+            /*With a deadline, the source is created per subscription as the deadline starts on subscription.*/
+            source = NO_DEADLINE == deadlineTimeoutNanos ? newSource(null) : null;
         }
 
         @Override
@@ -444,7 +503,35 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
         public void call(Subscriber<? super HttpClientResponse<O>> subscriber) {
             @SuppressWarnings("rawtypes")
             final Subscriber rawSub = subscriber;
-            source.unsafeSubscribe(rawSub);
+            if (null != source) {
+                source.unsafeSubscribe(rawSub);
+            } else {
+                final RequestDeadline deadline = new RequestDeadline(deadlineTimeoutNanos);
+                deadline.apply(newSource(deadline)).unsafeSubscribe(rawSub);
+            }
+        }
+
+        private Observable<HttpClientResponse<O>> newSource(RequestDeadline deadline) {
+            Observable<HttpClientResponse<O>> source;
+            if (null != pipeline && null == deadline && requestTransformers.isEmpty()
+                && RequestPipeline.isPipelined(rawRequest)) {
+                source = pipeline.execute(rawRequest, responseTransformers);
+            } else {
+                ConnToResponseFunc<I, O> connToResponseFunc = new ConnToResponseFunc<>(rawRequest,
+                                                                                       responseTransformers,
+                                                                                       requestTransformers, deadline);
+                source = client.createConnectionRequest()
+                               .take(1)
+                               .switchMap(connToResponseFunc);
+            }
+
+            final Redirector<I, O> redirector = rawRequest.getRedirector();
+            if (null != redirector) {
+                source = null == deadline ? source.switchMap(redirector)
+                                          : source.switchMap(redirector.within(deadline));
+            }
+
+            return source;
         }
 
     }
@@ -455,16 +542,22 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
         private final RawRequest<I, O> rawRequest;
         private List<Transformer> responseTransformers;
         private List<AppendTransformerEvent> requestTransformers;
+        private final RequestDeadline deadline;
 
         public ConnToResponseFunc(RawRequest<I, O> rawRequest, List<Transformer> responseTransformers,
-                                  List<AppendTransformerEvent> requestTransformers) {
+                                  List<AppendTransformerEvent> requestTransformers, RequestDeadline deadline) {
             this.rawRequest = rawRequest;
             this.responseTransformers = responseTransformers;
             this.requestTransformers = requestTransformers;
+            this.deadline = deadline;
         }
 
         @Override
         public Observable<HttpClientResponse<O>> call(final Connection<HttpClientResponse<O>, ?> conn) {
+            if (null != deadline) {
+                deadline.onConnection(conn.unsafeNettyChannel());
+            }
+
             for (AppendTransformerEvent requestTransformer : requestTransformers) {
                 conn.unsafeNettyChannel().pipeline().fireUserEventTriggered(requestTransformer);
             }
@@ -476,26 +569,38 @@ public final class HttpClientRequestImpl<I, O> extends HttpClientRequest<I, O> {
             final EventPublisher eventPublisher =
                     conn.unsafeNettyChannel().attr(EventAttributeKeys.EVENT_PUBLISHER).get();
 
-            return writeRequest(conn).lift(new RequestWriteMetricsOperator(eventsListener, eventPublisher))
-                                     .map(new VoidToAnythingCast<HttpClientResponse<O>>())
-                                     .ignoreElements()
-                                     .concatWith(input.take(1))
-                                     .map(new Func1<HttpClientResponse<O>, HttpClientResponse<O>>() {
-                                         @SuppressWarnings("unchecked")
-                                         @Override
-                                         public HttpClientResponse<O> call(HttpClientResponse<O> r) {
-                                             HttpClientResponse rp = HttpClientResponseImpl.newInstance(r, conn);
-                                             for (Transformer transformer : responseTransformers) {
-                                                 rp = rp.transformContent(transformer);
-                                             }
-                                             return (HttpClientResponse<O>) rp;
-                                         }
-                                     });
+            final Observable<HttpClientResponse<O>> write =
+                    writeRequest(conn).lift(new RequestWriteMetricsOperator(eventsListener, eventPublisher))
+                                      .map(new VoidToAnythingCast<HttpClientResponse<O>>())
+                                      .ignoreElements();
+
+            /*When expecting a 100 (Continue), the response is read while the request is being written, as the content
+            is only written after a response is received.*/
+            final Observable<HttpClientResponse<O>> response = rawRequest.isContinueExpected()
+                    ? write.mergeWith(input.take(1))
+                    : write.concatWith(input.take(1));
+
+            return response.map(new Func1<HttpClientResponse<O>, HttpClientResponse<O>>() {
+                @SuppressWarnings("unchecked")
+                @Override
+                public HttpClientResponse<O> call(HttpClientResponse<O> r) {
+                    HttpClientResponse rp = HttpClientResponseImpl.newInstance(r, conn);
+                    for (Transformer transformer : responseTransformers) {
+                        rp = rp.transformContent(transformer);
+                    }
+                    return (HttpClientResponse<O>) rp;
+                }
+            });
         }
 
         @SuppressWarnings("unchecked")
         protected Observable<Void> writeRequest(Connection<HttpClientResponse<O>, ?> conn) {
-            return conn.write(rawRequest.asObservable(conn));
+            if (null == deadline) {
+                return conn.write(rawRequest.asObservable(conn));
+            }
+            /*Propagate the time remaining, as of now, to the server.*/
+            return conn.write(rawRequest.setHeader(DeadlineHeader.NAME, deadline.remainingMillis())
+                                        .asObservable(conn));
         }
     }
 
@@ -256,7 +256,12 @@ public final class HttpClientResponseImpl<T> extends HttpClientResponse<T> {
     public ContentSource<ServerSentEvent> getContentAsServerSentEvents() {
         if (containsHeader(CONTENT_TYPE) && getHeader(CONTENT_TYPE).startsWith("text/event-stream")) {
             ChannelPipeline pipeline = unsafeNettyChannel().pipeline();
-            ChannelHandlerContext decoderCtx = pipeline.context(HttpHandlerNames.HttpClientCodec.getName());
+            /*Events are decoded from the decompressed content, if decompression is enabled.*/
+            ChannelHandlerContext decoderCtx =
+                    pipeline.context(HttpHandlerNames.HttpClientContentDecompressor.getName());
+            if (null == decoderCtx) {
+                decoderCtx = pipeline.context(HttpHandlerNames.HttpClientCodec.getName());
+            }
             if (null != decoderCtx) {
                 pipeline.addAfter(decoderCtx.name(), HttpHandlerNames.SseClientCodec.getName(),
                                   new ServerSentEventDecoder());
@@ -344,6 +349,25 @@ public final class HttpClientResponseImpl<T> extends HttpClientResponse<T> {
         return new HttpClientResponseImpl<>(nettyResponse, connection);
     }
 
+    /**
+     * Creates a new response that is not associated with any connection, eg: a response served from a cache.
+     *
+     * @param nettyResponse Status and headers of the response.
+     * @param content Content of the response.
+     *
+     * @return A new response.
+     */
+    public static <C> HttpClientResponse<C> newDetachedInstance(HttpResponse nettyResponse,
+                                                                final Observable<C> content) {
+        final HttpClientResponseImpl<C> unusable = new HttpClientResponseImpl<>(nettyResponse);
+        return new HttpClientResponseImpl<>(unusable, unusable.contentSource.transform(new Transformer<C, C>() {
+            @Override
+            public Observable<C> call(Observable<C> ignored) {
+                return content;
+            }
+        }));
+    }
+
     private static class ContentSourceSubscriptionFactory<T> implements Func1<Subscriber<? super T>, Object> {
         @Override
         public Object call(Subscriber<? super T> subscriber) {
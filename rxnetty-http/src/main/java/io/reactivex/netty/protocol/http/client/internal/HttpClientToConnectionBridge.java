@@ -25,12 +25,16 @@ import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMessage;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
 import io.reactivex.netty.client.ClientConnectionToChannelBridge;
 import io.reactivex.netty.client.ClientConnectionToChannelBridge.ConnectionReuseEvent;
 import io.reactivex.netty.client.ClientConnectionToChannelBridge.PooledConnectionReleaseEvent;
+import io.reactivex.netty.channel.DomainSockets;
 import io.reactivex.netty.client.pool.PooledConnection;
+import io.reactivex.netty.client.proxy.HttpConnectTunnel;
 import io.reactivex.netty.events.Clock;
 import io.reactivex.netty.events.EventAttributeKeys;
 import io.reactivex.netty.events.EventPublisher;
@@ -53,11 +57,19 @@ public class HttpClientToConnectionBridge<C> extends AbstractHttpConnectionBridg
     public static final AttributeKey<Long> KEEP_ALIVE_TIMEOUT_MILLIS_ATTR =
             PooledConnection.DYNAMIC_CONN_KEEP_ALIVE_TIMEOUT_MS;
 
+    private static final String LOCALHOST = "localhost";
+
     private HttpClientEventsListener eventsListener;
     private EventPublisher eventPublisher;
     private String hostHeader;
     private long requestWriteCompletionTimeNanos;
 
+    /*Following are only accessed from the event loop.*/
+    private ExpectContinue pendingContinue;
+    private boolean discardContinueContent;
+    /*Requests written, for which the response headers are not yet received, more than one when pipelining.*/
+    private int pendingResponses;
+
     @Override
     public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
         eventsListener = ctx.channel().attr(HttpChannelProvider.HTTP_CLIENT_EVENT_LISTENER).get();
@@ -68,19 +80,27 @@ public class HttpClientToConnectionBridge<C> extends AbstractHttpConnectionBridg
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
         SocketAddress remoteAddr = ctx.channel().remoteAddress();
-        if (remoteAddr instanceof InetSocketAddress) {
+        InetSocketAddress tunnelTarget = ctx.channel().attr(HttpConnectTunnel.TUNNEL_TARGET).get();
+        if (null != tunnelTarget) {
+            /*Connected to a proxy, the host is the target of the tunnel.*/
+            hostHeader = tunnelTarget.getHostString() + ':' + tunnelTarget.getPort();
+        } else if (remoteAddr instanceof InetSocketAddress) {
             InetSocketAddress inetSock = (InetSocketAddress) remoteAddr;
             String hostString = inetSock.getHostString(); // Don't use hostname that does a DNS lookup.
             hostHeader = hostString + ':' + inetSock.getPort();
+        } else if (DomainSockets.isDomainSocketAddress(remoteAddr)) {
+            /*HTTP/1.1 requires a Host header, a unix domain socket has no host, so default to the loopback host.*/
+            hostHeader = LOCALHOST;
         }
         super.channelActive(ctx);
     }
 
     @Override
     protected void beforeOutboundHeaderWrite(HttpMessage httpMsg, ChannelPromise promise, long startTimeNanos) {
-        /*Reset on every request write, we do not currently support pipelining, otherwise, this should be stored in a
-        queue.*/
+        /*Reset on every request write, so with pipelined requests, the response latency is measured from the last
+        request write.*/
         requestWriteCompletionTimeNanos = -1;
+        pendingResponses++;
         if (null != hostHeader) {
             if (!httpMsg.headers().contains(HttpHeaderNames.HOST)) {
                 httpMsg.headers().set(HttpHeaderNames.HOST, hostHeader);
@@ -113,11 +133,51 @@ public class HttpClientToConnectionBridge<C> extends AbstractHttpConnectionBridg
         }
     }
 
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpResponse) {
+            final HttpResponse response = (HttpResponse) msg;
+            if (HttpResponseStatus.CONTINUE.code() == response.status().code()) {
+                /*Interim response, followed by the final response, so it is never emitted as a response.*/
+                discardContinueContent = true;
+                if (null != pendingContinue) {
+                    pendingContinue.continueReceived();
+                    pendingContinue = null;
+                }
+                ReferenceCountUtil.release(msg);
+                return;
+            }
+
+            if (null != pendingContinue) {
+                if (pendingContinue.finalResponseReceived()) {
+                    /*Request content is not sent, so the server may still be expecting it.*/
+                    ctx.channel().attr(ClientConnectionToChannelBridge.DISCARD_CONNECTION).set(true);
+                }
+                pendingContinue = null;
+            }
+        } else if (discardContinueContent && msg instanceof LastHttpContent) {
+            /*End of the interim 100 (Continue) response.*/
+            discardContinueContent = false;
+            ReferenceCountUtil.release(msg);
+            return;
+        }
+
+        super.channelRead(ctx, msg);
+    }
+
     @Override
     public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof ExpectContinue) {
+            pendingContinue = (ExpectContinue) evt;
+            return;
+        }
+
         if (evt instanceof ConnectionReuseEvent) {
             resetSubscriptionState(connectionInputSubscriber);
             connectionInputSubscriber = null;
+            pendingContinue = null;
+            discardContinueContent = false;
+            pendingResponses = 0;
         } else if (PooledConnectionReleaseEvent.INSTANCE == evt) {
             onPooledConnectionRelease(connectionInputSubscriber);
         }
@@ -149,6 +209,10 @@ public class HttpClientToConnectionBridge<C> extends AbstractHttpConnectionBridg
     protected Object newHttpObject(Object nextItem, Channel channel) {
         final HttpResponse nettyResponse = (HttpResponse) nextItem;
 
+        if (pendingResponses > 0) {
+            pendingResponses--;
+        }
+
         if (eventPublisher.publishingEnabled()) {
             long duration = -1;
             if (requestWriteCompletionTimeNanos != -1) {
@@ -177,9 +241,18 @@ public class HttpClientToConnectionBridge<C> extends AbstractHttpConnectionBridg
         }
     }
 
+    @Override
+    protected boolean isMoreInputExpected() {
+        return pendingResponses > 0;
+    }
+
     @Override
     protected void onContentReceiveComplete(long receiveStartTimeNanos) {
-        connectionInputSubscriber.onCompleted(); /*Unsubscribe from the input and hence close/release connection*/
+        if (0 == pendingResponses) {
+            /*Unsubscribe from the input and hence close/release connection, unless responses to pipelined requests are
+            pending.*/
+            connectionInputSubscriber.onCompleted();
+        }
         if (eventPublisher.publishingEnabled()) {
             long headerWriteStart = getHeaderWriteStartTimeNanos();
             eventsListener.onResponseReceiveComplete(Clock.onEndNanos(receiveStartTimeNanos), NANOSECONDS);
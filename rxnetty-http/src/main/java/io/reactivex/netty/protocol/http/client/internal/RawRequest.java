@@ -36,27 +36,32 @@ import java.util.Map.Entry;
 
 public final class RawRequest<I, O> {
 
+    public static final long NO_CONTINUE_TIMEOUT = 0;
+
     private final Redirector<I, O> redirector;
     private final HttpRequest headers;
     @SuppressWarnings("rawtypes")
     private final Observable content;
     private final Func1<?, Boolean> flushSelector;
     private final boolean hasTrailers;
+    private final long continueTimeoutMillis;
 
     @SuppressWarnings("rawtypes")
     private RawRequest(HttpRequest headers, Observable content, Func1<?, Boolean> flushSelector, boolean hasTrailers,
-                       Redirector<I, O> redirector) {
+                       Redirector<I, O> redirector, long continueTimeoutMillis) {
         this.headers = headers;
         this.content = content;
         this.flushSelector = flushSelector;
         this.hasTrailers = hasTrailers;
         this.redirector = redirector;
+        this.continueTimeoutMillis = continueTimeoutMillis;
     }
 
     public RawRequest<I, O> addHeader(CharSequence name, Object value) {
         HttpRequest headersCopy = _copyHeaders();
         headersCopy.headers().add(name, value);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> addHeaders(Map<? extends CharSequence, ? extends Iterable<Object>> headers) {
@@ -64,13 +69,15 @@ public final class RawRequest<I, O> {
         for (Entry<? extends CharSequence, ? extends Iterable<Object>> header : headers.entrySet()) {
             headersCopy.headers().add(header.getKey(), header.getValue());
         }
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> addHeaderValues(CharSequence name, Iterable<Object> values) {
         HttpRequest headersCopy = _copyHeaders();
         headersCopy.headers().add(name, values);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> addCookie(Cookie cookie) {
@@ -81,7 +88,8 @@ public final class RawRequest<I, O> {
     public RawRequest<I, O> addDateHeader(CharSequence name, Date value) {
         HttpRequest headersCopy = _copyHeaders();
         headersCopy.headers().add(name, value);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> addDateHeader(CharSequence name, Iterable<Date> values) {
@@ -89,19 +97,22 @@ public final class RawRequest<I, O> {
         for (Date value : values) {
             headersCopy.headers().add(name, value);
         }
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setDateHeader(CharSequence name, Date value) {
         HttpRequest headersCopy = _copyHeaders();
         headersCopy.headers().set(name, value);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setHeader(CharSequence name, Object value) {
         HttpRequest headersCopy = _copyHeaders();
         headersCopy.headers().set(name, value);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setHeaders(Map<? extends CharSequence, ? extends Iterable<Object>> headers) {
@@ -109,13 +120,15 @@ public final class RawRequest<I, O> {
         for (Entry<? extends CharSequence, ? extends Iterable<Object>> header : headers.entrySet()) {
             headersCopy.headers().set(header.getKey(), header.getValue());
         }
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setHeaderValues(CharSequence name, Iterable<Object> values) {
         HttpRequest headersCopy = _copyHeaders();
         headersCopy.headers().set(name, values);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setDateHeader(CharSequence name, Iterable<Date> values) {
@@ -129,39 +142,52 @@ public final class RawRequest<I, O> {
                 addNow = true;
             }
         }
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setKeepAlive(boolean keepAlive) {
         HttpRequest headersCopy = _copyHeaders();
         HttpUtil.setKeepAlive(headersCopy, keepAlive);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setTransferEncodingChunked() {
         HttpRequest headersCopy = _copyHeaders();
         HttpUtil.setTransferEncodingChunked(headersCopy, true);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> removeHeader(CharSequence name) {
         HttpRequest headersCopy = _copyHeaders();
         headersCopy.headers().remove(name);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setMethod(HttpMethod method) {
         HttpRequest headersCopy = _copyHeaders(headers.uri(), method);
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> setUri(String uri) {
         HttpRequest headersCopy = _copyHeaders(uri, headers.method());
-        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector,
+                                continueTimeoutMillis);
     }
 
     public RawRequest<I, O> followRedirect(Redirector<I, O> redirectHandler) {
-        return new RawRequest<>(headers, content, flushSelector, hasTrailers, redirectHandler);
+        return new RawRequest<>(headers, content, flushSelector, hasTrailers, redirectHandler,
+                                continueTimeoutMillis);
+    }
+
+    public RawRequest<I, O> expectContinue(long continueTimeoutMillis) {
+        HttpRequest headersCopy = _copyHeaders();
+        HttpUtil.set100ContinueExpected(headersCopy, true);
+        return new RawRequest<>(headersCopy, content, flushSelector, hasTrailers, redirector, continueTimeoutMillis);
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -170,23 +196,40 @@ public final class RawRequest<I, O> {
         if (null == content) {
             headers = _copyHeaders();
             headers.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+            /*A request without content must not expect a continue.*/
+            headers.headers().remove(HttpHeaderNames.EXPECT);
         }
 
-        Observable toReturn = Observable.just(headers);
+        Observable body = Observable.empty();
 
         if (null != content) {
             if (null == flushSelector) {
-                toReturn = toReturn.concatWith(content);
+                body = content;
             } else {
-                toReturn = toReturn.concatWith(content.lift(new FlushSelectorOperator(flushSelector, connection)));
+                body = content.lift(new FlushSelectorOperator(flushSelector, connection));
             }
         }
 
         if (!hasTrailers) {
-            toReturn = toReturn.concatWith(Observable.just(LastHttpContent.EMPTY_LAST_CONTENT));
+            body = body.concatWith(Observable.just(LastHttpContent.EMPTY_LAST_CONTENT));
         }
 
-        return toReturn;
+        if (isContinueExpected()) {
+            return ExpectContinue.awaitBeforeContent(headers, body, connection, continueTimeoutMillis);
+        }
+
+        return Observable.just(headers).concatWith(body);
+    }
+
+    /**
+     * Returns {@code true} if the content of this request is only written after the server responds with a
+     * {@code 100 (Continue)} status.
+     *
+     * @return {@code true} if the content of this request is only written after the server responds with a
+     * {@code 100 (Continue)} status.
+     */
+    public boolean isContinueExpected() {
+        return NO_CONTINUE_TIMEOUT != continueTimeoutMillis && null != content;
     }
 
     private HttpRequest _copyHeaders() {
@@ -205,20 +248,27 @@ public final class RawRequest<I, O> {
     public static <I, O> RawRequest<I, O> create(HttpVersion version, HttpMethod httpMethod, String uri,
                                                  Redirector<I, O> redirectHandler) {
         final HttpRequest headers = new DefaultHttpRequest(version, httpMethod, uri);
-        return create(headers, null, null, false, redirectHandler);
+        return create(headers, null, null, false, redirectHandler, NO_CONTINUE_TIMEOUT);
     }
 
     @SuppressWarnings("rawtypes")
     public static <I, O> RawRequest<I, O> create(HttpRequest headers, Observable content, boolean hasTrailers,
                                                  Redirector<I, O> redirectHandler) {
-        return create(headers, content, null, hasTrailers, redirectHandler);
+        return create(headers, content, null, hasTrailers, redirectHandler, NO_CONTINUE_TIMEOUT);
     }
 
     @SuppressWarnings("rawtypes")
     public static <I, O> RawRequest<I, O>  create(HttpRequest headers, Observable content,
                                                   Func1<?, Boolean> flushSelector, boolean hasTrailers,
                                                   Redirector<I, O> redirectHandler) {
-        return new RawRequest<>(headers, content, flushSelector, hasTrailers, redirectHandler);
+        return create(headers, content, flushSelector, hasTrailers, redirectHandler, NO_CONTINUE_TIMEOUT);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static <I, O> RawRequest<I, O>  create(HttpRequest headers, Observable content,
+                                                  Func1<?, Boolean> flushSelector, boolean hasTrailers,
+                                                  Redirector<I, O> redirectHandler, long continueTimeoutMillis) {
+        return new RawRequest<>(headers, content, flushSelector, hasTrailers, redirectHandler, continueTimeoutMillis);
     }
 
     public HttpRequest getHeaders() {
@@ -241,4 +291,8 @@ public final class RawRequest<I, O> {
     public Redirector<I, O> getRedirector() {
         return redirector;
     }
+
+    public long getContinueTimeoutMillis() {
+        return continueTimeoutMillis;
+    }
 }
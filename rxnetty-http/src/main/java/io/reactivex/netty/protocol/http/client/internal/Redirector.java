@@ -28,6 +28,7 @@ import io.reactivex.netty.protocol.tcp.client.TcpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
+import rx.functions.Func0;
 import rx.functions.Func1;
 
 import java.net.URI;
@@ -56,13 +57,34 @@ public class Redirector<I, O> implements Func1<HttpClientResponse<O>, Observable
     private final int maxHops;
     private final AtomicInteger redirectCount; // Can be shared across multiple event loops, so needs to be thread-safe.
     private volatile HttpResponseStatus lastRedirectStatus;
-    private final TcpClient<?, HttpClientResponse<O>> client;
+    private final Func1<URI, TcpClient<?, HttpClientResponse<O>>> originClients;
+    /*Updated when a redirect switches the origin, never updated concurrently as redirects are sequential.*/
+    private volatile TcpClient<?, HttpClientResponse<O>> client;
+    private volatile URI origin;
 
     private RawRequest<I, O> originalRequest;
 
     public Redirector(int maxHops, TcpClient<?, HttpClientResponse<O>> client) {
+        this(maxHops, client, null, null);
+    }
+
+    /**
+     * Creates a redirector that also follows absolute redirects to other origins, using the passed
+     * {@code originClients} to get a client for the origin of a redirect location.
+     *
+     * @param maxHops Maximum number of redirects to follow.
+     * @param client Client for the origin of the original request.
+     * @param origin Origin (scheme, host and port) of the original request, {@code null} if absolute redirects are not
+     * to be followed.
+     * @param originClients Function to get the client for the origin of an absolute URI, {@code null} if absolute
+     * redirects are not to be followed.
+     */
+    public Redirector(int maxHops, TcpClient<?, HttpClientResponse<O>> client, URI origin,
+                      Func1<URI, TcpClient<?, HttpClientResponse<O>>> originClients) {
         this.maxHops = maxHops;
         this.client = client;
+        this.origin = origin;
+        this.originClients = null == origin ? null : originClients;
         visitedLocations = new ArrayList<>();
         redirectCount = new AtomicInteger();
     }
@@ -81,6 +103,23 @@ public class Redirector<I, O> implements Func1<HttpClientResponse<O>, Observable
 
     @Override
     public Observable<HttpClientResponse<O>> call(HttpClientResponse<O> response) {
+        return redirect(response, null);
+    }
+
+    /**
+     * Returns a function following redirects as this redirector, for an execution guarded by the passed deadline. The
+     * deadline tracks the connection of every redirect, so that expiring the deadline closes the connection in use.
+     */
+    Func1<HttpClientResponse<O>, Observable<HttpClientResponse<O>>> within(final RequestDeadline deadline) {
+        return new Func1<HttpClientResponse<O>, Observable<HttpClientResponse<O>>>() {
+            @Override
+            public Observable<HttpClientResponse<O>> call(HttpClientResponse<O> response) {
+                return redirect(response, deadline);
+            }
+        };
+    }
+
+    private Observable<HttpClientResponse<O>> redirect(HttpClientResponse<O> response, RequestDeadline deadline) {
 
         Observable<HttpClientResponse<O>> toReturn;
 
@@ -109,7 +148,8 @@ public class Redirector<I, O> implements Func1<HttpClientResponse<O>, Observable
 
                     redirectCount.incrementAndGet();
 
-                    toReturn = createRedirectRequest(originalRequest, redirectUri, lastRedirectStatus.code());
+                    toReturn = hop(createRedirectRequest(originalRequest, redirectUri, lastRedirectStatus.code()),
+                                   deadline);
                 } catch (Exception e) {
                     toReturn = Observable.error(new HttpRedirectException(InvalidRedirect,
                                                                           "Location is not a valid URI. Provided location: "
@@ -129,15 +169,30 @@ public class Redirector<I, O> implements Func1<HttpClientResponse<O>, Observable
 
     }
 
+    private static <I, O> Observable<HttpClientResponse<O>> hop(final HttpClientRequest<I, O> request,
+                                                               final RequestDeadline deadline) {
+        if (null == deadline || !(request instanceof HttpClientRequestImpl)) {
+            return request;
+        }
+        return Observable.defer(new Func0<Observable<HttpClientResponse<O>>>() {
+            @Override
+            public Observable<HttpClientResponse<O>> call() {
+                /*Subscribed after the content of the previous response is discarded, releasing its connection.*/
+                deadline.onConnectionReleased();
+                return ((HttpClientRequestImpl<I, O>) request).executeWithin(deadline);
+            }
+        });
+    }
+
     public boolean requiresRedirect(HttpClientResponse<O> response) {
         int statusCode = response.getStatus().code();
         boolean requiresRedirect = false;
-        // This class only supports relative redirects as an HttpClient is always tied to a host:port combo and hence
-        // can not do an absolute redirect.
+        // An HttpClient is always tied to a host:port combo and hence can not do an absolute redirect, unless clients
+        // for other origins are available.
         if (Arrays.binarySearch(REDIRECTABLE_STATUS_CODES, statusCode) >= 0) {
             String location = extractRedirectLocation(response);
             // Only process relative URIs: Issue https://github.com/ReactiveX/RxNetty/issues/270
-            requiresRedirect = null == location || !location.startsWith("http");
+            requiresRedirect = null == location || null != originClients || !location.startsWith("http");
         }
 
         if (requiresRedirect && statusCode != HttpResponseStatus.SEE_OTHER.code()) {
@@ -160,6 +215,19 @@ public class Redirector<I, O> implements Func1<HttpClientResponse<O>, Observable
 
         RawRequest<I, O> redirectRequest = original.setUri(redirectUri);
 
+        if (null != originClients) {
+            final URI target = origin.resolve(redirectLocation);
+            if (!isSameOrigin(origin, target)) {
+                client = originClients.call(target);
+                origin = target;
+                // Host header is for the previous origin and credentials must not leak to another origin.
+                redirectRequest = redirectRequest.removeHeader(HttpHeaderNames.HOST)
+                                                 .removeHeader(HttpHeaderNames.AUTHORIZATION)
+                                                 .removeHeader(HttpHeaderNames.PROXY_AUTHORIZATION)
+                                                 .removeHeader(HttpHeaderNames.COOKIE);
+            }
+        }
+
         if (redirectStatus == 303) {
             // according to HTTP spec, 303 mandates the change of request type to GET
             // If it is a get, then the content is not to be sent.
@@ -170,6 +238,19 @@ public class Redirector<I, O> implements Func1<HttpClientResponse<O>, Observable
         return HttpClientRequestImpl.create(redirectRequest, client);
     }
 
+    private static boolean isSameOrigin(URI first, URI second) {
+        return first.getScheme().equalsIgnoreCase(second.getScheme())
+               && first.getHost().equalsIgnoreCase(second.getHost())
+               && effectivePort(first) == effectivePort(second);
+    }
+
+    private static int effectivePort(URI uri) {
+        if (-1 != uri.getPort()) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
     protected static String getNettyRequestUri(URI uri, String originalUriString, int redirectStatus) {
         StringBuilder sb = new StringBuilder();
         if (uri.getRawPath() != null) {
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.internal;
+
+import io.netty.channel.Channel;
+import io.reactivex.netty.client.ClientConnectionToChannelBridge;
+import io.reactivex.netty.protocol.http.client.DeadlineExceededException;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import rx.Observable;
+import rx.Observable.Transformer;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * Deadline of a single execution of a request, created when the request is subscribed. The deadline covers acquiring
+ * a connection (from the pool or by connecting), writing the request, receiving the response headers (including any
+ * redirects) and receiving the entire response content.
+ *
+ * When the deadline expires, the connection in use (if any) is marked to be discarded and closed, since the state of
+ * a connection with a partially written request or a partially read response is unknown and hence it can not be
+ * reused. With redirects, the connection in use is the connection of the current redirect; the connection of a
+ * previous response is released once its content is discarded and may then be used by another request.
+ */
+final class RequestDeadline {
+
+    private final long timeoutNanos;
+    private final long deadlineNanos;
+    private volatile Channel channel;
+    private volatile boolean expired;
+
+    RequestDeadline(long timeoutNanos) {
+        this.timeoutNanos = timeoutNanos;
+        deadlineNanos = System.nanoTime() + timeoutNanos;
+    }
+
+    long remainingMillis() {
+        return NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    void onConnection(Channel channel) {
+        this.channel = channel;
+        if (expired) {
+            /*Expired while acquiring this connection, which is not closed by abort().*/
+            abort();
+        }
+    }
+
+    void onConnectionReleased() {
+        channel = null;
+    }
+
+    <O> Observable<HttpClientResponse<O>> apply(Observable<HttpClientResponse<O>> source) {
+        return source.timeout(new Func0<Observable<Long>>() {
+                                  @Override
+                                  public Observable<Long> call() {
+                                      return timer();
+                                  }
+                              }, new Func1<HttpClientResponse<O>, Observable<Long>>() {
+                                  @Override
+                                  public Observable<Long> call(HttpClientResponse<O> response) {
+                                      /*Only one response is emitted, the content is guarded separately.*/
+                                      return Observable.never();
+                                  }
+                              }, this.<HttpClientResponse<O>>expired())
+                     .map(new Func1<HttpClientResponse<O>, HttpClientResponse<O>>() {
+                         @Override
+                         public HttpClientResponse<O> call(HttpClientResponse<O> response) {
+                             return response.transformContent(new Transformer<O, O>() {
+                                 @Override
+                                 public Observable<O> call(Observable<O> content) {
+                                     return applyToContent(content);
+                                 }
+                             });
+                         }
+                     });
+    }
+
+    private <O> Observable<O> applyToContent(Observable<O> content) {
+        return content.timeout(new Func0<Observable<Long>>() {
+                                   @Override
+                                   public Observable<Long> call() {
+                                       return timer();
+                                   }
+                               }, new Func1<O, Observable<Long>>() {
+                                   @Override
+                                   public Observable<Long> call(O item) {
+                                       /*Deadline is absolute, so every item re-arms the timer for the remaining time.*/
+                                       return timer();
+                                   }
+                               }, this.<O>expired());
+    }
+
+    private long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    private Observable<Long> timer() {
+        return Observable.timer(remainingNanos(), NANOSECONDS);
+    }
+
+    private <T> Observable<T> expired() {
+        return Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                abort();
+                return Observable.error(new DeadlineExceededException("Request deadline of "
+                                                                      + NANOSECONDS.toMillis(timeoutNanos)
+                                                                      + " milliseconds exceeded."));
+            }
+        });
+    }
+
+    private void abort() {
+        expired = true;
+        final Channel c = channel;
+        if (null != c) {
+            c.attr(ClientConnectionToChannelBridge.DISCARD_CONNECTION).set(true);
+            c.close();
+        }
+    }
+}
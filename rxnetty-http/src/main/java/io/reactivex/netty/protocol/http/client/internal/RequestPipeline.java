@@ -0,0 +1,421 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.internal;
+
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.tcp.client.TcpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Observable.OnSubscribe;
+import rx.Observable.Transformer;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Actions;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipelines requests of a client, i.e. writes multiple requests on a connection without waiting for the responses of
+ * the previously written requests, as described in
+ * <a href="https://tools.ietf.org/html/rfc7230#section-6.3.2">RFC 7230, section 6.3.2</a>.
+ *
+ * <h2>Dispatch</h2>
+ *
+ * A request is written on a connection, which has less than the configured maximum number of requests awaiting a
+ * response; if there is no such connection, a new connection is acquired from the connection provider of the client,
+ * eg: a pool. A request counts against the maximum till the content of its response terminates (or the response of
+ * the next request is received), not just till the response headers are received. Responses are correlated with the
+ * requests in the order the requests were written on a connection, and a connection is released to the provider, as
+ * soon as the responses for all requests written on the connection are received.
+ *
+ * Only idempotent requests without content are pipelined, see {@link #isPipelined(RawRequest)}, as these are the only
+ * requests that can be retried, if the connection is closed before all responses are received. Such requests are
+ * retried once, on another connection.
+ *
+ * <h2>Consuming content</h2>
+ *
+ * As the responses on a connection are received one after the other, the content of a response must be subscribed (or
+ * discarded) when the response is emitted, eg: using {@code flatMap}. Content received without a subscriber, is
+ * discarded.
+ */
+public final class RequestPipeline {
+
+    /**
+     * Maximum number of requests per connection awaiting a response, that disables pipelining.
+     */
+    public static final int NO_PIPELINING = 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestPipeline.class);
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList(HttpMethod.GET,
+                                                                                          HttpMethod.HEAD,
+                                                                                          HttpMethod.OPTIONS,
+                                                                                          HttpMethod.TRACE,
+                                                                                          HttpMethod.PUT,
+                                                                                          HttpMethod.DELETE));
+
+    private static final Action1<Throwable> LOG_DISCARD_ERROR = new Action1<Throwable>() {
+        @Override
+        public void call(Throwable throwable) {
+            logger.error("Failed to discard the content of a pipelined response.", throwable);
+        }
+    };
+
+    private final TcpClient<?, ?> client;
+    private final int maxPipelinedRequests;
+    private final Queue<PipelinedConnection> connections = new ConcurrentLinkedQueue<>();
+
+    public RequestPipeline(TcpClient<?, ?> client, int maxPipelinedRequests) {
+        if (maxPipelinedRequests <= NO_PIPELINING) {
+            throw new IllegalArgumentException("Max pipelined requests must be more than " + NO_PIPELINING);
+        }
+        this.client = client;
+        this.maxPipelinedRequests = maxPipelinedRequests;
+    }
+
+    /**
+     * Returns {@code true} if the passed request can be pipelined, i.e. it is a HTTP/1.1 request with an idempotent
+     * method, without content and it does not close or upgrade the connection.
+     *
+     * @param rawRequest Request to check.
+     *
+     * @return {@code true} if the passed request can be pipelined.
+     */
+    public static boolean isPipelined(RawRequest<?, ?> rawRequest) {
+        final HttpRequest headers = rawRequest.getHeaders();
+        return null == rawRequest.getContent()
+               && HttpVersion.HTTP_1_1.equals(headers.protocolVersion())
+               && IDEMPOTENT_METHODS.contains(headers.method())
+               && HttpUtil.isKeepAlive(headers)
+               && !headers.headers().contains(HttpHeaderNames.UPGRADE);
+    }
+
+    /**
+     * Executes the passed request on a pipelined connection. The request is written on subscription to the returned
+     * stream.
+     *
+     * @param rawRequest Request to execute.
+     * @param responseTransformers Transformers for the response content.
+     *
+     * @return Stream with a single response.
+     */
+    public <O> Observable<HttpClientResponse<O>> execute(final RawRequest<?, O> rawRequest,
+                                                         final List<Transformer> responseTransformers) {
+        return Observable.create(new OnSubscribe<HttpClientResponse<O>>() {
+            @Override
+            public void call(Subscriber<? super HttpClientResponse<O>> subscriber) {
+                dispatch(new PendingRequest(rawRequest, responseTransformers, subscriber));
+            }
+        });
+    }
+
+    private void dispatch(PendingRequest request) {
+        for (PipelinedConnection connection : connections) {
+            if (connection.tryReserve()) {
+                connection.write(request);
+                return;
+            }
+        }
+
+        /*Added before the connection is acquired, so that concurrent requests do not all acquire a new connection.*/
+        final PipelinedConnection connection = new PipelinedConnection();
+        connection.tryReserve();
+        connections.add(connection);
+        connection.write(request);
+        connection.connect();
+    }
+
+    private static void runOnEventLoop(Connection<?, ?> connection, Runnable task) {
+        final EventLoop eventLoop = connection.unsafeNettyChannel().eventLoop();
+        if (eventLoop.inEventLoop()) {
+            task.run();
+        } else {
+            eventLoop.execute(task);
+        }
+    }
+
+    private final class PipelinedConnection extends Subscriber<HttpClientResponse<?>> {
+
+        /*Requests dispatched to this connection, for which the response content is not yet received.*/
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean closed;
+
+        /*Following are guarded by this, the connection is only updated once and is read without a lock from the event
+        loop.*/
+        private Connection<HttpClientResponse<?>, Object> connection;
+        private List<PendingRequest> awaitingConnection = new ArrayList<>();
+        private Throwable connectFailure;
+
+        /*Only accessed from the event loop, in the order the requests are written.*/
+        private final Queue<PendingRequest> awaitingResponse = new ArrayDeque<>();
+        /*Only accessed from the event loop, reservation of the last received response.*/
+        private Reservation lastResponse;
+
+        private boolean tryReserve() {
+            for (;;) {
+                final int current = inFlight.get();
+                if (closed || current >= maxPipelinedRequests) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void connect() {
+            final Observable<Connection<HttpClientResponse<?>, Object>> connectionRequest =
+                    (Observable) client.createConnectionRequest();
+
+            connectionRequest.take(1)
+                             .subscribe(new Subscriber<Connection<HttpClientResponse<?>, Object>>() {
+                                 @Override
+                                 public void onCompleted() {
+                                     // No Op, the connection, if any, is already handled.
+                                 }
+
+                                 @Override
+                                 public void onError(Throwable e) {
+                                     onConnectFailed(e);
+                                 }
+
+                                 @Override
+                                 public void onNext(Connection<HttpClientResponse<?>, Object> c) {
+                                     onConnect(c);
+                                 }
+                             });
+        }
+
+        private void onConnect(final Connection<HttpClientResponse<?>, Object> c) {
+            runOnEventLoop(c, new Runnable() {
+                @Override
+                public void run() {
+                    final List<PendingRequest> toWrite;
+                    synchronized (PipelinedConnection.this) {
+                        connection = c;
+                        toWrite = awaitingConnection;
+                        awaitingConnection = null;
+                    }
+
+                    /*Responses are read by a single subscriber for the lifetime of the pipelined connection.*/
+                    c.getInput().unsafeSubscribe(PipelinedConnection.this);
+
+                    for (PendingRequest request : toWrite) {
+                        writeOnEventLoop(request);
+                    }
+                }
+            });
+        }
+
+        private void onConnectFailed(Throwable cause) {
+            closed = true;
+            connections.remove(this);
+
+            final List<PendingRequest> toFail;
+            synchronized (this) {
+                connectFailure = cause;
+                toFail = awaitingConnection;
+                awaitingConnection = new ArrayList<>();
+            }
+
+            for (PendingRequest request : toFail) {
+                request.subscriber.onError(cause);
+            }
+        }
+
+        private void write(final PendingRequest request) {
+            final Connection<HttpClientResponse<?>, Object> c;
+            final Throwable failure;
+            synchronized (this) {
+                c = connection;
+                failure = connectFailure;
+                if (null == c && null == failure) {
+                    awaitingConnection.add(request);
+                    return;
+                }
+            }
+
+            if (null == c) {
+                request.subscriber.onError(failure);
+                return;
+            }
+
+            runOnEventLoop(c, new Runnable() {
+                @Override
+                public void run() {
+                    writeOnEventLoop(request);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeOnEventLoop(PendingRequest request) {
+            if (closed) {
+                /*Connection released or closed after the request was dispatched to this connection.*/
+                dispatch(request);
+                return;
+            }
+
+            awaitingResponse.add(request);
+            final Connection<HttpClientResponse<?>, Object> c = connection;
+            c.write(request.rawRequest.asObservable(c))
+             .subscribe(Actions.empty(), new Action1<Throwable>() {
+                 @Override
+                 public void call(Throwable throwable) {
+                     logger.error("Failed to write a pipelined request, closing the connection.", throwable);
+                     /*Pending requests are retried, when the input terminates on close.*/
+                     c.unsafeNettyChannel().close();
+                 }
+             });
+        }
+
+        @Override
+        public void onNext(HttpClientResponse<?> response) {
+            final PendingRequest request = awaitingResponse.poll();
+            if (null != lastResponse) {
+                /*Content of the previous response is complete, even if it was never subscribed.*/
+                lastResponse.release();
+                lastResponse = null;
+            }
+            if (null == request) {
+                logger.error("Response received on a pipelined connection, with no request awaiting a response. "
+                             + "Discarding the response.");
+                HttpClientResponseImpl.newInstance(response, connection)
+                                      .discardContent()
+                                      .subscribe(Actions.empty(), LOG_DISCARD_ERROR);
+                return;
+            }
+            lastResponse = new Reservation();
+            request.onResponse(response, connection, lastResponse);
+        }
+
+        @Override
+        public void onCompleted() {
+            /*Responses for all written requests are received, connection is released on unsubscribe.*/
+            onTerminate(null);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            onTerminate(e);
+        }
+
+        private void onTerminate(final Throwable cause) {
+            closed = true;
+            connections.remove(this);
+            unsubscribe();
+
+            runOnEventLoop(connection, new Runnable() {
+                @Override
+                public void run() {
+                    PendingRequest request;
+                    while (null != (request = awaitingResponse.poll())) {
+                        request.retryOrFail(cause);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Reservation of a request against the maximum pipelined requests, released when the content of its response
+         * terminates.
+         */
+        private final class Reservation implements Transformer<Object, Object> {
+
+            private final AtomicBoolean released = new AtomicBoolean();
+
+            @Override
+            public Observable<Object> call(Observable<Object> content) {
+                return content.doOnTerminate(new Action0() {
+                    @Override
+                    public void call() {
+                        release();
+                    }
+                });
+            }
+
+            private void release() {
+                if (released.compareAndSet(false, true)) {
+                    inFlight.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private final class PendingRequest {
+
+        private final RawRequest<?, ?> rawRequest;
+        private final List<Transformer> responseTransformers;
+        @SuppressWarnings("rawtypes")
+        private final Subscriber subscriber;
+        private final AtomicBoolean retried = new AtomicBoolean();
+
+        private PendingRequest(RawRequest<?, ?> rawRequest, List<Transformer> responseTransformers,
+                               Subscriber<?> subscriber) {
+            this.rawRequest = rawRequest;
+            this.responseTransformers = responseTransformers;
+            this.subscriber = subscriber;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void onResponse(HttpClientResponse<?> response, Connection<?, ?> connection,
+                                Transformer<Object, Object> reservation) {
+            HttpClientResponse rp = HttpClientResponseImpl.newInstance(response, connection)
+                                                          .transformContent((Transformer) reservation);
+            if (subscriber.isUnsubscribed()) {
+                /*The content must be read, for the responses of the following requests to be read.*/
+                rp.discardContent().subscribe(Actions.empty(), LOG_DISCARD_ERROR);
+                return;
+            }
+
+            for (Transformer transformer : responseTransformers) {
+                rp = rp.transformContent(transformer);
+            }
+            subscriber.onNext(rp);
+            subscriber.onCompleted();
+        }
+
+        private void retryOrFail(Throwable cause) {
+            /*Retried from the event loop of the closed connection, which may differ from that of a previous retry.*/
+            if (!subscriber.isUnsubscribed() && retried.compareAndSet(false, true)) {
+                dispatch(this);
+            } else {
+                subscriber.onError(null != cause ? cause : new ClosedChannelException());
+            }
+        }
+    }
+}
@@ -20,6 +20,8 @@ package io.reactivex.netty.protocol.http.client.loadbalancer;
 import io.reactivex.netty.client.Host;
 import io.reactivex.netty.client.events.ClientEventListener;
 import io.reactivex.netty.client.loadbalancer.AbstractP2CStrategy;
+import io.reactivex.netty.client.loadbalancer.CircuitBreaker;
+import io.reactivex.netty.client.loadbalancer.CircuitBreakerConfig;
 import io.reactivex.netty.protocol.http.client.events.HttpClientEventsListener;
 import io.reactivex.netty.protocol.http.client.loadbalancer.EWMABasedP2CStrategy.HttpClientListenerImpl;
 
@@ -34,19 +36,47 @@ public class EWMABasedP2CStrategy<W, R> extends AbstractP2CStrategy<W, R, Client
     private final double tauDown;
     private double penaltyOnConnectionFailure;
     private double penaltyOn503;
+    private final CircuitBreakerConfig circuitBreakerConfig;
 
     public EWMABasedP2CStrategy(double tauUp, double tauDown, double penaltyOnConnectionFailure,
                                 double penaltyOn503) {
+        this(tauUp, tauDown, penaltyOnConnectionFailure, penaltyOn503, null);
+    }
+
+    /**
+     * Creates a new strategy with a {@link CircuitBreaker} per host. Connection failures, request write failures,
+     * response failures and {@code 5XX} responses are reported as failures, all other responses as successes. Hosts
+     * with an open circuit are not selected.
+     *
+     * @param tauUp Decay constant (in nanoseconds) for an increasing latency.
+     * @param tauDown Decay constant (in nanoseconds) for a decreasing latency.
+     * @param penaltyOnConnectionFailure Latency multiplier for a connection failure.
+     * @param penaltyOn503 Latency multiplier for a {@code 503} response.
+     * @param circuitBreakerConfig Configuration for the circuit breaker of every host, {@code null} to disable circuit
+     * breaking.
+     */
+    public EWMABasedP2CStrategy(double tauUp, double tauDown, double penaltyOnConnectionFailure,
+                                double penaltyOn503, CircuitBreakerConfig circuitBreakerConfig) {
         this.tauUp = tauUp;
         this.tauDown = tauDown;
         this.penaltyOnConnectionFailure = penaltyOnConnectionFailure;
         this.penaltyOn503 = penaltyOn503;
+        this.circuitBreakerConfig = circuitBreakerConfig;
     }
 
     public EWMABasedP2CStrategy() {
         this(NANOSECONDS.convert(1, SECONDS), NANOSECONDS.convert(15, SECONDS), 2, 5);
     }
 
+    /**
+     * Creates a new strategy with the default decay and penalties, and a {@link CircuitBreaker} per host.
+     *
+     * @param circuitBreakerConfig Configuration for the circuit breaker of every host.
+     */
+    public EWMABasedP2CStrategy(CircuitBreakerConfig circuitBreakerConfig) {
+        this(NANOSECONDS.convert(1, SECONDS), NANOSECONDS.convert(15, SECONDS), 2, 5, circuitBreakerConfig);
+    }
+
     @Override
     protected HttpClientListenerImpl newListener(Host host) {
         return new HttpClientListenerImpl();
@@ -57,11 +87,18 @@ public class EWMABasedP2CStrategy<W, R> extends AbstractP2CStrategy<W, R, Client
         return ((HttpClientListenerImpl) listener).getWeight();
     }
 
+    @Override
+    protected CircuitBreaker getCircuitBreaker(ClientEventListener listener) {
+        return ((HttpClientListenerImpl) listener).getCircuitBreaker();
+    }
+
     public class HttpClientListenerImpl extends HttpClientEventsListener {
         private final long epoch = System.nanoTime();
         private long stamp = epoch;  // last timestamp in nanos we observed an rtt
         private int pending = 0;     // instantaneous rate
         private double cost = 0.0;   // ewma of rtt, sensitive to peaks.
+        private final CircuitBreaker circuitBreaker = null == circuitBreakerConfig ? null
+                                                              : new CircuitBreaker(circuitBreakerConfig);
 
         public double getWeight() {
             observe(0.0);
@@ -72,11 +109,27 @@ public class EWMABasedP2CStrategy<W, R> extends AbstractP2CStrategy<W, R, Client
             }
         }
 
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
         @Override
         public synchronized void onRequestWriteComplete(long duration, TimeUnit timeUnit) {
             pending += 1;
         }
 
+        @Override
+        public void onRequestWriteFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+            recordFailure(duration, timeUnit);
+        }
+
+        @Override
+        public void onResponseFailed(Throwable throwable) {
+            if (null != circuitBreaker) {
+                circuitBreaker.onFailure();
+            }
+        }
+
         @Override
         public synchronized void onResponseReceiveComplete(long duration, TimeUnit timeUnit) {
             pending -= 1;
@@ -88,11 +141,33 @@ public class EWMABasedP2CStrategy<W, R> extends AbstractP2CStrategy<W, R, Client
             if (responseCode == 503) {
                 observe(TimeUnit.NANOSECONDS.convert(duration, timeUnit) * penaltyOn503);
             }
+            if (null != circuitBreaker) {
+                final boolean failed = responseCode >= 500;
+                if (duration < 0) {
+                    /*Request write completion is not known, so is the start of the request.*/
+                    if (failed) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                } else if (failed) {
+                    circuitBreaker.onFailure(duration, timeUnit);
+                } else {
+                    circuitBreaker.onSuccess(duration, timeUnit);
+                }
+            }
         }
 
         @Override
         public void onConnectFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
             observe(TimeUnit.NANOSECONDS.convert(duration, timeUnit) * penaltyOnConnectionFailure);
+            recordFailure(duration, timeUnit);
+        }
+
+        private void recordFailure(long duration, TimeUnit timeUnit) {
+            if (null != circuitBreaker) {
+                circuitBreaker.onFailure(duration, timeUnit);
+            }
         }
 
         private void observe(double rtt) {
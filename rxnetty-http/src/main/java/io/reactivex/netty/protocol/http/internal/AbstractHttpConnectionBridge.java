@@ -241,6 +241,17 @@ public abstract class AbstractHttpConnectionBridge<C> extends ChannelDuplexHandl
         // No Op.
     }
 
+    /**
+     * Returns {@code true} if more messages are expected on the connection input after the current message, eg: when
+     * responses to pipelined requests are pending. While this returns {@code true}, the connection input is not
+     * unsubscribed when the content subscriber of the current message unsubscribes.
+     *
+     * @return {@code true} if more messages are expected on the connection input.
+     */
+    protected boolean isMoreInputExpected() {
+        return false;
+    }
+
     protected long getHeaderWriteStartTimeNanos() {
         return headerWriteStartTimeNanos;
     }
@@ -530,8 +541,10 @@ public abstract class AbstractHttpConnectionBridge<C> extends ChannelDuplexHandl
         public void run() {
             if (state.contentSub != null) {
                 if (state.contentSub.isUnsubscribed()) {
-                    // Content sub exists and unsubscribed, so unsubscribe from input.
-                    unsubscribe();
+                    if (!isMoreInputExpected()) {
+                        // Content sub exists and unsubscribed, so unsubscribe from input.
+                        unsubscribe();
+                    }
                 } else if (state.headerSub.isUnsubscribed() && !state.receiveStarted()) {
                     // Header sub unsubscribed before request started, unsubscribe from input.
                     unsubscribe();
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import rx.Observer;
+import rx.observables.SyncOnSubscribe;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a region of a file as a stream of {@link ByteBuf}, one chunk per request, so that a slow (or non-writable)
+ * channel does not cause the entire file to be read in memory. This is used when a {@link io.netty.channel.FileRegion}
+ * can not be written on the channel, eg: when the connection is secure.
+ *
+ * The file is closed when the stream terminates or is unsubscribed.
+ */
+final class ChunkedFileReader extends SyncOnSubscribe<Long, ByteBuf> {
+
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final RandomAccessFile file;
+    private final long startPosition;
+    private final long endPosition;
+    private final ByteBufAllocator allocator;
+    private final int chunkSize;
+
+    ChunkedFileReader(RandomAccessFile file, long position, long count, ByteBufAllocator allocator, int chunkSize) {
+        this.file = file;
+        this.allocator = allocator;
+        this.chunkSize = chunkSize;
+        startPosition = position;
+        endPosition = position + count;
+    }
+
+    @Override
+    protected Long generateState() {
+        return startPosition;
+    }
+
+    @Override
+    protected Long next(Long position, Observer<? super ByteBuf> observer) {
+        if (position >= endPosition) {
+            observer.onCompleted();
+            return position;
+        }
+
+        final int toRead = (int) Math.min(chunkSize, endPosition - position);
+        final ByteBuf chunk = allocator.ioBuffer(toRead);
+        try {
+            final FileChannel channel = file.getChannel();
+            channel.position(position);
+            while (chunk.writerIndex() < toRead) {
+                if (chunk.writeBytes(channel, toRead - chunk.writerIndex()) < 0) {
+                    throw new EOFException("File ended before the requested content was read. Expected to read till: "
+                                           + endPosition + ", read till: " + (position + chunk.writerIndex()));
+                }
+            }
+        } catch (IOException e) {
+            chunk.release();
+            observer.onError(e);
+            return position;
+        }
+
+        observer.onNext(chunk);
+        return position + toRead;
+    }
+
+    @Override
+    protected void onUnsubscribe(Long state) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            // Ignore, nothing can be done here.
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable limits on the lifetime of a keep-alive connection, as configured by
+ * {@link HttpServer#idleTimeout(long, TimeUnit)}, {@link HttpServer#maxRequestsPerConnection(int)} and
+ * {@link HttpServer#maxConnectionAge(long, TimeUnit)}. A value of {@code 0} for any limit means no limit.
+ */
+final class ConnectionLifecycle {
+
+    static final ConnectionLifecycle UNLIMITED = new ConnectionLifecycle(0, 0, 0);
+
+    final long idleTimeoutNanos;
+    final int maxRequests;
+    final long maxAgeNanos;
+
+    private ConnectionLifecycle(long idleTimeoutNanos, int maxRequests, long maxAgeNanos) {
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.maxRequests = maxRequests;
+        this.maxAgeNanos = maxAgeNanos;
+    }
+
+    ConnectionLifecycle idleTimeout(long idleTimeout, TimeUnit timeUnit) {
+        return new ConnectionLifecycle(toNanos(idleTimeout, timeUnit), maxRequests, maxAgeNanos);
+    }
+
+    ConnectionLifecycle maxRequests(int maxRequests) {
+        if (maxRequests < 0) {
+            throw new IllegalArgumentException("Max requests per connection can not be negative: " + maxRequests);
+        }
+        return new ConnectionLifecycle(idleTimeoutNanos, maxRequests, maxAgeNanos);
+    }
+
+    ConnectionLifecycle maxAge(long maxAge, TimeUnit timeUnit) {
+        return new ConnectionLifecycle(idleTimeoutNanos, maxRequests, toNanos(maxAge, timeUnit));
+    }
+
+    /**
+     * Returns {@code true} if connections have to be tracked on the {@link ConnectionTimerWheel}.
+     */
+    boolean hasTimeouts() {
+        return idleTimeoutNanos > 0 || maxAgeNanos > 0;
+    }
+
+    boolean isUnlimited() {
+        return !hasTimeouts() && 0 == maxRequests;
+    }
+
+    private static long toNanos(long duration, TimeUnit timeUnit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Duration can not be negative: " + duration);
+        }
+        return timeUnit.toNanos(duration);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.ArrayList;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * A hashed timer wheel per event loop, used to expire connections (idle timeout, maximum age) without scheduling a task
+ * per connection on the event loop.
+ *
+ * A single task per event loop advances the wheel every {@link #TICK_NANOS} and only while there are pending timeouts.
+ * Timeouts are expired lazily, i.e. a {@link Timeout} is asked for its next deadline when its slot is reached, so
+ * activity on a connection (eg: a new request resetting the idle timer) does not require any update to the wheel.
+ * Deadlines farther than one revolution of the wheel are handled the same way, by re-inserting the timeout.
+ *
+ * The wheel is only ever accessed on the owning event loop, so no synchronization is required.
+ */
+final class ConnectionTimerWheel implements Runnable {
+
+    static final long TICK_NANOS = MILLISECONDS.toNanos(100);
+    private static final int WHEEL_SIZE = 512; // Must be a power of 2, one revolution is ~51 seconds.
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final FastThreadLocal<ConnectionTimerWheel> WHEELS = new FastThreadLocal<ConnectionTimerWheel>() {
+        @Override
+        protected ConnectionTimerWheel initialValue() throws Exception {
+            return new ConnectionTimerWheel();
+        }
+    };
+
+    private final ArrayList<ArrayList<Timeout>> slots;
+    private long currentTick;
+    private int pending;
+    private ScheduledFuture<?> tickFuture;
+
+    private ConnectionTimerWheel() {
+        slots = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            slots.add(new ArrayList<Timeout>(0));
+        }
+    }
+
+    /**
+     * Adds the passed {@code timeout} to the wheel of the passed event loop. This must be called on the event loop.
+     *
+     * @param eventLoop Event loop owning the wheel.
+     * @param timeout Timeout to add.
+     * @param deadlineNanos Deadline (as per {@link System#nanoTime()}) at which the timeout is to be expired.
+     */
+    static void add(EventLoop eventLoop, Timeout timeout, long deadlineNanos) {
+        assert eventLoop.inEventLoop();
+        WHEELS.get().addTimeout(eventLoop, timeout, deadlineNanos);
+    }
+
+    @Override
+    public void run() {
+        final ArrayList<Timeout> slot = slots.get((int) (++currentTick & WHEEL_MASK));
+        if (slot.isEmpty()) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        final int size = slot.size();
+        pending -= size;
+        for (int i = 0; i < size; i++) {
+            final Timeout timeout = slot.get(i);
+            slot.set(i, null);
+            long nextDeadline;
+            try {
+                nextDeadline = timeout.expire(now);
+            } catch (Throwable t) {
+                nextDeadline = -1; // Faulty timeout, drop it, else it will fail on every revolution.
+            }
+            if (nextDeadline >= 0) {
+                /*Never lands in the current slot as the minimum delay is one tick.*/
+                insert(timeout, nextDeadline, now);
+            }
+        }
+        slot.clear();
+
+        if (0 == pending && null != tickFuture) {
+            tickFuture.cancel(false);
+            tickFuture = null;
+        }
+    }
+
+    private void addTimeout(EventLoop eventLoop, Timeout timeout, long deadlineNanos) {
+        insert(timeout, deadlineNanos, System.nanoTime());
+        if (null == tickFuture) {
+            tickFuture = eventLoop.scheduleAtFixedRate(this, TICK_NANOS, TICK_NANOS, NANOSECONDS);
+        }
+    }
+
+    private void insert(Timeout timeout, long deadlineNanos, long now) {
+        long ticks = (deadlineNanos - now + TICK_NANOS - 1) / TICK_NANOS;
+        ticks = Math.min(Math.max(ticks, 1), WHEEL_SIZE - 1);
+        slots.get((int) ((currentTick + ticks) & WHEEL_MASK)).add(timeout);
+        pending++;
+    }
+
+    /**
+     * A timeout tracked by {@link ConnectionTimerWheel}.
+     */
+    interface Timeout {
+
+        /**
+         * Invoked when the slot of this timeout is reached. The timeout may not have actually expired, in which case,
+         * the next deadline must be returned.
+         *
+         * @param nowNanos Current time as per {@link System#nanoTime()}
+         *
+         * @return The next deadline (as per {@link System#nanoTime()}) for this timeout or a negative value if this
+         * timeout is no longer to be tracked.
+         */
+        long expire(long nowNanos);
+    }
+}
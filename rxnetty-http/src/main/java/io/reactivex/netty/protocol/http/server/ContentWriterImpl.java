@@ -17,6 +17,7 @@
 package io.reactivex.netty.protocol.http.server;
 
 import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
@@ -59,7 +60,7 @@ final class ContentWriterImpl<C> extends ResponseContentWriter<C> {
             public void call(Subscriber<? super Void> subscriber) {
                 /*We are never sending content as the subscription is to the headers only writer.*/
                 if (!HttpUtil.isTransferEncodingChunked(headers)) {
-                    headers.headers().set(CONTENT_LENGTH, 0);
+                    headers.headers().set(CONTENT_LENGTH, HttpHeaderValues.ZERO);
                 }
                 connection.write(Observable.just(headers)).unsafeSubscribe(subscriber);
             }
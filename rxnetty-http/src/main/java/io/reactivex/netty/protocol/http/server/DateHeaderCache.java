@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.Date;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * A per event loop cache of the value of the HTTP {@code Date} header. The value has a precision of one second, so
+ * instead of formatting the date for every response, the value is formatted once every second by a task scheduled on
+ * the event loop and kept as a pre-encoded {@link AsciiString}, which is written by the encoder without any conversion.
+ *
+ * The refresh task is started by the first server using the cache on an event loop, see {@link #start(EventLoop)}, and
+ * is cancelled when the last such server is shutdown, see {@link #stop(EventLoop)}, as the event loops may outlive the
+ * servers.
+ *
+ * Since the cache is only ever read and refreshed on the owning event loop, no synchronization is required.
+ */
+final class DateHeaderCache implements Runnable {
+
+    private static final FastThreadLocal<DateHeaderCache> CACHES = new FastThreadLocal<DateHeaderCache>() {
+        @Override
+        protected DateHeaderCache initialValue() throws Exception {
+            return new DateHeaderCache();
+        }
+    };
+
+    private AsciiString value;
+    private ScheduledFuture<?> refresh;
+    /*Number of started servers using this cache.*/
+    private int servers;
+
+    private DateHeaderCache() {
+    }
+
+    /**
+     * Returns the current value of the {@code Date} header.
+     *
+     * @param eventLoop Event loop on which the value is requested. If the caller is not on this event loop, or the
+     * cache is not started on this event loop, the value is formatted on every call.
+     *
+     * @return The current value of the {@code Date} header.
+     */
+    static AsciiString currentDate(EventLoop eventLoop) {
+        if (eventLoop.inEventLoop()) {
+            final AsciiString cached = CACHES.get().value;
+            if (null != cached) {
+                return cached;
+            }
+        }
+        return newValue(System.currentTimeMillis());
+    }
+
+    /**
+     * Starts refreshing the cache of the passed event loop for a server, if not already started by another server.
+     *
+     * @param eventLoop Event loop of the cache.
+     */
+    static void start(final EventLoop eventLoop) {
+        runOnEventLoop(eventLoop, new Runnable() {
+            @Override
+            public void run() {
+                final DateHeaderCache cache = CACHES.get();
+                if (0 == cache.servers++) {
+                    cache.run();
+                    /*Align the refresh to the start of the next second, so that the value is never stale by a second.*/
+                    final long delayMillis = 1000 - System.currentTimeMillis() % 1000;
+                    cache.refresh = eventLoop.scheduleAtFixedRate(cache, delayMillis, 1000, MILLISECONDS);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops refreshing the cache of the passed event loop for a server, the refresh task is cancelled if no other
+     * server uses the cache.
+     *
+     * @param eventLoop Event loop of the cache.
+     */
+    static void stop(EventLoop eventLoop) {
+        if (eventLoop.isShuttingDown()) {
+            /*Scheduled tasks are cancelled with the event loop.*/
+            return;
+        }
+        runOnEventLoop(eventLoop, new Runnable() {
+            @Override
+            public void run() {
+                final DateHeaderCache cache = CACHES.get();
+                if (cache.servers > 0 && 0 == --cache.servers) {
+                    cache.refresh.cancel(false);
+                    cache.refresh = null;
+                    cache.value = null;
+                }
+            }
+        });
+    }
+
+    @Override
+    public void run() {
+        value = newValue(System.currentTimeMillis());
+    }
+
+    private static void runOnEventLoop(EventLoop eventLoop, Runnable task) {
+        if (eventLoop.inEventLoop()) {
+            task.run();
+        } else {
+            eventLoop.execute(task);
+        }
+    }
+
+    private static AsciiString newValue(long currentTimeMillis) {
+        return new AsciiString(DateFormatter.format(new Date(currentTimeMillis)));
+    }
+}
@@ -17,12 +17,15 @@
 
 package io.reactivex.netty.protocol.http.server;
 
+import io.netty.channel.EventLoop;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpVersion;
 import io.reactivex.netty.channel.Connection;
 import io.reactivex.netty.events.Clock;
+import io.reactivex.netty.protocol.http.DeadlineHeader;
+import io.reactivex.netty.protocol.http.server.admission.AdmissionController;
 import io.reactivex.netty.protocol.http.server.events.HttpServerEventPublisher;
 import io.reactivex.netty.protocol.tcp.server.ConnectionHandler;
 import org.slf4j.Logger;
@@ -30,7 +33,15 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 import rx.Observable.Operator;
 import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Func0;
 import rx.functions.Func1;
+import rx.observers.Subscribers;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.*;
 import static io.netty.handler.codec.http.HttpResponseStatus.*;
@@ -44,97 +55,187 @@ public class HttpConnectionHandler<I, O> implements ConnectionHandler<HttpServer
     private final RequestHandler<I, O> requestHandler;
     private final HttpServerEventPublisher eventPublisher;
     private final boolean sendHttp10ResponseFor10Request;
+    private final boolean sendDateHeader;
+    private final boolean readDeadlineHeader;
+    private final AdmissionController admissionController;
+    private final ConnectionLifecycle lifecycle;
+    /*Event loops on which the date header cache is started for this handler.*/
+    private final Set<EventLoop> dateHeaderLoops =
+            Collections.newSetFromMap(new ConcurrentHashMap<EventLoop, Boolean>());
 
     public HttpConnectionHandler(RequestHandler<I, O> requestHandler, HttpServerEventPublisher eventPublisher,
                                  boolean sendHttp10ResponseFor10Request) {
+        this(requestHandler, eventPublisher, sendHttp10ResponseFor10Request, false);
+    }
+
+    public HttpConnectionHandler(RequestHandler<I, O> requestHandler, HttpServerEventPublisher eventPublisher,
+                                 boolean sendHttp10ResponseFor10Request, boolean sendDateHeader) {
+        this(requestHandler, eventPublisher, sendHttp10ResponseFor10Request, sendDateHeader, null);
+    }
+
+    public HttpConnectionHandler(RequestHandler<I, O> requestHandler, HttpServerEventPublisher eventPublisher,
+                                 boolean sendHttp10ResponseFor10Request, boolean sendDateHeader,
+                                 AdmissionController admissionController) {
+        this(requestHandler, eventPublisher, sendHttp10ResponseFor10Request, sendDateHeader, false,
+             admissionController, ConnectionLifecycle.UNLIMITED);
+    }
+
+    HttpConnectionHandler(RequestHandler<I, O> requestHandler, HttpServerEventPublisher eventPublisher,
+                          boolean sendHttp10ResponseFor10Request, boolean sendDateHeader, boolean readDeadlineHeader,
+                          AdmissionController admissionController, ConnectionLifecycle lifecycle) {
         this.requestHandler = requestHandler;
         this.eventPublisher = eventPublisher;
         this.sendHttp10ResponseFor10Request = sendHttp10ResponseFor10Request;
+        this.sendDateHeader = sendDateHeader;
+        this.readDeadlineHeader = readDeadlineHeader;
+        this.admissionController = admissionController;
+        this.lifecycle = lifecycle;
     }
 
     @Override
     public Observable<Void> handle(final Connection<HttpServerRequest<I>, Object> c) {
+        /*Requests on a connection are processed sequentially, so all state and functions needed to process a request
+        are created once per connection and reused for every request on that connection.*/
+        final ConnectionProcessor processor = new ConnectionProcessor(c);
+        if (lifecycle.hasTimeouts()) {
+            processor.startTimeouts();
+        }
         return c.getInput()
                 .nest()
-                .concatMap(new Func1<Observable<HttpServerRequest<I>>, Observable<Void>>() {
-                    @Override
-                    public Observable<Void> call(Observable<HttpServerRequest<I>> reqSource) {
-                        return reqSource.take(1)
-                                        .flatMap(new Func1<HttpServerRequest<I>, Observable<Void>>() {
-                                            @Override
-                                            public Observable<Void> call(HttpServerRequest<I> req) {
-                                                final long startNanos = eventPublisher.publishingEnabled()
-                                                                                ? Clock.newStartTimeNanos()
-                                                                                : -1;
-
-                                                if (eventPublisher.publishingEnabled()) {
-                                                    eventPublisher.onNewRequestReceived();
-                                                }
-
-                                                final HttpServerResponse<O> response = newResponse(req, c);
-                                                return handleRequest(req, startNanos, response, c);
-                                            }
-                                        });
-                    }
-                })
+                .concatMap(processor)
                 .repeat()
                 .ambWith(c.closeListener());
     }
 
-    @SuppressWarnings("unchecked")
-    private Observable<Void> handleRequest(HttpServerRequest<I> request, final long startTimeNanos,
-                                           final HttpServerResponse<O> response,
-                                           final Connection<HttpServerRequest<I>, Object> c) {
-        Observable<Void> requestHandlingResult = null;
-        try {
+    /**
+     * Releases the resources shared by the connections of the server, invoked when the server is shutdown.
+     */
+    void shutdown() {
+        for (EventLoop eventLoop : dateHeaderLoops) {
+            DateHeaderCache.stop(eventLoop);
+        }
+        dateHeaderLoops.clear();
+    }
+
+    /**
+     * Processes all requests received on a single connection.
+     *
+     * Since requests on a connection are processed one after the other (a request is only read after the processing of
+     * the previous request, including disposal, completes), the request being processed is stored in this instance and
+     * all the functions, operators and the dispose stream used to process a request are created once per connection
+     * instead of once per request. This reduces allocations per request for keep-alive connections, but does not remove
+     * them: every request still creates the subscribers of the request stream, the response and the lifted stream of
+     * the request handler. Completion of a request (event publishing, error handling and disposal) is done by a single
+     * operator, instead of chaining {@code onErrorResumeNext()} and {@code concatWith()} per request.
+     *
+     * This also enforces the {@link ConnectionLifecycle} of the connection and the deadline of requests, if read. The
+     * idle timeout, maximum age and request deadlines are expired by the {@link ConnectionTimerWheel} of the
+     * connection's event loop.
+     */
+    private final class ConnectionProcessor implements Func1<Observable<HttpServerRequest<I>>, Observable<Void>>,
+                                                       ConnectionTimerWheel.Timeout {
 
-            if (request.decoderResult().isSuccess()) {
-                requestHandlingResult = requestHandler.handle(request, response);
-            }
+        private final Connection<HttpServerRequest<I>, Object> c;
+
+        private final Func1<HttpServerRequest<I>, Observable<Void>> requestProcessor;
+        private final Func1<Throwable, Observable<Void>> errorHandler;
+        private final Operator<Void, Void> requestCompletion;
+        private final Observable<Void> disposeCurrent;
+        private final Observable<Void> finishCurrent;
+        private final Action0 releaseAdmission;
+        private final AtomicBoolean admitted = new AtomicBoolean();
+
+        private HttpServerRequest<I> currentRequest;
+        private HttpServerResponse<O> currentResponse;
+        private long currentStartTimeNanos;
+        private RequestDeadline currentDeadline;
+
+        private final long createdNanos;
+        private int requestCount; /*Only accessed when a request is received, i.e. sequentially.*/
+        private volatile long lastActivityNanos;
+        private volatile boolean requestInProgress;
+        private volatile boolean closeAfterResponse;
+
+        private ConnectionProcessor(final Connection<HttpServerRequest<I>, Object> c) {
+            this.c = c;
+            createdNanos = lastActivityNanos = System.nanoTime();
+
+            requestProcessor = new Func1<HttpServerRequest<I>, Observable<Void>>() {
+                @Override
+                public Observable<Void> call(HttpServerRequest<I> req) {
+                    currentStartTimeNanos = eventPublisher.publishingEnabled() ? Clock.newStartTimeNanos() : -1;
+
+                    if (eventPublisher.publishingEnabled()) {
+                        eventPublisher.onNewRequestReceived();
+                    }
+
+                    final boolean expired = readDeadlineHeader && !readDeadline(req);
 
-            if(null == requestHandlingResult) {
-                        /*If decoding failed an appropriate response status would have been set.
-                          Otherwise, overwrite the status to 500*/
-                if (response.getStatus().equals(OK)) {
-                    response.setStatus(INTERNAL_SERVER_ERROR);
+                    if (!lifecycle.isUnlimited()) {
+                        requestInProgress = true;
+                        if (lifecycle.maxRequests > 0 && ++requestCount >= lifecycle.maxRequests) {
+                            closeAfterResponse = true;
+                        }
+                    }
+
+                    currentRequest = req;
+                    currentResponse = newResponse(req, c, closeAfterResponse);
+                    if (expired) {
+                        /*Client has already given up on this request, so do not process it. It is still responded
+                        (and disposed) as any other request, so the connection can be used for the next requests.*/
+                        return currentResponse.setStatus(GATEWAY_TIMEOUT)
+                                              .write(Observable.<O>empty())
+                                              .lift(requestCompletion);
+                    }
+                    return handleRequest(req, currentResponse);
                 }
-                requestHandlingResult = response.write(Observable.<O>empty());
-            }
+            };
 
-        } catch (Throwable throwable) {
-            logger.error("Unexpected error while invoking HTTP user handler.", throwable);
-                    /*If the headers are already written, then this will produce an error Observable.*/
-            requestHandlingResult = response.setStatus(INTERNAL_SERVER_ERROR)
-                                            .write(Observable.<O>empty());
-        }
+            errorHandler = new Func1<Throwable, Observable<Void>>() {
+                @Override
+                public Observable<Void> call(Throwable throwable) {
+                    logger.error("Unexpected error while processing request.", throwable);
+                    return currentResponse.setStatus(INTERNAL_SERVER_ERROR)
+                                          .dispose()
+                                          .concatWith(c.close())
+                                          .onErrorResumeNext(Observable.<Void>empty());// Ignore errors on cleanup
+                }
+            };
 
-        if (eventPublisher.publishingEnabled()) {
-            requestHandlingResult = requestHandlingResult.lift(new Operator<Void, Void>() {
+            requestCompletion = new Operator<Void, Void>() {
                 @Override
                 public Subscriber<? super Void> call(final Subscriber<? super Void> o) {
+                    final long startTimeNanos = currentStartTimeNanos;
 
                     if (eventPublisher.publishingEnabled()) {
                         eventPublisher.onRequestHandlingStart(onEndNanos(startTimeNanos), NANOSECONDS);
                     }
 
-                    return new Subscriber<Void>(o) {
+                    /*Replaces onErrorResumeNext(errorHandler).concatWith(finishCurrent), which allocated two chains of
+                    observables and subscribers per request. Subscriptions are not shared with the downstream, so that
+                    the handler stream unsubscribing on termination does not unsubscribe the disposal.*/
+                    final Subscriber<Void> parent = new Subscriber<Void>() {
                         @Override
                         public void onCompleted() {
                             if (eventPublisher.publishingEnabled()) {
-                                eventPublisher.onRequestHandlingSuccess(onEndNanos(startTimeNanos),
-                                                                        NANOSECONDS);
+                                eventPublisher.onRequestHandlingSuccess(onEndNanos(startTimeNanos), NANOSECONDS);
                             }
-                            o.onCompleted();
+                            finishCurrent.unsafeSubscribe(Subscribers.wrap(o));
                         }
 
                         @Override
                         public void onError(Throwable e) {
                             if (eventPublisher.publishingEnabled()) {
-                                eventPublisher.onRequestHandlingFailed(onEndNanos(startTimeNanos),
-                                                                       NANOSECONDS, e);
+                                eventPublisher.onRequestHandlingFailed(onEndNanos(startTimeNanos), NANOSECONDS, e);
+                            }
+                            final Observable<Void> errorResult;
+                            try {
+                                errorResult = errorHandler.call(e);
+                            } catch (Throwable t) {
+                                o.onError(t);
+                                return;
                             }
-                            logger.error("Unexpected error processing a request.", e);
-                            o.onError(e);
+                            errorResult.concatWith(finishCurrent).unsafeSubscribe(Subscribers.wrap(o));
                         }
 
                         @Override
@@ -142,26 +243,209 @@ public class HttpConnectionHandler<I, O> implements ConnectionHandler<HttpServer
                             // No Op, its a void
                         }
                     };
+                    o.add(parent);
+                    return parent;
+                }
+            };
+
+            disposeCurrent = Observable.defer(new Func0<Observable<Void>>() {
+                @Override
+                public Observable<Void> call() {
+                    if (null != currentDeadline) {
+                        currentDeadline.completed = true;
+                        currentDeadline = null;
+                    }
+                    /*Dispose request at the end of processing to discard content if not read and then the response
+                    to cleanup.*/
+                    return currentRequest.dispose().concatWith(currentResponse.dispose());
                 }
             });
+
+            finishCurrent = lifecycle.isUnlimited() ? disposeCurrent : disposeCurrent.concatWith(
+                    Observable.defer(new Func0<Observable<Void>>() {
+                        @Override
+                        public Observable<Void> call() {
+                            lastActivityNanos = System.nanoTime();
+                            requestInProgress = false;
+                            return closeAfterResponse ? c.close() : Observable.<Void>empty();
+                        }
+                    }));
+
+            releaseAdmission = new Action0() {
+                @Override
+                public void call() {
+                    /*Invoked on termination as well as unsubscribe (connection close), so guard against double release*/
+                    if (admitted.compareAndSet(true, false)) {
+                        admissionController.release();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public Observable<Void> call(Observable<HttpServerRequest<I>> reqSource) {
+            return reqSource.take(1).flatMap(requestProcessor);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Observable<Void> handleRequest(HttpServerRequest<I> request, HttpServerResponse<O> response) {
+            Observable<Void> requestHandlingResult = null;
+            try {
+
+                if (request.decoderResult().isSuccess()) {
+                    if (null != admissionController) {
+                        if (!admissionController.tryAcquire(request)) {
+                            return shed(response);
+                        }
+                        admitted.set(true);
+                    }
+                    requestHandlingResult = requestHandler.handle(request, response);
+                }
+
+                if(null == requestHandlingResult) {
+                    /*If decoding failed an appropriate response status would have been set.
+                      Otherwise, overwrite the status to 500*/
+                    if (response.getStatus().equals(OK)) {
+                        response.setStatus(INTERNAL_SERVER_ERROR);
+                    }
+                    requestHandlingResult = response.write(Observable.<O>empty());
+                }
+
+            } catch (Throwable throwable) {
+                logger.error("Unexpected error while invoking HTTP user handler.", throwable);
+                /*If the headers are already written, then this will produce an error Observable.*/
+                requestHandlingResult = response.setStatus(INTERNAL_SERVER_ERROR)
+                                                .write(Observable.<O>empty());
+            }
+
+            if (admitted.get()) {
+                requestHandlingResult = requestHandlingResult.doOnTerminate(releaseAdmission)
+                                                             .doOnUnsubscribe(releaseAdmission);
+            }
+
+            return requestHandlingResult.lift(requestCompletion);
+        }
+
+        private void startTimeouts() {
+            addTimeout(this, nextDeadline(createdNanos, createdNanos));
+        }
+
+        /**
+         * Reads the deadline of the passed request, if any, and schedules closing the connection if the request is
+         * still being processed at the deadline.
+         *
+         * @return {@code false} if the deadline of the request has already passed.
+         */
+        private boolean readDeadline(HttpServerRequest<I> req) {
+            final long remainingMillis = DeadlineHeader.parseRemainingMillis(req.getHeader(DeadlineHeader.NAME));
+            if (remainingMillis < 0) {
+                return true;
+            }
+            if (0 == remainingMillis) {
+                return false;
+            }
+
+            final long deadlineNanos = System.nanoTime() + MILLISECONDS.toNanos(remainingMillis);
+            req.setDeadlineNanos(deadlineNanos);
+            currentDeadline = new RequestDeadline(deadlineNanos);
+            addTimeout(currentDeadline, deadlineNanos);
+            return true;
+        }
+
+        private void addTimeout(final ConnectionTimerWheel.Timeout timeout, final long deadlineNanos) {
+            final EventLoop eventLoop = c.unsafeNettyChannel().eventLoop();
+            if (eventLoop.inEventLoop()) {
+                ConnectionTimerWheel.add(eventLoop, timeout, deadlineNanos);
+            } else {
+                eventLoop.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        ConnectionTimerWheel.add(eventLoop, timeout, deadlineNanos);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public long expire(long nowNanos) {
+            if (!c.unsafeNettyChannel().isOpen()) {
+                return -1;
+            }
+
+            if (lifecycle.maxAgeNanos > 0 && nowNanos - createdNanos >= lifecycle.maxAgeNanos) {
+                closeAfterResponse = true;
+                if (!requestInProgress) {
+                    c.closeNow();
+                }
+                /*Else, the connection is closed once the response completes.*/
+                return -1;
+            }
+
+            if (lifecycle.idleTimeoutNanos > 0 && !requestInProgress
+                && nowNanos - lastActivityNanos >= lifecycle.idleTimeoutNanos) {
+                c.closeNow();
+                return -1;
+            }
+
+            return nextDeadline(nowNanos, lastActivityNanos);
         }
 
-        return requestHandlingResult.onErrorResumeNext(new Func1<Throwable, Observable<Void>>() {
+        private long nextDeadline(long nowNanos, long idleSinceNanos) {
+            long deadline = Long.MAX_VALUE;
+            if (lifecycle.maxAgeNanos > 0) {
+                deadline = createdNanos + lifecycle.maxAgeNanos;
+            }
+            if (lifecycle.idleTimeoutNanos > 0) {
+                /*While a request is in progress, the connection is not idle, so check again after an idle period.*/
+                final long idleFrom = requestInProgress ? nowNanos : idleSinceNanos;
+                deadline = Math.min(deadline, idleFrom + lifecycle.idleTimeoutNanos);
+            }
+            return deadline;
+        }
+
+        /**
+         * Deadline of a single request on this connection, closing the connection if the request is not completely
+         * processed by the deadline.
+         */
+        private final class RequestDeadline implements ConnectionTimerWheel.Timeout {
+
+            private final long deadlineNanos;
+            private volatile boolean completed;
+
+            private RequestDeadline(long deadlineNanos) {
+                this.deadlineNanos = deadlineNanos;
+            }
+
             @Override
-            public Observable<Void> call(Throwable throwable) {
-                logger.error("Unexpected error while processing request.", throwable);
-                return response.setStatus(INTERNAL_SERVER_ERROR)
-                               .dispose()
-                               .concatWith(c.close())
-                               .onErrorResumeNext(Observable.<Void>empty());// Ignore errors on cleanup
+            public long expire(long nowNanos) {
+                if (completed || !c.unsafeNettyChannel().isOpen()) {
+                    return -1;
+                }
+
+                if (nowNanos >= deadlineNanos) {
+                    c.closeNow();
+                    return -1;
+                }
+
+                return deadlineNanos;
             }
-        }).concatWith(request.dispose()/*Dispose request at the end of processing to discard content if not read*/
-        ).concatWith(response.dispose()/*Dispose response at the end of processing to cleanup*/);
+        }
 
+        private Observable<Void> shed(HttpServerResponse<O> response) {
+            if (eventPublisher.publishingEnabled()) {
+                eventPublisher.onRequestShed();
+            }
+            /*Rejections are not published as request handling, as their latency does not represent the latency of
+            processing a request.*/
+            return admissionController.reject(response)
+                                      .onErrorResumeNext(errorHandler)
+                                      .concatWith(finishCurrent);
+        }
     }
 
     private HttpServerResponse<O> newResponse(HttpServerRequest<I> request,
-                                              final Connection<HttpServerRequest<I>, Object> c) {
+                                              final Connection<HttpServerRequest<I>, Object> c,
+                                              boolean closeConnection) {
 
                 /*
                  * Server should send the highest version it is compatible with.
@@ -179,12 +463,25 @@ public class HttpConnectionHandler<I, O> implements ConnectionHandler<HttpServer
             responseHeaders = new DefaultHttpResponse(version, REQUEST_HEADER_FIELDS_TOO_LARGE);
             responseHeaders.headers()
                            .set(CONNECTION, HttpHeaderValues.CLOSE)
-                           .set(CONTENT_LENGTH, 0);
+                           .set(CONTENT_LENGTH, HttpHeaderValues.ZERO);
         } else {
             responseHeaders = new DefaultHttpResponse(version, OK);
         }
+
+        if (sendDateHeader) {
+            final EventLoop eventLoop = c.unsafeNettyChannel().eventLoop();
+            if (dateHeaderLoops.add(eventLoop)) {
+                DateHeaderCache.start(eventLoop);
+            }
+            responseHeaders.headers().set(DATE, DateHeaderCache.currentDate(eventLoop));
+        }
         HttpServerResponse<O> response = HttpServerResponseImpl.create(request, c, responseHeaders);
-        setConnectionHeader(request, response);
+        if (closeConnection) {
+            /*Last response on this connection, let the client know that the connection will be closed.*/
+            response.setHeader(CONNECTION, HttpHeaderValues.CLOSE);
+        } else {
+            setConnectionHeader(request, response);
+        }
         return response;
     }
 
@@ -27,6 +27,8 @@ import io.netty.handler.logging.LogLevel;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.reactivex.netty.events.EventSource;
+import io.reactivex.netty.protocol.http.server.admission.AdaptiveConcurrencyLimit;
+import io.reactivex.netty.protocol.http.server.admission.AdmissionController;
 import io.reactivex.netty.protocol.http.server.events.HttpServerEventsListener;
 import io.reactivex.netty.protocol.tcp.server.TcpServer;
 import io.reactivex.netty.ssl.SslCodec;
@@ -68,6 +70,39 @@ public abstract class HttpServer<I, O> implements EventSource<HttpServerEventsLi
      */
     public abstract <T> HttpServer<I, O> clientChannelOption(ChannelOption<T> option, T value);
 
+    /**
+     * Creates a new server instance, inheriting all configurations from this server and binding the passed number of
+     * server sockets (acceptors) using {@code SO_REUSEPORT}, as described by
+     * {@link TcpServer#reusePortAcceptors(int)}.
+     *
+     * @param acceptorCount Number of server sockets to bind.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> reusePortAcceptors(int acceptorCount);
+
+    /**
+     * Creates a new server instance, inheriting all configurations from this server and limiting the number of
+     * concurrent connections, as described by {@link TcpServer#maxConnections(int)}.
+     *
+     * @param maxConnections Maximum number of concurrent connections, {@code 0} for no limit.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> maxConnections(int maxConnections);
+
+    /**
+     * Creates a new server instance, inheriting all configurations from this server and limiting the number of
+     * concurrent connections, as described by {@link TcpServer#maxConnections(int, int)}.
+     *
+     * @param maxConnections Maximum number of concurrent connections, {@code 0} for no limit.
+     * @param resumeConnections Number of active connections at which accepting is resumed, must be less than
+     * {@code maxConnections}.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> maxConnections(int maxConnections, int resumeConnections);
+
     /**
      * Adds a {@link ChannelHandler} to {@link ChannelPipeline} for all connections created by this
      * server. The specified handler is added at the first position of the pipeline as specified by {@link
@@ -303,6 +338,94 @@ public abstract class HttpServer<I, O> implements EventSource<HttpServerEventsLi
      */
     public abstract HttpServer<I, O> sendHttp10ResponseFor10Request(boolean sendHttp10ResponseFor10Request);
 
+    /**
+     * Enables/disables sending the HTTP {@code Date} header with every response, as required by
+     * <a href="https://tools.ietf.org/html/rfc7231#section-7.1.1.2">RFC 7231</a> for servers with a clock. The header
+     * is not sent by default.
+     *
+     * The value of the header is formatted once every second per event loop and cached, so sending the header does not
+     * require formatting a date for every response. A {@code Date} header explicitly set on a response overrides the
+     * cached value.
+     *
+     * @param sendDateHeader If {@code true} then sends the {@code Date} header with every response.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> sendDateHeader(boolean sendDateHeader);
+
+    /**
+     * Enables/disables reading the deadline of a request from the {@link io.reactivex.netty.protocol.http.DeadlineHeader}
+     * header, as sent by {@link io.reactivex.netty.protocol.http.client.HttpClientRequest#deadline(long, TimeUnit)}.
+     * The header is not read by default.
+     *
+     * When enabled, the deadline is available to the request handler via {@link HttpServerRequest#hasDeadline()} and
+     * {@link HttpServerRequest#getRemainingTime(TimeUnit)}. A request received after its deadline is not passed to the
+     * request handler and is responded with a {@code 504 (Gateway Timeout)}, keeping the connection open. If a request
+     * is still being processed when its deadline is reached, the connection is closed, as the client would no longer be
+     * waiting for the response. Deadlines are expired with a granularity of 100 milliseconds.
+     *
+     * @param readDeadlineHeader If {@code true} then reads the deadline of every request.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> readDeadlineHeader(boolean readDeadlineHeader);
+
+    /**
+     * Sets the maximum duration for which a keep-alive connection can be idle, i.e. without any request in progress,
+     * after which the connection is closed by the server. There is no idle timeout by default.
+     *
+     * Timeouts for all connections on an event loop are tracked by a single timer wheel per event loop, so no task is
+     * scheduled per connection. The timeout has a precision of {@code 100} milliseconds.
+     *
+     * @param idleTimeout Maximum idle duration, {@code 0} for no timeout.
+     * @param timeUnit Time unit for the idle timeout.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> idleTimeout(long idleTimeout, TimeUnit timeUnit);
+
+    /**
+     * Sets the maximum number of requests served on a single connection. The response for the last request is sent
+     * with a {@code Connection: close} header and the connection is closed after the response is written. There is no
+     * limit by default.
+     *
+     * @param maxRequests Maximum requests per connection, {@code 0} for no limit.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> maxRequestsPerConnection(int maxRequests);
+
+    /**
+     * Sets the maximum age of a connection, after which the connection is closed by the server; immediately if it is
+     * idle, else, once the response for the request in progress is written. Subsequent responses on the connection,
+     * if any, are sent with a {@code Connection: close} header. Limiting the age of connections makes long-lived
+     * clients reconnect periodically, which rebalances them across servers behind a layer 4 load balancer. There is
+     * no limit by default.
+     *
+     * @param maxAge Maximum age of a connection, {@code 0} for no limit.
+     * @param timeUnit Time unit for the maximum age.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> maxConnectionAge(long maxAge, TimeUnit timeUnit);
+
+    /**
+     * Enables admission control for this server using the passed {@code admissionController}. Every request received
+     * by the server is first admitted by the controller and requests that are not admitted are rejected (with a
+     * {@code 503} response) without invoking the {@link RequestHandler}.
+     *
+     * If the {@link AdmissionController#getLimit() limit} of the controller is also a {@link HttpServerEventsListener},
+     * eg: {@link AdaptiveConcurrencyLimit}, it is subscribed to the events of this server when the server is started.
+     *
+     * The controller is used by the first server started with it; other servers started with the same controller, eg:
+     * other copies of this server, use their own controller, see {@link AdmissionController#forServer()}.
+     *
+     * @param admissionController Admission controller to use.
+     *
+     * @return A new {@link HttpServer} instance.
+     */
+    public abstract HttpServer<I, O> admissionControl(AdmissionController admissionController);
+
     /**
      * Returns the port at which this server is running.
      * <p/>
@@ -333,6 +456,19 @@ public abstract class HttpServer<I, O> implements EventSource<HttpServerEventsLi
      */
     public abstract void shutdown();
 
+    /**
+     * Gracefully shutdown this server by draining all active connections, as described by
+     * {@link TcpServer#shutdownGracefully(long, TimeUnit)}.
+     * <p/>
+     * Once the drain starts, connections with no request in progress are closed immediately. For connections with a
+     * request in progress, the response is sent with a {@code Connection: close} header (if the headers are not
+     * already written) and the connection is closed as soon as the response is completely written.
+     *
+     * @param drainTimeout Maximum time to wait for the in-flight requests to complete.
+     * @param timeUnit Time unit for the drain timeout.
+     */
+    public abstract void shutdownGracefully(long drainTimeout, TimeUnit timeUnit);
+
     /**
      * Waits for the shutdown of this server.
      * <p/>
@@ -400,7 +536,9 @@ public abstract class HttpServer<I, O> implements EventSource<HttpServerEventsLi
     }
 
     /**
-     * Creates a new server using the passed port.
+     * Creates a new server using the passed address. If the address is a unix domain socket address
+     * ({@code io.netty.channel.unix.DomainSocketAddress}), the server listens on the domain socket using the native
+     * epoll transport.
      *
      * @param socketAddress Socket address for the server.
      * @return A new {@link HttpServer}
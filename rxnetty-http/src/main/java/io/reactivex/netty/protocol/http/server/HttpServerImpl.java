@@ -26,6 +26,7 @@ import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.netty.handler.logging.LogLevel;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.reactivex.netty.protocol.http.HttpHandlerNames;
+import io.reactivex.netty.protocol.http.server.admission.AdmissionController;
 import io.reactivex.netty.protocol.http.server.events.HttpServerEventPublisher;
 import io.reactivex.netty.protocol.http.server.events.HttpServerEventsListener;
 import io.reactivex.netty.protocol.http.ws.server.Ws7To13UpgradeHandler;
@@ -50,6 +51,12 @@ public final class HttpServerImpl<I, O> extends HttpServer<I, O> {
     private final TcpServer<HttpServerRequest<I>, Object> server;
     private final HttpServerEventPublisher eventPublisher;
     private boolean sendHttp10ResponseFor10Request;
+    private boolean sendDateHeader;
+    private boolean readDeadlineHeader;
+    private AdmissionController admissionController;
+    private ConnectionLifecycle lifecycle = ConnectionLifecycle.UNLIMITED;
+    private volatile Subscription limitSubscription;
+    private volatile HttpConnectionHandler<I, O> connectionHandler;
 
     private HttpServerImpl(TcpServer<HttpServerRequest<I>, Object> server, HttpServerEventPublisher eventPublisher) {
         this.server = server;
@@ -66,6 +73,21 @@ public final class HttpServerImpl<I, O> extends HttpServer<I, O> {
         return _copy(server.clientChannelOption(option, value), eventPublisher);
     }
 
+    @Override
+    public HttpServer<I, O> reusePortAcceptors(int acceptorCount) {
+        return _copy(server.reusePortAcceptors(acceptorCount), eventPublisher);
+    }
+
+    @Override
+    public HttpServer<I, O> maxConnections(int maxConnections) {
+        return _copy(server.maxConnections(maxConnections), eventPublisher);
+    }
+
+    @Override
+    public HttpServer<I, O> maxConnections(int maxConnections, int resumeConnections) {
+        return _copy(server.maxConnections(maxConnections, resumeConnections), eventPublisher);
+    }
+
     @Override
     public <II, OO> HttpServer<II, OO> addChannelHandlerFirst(String name, Func0<ChannelHandler> handlerFactory) {
         return _copy(HttpServerImpl.<II>castServer(server.addChannelHandlerFirst(name, handlerFactory)),
@@ -166,6 +188,48 @@ public final class HttpServerImpl<I, O> extends HttpServer<I, O> {
         return toReturn;
     }
 
+    @Override
+    public HttpServer<I, O> sendDateHeader(boolean sendDateHeader) {
+        HttpServerImpl<I, O> toReturn = _copy(server, eventPublisher);
+        toReturn.sendDateHeader = sendDateHeader;
+        return toReturn;
+    }
+
+    @Override
+    public HttpServer<I, O> readDeadlineHeader(boolean readDeadlineHeader) {
+        HttpServerImpl<I, O> toReturn = _copy(server, eventPublisher);
+        toReturn.readDeadlineHeader = readDeadlineHeader;
+        return toReturn;
+    }
+
+    @Override
+    public HttpServer<I, O> idleTimeout(long idleTimeout, TimeUnit timeUnit) {
+        HttpServerImpl<I, O> toReturn = _copy(server, eventPublisher);
+        toReturn.lifecycle = lifecycle.idleTimeout(idleTimeout, timeUnit);
+        return toReturn;
+    }
+
+    @Override
+    public HttpServer<I, O> maxRequestsPerConnection(int maxRequests) {
+        HttpServerImpl<I, O> toReturn = _copy(server, eventPublisher);
+        toReturn.lifecycle = lifecycle.maxRequests(maxRequests);
+        return toReturn;
+    }
+
+    @Override
+    public HttpServer<I, O> maxConnectionAge(long maxAge, TimeUnit timeUnit) {
+        HttpServerImpl<I, O> toReturn = _copy(server, eventPublisher);
+        toReturn.lifecycle = lifecycle.maxAge(maxAge, timeUnit);
+        return toReturn;
+    }
+
+    @Override
+    public HttpServer<I, O> admissionControl(AdmissionController admissionController) {
+        HttpServerImpl<I, O> toReturn = _copy(server, eventPublisher);
+        toReturn.admissionController = admissionController;
+        return toReturn;
+    }
+
     @Override
     public int getServerPort() {
         return server.getServerPort();
@@ -178,13 +242,29 @@ public final class HttpServerImpl<I, O> extends HttpServer<I, O> {
 
     @Override
     public HttpServer<I, O> start(RequestHandler<I, O> requestHandler) {
-        server.start(new HttpConnectionHandler<>(requestHandler, eventPublisher, sendHttp10ResponseFor10Request));
+        /*Copies of this server share the configured controller, but every started server tracks its own requests.*/
+        final AdmissionController controller = null == admissionController ? null : admissionController.forServer();
+        if (null != controller && controller.getLimit() instanceof HttpServerEventsListener) {
+            limitSubscription = eventPublisher.subscribe((HttpServerEventsListener) controller.getLimit());
+        }
+        connectionHandler = new HttpConnectionHandler<>(requestHandler, eventPublisher, sendHttp10ResponseFor10Request,
+                                                        sendDateHeader, readDeadlineHeader, controller, lifecycle);
+        server.start(connectionHandler);
         return this;
     }
 
     @Override
     public void shutdown() {
         server.shutdown();
+        unsubscribeLimit();
+        shutdownConnectionHandler();
+    }
+
+    @Override
+    public void shutdownGracefully(long drainTimeout, TimeUnit timeUnit) {
+        server.shutdownGracefully(drainTimeout, timeUnit);
+        unsubscribeLimit();
+        shutdownConnectionHandler();
     }
 
     @Override
@@ -211,14 +291,38 @@ public final class HttpServerImpl<I, O> extends HttpServer<I, O> {
                 }), eventPublisher);
     }
 
+    private void unsubscribeLimit() {
+        final Subscription subscription = limitSubscription;
+        if (null != subscription) {
+            subscription.unsubscribe();
+            limitSubscription = null;
+        }
+    }
+
+    private void shutdownConnectionHandler() {
+        final HttpConnectionHandler<I, O> handler = connectionHandler;
+        if (null != handler) {
+            handler.shutdown();
+            connectionHandler = null;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private static <II> TcpServer<HttpServerRequest<II>, Object> castServer(TcpServer<?, ?> rawTypes) {
         return (TcpServer<HttpServerRequest<II>, Object>)rawTypes;
     }
 
-    private static <II, OO> HttpServerImpl<II, OO> _copy(TcpServer<HttpServerRequest<II>, Object> newServer,
-                                                         HttpServerEventPublisher oldEventPublisher) {
-        return new HttpServerImpl<>(newServer, oldEventPublisher.copy(newServer.getEventPublisher()));
+    private <II, OO> HttpServerImpl<II, OO> _copy(TcpServer<HttpServerRequest<II>, Object> newServer,
+                                                  HttpServerEventPublisher oldEventPublisher) {
+        HttpServerImpl<II, OO> copy = new HttpServerImpl<>(newServer,
+                                                           oldEventPublisher.copy(newServer.getEventPublisher()));
+        /*Carry over HTTP configurations, that are not part of the TCP server.*/
+        copy.sendHttp10ResponseFor10Request = sendHttp10ResponseFor10Request;
+        copy.sendDateHeader = sendDateHeader;
+        copy.readDeadlineHeader = readDeadlineHeader;
+        copy.admissionController = admissionController;
+        copy.lifecycle = lifecycle;
+        return copy;
     }
 
     @Override
@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * HTTP server request
@@ -243,6 +244,11 @@ public abstract class HttpServerRequest<T> {
 
     /**
      * Returns {@code true} if and only if this request contains the {@code "Expect: 100-continue"} header.
+     *
+     * For such requests, the server sends a {@code 100 (Continue)} response only when the content of the request is
+     * subscribed (or a successful response is written before that). If the handler responds with an error status
+     * without subscribing to the content, the client does not send the content and the connection is closed after
+     * the response.
      */
     public abstract boolean is100ContinueExpected();
 
@@ -428,6 +434,26 @@ public abstract class HttpServerRequest<T> {
      */
     public abstract <X> HttpServerRequest<X> transformContent(Transformer<T, X> transformer);
 
+    /**
+     * Checks whether this request carries a deadline set by the client. Deadlines are only read if enabled by
+     * {@link HttpServer#readDeadlineHeader(boolean)}.
+     *
+     * @return {@code true} if this request has a deadline.
+     */
+    public abstract boolean hasDeadline();
+
+    /**
+     * Returns the time remaining till the deadline of this request, if any.
+     *
+     * @param timeUnit Time unit for the returned value.
+     *
+     * @return Time remaining till the deadline of this request, {@code 0} if the deadline has passed and
+     * {@link Long#MAX_VALUE} if this request does not have a deadline.
+     *
+     * @see #hasDeadline()
+     */
+    public abstract long getRemainingTime(TimeUnit timeUnit);
+
     /**
      * Package private method to get the decoder result from netty.
      *
@@ -435,6 +461,13 @@ public abstract class HttpServerRequest<T> {
      */
     abstract DecoderResult decoderResult();
 
+    /**
+     * Package private method to set the deadline, as per {@link System#nanoTime()}, of this request.
+     *
+     * @param deadlineNanos Deadline of this request.
+     */
+    abstract void setDeadlineNanos(long deadlineNanos);
+
     public String toString() {
         return HttpMessageFormatter.formatRequest(getHttpVersion(), getHttpMethod(), getUri(), headerIterator());
     }
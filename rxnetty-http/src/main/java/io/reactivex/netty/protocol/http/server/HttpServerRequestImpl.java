@@ -40,16 +40,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.*;
 
 class HttpServerRequestImpl<T> extends HttpServerRequest<T> {
 
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
+
     private final Channel nettyChannel;
     private final HttpRequest nettyRequest;
     private final CookiesHolder cookiesHolder;
     private final UriInfoHolder uriInfoHolder;
     private final ContentSource<T> contentSource;
+    private long deadlineNanos = NO_DEADLINE;
 
     HttpServerRequestImpl(HttpRequest nettyRequest, Channel nettyChannel) {
         this.nettyRequest = nettyRequest;
@@ -64,12 +68,14 @@ class HttpServerRequestImpl<T> extends HttpServerRequest<T> {
         });
     }
 
-    private HttpServerRequestImpl(HttpRequest nettyRequest, Channel nettyChannel, ContentSource<T> contentSource) {
+    private HttpServerRequestImpl(HttpRequest nettyRequest, Channel nettyChannel, ContentSource<T> contentSource,
+                                  long deadlineNanos) {
         this.nettyRequest = nettyRequest;
         this.nettyChannel = nettyChannel;
         uriInfoHolder = new UriInfoHolder(this.nettyRequest.uri());
         cookiesHolder = CookiesHolder.newServerRequestHolder(nettyRequest.headers());
         this.contentSource = contentSource;
+        this.deadlineNanos = deadlineNanos;
     }
 
     @Override
@@ -297,11 +303,30 @@ class HttpServerRequestImpl<T> extends HttpServerRequest<T> {
 
     @Override
     public <X> HttpServerRequest<X> transformContent(Transformer<T, X> transformer) {
-        return new HttpServerRequestImpl<>(nettyRequest, nettyChannel, contentSource.transform(transformer));
+        return new HttpServerRequestImpl<>(nettyRequest, nettyChannel, contentSource.transform(transformer),
+                                           deadlineNanos);
+    }
+
+    @Override
+    public boolean hasDeadline() {
+        return NO_DEADLINE != deadlineNanos;
+    }
+
+    @Override
+    public long getRemainingTime(TimeUnit timeUnit) {
+        if (NO_DEADLINE == deadlineNanos) {
+            return Long.MAX_VALUE;
+        }
+        return timeUnit.convert(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
     }
 
     @Override
     DecoderResult decoderResult() {
         return nettyRequest.decoderResult();
     }
+
+    @Override
+    void setDeadlineNanos(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
 }
@@ -29,6 +29,7 @@ import io.reactivex.netty.protocol.http.ws.server.WebSocketHandshaker;
 import rx.Observable;
 import rx.annotations.Experimental;
 
+import java.io.RandomAccessFile;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
@@ -334,6 +335,30 @@ public abstract class HttpServerResponse<C> extends ResponseContentWriter<C> {
      */
     public abstract ResponseContentWriter<C> sendHeaders();
 
+    /**
+     * Sends the headers for this response followed by {@code count} bytes of the passed file, starting at
+     * {@code position}, as the content of this response. The {@code Content-Length} header is set to {@code count}
+     * unless the response is set to use chunked transfer encoding.
+     *
+     * <h2>Zero copy</h2>
+     *
+     * If the connection is not secure, the file content is written as a {@link io.netty.channel.DefaultFileRegion},
+     * which is transferred by the transport directly from the file (using {@code sendfile} where available) without
+     * copying the content through the JVM heap. For secure connections, where the content has to be encrypted, the
+     * file is streamed as a series of buffers of at most {@code 8192} bytes, respecting the writability of the
+     * channel.
+     *
+     * The passed file is closed when the content is written or the write fails.
+     *
+     * @param file File to send.
+     * @param position Position in the file from which to start sending.
+     * @param count Number of bytes to send.
+     *
+     * @return An {@link Observable} which sends the headers and file content on subscription. Subscribe to this
+     * {@link Observable} only once, as the file is closed on completion of the write.
+     */
+    public abstract Observable<Void> sendFile(RandomAccessFile file, long position, long count);
+
     /**
      * Converts this response to enable writing {@link ServerSentEvent}s.
      *
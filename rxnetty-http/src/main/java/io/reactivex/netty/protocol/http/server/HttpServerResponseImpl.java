@@ -17,12 +17,15 @@
 package io.reactivex.netty.protocol.http.server;
 
 import io.netty.channel.Channel;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+import io.netty.handler.ssl.SslHandler;
 import io.reactivex.netty.channel.AllocatingTransformer;
 import io.reactivex.netty.channel.ChannelOperations;
 import io.reactivex.netty.channel.Connection;
@@ -40,6 +43,8 @@ import rx.functions.Func0;
 import rx.functions.Func1;
 import rx.functions.Func2;
 
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -225,6 +230,39 @@ public final class HttpServerResponseImpl<C> extends HttpServerResponse<C> {
         return state.sendHeaders();
     }
 
+    @Override
+    public Observable<Void> sendFile(final RandomAccessFile file, final long position, final long count) {
+        if (!state.allowUpdate()) {
+            closeQuietly(file);
+            return state.sendHeaders();
+        }
+
+        if (!HttpUtil.isTransferEncodingChunked(state.headers)) {
+            state.headers.headers().set(HttpHeaderNames.CONTENT_LENGTH, count);
+        }
+
+        final Channel channel = state.connection.unsafeNettyChannel();
+        final Observable<?> content;
+        if (null == channel.pipeline().get(SslHandler.class)) {
+            /*Region is created lazily, so that the file is owned by the region only when it is actually written.*/
+            content = Observable.defer(new Func0<Observable<FileRegion>>() {
+                @Override
+                public Observable<FileRegion> call() {
+                    return Observable.<FileRegion>just(new DefaultFileRegion(file.getChannel(), position, count));
+                }
+            });
+        } else {
+            content = Observable.create(new ChunkedFileReader(file, position, count, channel.alloc(),
+                                                              ChunkedFileReader.DEFAULT_CHUNK_SIZE));
+        }
+
+        @SuppressWarnings("rawtypes")
+        ResponseContentWriter rawWriter = state.sendHeaders();
+        @SuppressWarnings("unchecked")
+        Observable<Void> toReturn = rawWriter.write(content);
+        return toReturn;
+    }
+
     @Override
     public HttpServerResponse<ServerSentEvent> transformToServerSentEvents() {
         markAwarePipeline().addAfter(HttpHandlerNames.HttpServerEncoder.getName(),
@@ -370,6 +408,14 @@ public final class HttpServerResponseImpl<C> extends HttpServerResponse<C> {
         return new HttpServerResponseImpl<>(newState);
     }
 
+    private static void closeQuietly(RandomAccessFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            // Ignore, nothing can be done here.
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <CC> HttpServerResponse<CC> _cast() {
         return (HttpServerResponse<CC>) this;
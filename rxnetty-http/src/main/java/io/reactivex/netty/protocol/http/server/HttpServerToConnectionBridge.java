@@ -16,20 +16,26 @@
  */
 package io.reactivex.netty.protocol.http.server;
 
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.HttpMessage;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.reactivex.netty.channel.ChannelOperations;
 import io.reactivex.netty.events.Clock;
 import io.reactivex.netty.protocol.http.internal.AbstractHttpConnectionBridge;
 import io.reactivex.netty.protocol.http.internal.HttpContentSubscriberEvent;
 import io.reactivex.netty.protocol.http.server.events.HttpServerEventPublisher;
+import io.reactivex.netty.protocol.tcp.server.DrainConnectionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.functions.Action0;
@@ -51,8 +57,43 @@ public class HttpServerToConnectionBridge<C> extends AbstractHttpConnectionBridg
     private final HttpServerEventPublisher eventPublisher;
     private int lastSeenResponseCode;
 
+    /*Following are only accessed from the event loop.*/
+    private int requestsInProgress;
+    private boolean draining;
+    private boolean continueExpected;
+    private boolean closeAfterResponse;
+    private final ChannelFutureListener responseWriteCompleteListener;
+
     public HttpServerToConnectionBridge(HttpServerEventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
+        responseWriteCompleteListener = new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                onResponseWriteComplete(future.channel());
+            }
+        };
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (continueExpected && msg instanceof HttpResponse) {
+            /*Response is written before the request content was read.*/
+            continueExpected = false;
+            HttpResponse response = (HttpResponse) msg;
+            if (response.status().code() >= 400) {
+                /*Request rejected, so the client will not send the content, which leaves the connection unusable.*/
+                HttpUtil.setKeepAlive(response, false);
+                closeAfterResponse = true;
+            } else {
+                /*Content may be read after the response headers are written, so let the client send it.*/
+                ctx.write(newContinueResponse());
+            }
+        }
+        if (msg instanceof LastHttpContent && promise.isVoid() && (draining || closeAfterResponse)) {
+            /*A void promise is never completed, so the connection would be closed before the response is written.*/
+            promise = ctx.newPromise();
+        }
+        super.write(ctx, msg, promise);
     }
 
     @Override
@@ -62,6 +103,10 @@ public class HttpServerToConnectionBridge<C> extends AbstractHttpConnectionBridg
             eventPublisher.onResponseWriteStart();
         }
         lastSeenResponseCode = response.status().code();
+        if (draining) {
+            /*Server is draining connections, so let the client know that this connection will not be reused.*/
+            HttpUtil.setKeepAlive(response, false);
+        }
     }
 
     @Override
@@ -69,6 +114,13 @@ public class HttpServerToConnectionBridge<C> extends AbstractHttpConnectionBridg
                                               final long headerWriteStartTimeNanos) {
         final int _responseCode = lastSeenResponseCode;
 
+        if (promise.isVoid()) {
+            /*No close is pending (see write()), so the request can be completed before the write.*/
+            onResponseWriteComplete(promise.channel());
+        } else {
+            promise.addListener(responseWriteCompleteListener);
+        }
+
         if (eventPublisher.publishingEnabled()) {
             promise.addListener(new ChannelFutureListener() {
                 @Override
@@ -88,7 +140,13 @@ public class HttpServerToConnectionBridge<C> extends AbstractHttpConnectionBridg
 
     @Override
     public void userEventTriggered(final ChannelHandlerContext ctx, Object evt) throws Exception {
-        if (evt instanceof HttpContentSubscriberEvent) {
+        if (evt instanceof DrainConnectionEvent) {
+            draining = true;
+            if (0 == requestsInProgress) {
+                /*Idle connection, nothing to drain.*/
+                ctx.channel().close();
+            }
+        } else if (evt instanceof HttpContentSubscriberEvent) {
 
             final HttpContentSubscriberEvent<?> subscriberEvent = (HttpContentSubscriberEvent<?>) evt;
             subscriberEvent.getSubscriber().add(Subscriptions.create(new Action0() {
@@ -119,6 +177,7 @@ public class HttpServerToConnectionBridge<C> extends AbstractHttpConnectionBridg
             }
 
             activeContentSubscriberExists = true;
+            sendContinueIfExpected(ctx);
         }
 
         // TODO: Handle trailers
@@ -137,14 +196,19 @@ public class HttpServerToConnectionBridge<C> extends AbstractHttpConnectionBridg
 
     @Override
     protected Object newHttpObject(Object nextItem, Channel channel) {
+        requestsInProgress++;
         if (eventPublisher.publishingEnabled()) {
             eventPublisher.onRequestHeadersReceived();
         }
-        return new HttpServerRequestImpl<>((HttpRequest) nextItem, channel);
+        final HttpRequest request = (HttpRequest) nextItem;
+        continueExpected = HttpUtil.is100ContinueExpected(request);
+        return new HttpServerRequestImpl<>(request, channel);
     }
 
     @Override
     protected void onContentReceived() {
+        /*Client did not wait for a 100 (Continue), so no need to send one.*/
+        continueExpected = false;
         if (eventPublisher.publishingEnabled()) {
             eventPublisher.onRequestContentReceived();
         }
@@ -166,7 +230,34 @@ public class HttpServerToConnectionBridge<C> extends AbstractHttpConnectionBridg
         }
     }
 
+    private void onResponseWriteComplete(Channel channel) {
+        if (requestsInProgress > 0) {
+            requestsInProgress--;
+        }
+        if ((draining || closeAfterResponse) && 0 == requestsInProgress) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Sends a {@code 100 (Continue)} response, if the current request expects one and the content is not yet read.
+     * This is done only when the content is subscribed, so that a request rejected by the handler without reading the
+     * content, does not cost the upload of the content.
+     */
+    private void sendContinueIfExpected(ChannelHandlerContext ctx) {
+        if (continueExpected) {
+            continueExpected = false;
+            /*Written from this handler, so that it is not considered as the response of the request.*/
+            ctx.writeAndFlush(newContinueResponse());
+        }
+    }
+
+    private static DefaultFullHttpResponse newContinueResponse() {
+        return new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER);
+    }
+
     private void fireContentSubscriberEvent(ChannelHandlerContext ctx, HttpContentSubscriberEvent<?> event) {
+        sendContinueIfExpected(ctx);
         try {
             super.userEventTriggered(ctx, event);
         } catch (Exception e) {
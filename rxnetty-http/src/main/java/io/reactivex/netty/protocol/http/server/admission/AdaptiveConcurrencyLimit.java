@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.admission;
+
+import io.reactivex.netty.protocol.http.server.HttpServer;
+import io.reactivex.netty.protocol.http.server.events.HttpServerEventsListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ConcurrencyLimit} that adapts to the latency of requests processed by the server, as published by
+ * {@link HttpServerEventsListener#onRequestHandlingSuccess(long, TimeUnit)}.
+ *
+ * <h2>Algorithm</h2>
+ *
+ * The limit is adjusted on every latency sample using a gradient between the minimum observed latency (the latency of
+ * the server when it is not queuing) and the sampled latency:
+ *
+ <PRE>
+    newLimit = limit * (minLatency / sampledLatency) + sqrt(limit)
+ </PRE>
+ *
+ * The gradient is bound between {@code 0.5} and {@code 1}, and the result is smoothed to avoid oscillations. So, as
+ * latency increases due to queuing, the limit reduces and when latency is close to the minimum, the limit grows by the
+ * allowed queue size ({@code sqrt(limit)}). Failed requests reduce the limit multiplicatively. The minimum latency is
+ * re-sampled periodically so that the limit can adapt to a permanent change in the latency of the server: after every
+ * window of samples, the minimum latency is replaced by the minimum latency of that window. Using the minimum of a
+ * window, instead of a single sample, keeps an overloaded server from adopting an inflated latency as its minimum.
+ *
+ * The limit only grows while it is used, i.e. the requests in flight since the last sample came close to the limit.
+ * The latency of a server that never reaches its limit (app-limited) says nothing about a higher concurrency, so its
+ * limit is not increased, but it is still reduced as latency increases. Requests in flight are reported by the
+ * {@link AdmissionController} using this limit.
+ *
+ * <h2>Usage</h2>
+ *
+ * This limit is updated as a listener of {@link HttpServer} events, which is done automatically when the limit is used
+ * with {@link HttpServer#admissionControl(AdmissionController)}. If event publishing is disabled, the limit stays at
+ * its initial value. An instance is only used by a single server, see {@link AdmissionController#forServer()}.
+ */
+public class AdaptiveConcurrencyLimit extends HttpServerEventsListener implements ConcurrencyLimit {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double FAILURE_BACKOFF_RATIO = 0.9;
+    private static final int MIN_LATENCY_RESET_SAMPLES = 1000;
+    private static final double MIN_UTILIZATION = 0.8;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    /*Maximum requests in flight since the last latency sample.*/
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    /*Guarded by this*/
+    private double estimatedLimit;
+    private long minLatencyNanos;
+    private long windowMinLatencyNanos;
+    private int samplesSinceMinLatencyReset;
+
+    public AdaptiveConcurrencyLimit() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits. Initial: " + initialLimit + ", min: " + minLimit
+                                               + ", max: " + maxLimit);
+        }
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        limit = initialLimit;
+        estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onRequestHandlingSuccess(long duration, TimeUnit timeUnit) {
+        onLatencySample(timeUnit.toNanos(duration));
+    }
+
+    @Override
+    public void onRequestHandlingFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+        synchronized (this) {
+            updateLimit(estimatedLimit * FAILURE_BACKOFF_RATIO);
+        }
+    }
+
+    /*Visible for testing*/ void onAdmitted(int inFlight) {
+        for (;;) {
+            final int max = maxInFlight.get();
+            if (inFlight <= max || maxInFlight.compareAndSet(max, inFlight)) {
+                return;
+            }
+        }
+    }
+
+    /*Visible for testing*/ synchronized void onLatencySample(long latencyNanos) {
+        if (latencyNanos <= 0) {
+            return;
+        }
+
+        if (0 == windowMinLatencyNanos || latencyNanos < windowMinLatencyNanos) {
+            windowMinLatencyNanos = latencyNanos;
+        }
+
+        if (0 == minLatencyNanos || latencyNanos < minLatencyNanos) {
+            minLatencyNanos = latencyNanos;
+        }
+
+        if (++samplesSinceMinLatencyReset >= MIN_LATENCY_RESET_SAMPLES) {
+            /*Minimum of the window that just ended, so a single sample under load does not become the minimum.*/
+            minLatencyNanos = windowMinLatencyNanos;
+            windowMinLatencyNanos = 0;
+            samplesSinceMinLatencyReset = 0;
+        }
+
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, (double) minLatencyNanos / latencyNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if (maxInFlight.getAndSet(0) < estimatedLimit * MIN_UTILIZATION) {
+            /*App-limited, only reduce.*/
+            newLimit = Math.min(newLimit, estimatedLimit);
+        }
+        updateLimit(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    /**
+     * Creates a new limit with the same configuration as this limit, in its initial state.
+     */
+    AdaptiveConcurrencyLimit newInstance() {
+        return new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit);
+    }
+
+    private void updateLimit(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.admission;
+
+import io.netty.util.AsciiString;
+import io.reactivex.netty.protocol.http.server.HttpServer;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import io.reactivex.netty.protocol.http.server.events.HttpServerEventsListener;
+import rx.Observable;
+import rx.functions.Func1;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+
+/**
+ * Admission control for an {@link HttpServer}, which limits the number of requests processed concurrently by the
+ * server and rejects excess requests before they are passed to the {@link RequestHandler}.
+ *
+ * <h2>Rejection</h2>
+ *
+ * A rejected request is responded with a {@code 503 (Service Unavailable)} with a {@code Retry-After} header and
+ * published to {@link HttpServerEventsListener#onRequestShed()}. Rejection is cheap as the request is never processed,
+ * so the server degrades gracefully under overload instead of increasing latency for all requests.
+ *
+ * <h2>Priority</h2>
+ *
+ * Optionally, requests can be classified into a {@link Priority}, each of which can only use a share of the limit.
+ * This makes sure that as the load increases, lower priority requests are rejected before higher priority requests.
+ * Without a classifier, every request is considered {@link Priority#Critical} and can use the entire limit.
+ *
+ * <h2>Usage</h2>
+ *
+ <PRE>
+    HttpServer.newServer()
+              .admissionControl(new AdmissionController(new AdaptiveConcurrencyLimit()))
+              .start(handler);
+ </PRE>
+ *
+ * An instance of this class tracks the requests in flight of a single server. If the same instance is passed to more
+ * than one server that is started (eg: copies of a server created after enabling admission control), only the first
+ * server uses it and every other server uses a new controller, see {@link #forServer()}.
+ */
+public class AdmissionController {
+
+    public static final long DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+    private final ConcurrencyLimit limit;
+    /*Limit, if it adapts to the requests in flight.*/
+    private final AdaptiveConcurrencyLimit adaptiveLimit;
+    private final Func1<HttpServerRequest<?>, Priority> priorityClassifier;
+    private final AsciiString retryAfter;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong shedCount = new AtomicLong();
+    private final AtomicBoolean usedByServer = new AtomicBoolean();
+
+    /**
+     * Creates a new controller that treats all requests as {@link Priority#Critical}.
+     *
+     * @param limit Concurrency limit to enforce.
+     */
+    public AdmissionController(ConcurrencyLimit limit) {
+        this(limit, null, DEFAULT_RETRY_AFTER_SECONDS);
+    }
+
+    /**
+     * Creates a new controller.
+     *
+     * @param limit Concurrency limit to enforce.
+     * @param priorityClassifier Function to determine the {@link Priority} of a request, {@code null} if all requests
+     * are {@link Priority#Critical}.
+     * @param retryAfterSeconds Value of the {@code Retry-After} header sent with rejected requests.
+     */
+    public AdmissionController(ConcurrencyLimit limit, Func1<HttpServerRequest<?>, Priority> priorityClassifier,
+                               long retryAfterSeconds) {
+        this(limit, priorityClassifier, new AsciiString(String.valueOf(retryAfterSeconds)));
+    }
+
+    private AdmissionController(ConcurrencyLimit limit, Func1<HttpServerRequest<?>, Priority> priorityClassifier,
+                                AsciiString retryAfter) {
+        if (null == limit) {
+            throw new IllegalArgumentException("Concurrency limit can not be null.");
+        }
+        this.limit = limit;
+        adaptiveLimit = limit instanceof AdaptiveConcurrencyLimit ? (AdaptiveConcurrencyLimit) limit : null;
+        this.priorityClassifier = priorityClassifier;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Attempts to admit the passed request. If the request is admitted, {@link #release()} must be called when the
+     * processing of the request completes.
+     *
+     * @param request Request to admit.
+     *
+     * @return {@code true} if the request is admitted.
+     */
+    public boolean tryAcquire(HttpServerRequest<?> request) {
+        final Priority priority = null == priorityClassifier ? Priority.Critical : priorityClassifier.call(request);
+        final int allowed = (null == priority ? Priority.Critical : priority).allowedConcurrency(limit.getLimit());
+
+        for (;;) {
+            final int current = inFlight.get();
+            if (current >= allowed) {
+                shedCount.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (null != adaptiveLimit) {
+                    adaptiveLimit.onAdmitted(current + 1);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a request admitted by {@link #tryAcquire(HttpServerRequest)}.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Sends a rejection response on the passed {@code response}.
+     *
+     * @param response Response for the rejected request.
+     *
+     * @return {@link Observable} which sends the rejection on subscription.
+     */
+    public <O> Observable<Void> reject(HttpServerResponse<O> response) {
+        return response.setStatus(SERVICE_UNAVAILABLE)
+                       .setHeader(RETRY_AFTER, retryAfter);
+    }
+
+    /**
+     * Returns the controller to be used by a server that is being started. This is this controller for the first
+     * server and a new controller with the same configuration for every other server, so that the requests in flight
+     * of servers are never counted together. The new controller uses a new {@link AdaptiveConcurrencyLimit} in its
+     * initial state, if this controller uses one, other limits are shared.
+     *
+     * @return The controller to be used by a server that is being started.
+     */
+    public AdmissionController forServer() {
+        if (usedByServer.compareAndSet(false, true)) {
+            return this;
+        }
+        final ConcurrencyLimit newLimit = null != adaptiveLimit ? adaptiveLimit.newInstance() : limit;
+        final AdmissionController toReturn = new AdmissionController(newLimit, priorityClassifier, retryAfter);
+        toReturn.usedByServer.set(true);
+        return toReturn;
+    }
+
+    /**
+     * Returns the concurrency limit enforced by this controller.
+     *
+     * @return The concurrency limit enforced by this controller.
+     */
+    public ConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of admitted requests currently being processed.
+     *
+     * @return The number of admitted requests currently being processed.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the total number of requests rejected by this controller.
+     *
+     * @return The total number of requests rejected by this controller.
+     */
+    public long getShedCount() {
+        return shedCount.get();
+    }
+}
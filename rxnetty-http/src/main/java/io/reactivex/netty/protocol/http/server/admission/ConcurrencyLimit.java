@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.admission;
+
+/**
+ * The maximum number of requests that a server should process concurrently. Requests in excess of this limit are
+ * rejected by an {@link AdmissionController}.
+ *
+ * @see FixedConcurrencyLimit
+ * @see AdaptiveConcurrencyLimit
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * Returns the current limit. This is invoked for every request and hence must be cheap.
+     *
+     * @return The current limit.
+     */
+    int getLimit();
+
+}
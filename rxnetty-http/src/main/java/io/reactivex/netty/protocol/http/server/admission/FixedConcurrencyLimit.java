@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.admission;
+
+/**
+ * A {@link ConcurrencyLimit} that never changes.
+ */
+public final class FixedConcurrencyLimit implements ConcurrencyLimit {
+
+    private final int limit;
+
+    public FixedConcurrencyLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive, found: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.admission;
+
+/**
+ * Priority classes for requests used by an {@link AdmissionController}. Each class is allowed to use a share of the
+ * {@link ConcurrencyLimit}, so that as the load increases, lower priority requests are rejected before higher priority
+ * requests.
+ */
+public enum Priority {
+
+    /**
+     * Requests that may use the entire limit.
+     */
+    Critical(1.0),
+
+    /**
+     * Requests that may use 90% of the limit.
+     */
+    Normal(0.9),
+
+    /**
+     * Requests that may use 50% of the limit, eg: batch or prefetch requests that can be retried later.
+     */
+    Sheddable(0.5);
+
+    private final double limitShare;
+
+    Priority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    /**
+     * Returns the number of concurrent requests allowed for this priority for the passed {@code limit}.
+     *
+     * @param limit Overall concurrency limit.
+     *
+     * @return Number of concurrent requests allowed for this priority. This is always at least one.
+     */
+    public int allowedConcurrency(int limit) {
+        return Math.max(1, (int) (limit * limitShare));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import rx.Observable;
+
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+
+/**
+ * A response stored in {@link ResponseCache}. The body is an unreleasable buffer, so it can be written any number of
+ * times (as a duplicate), concurrently, without copying or re-encoding.
+ */
+final class CachedResponse {
+
+    private final HttpResponseStatus status;
+    private final HttpHeaders headers;
+    private final ByteBuf body;
+    private final long storedAtNanos;
+    private final long expiresAtNanos;
+    private final int size;
+
+    CachedResponse(HttpResponseStatus status, HttpHeaders headers, ByteBuf body, long storedAtNanos,
+                   long ttlNanos) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.storedAtNanos = storedAtNanos;
+        expiresAtNanos = storedAtNanos + ttlNanos;
+        int headersSize = 0;
+        for (Entry<String, String> header : headers) {
+            headersSize += header.getKey().length() + header.getValue().length();
+        }
+        /*Headers are accounted, so that responses without a body also count towards the size of the cache.*/
+        size = body.readableBytes() + headersSize;
+    }
+
+    boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos >= 0;
+    }
+
+    long ageSeconds(long nowNanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(nowNanos - storedAtNanos);
+    }
+
+    int size() {
+        return size;
+    }
+
+    Observable<Void> writeTo(HttpServerResponse<ByteBuf> response, long nowNanos) {
+        response.setStatus(status);
+        for (Entry<String, String> header : headers) {
+            response.addHeader(header.getKey(), header.getValue());
+        }
+        return response.setHeader(CONTENT_LENGTH, body.readableBytes())
+                       .setHeader(AGE, ageSeconds(nowNanos))
+                       .write(Observable.just(body.duplicate()));
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.ssl.SslHandler;
+import io.reactivex.netty.protocol.http.HttpHandlerNames;
+import io.reactivex.netty.protocol.http.server.HttpServerInterceptorChain.Interceptor;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import io.reactivex.netty.protocol.http.server.cache.ResponseCapture.CaptureHandler;
+import io.reactivex.netty.protocol.http.util.CacheControl;
+import rx.Observable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+
+/**
+ * An in-process cache of responses, to be used as an interceptor for a {@link RequestHandler}, for endpoints that return
+ * identical responses for identical {@code GET} requests:
+ *
+ <PRE>
+    HttpServer.newServer()
+              .start(HttpServerInterceptorChain.<ByteBuf, ByteBuf>start()
+                                               .next(new ResponseCache<ByteBuf>(64 * 1024 * 1024))
+                                               .end(handler));
+ </PRE>
+ *
+ * <h2>What is cached?</h2>
+ *
+ * Responses are cached as a shared cache (RFC 7234), keyed by the scheme, the {@code Host} header and the URI of the
+ * request and the values of the request headers listed in the {@code Vary} header of the response, so a server for
+ * multiple hosts never serves the response of one host for another.
+ *
+ * Only {@code GET} requests without an {@code Authorization} header are cached and only responses with a status that
+ * is cacheable by default, that have an explicit freshness lifetime ({@code s-maxage}, {@code max-age} or
+ * {@code Expires}) or a default TTL configured for this cache, and that do not have {@code no-store},
+ * {@code no-cache} or {@code private} directives, a {@code Set-Cookie} header or {@code Vary: *}. Responses written
+ * as files ({@link HttpServerResponse#sendFile}) are not cached as they are already written without copying.
+ *
+ * A request with {@code Cache-Control: no-store} bypasses the cache and a request with {@code no-cache} (or
+ * {@code max-age}) is not served from the cache (or served only if fresh enough), but its response is stored.
+ *
+ * <h2>Serving from the cache</h2>
+ *
+ * The status, headers and the body of a response are stored as written by the handler. A cached response is written
+ * with the stored headers, an {@code Age} header and a duplicate of the stored body, so that serving a hit neither
+ * copies nor re-encodes the body.
+ *
+ * <h2>Eviction</h2>
+ *
+ * The cache is bounded by the total size of the stored bodies and headers; when full, the least recently used entries
+ * are evicted. Responses larger than the maximum entry size are not stored. Expired entries are removed when looked up.
+ */
+public class ResponseCache<I> implements Interceptor<I, ByteBuf> {
+
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final String PRIVATE = "private";
+    private static final String MAX_AGE = "max-age";
+    private static final String S_MAXAGE = "s-maxage";
+
+    private final long maxSize;
+    private final int maxEntrySize;
+    private final long defaultTtlNanos;
+    private final LinkedHashMap<String, Variants> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size; // Guarded by entries
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a new cache which only caches responses with an explicit freshness lifetime.
+     *
+     * @param maxSize Maximum total size, in bytes, of the cached response bodies and headers.
+     */
+    public ResponseCache(long maxSize) {
+        this(maxSize, DEFAULT_MAX_ENTRY_SIZE, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize Maximum total size, in bytes, of the cached response bodies and headers.
+     * @param maxEntrySize Maximum size, in bytes, of a cached response body.
+     * @param defaultTtl Time to live for responses without an explicit freshness lifetime, {@code 0} to not cache such
+     * responses.
+     * @param timeUnit Time unit for the default time to live.
+     */
+    public ResponseCache(long maxSize, int maxEntrySize, long defaultTtl, TimeUnit timeUnit) {
+        if (maxSize <= 0 || maxEntrySize <= 0 || defaultTtl < 0) {
+            throw new IllegalArgumentException("Invalid cache configuration. Max size: " + maxSize
+                                               + ", max entry size: " + maxEntrySize + ", default TTL: " + defaultTtl);
+        }
+        this.maxSize = maxSize;
+        this.maxEntrySize = (int) Math.min(maxEntrySize, maxSize);
+        defaultTtlNanos = timeUnit.toNanos(defaultTtl);
+    }
+
+    @Override
+    public RequestHandler<I, ByteBuf> intercept(final RequestHandler<I, ByteBuf> handler) {
+        return new RequestHandler<I, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<I> request, HttpServerResponse<ByteBuf> response) {
+                final String requestCacheControl = request.getHeader(CACHE_CONTROL);
+                if (!HttpMethod.GET.equals(request.getHttpMethod()) || request.containsHeader(AUTHORIZATION)
+                    || hasDirective(requestCacheControl, NO_STORE)) {
+                    return handler.handle(request, response);
+                }
+
+                final Channel channel = response.unsafeNettyChannel();
+                final String primaryKey = cacheKey(request, channel);
+                if (!hasDirective(requestCacheControl, NO_CACHE)) {
+                    final long nowNanos = System.nanoTime();
+                    final CachedResponse cached = lookup(primaryKey, request, nowNanos);
+                    final long maxAgeSeconds = directiveSeconds(requestCacheControl, MAX_AGE);
+                    if (null != cached && (maxAgeSeconds < 0 || cached.ageSeconds(nowNanos) <= maxAgeSeconds)) {
+                        hitCount.incrementAndGet();
+                        return cached.writeTo(response, nowNanos);
+                    }
+                }
+
+                missCount.incrementAndGet();
+                final ChannelPipeline pipeline = channel.pipeline();
+                if (null == pipeline.get(CaptureHandler.NAME)) {
+                    pipeline.addAfter(HttpHandlerNames.HttpServerEncoder.getName(), CaptureHandler.NAME,
+                                      CaptureHandler.INSTANCE);
+                }
+                channel.attr(ResponseCapture.CAPTURE_KEY)
+                       .set(new ResponseCapture(ResponseCache.this, primaryKey, request, maxEntrySize));
+                return handler.handle(request, response);
+            }
+        };
+    }
+
+    /**
+     * Removes all entries from this cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the total size of the cached responses.
+     *
+     * @return The total size, in bytes, of the cached response bodies and headers.
+     */
+    public long size() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    /**
+     * Returns the number of requests served from this cache.
+     *
+     * @return The number of requests served from this cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of cacheable requests that were not served from this cache.
+     *
+     * @return The number of cacheable requests that were not served from this cache.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    boolean isCacheable(HttpResponseStatus status, HttpHeaders headers) {
+        final String cacheControl = headers.get(CACHE_CONTROL);
+        return CacheControl.isCacheableByDefault(status)
+               && !hasDirective(cacheControl, NO_STORE)
+               && !hasDirective(cacheControl, NO_CACHE)
+               && !hasDirective(cacheControl, PRIVATE)
+               && !headers.contains(SET_COOKIE)
+               && !"*".equals(headers.get(VARY));
+    }
+
+    void store(String primaryKey, HttpServerRequest<?> request, HttpResponseStatus status, HttpHeaders headers,
+               ByteBuf body) {
+        final long ttlNanos = ttlNanos(headers);
+        if (ttlNanos <= 0) {
+            return;
+        }
+
+        final List<String> varyNames = varyNames(headers);
+        /*Hop-by-hop and per-response headers are not stored, length and age are set when served.*/
+        headers.remove(CONNECTION)
+               .remove(KEEP_ALIVE)
+               .remove(TRANSFER_ENCODING)
+               .remove(CONTENT_LENGTH)
+               .remove(DATE)
+               .remove(AGE);
+
+        final CachedResponse cached = new CachedResponse(status, headers, body, System.nanoTime(), ttlNanos);
+        synchronized (entries) {
+            Variants variants = entries.get(primaryKey);
+            if (null == variants || !variants.varyNames.equals(varyNames)) {
+                if (null != variants) {
+                    size -= variants.size;
+                }
+                variants = new Variants(varyNames);
+                entries.put(primaryKey, variants);
+            }
+            size += variants.put(variantKey(request, varyNames), cached);
+
+            final Iterator<Variants> lru = entries.values().iterator();
+            while (size > maxSize && lru.hasNext()) {
+                size -= lru.next().size;
+                lru.remove();
+            }
+        }
+    }
+
+    private CachedResponse lookup(String primaryKey, HttpServerRequest<?> request, long nowNanos) {
+        synchronized (entries) {
+            final Variants variants = entries.get(primaryKey);
+            if (null == variants) {
+                return null;
+            }
+            final String variantKey = variantKey(request, variants.varyNames);
+            final CachedResponse cached = variants.responses.get(variantKey);
+            if (null != cached && cached.isExpired(nowNanos)) {
+                size -= variants.remove(variantKey);
+                if (variants.responses.isEmpty()) {
+                    entries.remove(primaryKey);
+                }
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private static String cacheKey(HttpServerRequest<?> request, Channel channel) {
+        final String scheme = null != channel.pipeline().get(SslHandler.class) ? "https://" : "http://";
+        final String host = request.getHeader(HOST);
+        return scheme + (null == host ? "" : host.toLowerCase(Locale.ENGLISH)) + request.getUri();
+    }
+
+    private long ttlNanos(HttpHeaders headers) {
+        final String cacheControl = headers.get(CACHE_CONTROL);
+        long seconds = directiveSeconds(cacheControl, S_MAXAGE);
+        if (seconds < 0) {
+            seconds = directiveSeconds(cacheControl, MAX_AGE);
+        }
+        if (seconds >= 0) {
+            return TimeUnit.SECONDS.toNanos(seconds);
+        }
+
+        final long expires = headers.getTimeMillis(EXPIRES, -1);
+        if (expires >= 0) {
+            final long date = headers.getTimeMillis(DATE, System.currentTimeMillis());
+            return TimeUnit.MILLISECONDS.toNanos(expires - date);
+        }
+
+        return defaultTtlNanos;
+    }
+
+    private static List<String> varyNames(HttpHeaders headers) {
+        final List<String> varyValues = headers.getAll(VARY);
+        if (varyValues.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> names = new ArrayList<>();
+        for (String varyValue : varyValues) {
+            for (String name : varyValue.split(",")) {
+                final String trimmed = name.trim();
+                if (!trimmed.isEmpty()) {
+                    names.add(trimmed.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    private static String variantKey(HttpServerRequest<?> request, List<String> varyNames) {
+        if (varyNames.isEmpty()) {
+            return "";
+        }
+        final StringBuilder key = new StringBuilder();
+        for (String name : varyNames) {
+            key.append(request.getAllHeaderValues(name)).append('\n');
+        }
+        return key.toString();
+    }
+
+    static boolean hasDirective(String cacheControl, String directive) {
+        return CacheControl.hasDirective(cacheControl, directive);
+    }
+
+    static long directiveSeconds(String cacheControl, String directive) {
+        return CacheControl.directiveSeconds(cacheControl, directive);
+    }
+
+    /**
+     * All cached responses for a request URI, keyed by the values of the request headers listed in the {@code Vary}
+     * header of the response.
+     */
+    private static final class Variants {
+
+        private final List<String> varyNames;
+        private final Map<String, CachedResponse> responses = new HashMap<>(2);
+        private long size;
+
+        private Variants(List<String> varyNames) {
+            this.varyNames = varyNames;
+        }
+
+        /**
+         * @return Change in the size of these variants.
+         */
+        private long put(String variantKey, CachedResponse response) {
+            final CachedResponse existing = responses.put(variantKey, response);
+            final long delta = response.size() - (null == existing ? 0 : existing.size());
+            size += delta;
+            return delta;
+        }
+
+        /**
+         * @return Size of the removed response.
+         */
+        private long remove(String variantKey) {
+            final CachedResponse removed = responses.remove(variantKey);
+            final long removedSize = null == removed ? 0 : removed.size();
+            size -= removedSize;
+            return removedSize;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+
+/**
+ * Captures a response, as written to the HTTP encoder, for storing in a {@link ResponseCache}. Capturing at the encoder
+ * (as opposed to the {@link io.reactivex.netty.protocol.http.server.HttpServerResponse}) sees the final headers and the
+ * content irrespective of how it was written by the handler.
+ *
+ * Since requests on a connection are processed one at a time, there is at most one capture per connection, available
+ * as a channel attribute to the {@link CaptureHandler} added once to the pipeline of the connection.
+ *
+ * The body is captured in an unpooled direct buffer and stored read-only, so that a cached body is written to the
+ * socket without another copy and can not be modified by anyone serving it. Unpooled, since a cached body lives till it
+ * is evicted, which is reclaimed by the garbage collector, as the cache does not track who is still writing it.
+ */
+final class ResponseCapture {
+
+    static final AttributeKey<ResponseCapture> CAPTURE_KEY = AttributeKey.valueOf("_rxnetty_response_cache_capture");
+
+    private final ResponseCache<?> cache;
+    private final String primaryKey;
+    private final HttpServerRequest<?> request;
+    private final int maxEntrySize;
+
+    private HttpResponseStatus status;
+    private HttpHeaders headers;
+    private ByteBuf body;
+    private boolean abandoned;
+
+    ResponseCapture(ResponseCache<?> cache, String primaryKey, HttpServerRequest<?> request, int maxEntrySize) {
+        this.cache = cache;
+        this.primaryKey = primaryKey;
+        this.request = request;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Captures a message written for the response.
+     *
+     * @return {@code true} if the response is complete.
+     */
+    boolean onWrite(Object msg) {
+        if (msg instanceof HttpResponse) {
+            final HttpResponse response = (HttpResponse) msg;
+            status = response.status();
+            headers = new DefaultHttpHeaders(false).set(response.headers());
+            abandoned = !cache.isCacheable(status, headers);
+        } else if (!(msg instanceof ByteBuf || msg instanceof ByteBufHolder)) {
+            /*Eg: FileRegion written by sendFile()*/
+            abandoned = true;
+        }
+
+        if (!abandoned) {
+            if (msg instanceof ByteBuf) {
+                append((ByteBuf) msg);
+            } else if (msg instanceof ByteBufHolder) {
+                append(((ByteBufHolder) msg).content());
+            }
+        }
+
+        if (msg instanceof LastHttpContent) {
+            if (!abandoned && null != headers && ((LastHttpContent) msg).trailingHeaders().isEmpty()) {
+                cache.store(primaryKey, request, status, headers, null == body ? Unpooled.EMPTY_BUFFER : storedBody());
+            } else if (null != body) {
+                body.release();
+            }
+            body = null;
+            return true;
+        }
+        return false;
+    }
+
+    private void append(ByteBuf content) {
+        final int length = content.readableBytes();
+        if (0 == length) {
+            return;
+        }
+        if (null == body) {
+            body = Unpooled.directBuffer(length, maxEntrySize);
+        }
+        if (body.readableBytes() + length > maxEntrySize) {
+            abandoned = true;
+            body.release();
+            body = null;
+        } else {
+            body.writeBytes(content, content.readerIndex(), length);
+        }
+    }
+
+    private ByteBuf storedBody() {
+        ByteBuf stored = body;
+        final int length = stored.readableBytes();
+        if (stored.capacity() > length) {
+            /*Do not hold the unused capacity, reserved while capturing, till eviction.*/
+            stored = Unpooled.directBuffer(length, length).writeBytes(body);
+            body.release();
+        }
+        return Unpooled.unreleasableBuffer(stored.asReadOnly());
+    }
+
+    /**
+     * Outbound handler, added once per connection, just before the HTTP encoder.
+     */
+    @Sharable
+    static final class CaptureHandler extends ChannelOutboundHandlerAdapter {
+
+        static final String NAME = "rxnetty-response-cache-capture";
+        static final CaptureHandler INSTANCE = new CaptureHandler();
+
+        private CaptureHandler() {
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            final ResponseCapture capture = ctx.channel().attr(CAPTURE_KEY).get();
+            if (null != capture && capture.onWrite(msg)) {
+                ctx.channel().attr(CAPTURE_KEY).compareAndSet(capture, null);
+            }
+            super.write(ctx, msg, promise);
+        }
+    }
+}
@@ -40,6 +40,13 @@ public final class HttpServerEventPublisher extends HttpServerEventsListener
         }
     };
 
+    private static final Action1<HttpServerEventsListener> REQUEST_SHED_ACTION = new Action1<HttpServerEventsListener>() {
+        @Override
+        public void call(HttpServerEventsListener l) {
+            l.onRequestShed();
+        }
+    };
+
     private static final Action3<HttpServerEventsListener, Long, TimeUnit> HANDLE_START_ACTION =
             new Action3<HttpServerEventsListener, Long, TimeUnit>() {
                 @Override
@@ -128,6 +135,11 @@ public final class HttpServerEventPublisher extends HttpServerEventsListener
         listeners.invokeListeners(NEW_REQUEST_ACTION);
     }
 
+    @Override
+    public void onRequestShed() {
+        listeners.invokeListeners(REQUEST_SHED_ACTION);
+    }
+
     @Override
     public void onRequestHandlingStart(final long duration, final TimeUnit timeUnit) {
         listeners.invokeListeners(HANDLE_START_ACTION, duration, timeUnit);
@@ -224,6 +236,26 @@ public final class HttpServerEventPublisher extends HttpServerEventsListener
         tcpDelegate.onByteWritten(bytesWritten);
     }
 
+    @Override
+    public void onAcceptPaused() {
+        tcpDelegate.onAcceptPaused();
+    }
+
+    @Override
+    public void onAcceptResumed(long duration, TimeUnit timeUnit) {
+        tcpDelegate.onAcceptResumed(duration, timeUnit);
+    }
+
+    @Override
+    public void onDrainStart(long drainTimeout, TimeUnit timeUnit, int activeConnections) {
+        tcpDelegate.onDrainStart(drainTimeout, timeUnit, activeConnections);
+    }
+
+    @Override
+    public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) {
+        tcpDelegate.onDrainComplete(duration, timeUnit, forciblyClosedConnections);
+    }
+
     @Override
     public void onConnectionHandlingFailed(long duration, TimeUnit timeUnit,
                                            Throwable throwable) {
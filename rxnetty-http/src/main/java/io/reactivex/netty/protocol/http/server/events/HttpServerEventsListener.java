@@ -31,6 +31,12 @@ public abstract class HttpServerEventsListener extends TcpServerEventListener {
      */
     public void onNewRequestReceived() {}
 
+    /**
+     * Event whenever a request is rejected by the server's admission control, without being passed to the request
+     * handler.
+     */
+    public void onRequestShed() {}
+
     /**
      * When request handling started.
      *
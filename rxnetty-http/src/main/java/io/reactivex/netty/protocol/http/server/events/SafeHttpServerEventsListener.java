@@ -44,6 +44,13 @@ final class SafeHttpServerEventsListener extends HttpServerEventsListener implem
         }
     }
 
+    @Override
+    public void onRequestShed() {
+        if (!completed.get()) {
+            delegate.onRequestShed();
+        }
+    }
+
     @Override
     public void onRequestHandlingStart(long duration, TimeUnit timeUnit) {
         if (!completed.get()) {
@@ -130,6 +137,34 @@ final class SafeHttpServerEventsListener extends HttpServerEventsListener implem
         }
     }
 
+    @Override
+    public void onAcceptPaused() {
+        if (!completed.get()) {
+            delegate.onAcceptPaused();
+        }
+    }
+
+    @Override
+    public void onAcceptResumed(long duration, TimeUnit timeUnit) {
+        if (!completed.get()) {
+            delegate.onAcceptResumed(duration, timeUnit);
+        }
+    }
+
+    @Override
+    public void onDrainStart(long drainTimeout, TimeUnit timeUnit, int activeConnections) {
+        if (!completed.get()) {
+            delegate.onDrainStart(drainTimeout, timeUnit, activeConnections);
+        }
+    }
+
+    @Override
+    public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) {
+        if (!completed.get()) {
+            delegate.onDrainComplete(duration, timeUnit, forciblyClosedConnections);
+        }
+    }
+
     @Override
     public void onConnectionHandlingFailed(long duration, TimeUnit timeUnit,
                                            Throwable throwable) {
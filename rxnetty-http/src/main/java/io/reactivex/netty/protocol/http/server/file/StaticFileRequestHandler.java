@@ -0,0 +1,303 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.file;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpMethod;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import rx.Observable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URLConnection;
+import java.util.Date;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static io.netty.handler.codec.http.HttpHeaderValues.*;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+
+/**
+ * A {@link RequestHandler} that serves static files from a root directory.
+ *
+ * <h2>Resolution</h2>
+ *
+ * The decoded path of the request, after removing the configured URI prefix, is resolved against the root directory.
+ * Requests that resolve outside the root directory, to a directory, or to a hidden file are answered with a
+ * {@code 404}. Only {@code GET} and {@code HEAD} requests are served, other methods are answered with a {@code 405}.
+ *
+ * <h2>Content</h2>
+ *
+ * File content is written using {@link HttpServerResponse#sendFile(RandomAccessFile, long, long)}, so for non-secure
+ * connections, the content is transferred from the file to the socket without copying through the JVM heap.
+ *
+ * <h2>Conditional and range requests</h2>
+ *
+ * Every response carries an {@code ETag} and {@code Last-Modified} header derived from the file's size and
+ * modification time. {@code If-None-Match} and {@code If-Modified-Since} requests are answered with a {@code 304}
+ * when the file has not changed. A single byte range ({@code Range: bytes=...}), optionally guarded by
+ * {@code If-Range}, is answered with a {@code 206}; requests for multiple ranges are served the entire file.
+ */
+public class StaticFileRequestHandler implements RequestHandler<ByteBuf, ByteBuf> {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final String BYTES_UNIT = "bytes=";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+
+    private final File root;
+    private final String canonicalRoot;
+    private final String uriPrefix;
+
+    /**
+     * Creates a new handler serving files from the passed {@code root} directory for all request URIs.
+     *
+     * @param root Root directory to serve files from.
+     */
+    public StaticFileRequestHandler(File root) {
+        this(root, "/");
+    }
+
+    /**
+     * Creates a new handler serving files from the passed {@code root} directory for request URIs starting with the
+     * passed {@code uriPrefix}. The prefix is removed from the path before resolving it against the {@code root}.
+     *
+     * @param root Root directory to serve files from.
+     * @param uriPrefix Prefix of the request path which maps to the {@code root} directory.
+     */
+    public StaticFileRequestHandler(File root, String uriPrefix) {
+        if (!root.isDirectory()) {
+            throw new IllegalArgumentException("Root must be a directory: " + root);
+        }
+        this.root = root;
+        this.uriPrefix = uriPrefix.endsWith("/") ? uriPrefix : uriPrefix + '/';
+        try {
+            canonicalRoot = root.getCanonicalPath();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to resolve root directory: " + root, e);
+        }
+    }
+
+    @Override
+    public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+        final HttpMethod method = request.getHttpMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return response.setStatus(METHOD_NOT_ALLOWED)
+                           .setHeader(ALLOW, HttpMethod.GET + ", " + HttpMethod.HEAD);
+        }
+
+        final File file = resolve(request.getDecodedPath());
+        if (null == file) {
+            return response.setStatus(NOT_FOUND);
+        }
+
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        final String etag = newEtag(length, lastModified);
+
+        response.setHeader(ETAG, etag)
+                .setDateHeader(LAST_MODIFIED, new Date(lastModified))
+                .setHeader(ACCEPT_RANGES, BYTES);
+
+        if (isNotModified(request, etag, lastModified)) {
+            return response.setStatus(NOT_MODIFIED);
+        }
+
+        long position = 0;
+        long count = length;
+        final String rangeHeader = request.getHeader(RANGE);
+        if (null != rangeHeader && isRangeApplicable(request, etag, lastModified)) {
+            final ByteRange range = ByteRange.parse(rangeHeader, length);
+            if (ByteRange.UNSATISFIABLE == range) {
+                return response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE)
+                               .setHeader(CONTENT_RANGE, "bytes */" + length);
+            }
+            if (null != range) {
+                position = range.start;
+                count = range.end - range.start + 1;
+                response.setStatus(PARTIAL_CONTENT)
+                        .setHeader(CONTENT_RANGE, "bytes " + range.start + '-' + range.end + '/' + length);
+            }
+        }
+
+        response.setHeader(CONTENT_TYPE, contentType(file));
+
+        if (HttpMethod.HEAD.equals(method)) {
+            return response.setHeader(CONTENT_LENGTH, count)
+                           .write(Observable.<ByteBuf>empty());
+        }
+
+        final RandomAccessFile raf;
+        try {
+            raf = new RandomAccessFile(file, "r");
+        } catch (FileNotFoundException e) {
+            /*File removed (or made unreadable) after resolution.*/
+            return response.setStatus(NOT_FOUND);
+        }
+
+        return response.sendFile(raf, position, count);
+    }
+
+    /**
+     * Returns the root directory from which this handler serves files.
+     *
+     * @return The root directory from which this handler serves files.
+     */
+    public File getRoot() {
+        return root;
+    }
+
+    private File resolve(String decodedPath) {
+        if (null == decodedPath || !decodedPath.startsWith(uriPrefix) || decodedPath.indexOf('\0') >= 0) {
+            return null;
+        }
+
+        final File file = new File(root, decodedPath.substring(uriPrefix.length()));
+        final String canonicalPath;
+        try {
+            canonicalPath = file.getCanonicalPath();
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (!canonicalPath.startsWith(canonicalRoot + File.separator)) {
+            return null; // Path escapes the root directory.
+        }
+
+        if (!file.isFile() || file.isHidden()) {
+            return null;
+        }
+
+        return file;
+    }
+
+    private static boolean isNotModified(HttpServerRequest<ByteBuf> request, String etag, long lastModified) {
+        final String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+        if (null != ifNoneMatch) {
+            /*If-Modified-Since is ignored if If-None-Match is present: RFC 7232, section 3.3*/
+            return matchesAnyEtag(ifNoneMatch, etag);
+        }
+
+        final long ifModifiedSince = request.getDateHeader(IF_MODIFIED_SINCE, -1);
+        /*Dates in HTTP headers have a second precision.*/
+        return -1 != ifModifiedSince && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean isRangeApplicable(HttpServerRequest<ByteBuf> request, String etag, long lastModified) {
+        final String ifRange = request.getHeader(IF_RANGE);
+        if (null == ifRange) {
+            return true;
+        }
+
+        if (ifRange.startsWith("\"") || ifRange.startsWith(WEAK_ETAG_PREFIX)) {
+            /*If-Range requires a strong comparison, so a weak tag never matches.*/
+            return ifRange.equals(etag);
+        }
+
+        final long ifRangeDate = request.getDateHeader(IF_RANGE, -1);
+        return -1 != ifRangeDate && lastModified / 1000 == ifRangeDate / 1000;
+    }
+
+    private static boolean matchesAnyEtag(String etags, String etag) {
+        for (String candidate : etags.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed)) {
+                return true;
+            }
+            if (trimmed.startsWith(WEAK_ETAG_PREFIX)) {
+                trimmed = trimmed.substring(WEAK_ETAG_PREFIX.length());
+            }
+            if (trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String newEtag(long length, long lastModified) {
+        return '"' + Long.toHexString(lastModified) + '-' + Long.toHexString(length) + '"';
+    }
+
+    private static String contentType(File file) {
+        final String contentType = URLConnection.guessContentTypeFromName(file.getName());
+        return null == contentType ? DEFAULT_CONTENT_TYPE : contentType;
+    }
+
+    /*Visible for testing*/ static final class ByteRange {
+
+        /*Marker for a syntactically valid range that does not overlap the file.*/
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        final long start;
+        final long end;
+
+        ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Parses a {@code Range} header value.
+         *
+         * @return The range (with inclusive start and end) to send, {@link #UNSATISFIABLE} if the range does not
+         * overlap the content and {@code null} if the header must be ignored (invalid, unknown unit or multiple
+         * ranges).
+         */
+        static ByteRange parse(String rangeHeader, long length) {
+            if (!rangeHeader.startsWith(BYTES_UNIT)) {
+                return null;
+            }
+
+            final String spec = rangeHeader.substring(BYTES_UNIT.length()).trim();
+            final int dashIndex = spec.indexOf('-');
+            if (dashIndex < 0 || spec.indexOf(',') >= 0) {
+                return null;
+            }
+
+            final String first = spec.substring(0, dashIndex).trim();
+            final String last = spec.substring(dashIndex + 1).trim();
+
+            try {
+                if (first.isEmpty()) {
+                    /*Suffix range: last N bytes.*/
+                    if (last.isEmpty()) {
+                        return null;
+                    }
+                    final long suffixLength = Long.parseLong(last);
+                    if (suffixLength <= 0 || length == 0) {
+                        return UNSATISFIABLE;
+                    }
+                    return new ByteRange(Math.max(0, length - suffixLength), length - 1);
+                }
+
+                final long start = Long.parseLong(first);
+                final long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || end < start) {
+                    return null;
+                }
+                if (start >= length) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(start, Math.min(end, length - 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.multipart;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.AbstractReferenceCounted;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+/**
+ * A {@link MultipartPart} with its entire content, as aggregated by {@link MultipartAggregator}. The content is either
+ * held in memory ({@link #getContent()}) or, if larger than the aggregator's threshold, in a temporary file
+ * ({@link #getFile()}).
+ *
+ * Releasing this part releases the in-memory content or deletes the temporary file.
+ */
+public final class AggregatedPart extends AbstractReferenceCounted {
+
+    private final MultipartPart part;
+    private final ByteBuf content;
+    private final File file;
+    private final long length;
+
+    AggregatedPart(MultipartPart part, ByteBuf content) {
+        this.part = part;
+        this.content = content;
+        file = null;
+        length = content.readableBytes();
+    }
+
+    AggregatedPart(MultipartPart part, File file, long length) {
+        this.part = part;
+        this.file = file;
+        this.length = length;
+        content = null;
+    }
+
+    /**
+     * Returns the headers of this part.
+     *
+     * @return The headers of this part.
+     */
+    public MultipartPart getPart() {
+        return part;
+    }
+
+    /**
+     * Checks whether the content of this part is held in memory.
+     *
+     * @return {@code true} if the content is available from {@link #getContent()}, {@code false} if the content is
+     * available from {@link #getFile()}.
+     */
+    public boolean isInMemory() {
+        return null != content;
+    }
+
+    /**
+     * Returns the length of the content of this part.
+     *
+     * @return The length of the content of this part, in bytes.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the in-memory content of this part. The returned buffer is owned by this part.
+     *
+     * @return The in-memory content of this part.
+     *
+     * @throws IllegalStateException If the content of this part was spilled to a file.
+     */
+    public ByteBuf getContent() {
+        if (null == content) {
+            throw new IllegalStateException("Content of the part is in file: " + file);
+        }
+        return content;
+    }
+
+    /**
+     * Returns the in-memory content of this part as a string.
+     *
+     * @param charset Charset to decode the content.
+     *
+     * @return The content of this part as a string.
+     *
+     * @throws IllegalStateException If the content of this part was spilled to a file.
+     */
+    public String getContentAsString(Charset charset) {
+        return getContent().toString(charset);
+    }
+
+    /**
+     * Returns the temporary file holding the content of this part. The file is deleted when this part is released.
+     *
+     * @return The temporary file holding the content of this part, {@code null} if the content is in memory.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    protected void deallocate() {
+        if (null != content) {
+            content.release();
+        } else if (null != file) {
+            file.delete();
+        }
+    }
+
+    @Override
+    public AggregatedPart retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public AggregatedPart retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public AggregatedPart touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public AggregatedPart touch(Object hint) {
+        if (null != content) {
+            content.touch(hint);
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "AggregatedPart{part=" + part + ", length=" + length + ", file=" + file + '}';
+    }
+}
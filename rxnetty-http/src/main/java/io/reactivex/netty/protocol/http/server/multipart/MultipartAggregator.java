@@ -0,0 +1,191 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.multipart;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.reactivex.netty.util.SpillFile;
+import rx.Observable;
+import rx.Observable.Transformer;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.io.File;
+
+/**
+ * A transformer to aggregate the {@link MultipartChunk chunks} emitted by {@link MultipartDecoder} into one
+ * {@link AggregatedPart} per part. The content of a part is held in memory till it exceeds the configured threshold,
+ * after which it is written to a temporary file, so that large uploads use bounded memory:
+ *
+ <PRE>
+     request.transformContent(MultipartDecoder.forRequest(request))
+            .getContent()
+            .compose(new MultipartAggregator(16 * 1024))
+ </PRE>
+ *
+ * The received chunks are released by this transformer and the emitted parts must be released by the subscriber,
+ * which also deletes the temporary file, if any. Parts that are not completely received, eg: on error, are discarded.
+ *
+ * Temporary files are written as a {@link SpillFile}, on a writer thread and not on the event loop. Chunks are
+ * requested one at a time, so reading the request waits for the disk when too many bytes are pending.
+ */
+public final class MultipartAggregator implements Transformer<MultipartChunk, AggregatedPart> {
+
+    private static final String TEMP_FILE_PREFIX = "rxnetty-multipart-";
+    private static final String TEMP_FILE_SUFFIX = ".part";
+
+    private final int memoryThreshold;
+    private final File tempDirectory;
+
+    /**
+     * Creates a new aggregator, spilling parts larger than the passed threshold to the default temporary directory.
+     *
+     * @param memoryThreshold Maximum size, in bytes, of a part held in memory.
+     */
+    public MultipartAggregator(int memoryThreshold) {
+        this(memoryThreshold, null);
+    }
+
+    /**
+     * Creates a new aggregator, spilling parts larger than the passed threshold to the passed directory.
+     *
+     * @param memoryThreshold Maximum size, in bytes, of a part held in memory.
+     * @param tempDirectory Directory for temporary files, {@code null} for the default temporary directory.
+     */
+    public MultipartAggregator(int memoryThreshold, File tempDirectory) {
+        if (memoryThreshold < 0) {
+            throw new IllegalArgumentException("Memory threshold can not be negative, found: " + memoryThreshold);
+        }
+        this.memoryThreshold = memoryThreshold;
+        this.tempDirectory = tempDirectory;
+    }
+
+    @Override
+    public Observable<AggregatedPart> call(final Observable<MultipartChunk> chunks) {
+        return Observable.defer(new Func0<Observable<AggregatedPart>>() {
+            @Override
+            public Observable<AggregatedPart> call() {
+                final Aggregation aggregation = new Aggregation();
+                final Action0 discard = new Action0() {
+                    @Override
+                    public void call() {
+                        aggregation.discard();
+                    }
+                };
+                return chunks.flatMap(new Func1<MultipartChunk, Observable<AggregatedPart>>() {
+                                 @Override
+                                 public Observable<AggregatedPart> call(MultipartChunk chunk) {
+                                     final Observable<AggregatedPart> added;
+                                     try {
+                                         added = aggregation.add(chunk).cast(AggregatedPart.class);
+                                     } finally {
+                                         chunk.release();
+                                     }
+                                     if (!chunk.isLastChunk()) {
+                                         return added;
+                                     }
+                                     return added.concatWith(Observable.defer(new Func0<Observable<AggregatedPart>>() {
+                                         @Override
+                                         public Observable<AggregatedPart> call() {
+                                             return aggregation.complete();
+                                         }
+                                     }));
+                                 }
+                             }, 1)
+                             .doOnTerminate(discard)
+                             .doOnUnsubscribe(discard);
+            }
+        });
+    }
+
+    /**
+     * Aggregation state of the current part for a single subscription.
+     */
+    private final class Aggregation {
+
+        private MultipartPart part;
+        private CompositeByteBuf memory;
+        private SpillFile spill;
+        private long length;
+
+        Observable<Void> add(MultipartChunk chunk) {
+            part = chunk.getPart();
+            final ByteBuf content = chunk.content();
+            length += content.readableBytes();
+
+            if (null != spill) {
+                return spill.write(content.retain());
+            }
+
+            if (!content.isReadable()) {
+                return Observable.empty();
+            }
+
+            if (null == memory) {
+                /*Avoid consolidation (copy) of the components, which is the default for more than 16 components.*/
+                memory = content.alloc().compositeBuffer(Integer.MAX_VALUE);
+            }
+            memory.addComponent(true, content.retain());
+
+            if (memory.readableBytes() > memoryThreshold) {
+                spill = SpillFile.create(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, tempDirectory);
+                final ByteBuf spilled = memory;
+                memory = null;
+                return spill.write(spilled);
+            }
+            return Observable.empty();
+        }
+
+        Observable<AggregatedPart> complete() {
+            if (null == spill) {
+                final AggregatedPart aggregated = new AggregatedPart(part, null == memory ? Unpooled.EMPTY_BUFFER
+                                                                                          : memory);
+                reset();
+                return Observable.just(aggregated);
+            }
+
+            return spill.finish().map(new Func1<File, AggregatedPart>() {
+                @Override
+                public AggregatedPart call(File file) {
+                    final AggregatedPart aggregated = new AggregatedPart(part, file, length);
+                    reset();
+                    return aggregated;
+                }
+            });
+        }
+
+        void discard() {
+            if (null != memory) {
+                memory.release();
+                memory = null;
+            }
+            if (null != spill) {
+                spill.discard();
+                spill = null;
+            }
+        }
+
+        private void reset() {
+            part = null;
+            memory = null;
+            spill = null;
+            length = 0;
+        }
+    }
+}
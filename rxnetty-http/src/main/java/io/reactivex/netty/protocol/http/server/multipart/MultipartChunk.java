@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.multipart;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A chunk of the content of a {@link MultipartPart}, as decoded by {@link MultipartDecoder}. All chunks of a part
+ * share the same {@link #getPart()} instance, and the last chunk of a part (which may be empty) returns {@code true}
+ * from {@link #isLastChunk()}.
+ *
+ * The receiver of a chunk is responsible for releasing it.
+ */
+public final class MultipartChunk extends DefaultByteBufHolder {
+
+    private final MultipartPart part;
+    private final boolean lastChunk;
+
+    MultipartChunk(MultipartPart part, ByteBuf content, boolean lastChunk) {
+        super(content);
+        this.part = part;
+        this.lastChunk = lastChunk;
+    }
+
+    /**
+     * Returns the part to which this chunk belongs.
+     *
+     * @return The part to which this chunk belongs.
+     */
+    public MultipartPart getPart() {
+        return part;
+    }
+
+    /**
+     * Checks whether this is the last chunk of the part.
+     *
+     * @return {@code true} if this is the last chunk of the part.
+     */
+    public boolean isLastChunk() {
+        return lastChunk;
+    }
+
+    @Override
+    public MultipartChunk copy() {
+        return replace(content().copy());
+    }
+
+    @Override
+    public MultipartChunk duplicate() {
+        return replace(content().duplicate());
+    }
+
+    @Override
+    public MultipartChunk retainedDuplicate() {
+        return replace(content().retainedDuplicate());
+    }
+
+    @Override
+    public MultipartChunk replace(ByteBuf content) {
+        return new MultipartChunk(part, content, lastChunk);
+    }
+
+    @Override
+    public MultipartChunk retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public MultipartChunk retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public MultipartChunk touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public MultipartChunk touch(Object hint) {
+        super.touch(hint);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "MultipartChunk{part=" + part + ", lastChunk=" + lastChunk + ", content=" + content() + '}';
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.multipart;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import rx.Observable;
+import rx.Observable.Transformer;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+
+/**
+ * A streaming decoder for {@code multipart/form-data} content (RFC 7578), to be used with
+ * {@link HttpServerRequest#transformContent(Transformer)}:
+ *
+ <PRE>
+     request.transformContent(MultipartDecoder.forRequest(request))
+            .getContent()
+ </PRE>
+ *
+ * The content is emitted as a stream of {@link MultipartChunk}, each referring to the {@link MultipartPart} (headers)
+ * it belongs to. The content of a part is emitted as it is received, so the memory used by the decoder is bounded by
+ * the size of a received chunk and the size of the part headers ({@link #maxHeaderSize(int)}), irrespective of the
+ * size of the upload. The decoder only requests more content from the connection when the emitted chunks have been
+ * consumed, so a slow subscriber stops reading from the connection as with any other request content.
+ *
+ * Use {@link MultipartAggregator} to aggregate each part, spilling large parts to a temporary file.
+ *
+ * <h2>Memory management</h2>
+ *
+ * The received {@link ByteBuf}s are released by this decoder, and emitted chunks must be released by the subscriber.
+ * Emitted chunks share the memory of the received content, so this decoder must not be used with
+ * {@link io.reactivex.netty.channel.ContentSource#autoRelease()} applied to the original content.
+ *
+ * <h2>Errors</h2>
+ *
+ * Malformed content is emitted as a {@link DecoderException} and part headers larger than the maximum size as a
+ * {@link TooLongFrameException}. Content ending before the close delimiter is also emitted as a
+ * {@link DecoderException}.
+ */
+public final class MultipartDecoder implements Transformer<ByteBuf, MultipartChunk> {
+
+    public static final int DEFAULT_MAX_HEADER_SIZE = 8192;
+
+    private static final String MULTIPART_PREFIX = "multipart/";
+
+    private final byte[] delimiter;
+    private final int maxHeaderSize;
+
+    private MultipartDecoder(byte[] delimiter, int maxHeaderSize) {
+        this.delimiter = delimiter;
+        this.maxHeaderSize = maxHeaderSize;
+    }
+
+    /**
+     * Creates a new decoder for the content of the passed request, using the boundary from the request's
+     * {@code Content-Type} header.
+     *
+     * @param request Request, whose content is to be decoded.
+     *
+     * @return A new decoder.
+     *
+     * @throws IllegalArgumentException If the request is not a multipart request or has no boundary.
+     */
+    public static MultipartDecoder forRequest(HttpServerRequest<?> request) {
+        return forContentType(request.getHeader(CONTENT_TYPE));
+    }
+
+    /**
+     * Creates a new decoder using the boundary from the passed {@code Content-Type} header value.
+     *
+     * @param contentType Value of the {@code Content-Type} header.
+     *
+     * @return A new decoder.
+     *
+     * @throws IllegalArgumentException If the content type is not multipart or has no boundary.
+     */
+    public static MultipartDecoder forContentType(String contentType) {
+        if (!isMultipart(contentType)) {
+            throw new IllegalArgumentException("Not a multipart content type: " + contentType);
+        }
+        final String boundary = parameter(contentType, "boundary");
+        if (null == boundary) {
+            throw new IllegalArgumentException("No boundary in multipart content type: " + contentType);
+        }
+        return forBoundary(boundary);
+    }
+
+    /**
+     * Creates a new decoder using the passed boundary.
+     *
+     * @param boundary Boundary separating the parts.
+     *
+     * @return A new decoder.
+     */
+    public static MultipartDecoder forBoundary(String boundary) {
+        if (null == boundary || boundary.isEmpty() || boundary.length() > 70) {
+            throw new IllegalArgumentException("Invalid multipart boundary: " + boundary);
+        }
+        /*Delimiter is preceded by a CRLF, which is considered part of the delimiter: RFC 2046, section 5.1.1*/
+        final byte[] delimiter = ("\r\n--" + boundary).getBytes(CharsetUtil.US_ASCII);
+        return new MultipartDecoder(delimiter, DEFAULT_MAX_HEADER_SIZE);
+    }
+
+    /**
+     * Checks whether the passed {@code Content-Type} header value is a multipart content type.
+     *
+     * @param contentType Value of the {@code Content-Type} header.
+     *
+     * @return {@code true} if the content type is multipart.
+     */
+    public static boolean isMultipart(String contentType) {
+        return null != contentType && contentType.regionMatches(true, 0, MULTIPART_PREFIX, 0,
+                                                                MULTIPART_PREFIX.length());
+    }
+
+    /**
+     * Creates a new decoder, with the same configuration as this decoder, failing parts with headers larger than the
+     * passed size.
+     *
+     * @param maxHeaderSize Maximum size, in bytes, of the headers of a part.
+     *
+     * @return A new decoder.
+     */
+    public MultipartDecoder maxHeaderSize(int maxHeaderSize) {
+        if (maxHeaderSize <= 0) {
+            throw new IllegalArgumentException("Max header size must be positive, found: " + maxHeaderSize);
+        }
+        return new MultipartDecoder(delimiter, maxHeaderSize);
+    }
+
+    @Override
+    public Observable<MultipartChunk> call(final Observable<ByteBuf> content) {
+        return Observable.defer(new Func0<Observable<MultipartChunk>>() {
+            @Override
+            public Observable<MultipartChunk> call() {
+                final Parser parser = new Parser();
+                final Action0 release = new Action0() {
+                    @Override
+                    public void call() {
+                        parser.release();
+                    }
+                };
+                return content.concatMap(new Func1<ByteBuf, Observable<MultipartChunk>>() {
+                                  @Override
+                                  public Observable<MultipartChunk> call(ByteBuf byteBuf) {
+                                      return Observable.from(parser.offer(byteBuf));
+                                  }
+                              })
+                              .concatWith(Observable.defer(new Func0<Observable<MultipartChunk>>() {
+                                  @Override
+                                  public Observable<MultipartChunk> call() {
+                                      return parser.finish();
+                                  }
+                              }))
+                              .doOnTerminate(release)
+                              .doOnUnsubscribe(release);
+            }
+        });
+    }
+
+    /**
+     * Returns the value of the passed parameter from a header value of the form
+     * {@code value; name1=value1; name2="value2"}.
+     */
+    static String parameter(String headerValue, String name) {
+        final int length = headerValue.length();
+        int index = headerValue.indexOf(';');
+        while (index >= 0) {
+            final int equals = headerValue.indexOf('=', index + 1);
+            if (equals < 0) {
+                return null;
+            }
+            final String key = headerValue.substring(index + 1, equals).trim();
+            int valueStart = equals + 1;
+            while (valueStart < length && ' ' == headerValue.charAt(valueStart)) {
+                valueStart++;
+            }
+
+            final String value;
+            if (valueStart < length && '"' == headerValue.charAt(valueStart)) {
+                final StringBuilder quoted = new StringBuilder();
+                int i = valueStart + 1;
+                for (; i < length && '"' != headerValue.charAt(i); i++) {
+                    char c = headerValue.charAt(i);
+                    if ('\\' == c && i + 1 < length
+                        && ('"' == headerValue.charAt(i + 1) || '\\' == headerValue.charAt(i + 1))) {
+                        c = headerValue.charAt(++i);
+                    }
+                    quoted.append(c);
+                }
+                value = quoted.toString();
+                index = headerValue.indexOf(';', i);
+            } else {
+                index = headerValue.indexOf(';', valueStart);
+                value = (index < 0 ? headerValue.substring(valueStart)
+                                   : headerValue.substring(valueStart, index)).trim();
+            }
+
+            if (key.equalsIgnoreCase(name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private enum State {
+        Preamble,
+        Headers,
+        Body,
+        Epilogue
+    }
+
+    /**
+     * Parsing state for a single subscription. The unconsumed tail of the received content (at most a partial
+     * delimiter or partial part headers) is copied into the next received buffer, everything else is emitted as slices
+     * of the received buffers.
+     */
+    private final class Parser {
+
+        private State state = State.Preamble;
+        /*A CRLF is prepended to the content, so that the first delimiter (which has no preceding CRLF) is matched.*/
+        private ByteBuf cumulation = Unpooled.wrappedBuffer(new byte[] {'\r', '\n'});
+        private MultipartPart part;
+        private HttpHeaders pendingHeaders;
+        private int headerSize;
+
+        List<MultipartChunk> offer(ByteBuf byteBuf) {
+            if (State.Epilogue == state || null == cumulation) {
+                byteBuf.release();
+                return Collections.emptyList();
+            }
+
+            cumulate(byteBuf);
+
+            final List<MultipartChunk> out = new ArrayList<>(2);
+            try {
+                boolean progress = true;
+                while (progress) {
+                    switch (state) {
+                    case Preamble:
+                    case Body:
+                        progress = decodeBody(out);
+                        break;
+                    case Headers:
+                        progress = decodeHeaders();
+                        break;
+                    case Epilogue:
+                        cumulation.skipBytes(cumulation.readableBytes());
+                        progress = false;
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                for (MultipartChunk chunk : out) {
+                    chunk.release();
+                }
+                throw e;
+            }
+            return out;
+        }
+
+        Observable<MultipartChunk> finish() {
+            if (State.Epilogue != state) {
+                return Observable.error(new DecoderException("Multipart content ended before the close delimiter."));
+            }
+            return Observable.empty();
+        }
+
+        void release() {
+            if (null != cumulation) {
+                cumulation.release();
+                cumulation = null;
+            }
+        }
+
+        private void cumulate(ByteBuf byteBuf) {
+            if (!cumulation.isReadable()) {
+                cumulation.release();
+                cumulation = byteBuf;
+            } else {
+                final ByteBuf leftOver = byteBuf.alloc().buffer(cumulation.readableBytes()).writeBytes(cumulation);
+                cumulation.release();
+                final CompositeByteBuf composite = byteBuf.alloc().compositeBuffer(2);
+                composite.addComponent(true, leftOver);
+                composite.addComponent(true, byteBuf);
+                cumulation = composite;
+            }
+        }
+
+        /**
+         * Emits content till the next delimiter and moves past the delimiter line, if found.
+         *
+         * @return {@code true} if the delimiter line was consumed.
+         */
+        private boolean decodeBody(List<MultipartChunk> out) {
+            final int start = cumulation.readerIndex();
+            final int writerIndex = cumulation.writerIndex();
+            final int index = indexOfDelimiter();
+            if (index < 0) {
+                /*Anything that can not be the start of a delimiter is content.*/
+                final int safeLength = cumulation.readableBytes() - (delimiter.length - 1);
+                if (safeLength > 0) {
+                    emitContent(out, safeLength, false);
+                }
+                return false;
+            }
+
+            final int afterDelimiter = index + delimiter.length;
+            if (writerIndex - afterDelimiter < 2) {
+                emitContent(out, index - start, false);
+                return false;
+            }
+
+            final boolean close = '-' == cumulation.getByte(afterDelimiter)
+                                  && '-' == cumulation.getByte(afterDelimiter + 1);
+            int nextIndex = writerIndex;
+            if (!close) {
+                /*Delimiter may be followed by linear whitespace before the CRLF: RFC 2046, section 5.1.1*/
+                int crlf = afterDelimiter;
+                while (crlf < writerIndex && isLinearWhitespace(cumulation.getByte(crlf))) {
+                    crlf++;
+                }
+                if (writerIndex - crlf < 2) {
+                    emitContent(out, index - start, false);
+                    return false;
+                }
+                if ('\r' != cumulation.getByte(crlf) || '\n' != cumulation.getByte(crlf + 1)) {
+                    throw new DecoderException("Invalid multipart delimiter line, expected CRLF after the boundary.");
+                }
+                nextIndex = crlf + 2;
+            }
+
+            emitContent(out, index - start, true);
+            cumulation.readerIndex(nextIndex);
+            state = close ? State.Epilogue : State.Headers;
+            return true;
+        }
+
+        /**
+         * Parses part headers, one line at a time.
+         *
+         * @return {@code true} if all headers of the part were consumed.
+         */
+        private boolean decodeHeaders() {
+            if (null == pendingHeaders) {
+                pendingHeaders = new DefaultHttpHeaders(false);
+            }
+
+            for (;;) {
+                final int readerIndex = cumulation.readerIndex();
+                final int endOfLine = indexOfCrlf();
+                if (endOfLine < 0) {
+                    if (headerSize + cumulation.readableBytes() > maxHeaderSize) {
+                        throw newHeadersTooLong();
+                    }
+                    return false;
+                }
+
+                final int lineLength = endOfLine - readerIndex;
+                headerSize += lineLength + 2;
+                if (headerSize > maxHeaderSize) {
+                    throw newHeadersTooLong();
+                }
+
+                if (0 == lineLength) {
+                    cumulation.skipBytes(2);
+                    part = new MultipartPart(pendingHeaders);
+                    pendingHeaders = null;
+                    headerSize = 0;
+                    state = State.Body;
+                    return true;
+                }
+
+                /*Field names and file names may be UTF-8 encoded: RFC 7578, section 5.1*/
+                final String line = cumulation.toString(readerIndex, lineLength, CharsetUtil.UTF_8);
+                cumulation.skipBytes(lineLength + 2);
+                final int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    throw new DecoderException("Invalid multipart part header: " + line);
+                }
+                pendingHeaders.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+
+        private void emitContent(List<MultipartChunk> out, int length, boolean last) {
+            if (State.Preamble == state) {
+                cumulation.skipBytes(length);
+                return;
+            }
+
+            if (0 == length && !last) {
+                return;
+            }
+
+            final ByteBuf content = 0 == length ? Unpooled.EMPTY_BUFFER : cumulation.readRetainedSlice(length);
+            out.add(new MultipartChunk(part, content, last));
+            if (last) {
+                part = null;
+            }
+        }
+
+        private int indexOfDelimiter() {
+            final int lastStart = cumulation.writerIndex() - delimiter.length;
+            int index = cumulation.readerIndex();
+            while (index <= lastStart) {
+                index = cumulation.indexOf(index, lastStart + 1, delimiter[0]);
+                if (index < 0) {
+                    return -1;
+                }
+                if (matchesDelimiter(index)) {
+                    return index;
+                }
+                index++;
+            }
+            return -1;
+        }
+
+        private boolean matchesDelimiter(int index) {
+            for (int i = 1; i < delimiter.length; i++) {
+                if (delimiter[i] != cumulation.getByte(index + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int indexOfCrlf() {
+            int index = cumulation.readerIndex();
+            final int writerIndex = cumulation.writerIndex();
+            while (index < writerIndex - 1) {
+                index = cumulation.indexOf(index, writerIndex - 1, (byte) '\r');
+                if (index < 0) {
+                    return -1;
+                }
+                if ('\n' == cumulation.getByte(index + 1)) {
+                    return index;
+                }
+                index++;
+            }
+            return -1;
+        }
+
+        private TooLongFrameException newHeadersTooLong() {
+            return new TooLongFrameException("Multipart part headers are larger than " + maxHeaderSize + " bytes.");
+        }
+    }
+
+    private static boolean isLinearWhitespace(byte b) {
+        return ' ' == b || '\t' == b;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.multipart;
+
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Set;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+
+/**
+ * Headers of a single part of a {@code multipart/form-data} content, as decoded by {@link MultipartDecoder}. The same
+ * instance is shared by all {@link MultipartChunk chunks} of a part.
+ */
+public final class MultipartPart {
+
+    private final HttpHeaders headers;
+    private final String name;
+    private final String fileName;
+
+    MultipartPart(HttpHeaders headers) {
+        this.headers = headers;
+        final String disposition = headers.get(CONTENT_DISPOSITION);
+        if (null != disposition) {
+            name = MultipartDecoder.parameter(disposition, "name");
+            fileName = MultipartDecoder.parameter(disposition, "filename");
+        } else {
+            name = null;
+            fileName = null;
+        }
+    }
+
+    /**
+     * Returns the form field name of this part, from the {@code Content-Disposition} header.
+     *
+     * @return The form field name of this part, {@code null} if not present.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the file name of this part, from the {@code Content-Disposition} header.
+     *
+     * @return The file name of this part, {@code null} if this part is not a file upload.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Checks whether this part is a file upload, i.e. the {@code Content-Disposition} header has a file name.
+     *
+     * @return {@code true} if this part is a file upload.
+     */
+    public boolean isFile() {
+        return null != fileName;
+    }
+
+    /**
+     * Returns the {@code Content-Type} header of this part.
+     *
+     * @return The {@code Content-Type} header of this part, {@code null} if not present.
+     */
+    public String getContentType() {
+        return headers.get(CONTENT_TYPE);
+    }
+
+    /**
+     * Returns the value of a header with the specified name. If there are more than one values for the specified name,
+     * the first value is returned.
+     *
+     * @param name The name of the header to search.
+     *
+     * @return The first header value or {@code null} if there is no such header.
+     */
+    public String getHeader(CharSequence name) {
+        return headers.get(name);
+    }
+
+    /**
+     * Returns the values of headers with the specified name.
+     *
+     * @param name The name of the headers to search.
+     *
+     * @return A {@link List} of header values which will be empty if no values are found.
+     */
+    public List<String> getAllHeaderValues(CharSequence name) {
+        return headers.getAll(name);
+    }
+
+    /**
+     * Returns the names of all headers of this part.
+     *
+     * @return The names of all headers of this part.
+     */
+    public Set<String> getHeaderNames() {
+        return headers.names();
+    }
+
+    @Override
+    public String toString() {
+        return "MultipartPart{name='" + name + "', fileName='" + fileName + "', headers=" + headers + '}';
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.util;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+
+/**
+ * Utility methods to read {@code Cache-Control} headers (RFC 7234) shared by the server and client caches.
+ */
+public final class CacheControl {
+
+    private CacheControl() {
+    }
+
+    /**
+     * Returns whether the passed {@code Cache-Control} header value contains the passed directive. Directive names are
+     * matched case-insensitively.
+     *
+     * @param cacheControl Value of the {@code Cache-Control} header, can be {@code null}.
+     * @param directive Name of the directive.
+     *
+     * @return {@code true} if the directive is present.
+     */
+    public static boolean hasDirective(String cacheControl, String directive) {
+        return directiveIndex(cacheControl, directive) >= 0;
+    }
+
+    /**
+     * Returns the value, in seconds, of the passed directive.
+     *
+     * @param cacheControl Value of the {@code Cache-Control} header, can be {@code null}.
+     * @param directive Name of the directive.
+     *
+     * @return The value of the directive, {@code -1} if the directive is absent or does not have a valid value.
+     */
+    public static long directiveSeconds(String cacheControl, String directive) {
+        final int index = directiveIndex(cacheControl, directive);
+        if (index < 0) {
+            return -1;
+        }
+        int start = index + directive.length();
+        if (start >= cacheControl.length() || '=' != cacheControl.charAt(start)) {
+            return -1;
+        }
+        start++;
+        if (start < cacheControl.length() && '"' == cacheControl.charAt(start)) {
+            start++;
+        }
+        int end = start;
+        while (end < cacheControl.length() && Character.isDigit(cacheControl.charAt(end))) {
+            end++;
+        }
+        if (end == start) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(cacheControl.substring(start, end));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE; // Too large, RFC 7234, section 1.2.1
+        }
+    }
+
+    /**
+     * Returns whether a response with the passed status is cacheable by default (RFC 7231, section 6.1).
+     *
+     * @param status Status of the response.
+     *
+     * @return {@code true} if the status is cacheable by default.
+     */
+    public static boolean isCacheableByDefault(HttpResponseStatus status) {
+        return OK.equals(status) || NON_AUTHORITATIVE_INFORMATION.equals(status) || NO_CONTENT.equals(status)
+               || MULTIPLE_CHOICES.equals(status) || MOVED_PERMANENTLY.equals(status) || NOT_FOUND.equals(status)
+               || METHOD_NOT_ALLOWED.equals(status) || GONE.equals(status) || REQUEST_URI_TOO_LONG.equals(status)
+               || NOT_IMPLEMENTED.equals(status);
+    }
+
+    private static int directiveIndex(String cacheControl, String directive) {
+        if (null == cacheControl) {
+            return -1;
+        }
+        final int length = directive.length();
+        int index = 0;
+        while ((index = indexOfIgnoreCase(cacheControl, directive, index)) >= 0) {
+            final boolean startsToken = 0 == index || ',' == cacheControl.charAt(index - 1)
+                                        || ' ' == cacheControl.charAt(index - 1);
+            final int end = index + length;
+            final boolean endsToken = end == cacheControl.length() || '=' == cacheControl.charAt(end)
+                                      || ',' == cacheControl.charAt(end) || ' ' == cacheControl.charAt(end);
+            if (startsToken && endsToken) {
+                return index;
+            }
+            index = end;
+        }
+        return -1;
+    }
+
+    private static int indexOfIgnoreCase(String value, String toFind, int fromIndex) {
+        for (int i = fromIndex; i <= value.length() - toFind.length(); i++) {
+            if (value.regionMatches(true, i, toFind, 0, toFind.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.client.Host;
+import io.reactivex.netty.client.pool.PoolConfig;
+import io.reactivex.netty.client.pool.SingleHostPoolingProviderFactory;
+import io.reactivex.netty.protocol.http.server.HttpServer;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class HttpClientPipeliningTest {
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final PublishSubject<String> streamEnd = PublishSubject.create();
+    private HttpServer<ByteBuf, ByteBuf> server;
+    private HttpClient<ByteBuf, ByteBuf> client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.newServer()
+                           .addChannelHandlerFirst("connection-counter", new Func0<ChannelHandler>() {
+                               @Override
+                               public ChannelHandler call() {
+                                   return new ChannelInboundHandlerAdapter() {
+                                       @Override
+                                       public void channelActive(ChannelHandlerContext ctx) throws Exception {
+                                           connectionCount.incrementAndGet();
+                                           super.channelActive(ctx);
+                                       }
+                                   };
+                               }
+                           })
+                           .start(new RequestHandler<ByteBuf, ByteBuf>() {
+                               @Override
+                               public Observable<Void> handle(HttpServerRequest<ByteBuf> request,
+                                                              HttpServerResponse<ByteBuf> response) {
+                                   if ("/stream".equals(request.getUri())) {
+                                       return response.writeStringAndFlushOnEach(Observable.just("stream")
+                                                                                           .concatWith(streamEnd));
+                                   }
+                                   /*Echo the URI, to correlate the response with the request.*/
+                                   return response.writeString(Observable.just(request.getUri()));
+                               }
+                           });
+
+        client = HttpClient.newClient(SingleHostPoolingProviderFactory.create(new PoolConfig<ByteBuf, ByteBuf>()),
+                                      Observable.just(new Host(server.getServerAddress())))
+                           .pipelining(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test(timeout = 60000)
+    public void testPipelinedRequests() throws Exception {
+        List<Observable<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(sendRequest(client.createGet("/" + i)));
+        }
+
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        Observable.merge(requests).subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+
+        assertThat("Unexpected responses.", subscriber.getOnNextEvents(),
+                   containsInAnyOrder("/0", "/1", "/2", "/3", "/4", "/5", "/6", "/7"));
+        assertThat("Unexpected number of connections.", connectionCount.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testRequestPendingTillContentReceived() throws Exception {
+        client = client.pipelining(2);
+
+        TestSubscriber<String> streamSubscriber = new TestSubscriber<>();
+        sendRequest(client.createGet("/stream")).subscribe(streamSubscriber);
+        while (streamSubscriber.getOnNextEvents().isEmpty()) {
+            /*Response headers and the first chunk are received, but not the entire content.*/
+            Thread.sleep(10);
+        }
+
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        Observable.merge(sendRequest(client.createGet("/a")), sendRequest(client.createGet("/b")))
+                  .subscribe(subscriber);
+        streamEnd.onCompleted();
+
+        streamSubscriber.awaitTerminalEvent();
+        streamSubscriber.assertNoErrors();
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+
+        assertThat("Unexpected responses.", subscriber.getOnNextEvents(), containsInAnyOrder("/a", "/b"));
+        assertThat("Unexpected number of connections.", connectionCount.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testRequestWithContentNotPipelined() throws Exception {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        Observable.merge(sendRequest(client.createGet("/get")),
+                         sendRequest(client.createPost("/post").writeStringContent(Observable.just("Hello"))))
+                  .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+
+        assertThat("Unexpected responses.", subscriber.getOnNextEvents(), containsInAnyOrder("/get", "/post"));
+        assertThat("Unexpected number of connections.", connectionCount.get(), is(2));
+    }
+
+    private static Observable<String> sendRequest(Observable<HttpClientResponse<ByteBuf>> request) {
+        return request.flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<String>>() {
+            @Override
+            public Observable<String> call(HttpClientResponse<ByteBuf> response) {
+                return response.getContent()
+                               .map(new Func1<ByteBuf, String>() {
+                                   @Override
+                                   public String call(ByteBuf byteBuf) {
+                                       return byteBuf.toString(CharsetUtil.UTF_8);
+                                   }
+                               });
+            }
+        });
+    }
+}
@@ -18,6 +18,8 @@
 package io.reactivex.netty.protocol.http.client;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -39,6 +41,7 @@ import rx.Observable;
 import rx.functions.Func0;
 import rx.observers.TestSubscriber;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.*;
@@ -210,6 +213,62 @@ public class HttpClientTest {
                    is(instanceOf(ReadTimeoutException.class)));
     }
 
+    @Test(timeout = 60000)
+    public void testDeadlineExceeded() throws Exception {
+
+        startServerThatNeverReplies();
+
+        HttpClientRequest<ByteBuf, ByteBuf> request = HttpClient.newClient(serverRule.getServerAddress())
+                                                                .createGet("/")
+                                                                .deadline(500, TimeUnit.MILLISECONDS);
+
+        TestSubscriber<Void> testSubscriber = clientRule.sendRequestAndDiscardResponseContent(request);
+
+        testSubscriber.awaitTerminalEvent();
+
+        assertThat("On complete invoked, instead of error.", testSubscriber.getOnCompletedEvents(), is(empty()));
+        assertThat("Unexpected onError count.", testSubscriber.getOnErrorEvents(), hasSize(1));
+        assertThat("Unexpected exception.", testSubscriber.getOnErrorEvents().get(0),
+                   is(instanceOf(DeadlineExceededException.class)));
+    }
+
+    @Test(timeout = 60000)
+    public void testDeadlineExceededDuringRedirect() throws Exception {
+
+        final CountDownLatch redirectedConnClosed = new CountDownLatch(1);
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                if ("/".equals(request.getDecodedPath())) {
+                    return response.setStatus(HttpResponseStatus.FOUND)
+                                   .setHeader(HttpHeaderNames.LOCATION, "/slow");
+                }
+                response.unsafeNettyChannel().closeFuture().addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) {
+                        redirectedConnClosed.countDown();
+                    }
+                });
+                return Observable.never();
+            }
+        });
+
+        HttpClientRequest<ByteBuf, ByteBuf> request = HttpClient.newClient(serverRule.getServerAddress())
+                                                                .createGet("/")
+                                                                .followRedirects(1)
+                                                                .deadline(500, TimeUnit.MILLISECONDS);
+
+        TestSubscriber<Void> testSubscriber = clientRule.sendRequestAndDiscardResponseContent(request);
+
+        testSubscriber.awaitTerminalEvent();
+
+        assertThat("Unexpected onError count.", testSubscriber.getOnErrorEvents(), hasSize(1));
+        assertThat("Unexpected exception.", testSubscriber.getOnErrorEvents().get(0),
+                   is(instanceOf(DeadlineExceededException.class)));
+        assertThat("Connection of the redirect not closed.", redirectedConnClosed.await(1, TimeUnit.MINUTES),
+                   is(true));
+    }
+
     @Test(timeout = 60000)
     public void testRequestWithNoContentLengthHeaderOrContentReturnsEmptyBody() {
         clientRule.sendRequest(clientRule.getHttpClient().createGet("/"));
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.client.Host;
+import io.reactivex.netty.client.pool.SingleHostPoolingProviderFactory;
+import io.reactivex.netty.client.proxy.HttpConnectTunnel;
+import io.reactivex.netty.client.proxy.ProxyConnectException;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.HttpServerRule;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class HttpConnectTunnelTest {
+
+    private static final String PROXY_AUTHORIZATION = "Basic dXNlcjpzZWNyZXQ="; // user:secret
+
+    @Rule
+    public final HttpServerRule serverRule = new HttpServerRule();
+
+    private ConnectProxy proxy;
+    private int serverPort;
+
+    @Before
+    public void setUp() throws Exception {
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                return response.writeString(Observable.just(request.getHeader(HOST)));
+            }
+        });
+        serverPort = ((InetSocketAddress) serverRule.getServerAddress()).getPort();
+        proxy = new ConnectProxy();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        proxy.close();
+    }
+
+    @Test(timeout = 60000)
+    public void testRequestThroughTunnel() throws Exception {
+        HttpClient<ByteBuf, ByteBuf> client = newClient(HttpConnectTunnel.to("127.0.0.1", serverPort));
+
+        TestSubscriber<String> subscriber = sendRequest(client);
+
+        subscriber.assertNoErrors();
+        assertThat("Unexpected host header.", subscriber.getOnNextEvents(), contains("127.0.0.1:" + serverPort));
+        assertThat("Unexpected CONNECT count.", proxy.connectCount.get(), is(1));
+        assertThat("Unexpected CONNECT target.", proxy.lastTarget, equalTo("127.0.0.1:" + serverPort));
+    }
+
+    @Test(timeout = 60000)
+    public void testTunnelReusedFromPool() throws Exception {
+        HttpClient<ByteBuf, ByteBuf> client = newClient(HttpConnectTunnel.to("127.0.0.1", serverPort));
+
+        sendRequest(client).assertNoErrors();
+        Thread.sleep(100); // Give the connection some time to be released to the pool.
+        sendRequest(client).assertNoErrors();
+
+        assertThat("Tunnel not reused.", proxy.connectCount.get(), is(1));
+    }
+
+    @Test(timeout = 60000)
+    public void testProxyAuthentication() throws Exception {
+        proxy.requiredAuthorization = PROXY_AUTHORIZATION;
+
+        TestSubscriber<String> unauthenticated = sendRequest(newClient(HttpConnectTunnel.to("127.0.0.1",
+                                                                                            serverPort)));
+        unauthenticated.assertError(ProxyConnectException.class);
+        ProxyConnectException error = (ProxyConnectException) unauthenticated.getOnErrorEvents().get(0);
+        assertThat("Unexpected proxy status.", error.getStatusCode(), is(407));
+
+        HttpConnectTunnel tunnel = HttpConnectTunnel.to("127.0.0.1", serverPort).proxyCredentials("user", "secret");
+        TestSubscriber<String> authenticated = sendRequest(newClient(tunnel));
+        authenticated.assertNoErrors();
+        assertThat("Unexpected host header.", authenticated.getOnNextEvents(), contains("127.0.0.1:" + serverPort));
+    }
+
+    private HttpClient<ByteBuf, ByteBuf> newClient(HttpConnectTunnel tunnel) {
+        return HttpClient.newClient(SingleHostPoolingProviderFactory.<ByteBuf, ByteBuf>createUnbounded(),
+                                    Observable.just(new Host(proxy.getAddress())))
+                         .channelProvider(tunnel);
+    }
+
+    private static TestSubscriber<String> sendRequest(HttpClient<ByteBuf, ByteBuf> client) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        client.createGet("/")
+              .flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<String>>() {
+                  @Override
+                  public Observable<String> call(HttpClientResponse<ByteBuf> response) {
+                      return response.getContent()
+                                     .map(new Func1<ByteBuf, String>() {
+                                         @Override
+                                         public String call(ByteBuf byteBuf) {
+                                             return byteBuf.toString(CharsetUtil.UTF_8);
+                                         }
+                                     });
+                  }
+              })
+              .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        return subscriber;
+    }
+
+    /**
+     * A minimal blocking HTTP proxy, supporting only {@code CONNECT}.
+     */
+    private static final class ConnectProxy implements Runnable {
+
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connectCount = new AtomicInteger();
+        private volatile String requiredAuthorization;
+        private volatile String lastTarget;
+
+        private ConnectProxy() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(this, "connect-proxy-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private InetSocketAddress getAddress() {
+            return new InetSocketAddress("127.0.0.1", serverSocket.getLocalPort());
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket client = serverSocket.accept();
+                    startDaemon(new Runnable() {
+                        @Override
+                        public void run() {
+                            handle(client);
+                        }
+                    });
+                } catch (IOException e) {
+                    // Closed.
+                }
+            }
+        }
+
+        private void handle(Socket client) {
+            try {
+                final String[] head = readHead(client.getInputStream()).split("\r\n");
+                final String[] requestLine = head[0].split(" ");
+                String authorization = null;
+                for (int i = 1; i < head.length; i++) {
+                    if (head[i].toLowerCase().startsWith("proxy-authorization:")) {
+                        authorization = head[i].substring(head[i].indexOf(':') + 1).trim();
+                    }
+                }
+
+                final OutputStream out = client.getOutputStream();
+                if (!"CONNECT".equals(requestLine[0])) {
+                    respondAndClose(client, "HTTP/1.1 405 Method Not Allowed\r\nContent-Length: 0\r\n\r\n");
+                    return;
+                }
+                if (null != requiredAuthorization && !requiredAuthorization.equals(authorization)) {
+                    respondAndClose(client, "HTTP/1.1 407 Proxy Authentication Required\r\n"
+                                            + "Proxy-Authenticate: Basic\r\nContent-Length: 0\r\n\r\n");
+                    return;
+                }
+
+                connectCount.incrementAndGet();
+                lastTarget = requestLine[1];
+                final String[] target = requestLine[1].split(":");
+                final Socket upstream = new Socket(target[0], Integer.parseInt(target[1]));
+                out.write("HTTP/1.1 200 Connection established\r\n\r\n".getBytes(CharsetUtil.US_ASCII));
+                out.flush();
+                startDaemon(pump(upstream, client));
+                pump(client, upstream).run();
+            } catch (IOException e) {
+                closeQuietly(client);
+            }
+        }
+
+        private static String readHead(InputStream in) throws IOException {
+            final ByteArrayOutputStream head = new ByteArrayOutputStream();
+            int matched = 0;
+            while (matched < 4) {
+                final int b = in.read();
+                if (b < 0) {
+                    throw new IOException("Connection closed before the request head was read.");
+                }
+                head.write(b);
+                matched = (b == '\r' && matched % 2 == 0) || (b == '\n' && matched % 2 == 1) ? matched + 1 : 0;
+            }
+            return head.toString("US-ASCII");
+        }
+
+        private static Runnable pump(final Socket from, final Socket to) {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    final byte[] buffer = new byte[4096];
+                    try {
+                        int read;
+                        while ((read = from.getInputStream().read(buffer)) >= 0) {
+                            to.getOutputStream().write(buffer, 0, read);
+                            to.getOutputStream().flush();
+                        }
+                    } catch (IOException e) {
+                        // Connection closed.
+                    } finally {
+                        closeQuietly(from);
+                        closeQuietly(to);
+                    }
+                }
+            };
+        }
+
+        private static void respondAndClose(Socket client, String response) throws IOException {
+            client.getOutputStream().write(response.getBytes(CharsetUtil.US_ASCII));
+            client.getOutputStream().flush();
+            client.close();
+        }
+
+        private static void startDaemon(Runnable runnable) {
+            Thread thread = new Thread(runnable, "connect-proxy-worker");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private static void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignore.
+            }
+        }
+
+        private void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
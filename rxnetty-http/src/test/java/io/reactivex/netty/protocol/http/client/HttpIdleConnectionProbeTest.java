@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpMethod;
+import io.reactivex.netty.client.Host;
+import io.reactivex.netty.client.pool.PoolConfig;
+import io.reactivex.netty.client.pool.SingleHostPoolingProviderFactory;
+import io.reactivex.netty.protocol.http.server.HttpServer;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class HttpIdleConnectionProbeTest {
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger probeCount = new AtomicInteger();
+    private HttpServer<ByteBuf, ByteBuf> server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.newServer()
+                           .addChannelHandlerFirst("connection-counter", new Func0<ChannelHandler>() {
+                               @Override
+                               public ChannelHandler call() {
+                                   return new ChannelInboundHandlerAdapter() {
+                                       @Override
+                                       public void channelActive(ChannelHandlerContext ctx) throws Exception {
+                                           connectionCount.incrementAndGet();
+                                           super.channelActive(ctx);
+                                       }
+                                   };
+                               }
+                           })
+                           .start(new RequestHandler<ByteBuf, ByteBuf>() {
+                               @Override
+                               public Observable<Void> handle(HttpServerRequest<ByteBuf> request,
+                                                              HttpServerResponse<ByteBuf> response) {
+                                   if (HttpMethod.OPTIONS.equals(request.getHttpMethod())) {
+                                       probeCount.incrementAndGet();
+                                   }
+                                   return response.setHeader(CONTENT_LENGTH, 0);
+                               }
+                           });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test(timeout = 60000)
+    public void testIdleConnectionProbed() throws Exception {
+        PoolConfig<ByteBuf, ByteBuf> config = new PoolConfig<ByteBuf, ByteBuf>()
+                .idleConnectionsCleanupTimer(Observable.timer(100, TimeUnit.MILLISECONDS)) /*Probe once.*/
+                .idleConnectionValidator(HttpIdleConnectionProbe.options());
+        HttpClient<ByteBuf, ByteBuf> client =
+                HttpClient.newClient(SingleHostPoolingProviderFactory.create(config),
+                                     Observable.just(new Host(server.getServerAddress())));
+
+        sendRequest(client);
+
+        while (probeCount.get() == 0) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(100); // Give the connection some time to be returned to the pool.
+
+        sendRequest(client);
+
+        assertThat("Probed connection not reused.", connectionCount.get(), is(1));
+    }
+
+    private static void sendRequest(HttpClient<ByteBuf, ByteBuf> client) {
+        TestSubscriber<Void> subscriber = new TestSubscriber<>();
+        client.createGet("/")
+              .flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<Void>>() {
+                  @Override
+                  public Observable<Void> call(HttpClientResponse<ByteBuf> response) {
+                      return response.discardContent();
+                  }
+              })
+              .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.client.dns.DnsResolver;
+import io.reactivex.netty.client.dns.DnsResolverConfig;
+import io.reactivex.netty.client.dns.DnsServerRule;
+import io.reactivex.netty.protocol.http.server.HttpServer;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import javax.net.ssl.SSLEngine;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class MultiOriginHttpClientTest {
+
+    @Rule
+    public final DnsServerRule dnsServer = new DnsServerRule();
+
+    private HttpServer<ByteBuf, ByteBuf> redirectingServer;
+    private HttpServer<ByteBuf, ByteBuf> targetServer;
+    private MultiOriginHttpClient<ByteBuf, ByteBuf> client;
+
+    @Before
+    public void setUp() throws Exception {
+        targetServer = HttpServer.newServer().start(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                String content = request.containsHeader(HttpHeaderNames.AUTHORIZATION) ? "credentials" : "target";
+                return response.writeString(Observable.just(content));
+            }
+        });
+        final String targetUri = "http://127.0.0.1:" + targetServer.getServerPort() + "/target";
+        redirectingServer = HttpServer.newServer().start(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                return response.setStatus(HttpResponseStatus.FOUND)
+                               .setHeader(HttpHeaderNames.LOCATION, targetUri);
+            }
+        });
+        client = MultiOriginHttpClient.newClient(1, TimeUnit.MINUTES);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.shutdown();
+        redirectingServer.shutdown();
+        targetServer.shutdown();
+    }
+
+    @Test(timeout = 60000)
+    public void testCrossOriginRedirect() throws Exception {
+        String content = sendAndGetContent(client.createGet(redirectingUri()));
+
+        assertThat("Unexpected content.", content, equalTo("target"));
+        assertThat("Unexpected origin count.", client.getOriginCount(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testCredentialsNotSentToOtherOrigin() throws Exception {
+        String content = sendAndGetContent(client.createGet(redirectingUri())
+                                                 .setHeader(HttpHeaderNames.AUTHORIZATION, "Basic Zm9vOmJhcg=="));
+
+        assertThat("Credentials sent to another origin.", content, equalTo("target"));
+    }
+
+    @Test(timeout = 60000)
+    public void testClientReusedForOrigin() throws Exception {
+        HttpClient<ByteBuf, ByteBuf> first = client.getClient(redirectingUri());
+        HttpClient<ByteBuf, ByteBuf> second = client.getClient(redirectingUri() + "other?query");
+
+        assertThat("Client not reused for the same origin.", second, is(sameInstance(first)));
+    }
+
+    @Test(timeout = 60000)
+    public void testIdleOriginEvicted() throws Exception {
+        MultiOriginHttpClient<ByteBuf, ByteBuf> evictingClient = MultiOriginHttpClient.newClient(0, TimeUnit.MILLISECONDS);
+        evictingClient.getClient(redirectingUri());
+        assertThat("Unexpected origin count.", evictingClient.getOriginCount(), is(1));
+
+        evictingClient.evictIdleOrigins();
+
+        assertThat("Idle origin not evicted.", evictingClient.getOriginCount(), is(0));
+    }
+
+    @Test(timeout = 60000, expected = IllegalArgumentException.class)
+    public void testRelativeUriRejected() throws Exception {
+        client.createGet("/relative");
+    }
+
+    @Test(timeout = 60000)
+    public void testCertificateForWrongHostRejected() throws Exception {
+        /*Trusted by the client, but issued for a host other than the origin host.*/
+        SelfSignedCertificate certificate = new SelfSignedCertificate("example.com");
+        HttpServer<ByteBuf, ByteBuf> secureServer = startSecureServer(certificate);
+        MultiOriginHttpClient<ByteBuf, ByteBuf> secureClient = newSecureClient(certificate);
+        try {
+            TestSubscriber<HttpClientResponse<ByteBuf>> subscriber = new TestSubscriber<>();
+            secureClient.createGet("https://localhost:" + secureServer.getServerPort() + '/').subscribe(subscriber);
+
+            subscriber.awaitTerminalEvent();
+
+            assertThat("Certificate for a different host accepted.", subscriber.getOnErrorEvents(), hasSize(1));
+        } finally {
+            secureClient.shutdown();
+            secureServer.shutdown();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testCertificateForOriginHostAccepted() throws Exception {
+        SelfSignedCertificate certificate = new SelfSignedCertificate("localhost");
+        HttpServer<ByteBuf, ByteBuf> secureServer = startSecureServer(certificate);
+        MultiOriginHttpClient<ByteBuf, ByteBuf> secureClient = newSecureClient(certificate);
+        try {
+            String content = sendAndGetContent(secureClient.createGet("https://localhost:"
+                                                                      + secureServer.getServerPort() + '/'));
+
+            assertThat("Unexpected content.", content, equalTo("secure"));
+        } finally {
+            secureClient.shutdown();
+            secureServer.shutdown();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testRedirectTargetReResolved() throws Exception {
+        HttpServer<ByteBuf, ByteBuf> first = startServer(new InetSocketAddress("127.0.0.1", 0), "first");
+        HttpServer<ByteBuf, ByteBuf> second = startServer(new InetSocketAddress("127.0.0.2", first.getServerPort()),
+                                                           "second");
+        final String targetUri = "http://target.test:" + first.getServerPort() + '/';
+        HttpServer<ByteBuf, ByteBuf> redirecting = HttpServer.newServer().start(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                return response.setStatus(HttpResponseStatus.FOUND)
+                               .setHeader(HttpHeaderNames.LOCATION, targetUri);
+            }
+        });
+        dnsServer.setTtl(1).setRecords("target.test", "127.0.0.1");
+        DnsResolver resolver = DnsResolver.create(new DnsResolverConfig().nameServer(dnsServer.getAddress())
+                                                                         .resolveIpv6(false));
+        MultiOriginHttpClient<ByteBuf, ByteBuf> resolvingClient = MultiOriginHttpClient.newClient(resolver, 1,
+                                                                                                  TimeUnit.MINUTES);
+        try {
+            final String redirectingUri = "http://127.0.0.1:" + redirecting.getServerPort() + '/';
+            assertThat("Unexpected content.", sendAndGetContent(resolvingClient.createGet(redirectingUri)),
+                       equalTo("first"));
+
+            dnsServer.setRecords("target.test", "127.0.0.2");
+            String content;
+            do { // Wait for the resolver to re-resolve the host, after the time to live expires.
+                Thread.sleep(100);
+                content = sendAndGetContent(resolvingClient.createGet(redirectingUri));
+            } while ("first".equals(content));
+
+            assertThat("Unexpected content after the address of the host changed.", content, equalTo("second"));
+            assertThat("Unexpected origin count.", resolvingClient.getOriginCount(), is(2));
+        } finally {
+            resolvingClient.shutdown();
+            resolver.close();
+            redirecting.shutdown();
+            second.shutdown();
+            first.shutdown();
+        }
+    }
+
+    private static HttpServer<ByteBuf, ByteBuf> startServer(SocketAddress address, final String content) {
+        return HttpServer.newServer(address).start(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                return response.writeString(Observable.just(content));
+            }
+        });
+    }
+
+    private static HttpServer<ByteBuf, ByteBuf> startSecureServer(SelfSignedCertificate certificate)
+            throws Exception {
+        final SslContext serverContext = SslContextBuilder.forServer(certificate.certificate(),
+                                                                     certificate.privateKey())
+                                                          .build();
+        return HttpServer.newServer()
+                         .secure(new Func1<ByteBufAllocator, SSLEngine>() {
+                             @Override
+                             public SSLEngine call(ByteBufAllocator allocator) {
+                                 return serverContext.newEngine(allocator);
+                             }
+                         })
+                         .start(new RequestHandler<ByteBuf, ByteBuf>() {
+                             @Override
+                             public Observable<Void> handle(HttpServerRequest<ByteBuf> request,
+                                                            HttpServerResponse<ByteBuf> response) {
+                                 return response.writeString(Observable.just("secure"));
+                             }
+                         });
+    }
+
+    private static MultiOriginHttpClient<ByteBuf, ByteBuf> newSecureClient(SelfSignedCertificate certificate)
+            throws Exception {
+        SslContext clientContext = SslContextBuilder.forClient()
+                                                    .trustManager(certificate.certificate())
+                                                    .build();
+        return MultiOriginHttpClient.newClient(clientContext, 1, TimeUnit.MINUTES);
+    }
+
+    private String redirectingUri() {
+        return "http://127.0.0.1:" + redirectingServer.getServerPort() + '/';
+    }
+
+    private static String sendAndGetContent(Observable<HttpClientResponse<ByteBuf>> request) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        request.flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<String>>() {
+            @Override
+            public Observable<String> call(HttpClientResponse<ByteBuf> response) {
+                return response.getContent()
+                               .map(new Func1<ByteBuf, String>() {
+                                   @Override
+                                   public String call(ByteBuf byteBuf) {
+                                       return byteBuf.toString(CharsetUtil.UTF_8);
+                                   }
+                               });
+            }
+        }).subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        assertThat("Unexpected content chunks.", subscriber.getOnNextEvents(), hasSize(1));
+        return subscriber.getOnNextEvents().get(0);
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.protocol.http.client.HttpClient;
+import io.reactivex.netty.protocol.http.client.HttpClientRequest;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.client.events.HttpClientEventsListener;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.HttpServerRule;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.observers.TestSubscriber;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+import static io.netty.handler.codec.http.HttpVersion.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class HttpClientCacheTest {
+
+    @Rule
+    public final HttpServerRule serverRule = new HttpServerRule();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger handled = new AtomicInteger();
+    private final CacheEventsListener listener = new CacheEventsListener();
+    private HttpClientCache<ByteBuf> cache;
+    private HttpClient<ByteBuf, ByteBuf> client;
+
+    @Before
+    public void setUp() throws Exception {
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                String content = "response " + handled.incrementAndGet();
+                String path = request.getDecodedPath();
+                if (path.startsWith("/etag")) {
+                    if ("\"v1\"".equals(request.getHeader(IF_NONE_MATCH))) {
+                        return response.setStatus(NOT_MODIFIED);
+                    }
+                    response.setHeader(CACHE_CONTROL, "no-cache")
+                            .setHeader(ETAG, "\"v1\"");
+                } else if (path.startsWith("/no-store")) {
+                    response.setHeader(CACHE_CONTROL, "no-store");
+                } else {
+                    response.setHeader(CACHE_CONTROL, "max-age=60");
+                }
+                return response.writeString(Observable.just(content));
+            }
+        });
+        cache = HttpClientCache.inMemory(1024 * 1024);
+        cache.subscribe(listener);
+        client = serverRule.getClient()
+                           .intercept()
+                           .next(cache)
+                           .finish();
+    }
+
+    @Test(timeout = 60000)
+    public void testFreshResponseServedFromCache() throws Exception {
+        assertThat("Unexpected content.", readContent(send(client.createGet("/fresh"))), equalTo("response 1"));
+
+        HttpClientResponse<ByteBuf> cached = send(client.createGet("/fresh"));
+        assertThat("Unexpected content.", readContent(cached), equalTo("response 1"));
+        assertThat("Missing Age header.", cached.containsHeader(AGE), is(true));
+        assertThat("Unexpected content length.", cached.getContentLength(), is((long) "response 1".length()));
+        assertThat("Request sent for a fresh response.", handled.get(), is(1));
+        assertThat("Unexpected misses.", listener.misses.get(), is(1));
+        assertThat("Unexpected hits.", listener.hits.get(), is(1));
+    }
+
+    @Test(timeout = 60000)
+    public void testRevalidation() throws Exception {
+        assertThat("Unexpected content.", readContent(send(client.createGet("/etag"))), equalTo("response 1"));
+
+        HttpClientResponse<ByteBuf> revalidated = send(client.createGet("/etag"));
+        assertThat("Unexpected status.", revalidated.getStatus(), is(OK));
+        assertThat("Unexpected content.", readContent(revalidated), equalTo("response 1"));
+        assertThat("Conditional request not sent.", handled.get(), is(2));
+        assertThat("Unexpected not modified revalidations.", listener.notModified.get(), is(1));
+    }
+
+    @Test(timeout = 60000)
+    public void testNoStoreResponse() throws Exception {
+        readContent(send(client.createGet("/no-store")));
+
+        assertThat("Unexpected content.", readContent(send(client.createGet("/no-store"))), equalTo("response 2"));
+        assertThat("Unexpected misses.", listener.misses.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testRequestNoCache() throws Exception {
+        readContent(send(client.createGet("/fresh")));
+        HttpClientRequest<ByteBuf, ByteBuf> noCache = client.createGet("/fresh").setHeader(CACHE_CONTROL, "no-cache");
+
+        assertThat("Unexpected content.", readContent(send(noCache)), equalTo("response 2"));
+        assertThat("Unexpected content.", readContent(send(client.createGet("/fresh"))), equalTo("response 2"));
+    }
+
+    @Test(timeout = 60000)
+    public void testUnsafeMethodInvalidates() throws Exception {
+        readContent(send(client.createGet("/fresh")));
+        readContent(send(client.createPost("/fresh")));
+
+        assertThat("Unexpected content.", readContent(send(client.createGet("/fresh"))), equalTo("response 3"));
+    }
+
+    @Test(timeout = 60000)
+    public void testOverflowToMappedFile() throws Exception {
+        MappedFileCacheStorage files = new MappedFileCacheStorage(folder.newFolder("cache"), 1024 * 1024);
+        InMemoryCacheStorage memory = new InMemoryCacheStorage(100, files);
+
+        memory.put("/1", newEntry("first response, evicted to a file"));
+        memory.put("/2", newEntry("second response, evicted the first"));
+        memory.put("/3", newEntry("third response, evicted the second"));
+
+        assertThat("Memory larger than max size.", memory.size(), lessThanOrEqualTo(100L));
+        assertThat("Evicted entry not in the overflow.", files.get("/1"), is(notNullValue()));
+        assertThat("Unexpected content.", memory.get("/1").getContent().toString(CharsetUtil.UTF_8),
+                   equalTo("first response, evicted to a file"));
+
+        memory.remove("/1");
+        assertThat("Entry not removed from the overflow.", files.get("/1"), is(nullValue()));
+    }
+
+    @Test(timeout = 60000)
+    public void testMappedFileWrittenOnWriter() throws Exception {
+        final List<Runnable> writes = new ArrayList<>();
+        MappedFileCacheStorage files = new MappedFileCacheStorage(folder.newFolder("cache"), 1024 * 1024,
+                                                                  new Executor() {
+                                                                      @Override
+                                                                      public void execute(Runnable command) {
+                                                                          writes.add(command);
+                                                                      }
+                                                                  }, 1024);
+
+        files.put("/1", newEntry("written later"));
+
+        assertThat("File written on the calling thread.", files.size(), is(0L));
+        assertThat("Unexpected write count.", writes, hasSize(1));
+        assertThat("Pending entry not served from memory.", files.get("/1").getContent().isDirect(), is(false));
+
+        writes.remove(0).run();
+
+        assertThat("Pending write not accounted.", files.pendingWriteBytes(), is(0L));
+        assertThat("Entry not served from the file.", files.get("/1").getContent().isDirect(), is(true));
+        assertThat("Unexpected content.", files.get("/1").getContent().toString(CharsetUtil.UTF_8),
+                   equalTo("written later"));
+    }
+
+    @Test(timeout = 60000)
+    public void testMappedFileSkipsWhenWriterBehind() throws Exception {
+        MappedFileCacheStorage files = new MappedFileCacheStorage(folder.newFolder("cache"), 1024 * 1024,
+                                                                  new Executor() {
+                                                                      @Override
+                                                                      public void execute(Runnable command) {
+                                                                          // Never written.
+                                                                      }
+                                                                  }, 20);
+
+        files.put("/1", newEntry("first response"));
+        files.put("/2", newEntry("second response"));
+
+        assertThat("Entry waiting to be written not served.", files.get("/1"), is(notNullValue()));
+        assertThat("Entry over the pending write limit cached.", files.get("/2"), is(nullValue()));
+    }
+
+    @Test(timeout = 60000)
+    public void testFreshness() throws Exception {
+        HttpHeaders headers = new DefaultHttpHeaders().set(CACHE_CONTROL, "max-age=10")
+                                                      .set(AGE, 2);
+        CacheEntry entry = new CacheEntry(HTTP_1_1, OK, headers, Unpooled.EMPTY_BUFFER,
+                                          Collections.<String>emptyList(), "", 1000, 2000);
+
+        assertThat("Unexpected age.", entry.currentAgeMillis(5000), is(6000L));
+        assertThat("Unexpected lifetime.", entry.freshnessLifetimeMillis(), is(10000L));
+        assertThat("Fresh entry stale.", entry.isFresh(5000, null), is(true));
+        assertThat("Request max-age not honored.", entry.isFresh(5000, "max-age=5"), is(false));
+        assertThat("Request min-fresh not honored.", entry.isFresh(5000, "min-fresh=5"), is(false));
+        assertThat("Stale entry fresh.", entry.isFresh(10000, null), is(false));
+    }
+
+    private static CacheEntry newEntry(String content) {
+        return new CacheEntry(HTTP_1_1, OK, new DefaultHttpHeaders(),
+                              Unpooled.unreleasableBuffer(Unpooled.copiedBuffer(content, CharsetUtil.UTF_8)),
+                              Collections.<String>emptyList(), "", 0, 0);
+    }
+
+    private static HttpClientResponse<ByteBuf> send(Observable<HttpClientResponse<ByteBuf>> request) {
+        TestSubscriber<HttpClientResponse<ByteBuf>> subscriber = new TestSubscriber<>();
+        request.subscribe(subscriber);
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        return subscriber.getOnNextEvents().get(0);
+    }
+
+    private static String readContent(HttpClientResponse<ByteBuf> response) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        response.getContent()
+                .map(new Func1<ByteBuf, String>() {
+                    @Override
+                    public String call(ByteBuf byteBuf) {
+                        return byteBuf.toString(CharsetUtil.UTF_8);
+                    }
+                })
+                .reduce("", new Func2<String, String, String>() {
+                    @Override
+                    public String call(String s, String s2) {
+                        return s + s2;
+                    }
+                })
+                .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        return subscriber.getOnNextEvents().get(0);
+    }
+
+    private static final class CacheEventsListener extends HttpClientEventsListener {
+
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicInteger misses = new AtomicInteger();
+        private final AtomicInteger notModified = new AtomicInteger();
+
+        @Override
+        public void onCacheHit() {
+            hits.incrementAndGet();
+        }
+
+        @Override
+        public void onCacheMiss() {
+            misses.incrementAndGet();
+        }
+
+        @Override
+        public void onCacheRevalidated(boolean notModified) {
+            if (notModified) {
+                this.notModified.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.coalescing;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.protocol.http.client.HttpClient;
+import io.reactivex.netty.protocol.http.client.HttpClientRequest;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.HttpServerRule;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.observers.TestSubscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class CoalescingInterceptorTest {
+
+    @Rule
+    public final HttpServerRule serverRule = new HttpServerRule();
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(final HttpServerRequest<ByteBuf> request,
+                                           final HttpServerResponse<ByteBuf> response) {
+                final int count = handled.incrementAndGet();
+                /*Delay the response so that concurrent requests are waiting for it.*/
+                return Observable.timer(200, MILLISECONDS)
+                                 .flatMap(new Func1<Long, Observable<Void>>() {
+                                     @Override
+                                     public Observable<Void> call(Long aLong) {
+                                         return response.writeString(Observable.just("response ", count + "",
+                                                                                     request.getUri()));
+                                     }
+                                 });
+            }
+        });
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentRequestsCoalesced() throws Exception {
+        CoalescingInterceptor<ByteBuf> interceptor = new CoalescingInterceptor<>();
+        HttpClient<ByteBuf, ByteBuf> client = newClient(interceptor);
+
+        List<String> contents = readAll(client.createGet("/hot"), client.createGet("/hot"), client.createGet("/hot"));
+
+        assertThat("Unexpected content.", contents, contains("response 1/hot", "response 1/hot", "response 1/hot"));
+        assertThat("Unexpected upstream requests.", handled.get(), is(1));
+        assertThat("Unexpected coalesced count.", interceptor.getCoalescedCount(), is(2L));
+    }
+
+    @Test(timeout = 60000)
+    public void testDifferentUriNotCoalesced() throws Exception {
+        HttpClient<ByteBuf, ByteBuf> client = newClient(new CoalescingInterceptor<ByteBuf>());
+
+        List<String> contents = readAll(client.createGet("/a"), client.createGet("/b"));
+
+        assertThat("Unexpected content.", contents, containsInAnyOrder(startsWith("response "),
+                                                                       startsWith("response ")));
+        assertThat("Unexpected upstream requests.", handled.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testDifferentHeadersNotCoalesced() throws Exception {
+        HttpClient<ByteBuf, ByteBuf> client = newClient(new CoalescingInterceptor<ByteBuf>());
+
+        readAll(client.createGet("/hot").setHeader("X-Variant", "1"),
+                client.createGet("/hot").setHeader("X-Variant", "2"));
+
+        assertThat("Unexpected upstream requests.", handled.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testPostNotCoalesced() throws Exception {
+        HttpClient<ByteBuf, ByteBuf> client = newClient(new CoalescingInterceptor<ByteBuf>());
+
+        readAll(client.createPost("/hot"), client.createPost("/hot"));
+
+        assertThat("Unexpected upstream requests.", handled.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testSequentialRequestsNotCoalesced() throws Exception {
+        HttpClient<ByteBuf, ByteBuf> client = newClient(new CoalescingInterceptor<ByteBuf>());
+
+        readAll(client.createGet("/hot"));
+        List<String> contents = readAll(client.createGet("/hot"));
+
+        assertThat("Unexpected content.", contents, contains("response 2/hot"));
+        assertThat("Unexpected upstream requests.", handled.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testUpstreamCancelledWhenNoRequestWaiting() throws Exception {
+        CoalescingInterceptor<ByteBuf> interceptor = new CoalescingInterceptor<>();
+        HttpClient<ByteBuf, ByteBuf> client = newClient(interceptor);
+
+        TestSubscriber<HttpClientResponse<ByteBuf>> first = new TestSubscriber<>();
+        TestSubscriber<HttpClientResponse<ByteBuf>> second = new TestSubscriber<>();
+        client.createGet("/hot").subscribe(first);
+        client.createGet("/hot").subscribe(second);
+        first.unsubscribe();
+        second.unsubscribe();
+
+        /*Upstream request of the abandoned requests is cancelled, so this does not wait for it.*/
+        List<String> contents = readAll(client.createGet("/hot"));
+
+        assertThat("Unexpected content.", contents, contains(startsWith("response ")));
+        assertThat("Request coalesced with a cancelled upstream request.", interceptor.getCoalescedCount(), is(1L));
+    }
+
+    @Test(timeout = 60000)
+    public void testUnsubscribedRequestNotStarted() throws Exception {
+        CoalescingInterceptor<ByteBuf> interceptor = new CoalescingInterceptor<>();
+        HttpClient<ByteBuf, ByteBuf> client = newClient(interceptor);
+
+        TestSubscriber<HttpClientResponse<ByteBuf>> unsubscribed = new TestSubscriber<>();
+        unsubscribed.unsubscribe();
+        client.createGet("/hot").unsafeSubscribe(unsubscribed);
+
+        List<String> contents = readAll(client.createGet("/hot"));
+
+        assertThat("Unexpected content.", contents, contains("response 1/hot"));
+        assertThat("Unexpected upstream requests.", handled.get(), is(1));
+        assertThat("Request coalesced with a cancelled upstream request.", interceptor.getCoalescedCount(), is(0L));
+    }
+
+    private HttpClient<ByteBuf, ByteBuf> newClient(CoalescingInterceptor<ByteBuf> interceptor) {
+        return serverRule.getClient()
+                         .intercept()
+                         .next(interceptor)
+                         .finish();
+    }
+
+    @SafeVarargs
+    private static List<String> readAll(HttpClientRequest<ByteBuf, ByteBuf>... requests) {
+        List<TestSubscriber<String>> subscribers = new ArrayList<>();
+        /*Subscribe all requests before waiting for any, so that they are in flight concurrently.*/
+        for (HttpClientRequest<ByteBuf, ByteBuf> request : requests) {
+            TestSubscriber<String> subscriber = new TestSubscriber<>();
+            request.flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<String>>() {
+                @Override
+                public Observable<String> call(HttpClientResponse<ByteBuf> response) {
+                    return readContent(response);
+                }
+            }).subscribe(subscriber);
+            subscribers.add(subscriber);
+        }
+
+        List<String> contents = new ArrayList<>();
+        for (TestSubscriber<String> subscriber : subscribers) {
+            subscriber.awaitTerminalEvent();
+            subscriber.assertNoErrors();
+            contents.add(subscriber.getOnNextEvents().get(0));
+        }
+        return contents;
+    }
+
+    private static Observable<String> readContent(HttpClientResponse<ByteBuf> response) {
+        return response.getContent()
+                       .map(new Func1<ByteBuf, String>() {
+                           @Override
+                           public String call(ByteBuf byteBuf) {
+                               try {
+                                   return byteBuf.toString(CharsetUtil.UTF_8);
+                               } finally {
+                                   byteBuf.release();
+                               }
+                           }
+                       })
+                       .reduce(new Func2<String, String, String>() {
+                           @Override
+                           public String call(String s, String s2) {
+                               return s + s2;
+                           }
+                       });
+    }
+}
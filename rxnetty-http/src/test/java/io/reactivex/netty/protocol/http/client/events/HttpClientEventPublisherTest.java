@@ -92,6 +92,35 @@ public class HttpClientEventPublisherTest {
         assertThat("Listener not called with time unit.", rule.listener.getTimeUnit(), is(MILLISECONDS));
     }
 
+    @Test(timeout = 60000)
+    public void testOnResponseContentDecoded() throws Exception {
+        rule.publisher.onResponseContentDecoded(10, 100);
+        rule.listener.assertMethodCalled(HttpEvent.ResContentDecoded);
+
+        assertThat("Listener not called with encoded bytes.", rule.listener.getEncodedBytes(), is(10L));
+        assertThat("Listener not called with decoded bytes.", rule.listener.getDecodedBytes(), is(100L));
+    }
+
+    @Test(timeout = 60000)
+    public void testOnCacheHit() throws Exception {
+        rule.publisher.onCacheHit();
+        rule.listener.assertMethodCalled(HttpEvent.CacheHit);
+    }
+
+    @Test(timeout = 60000)
+    public void testOnCacheMiss() throws Exception {
+        rule.publisher.onCacheMiss();
+        rule.listener.assertMethodCalled(HttpEvent.CacheMiss);
+    }
+
+    @Test(timeout = 60000)
+    public void testOnCacheRevalidated() throws Exception {
+        rule.publisher.onCacheRevalidated(true);
+        rule.listener.assertMethodCalled(HttpEvent.CacheRevalidated);
+
+        assertThat("Listener not called with not modified.", rule.listener.isNotModified(), is(true));
+    }
+
     @Test(timeout = 60000)
     public void testOnResponseFailed() throws Exception {
         final Throwable expected = new NullPointerException();
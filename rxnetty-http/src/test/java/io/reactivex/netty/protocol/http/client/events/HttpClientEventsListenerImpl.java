@@ -29,7 +29,7 @@ public class HttpClientEventsListenerImpl extends HttpClientEventsListener {
 
     public enum HttpEvent {
         ReqSubmitted, ReqWriteStart, ReqWriteSuccess, ReqWriteFailed, ResHeadersReceived, ResContentReceived,
-        ResReceiveComplete, RespFailed, ProcessingComplete
+        ResReceiveComplete, RespFailed, ProcessingComplete, ResContentDecoded, CacheHit, CacheMiss, CacheRevalidated
     }
 
     private final MockClientEventListener tcpDelegate;
@@ -38,6 +38,9 @@ public class HttpClientEventsListenerImpl extends HttpClientEventsListener {
     private long duration;
     private TimeUnit timeUnit;
     private Throwable recievedError;
+    private long encodedBytes;
+    private long decodedBytes;
+    private boolean notModified;
     private final List<HttpEvent> methodsCalled = new ArrayList<>();
 
     public HttpClientEventsListenerImpl() {
@@ -89,6 +92,13 @@ public class HttpClientEventsListenerImpl extends HttpClientEventsListener {
         methodsCalled.add(HttpEvent.ResReceiveComplete);
     }
 
+    @Override
+    public void onResponseContentDecoded(long encodedBytes, long decodedBytes) {
+        this.encodedBytes = encodedBytes;
+        this.decodedBytes = decodedBytes;
+        methodsCalled.add(HttpEvent.ResContentDecoded);
+    }
+
     @Override
     public void onResponseFailed(Throwable recievedError) {
         this.recievedError = recievedError;
@@ -102,6 +112,22 @@ public class HttpClientEventsListenerImpl extends HttpClientEventsListener {
         methodsCalled.add(HttpEvent.ProcessingComplete);
     }
 
+    @Override
+    public void onCacheHit() {
+        methodsCalled.add(HttpEvent.CacheHit);
+    }
+
+    @Override
+    public void onCacheMiss() {
+        methodsCalled.add(HttpEvent.CacheMiss);
+    }
+
+    @Override
+    public void onCacheRevalidated(boolean notModified) {
+        this.notModified = notModified;
+        methodsCalled.add(HttpEvent.CacheRevalidated);
+    }
+
     public int getResponseCode() {
         return responseCode;
     }
@@ -110,6 +136,18 @@ public class HttpClientEventsListenerImpl extends HttpClientEventsListener {
         return recievedError;
     }
 
+    public long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes;
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+
     public TimeUnit getTimeUnit() {
         return timeUnit;
     }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.client.internal;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.events.EventAttributeKeys;
+import io.reactivex.netty.protocol.http.client.events.HttpClientEventPublisher;
+import io.reactivex.netty.protocol.http.client.events.HttpClientEventsListenerImpl;
+import io.reactivex.netty.protocol.http.client.events.HttpClientEventsListenerImpl.HttpEvent;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static io.netty.handler.codec.http.HttpHeaderValues.*;
+import static io.netty.handler.codec.http.HttpMethod.*;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+import static io.netty.handler.codec.http.HttpVersion.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class HttpClientContentDecompressorTest {
+
+    private static final String CONTENT = "Hello, compressed world! Hello, compressed world! Hello, compressed world!";
+
+    @Test(timeout = 60000)
+    public void testAcceptEncodingAdded() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpClientContentDecompressor());
+        channel.writeOutbound(new DefaultHttpRequest(HTTP_1_1, GET, "/"));
+
+        HttpRequest written = channel.readOutbound();
+        assertThat("Unexpected accept encoding header.", written.headers().get(ACCEPT_ENCODING),
+                   equalTo(HttpClientContentDecompressor.SUPPORTED_ENCODINGS.toString()));
+    }
+
+    @Test(timeout = 60000)
+    public void testExplicitAcceptEncodingRetained() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpClientContentDecompressor());
+        HttpRequest request = new DefaultHttpRequest(HTTP_1_1, GET, "/");
+        request.headers().set(ACCEPT_ENCODING, IDENTITY);
+        channel.writeOutbound(request);
+
+        HttpRequest written = channel.readOutbound();
+        assertThat("Unexpected accept encoding header.", written.headers().get(ACCEPT_ENCODING),
+                   equalTo(IDENTITY.toString()));
+    }
+
+    @Test(timeout = 60000)
+    public void testGzipContentDecoded() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpClientContentDecompressor());
+        HttpClientEventPublisher publisher = new HttpClientEventPublisher();
+        HttpClientEventsListenerImpl listener = new HttpClientEventsListenerImpl();
+        publisher.subscribe(listener);
+        channel.attr(EventAttributeKeys.EVENT_PUBLISHER).set(publisher);
+        channel.attr(HttpChannelProvider.HTTP_CLIENT_EVENT_LISTENER).set(publisher);
+
+        byte[] compressed = gzip(CONTENT);
+        HttpResponse response = new DefaultHttpResponse(HTTP_1_1, OK);
+        response.headers().set(CONTENT_ENCODING, GZIP);
+        response.headers().set(CONTENT_LENGTH, compressed.length);
+
+        channel.writeInbound(response, new DefaultLastHttpContent(Unpooled.wrappedBuffer(compressed)));
+
+        HttpResponse decodedHeaders = channel.readInbound();
+        assertThat("Content encoding header not removed.", decodedHeaders.headers().contains(CONTENT_ENCODING),
+                   is(false));
+        assertThat("Content length header not removed.", decodedHeaders.headers().contains(CONTENT_LENGTH),
+                   is(false));
+
+        StringBuilder decoded = new StringBuilder();
+        Object next;
+        while (null != (next = channel.readInbound())) {
+            HttpContent content = (HttpContent) next;
+            decoded.append(content.content().toString(CharsetUtil.UTF_8));
+            content.release();
+        }
+
+        assertThat("Unexpected decoded content.", decoded.toString(), equalTo(CONTENT));
+
+        listener.assertMethodCalled(HttpEvent.ResContentDecoded);
+        assertThat("Unexpected encoded bytes.", listener.getEncodedBytes(), is((long) compressed.length));
+        assertThat("Unexpected decoded bytes.", listener.getDecodedBytes(),
+                   is((long) CONTENT.getBytes(CharsetUtil.UTF_8).length));
+    }
+
+    @Test(timeout = 60000)
+    public void testIdentityContentPassThrough() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpClientContentDecompressor());
+        HttpResponse response = new DefaultHttpResponse(HTTP_1_1, OK);
+
+        channel.writeInbound(response,
+                             new DefaultLastHttpContent(Unpooled.copiedBuffer(CONTENT, CharsetUtil.UTF_8)));
+
+        HttpResponse headers = channel.readInbound();
+        assertThat("Unexpected response.", headers, is(response));
+
+        HttpContent content = channel.readInbound();
+        assertThat("Unexpected content.", content.content().toString(CharsetUtil.UTF_8), equalTo(CONTENT));
+        content.release();
+    }
+
+    private static byte[] gzip(String content) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(CharsetUtil.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.protocol.tcp.client.TcpClient;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import java.util.List;
+
+import static io.netty.handler.codec.http.HttpMethod.*;
+import static io.netty.handler.codec.http.HttpVersion.*;
+import static java.util.concurrent.TimeUnit.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class ConnectionLifecycleTest {
+
+    @Rule
+    public final HttpServerRule serverRule = new HttpServerRule();
+
+    @Test(timeout = 60000)
+    public void testMaxRequestsPerConnection() throws Exception {
+        serverRule.setServer(serverRule.getServer().maxRequestsPerConnection(2));
+        serverRule.startServer();
+
+        TestSubscriber<FullHttpResponse> subscriber = new TestSubscriber<>();
+        newConnection()
+                .flatMap(new Func1<Connection<FullHttpResponse, FullHttpRequest>, Observable<FullHttpResponse>>() {
+                    @Override
+                    public Observable<FullHttpResponse> call(Connection<FullHttpResponse, FullHttpRequest> c) {
+                        DefaultFullHttpRequest request1 = new DefaultFullHttpRequest(HTTP_1_1, GET, "/1");
+                        DefaultFullHttpRequest request2 = new DefaultFullHttpRequest(HTTP_1_1, GET, "/2");
+                        return c.write(Observable.<FullHttpRequest>just(request1, request2))
+                                .ignoreElements()
+                                .cast(FullHttpResponse.class)
+                                .concatWith(c.getInput());
+                    }
+                })
+                .subscribe(subscriber);
+
+        /*Input completes when the server closes the connection after the last allowed request.*/
+        subscriber.awaitTerminalEvent();
+
+        List<FullHttpResponse> responses = subscriber.getOnNextEvents();
+        assertThat("Unexpected number of responses.", responses, hasSize(2));
+        assertThat("Connection: close sent before the last request.",
+                   responses.get(0).headers().contains(HttpHeaderNames.CONNECTION), is(false));
+        assertThat("Connection: close not sent with the last request.",
+                   responses.get(1).headers().get(HttpHeaderNames.CONNECTION), equalToIgnoringCase("close"));
+    }
+
+    @Test(timeout = 60000)
+    public void testIdleTimeout() throws Exception {
+        serverRule.setServer(serverRule.getServer().idleTimeout(200, MILLISECONDS));
+        serverRule.startServer();
+
+        assertClosedByServer(newConnection().toBlocking().single());
+    }
+
+    @Test(timeout = 60000)
+    public void testMaxConnectionAge() throws Exception {
+        serverRule.setServer(serverRule.getServer().maxConnectionAge(200, MILLISECONDS));
+        serverRule.startServer();
+
+        assertClosedByServer(newConnection().toBlocking().single());
+    }
+
+    @Test(timeout = 60000, expected = IllegalArgumentException.class)
+    public void testNegativeIdleTimeout() throws Exception {
+        serverRule.getServer().idleTimeout(-1, MILLISECONDS);
+    }
+
+    private Observable<Connection<FullHttpResponse, FullHttpRequest>> newConnection() {
+        return TcpClient.newClient(serverRule.getServerAddress())
+                        .<FullHttpResponse, FullHttpRequest>pipelineConfigurator(new Action1<ChannelPipeline>() {
+                            @Override
+                            public void call(ChannelPipeline pipeline) {
+                                pipeline.addLast(new HttpClientCodec());
+                                pipeline.addLast(new HttpObjectAggregator(1024 * 1024));
+                            }
+                        })
+                        .createConnectionRequest();
+    }
+
+    private static void assertClosedByServer(Connection<?, ?> connection) {
+        TestSubscriber<Void> closeSubscriber = new TestSubscriber<>();
+        connection.closeListener().subscribe(closeSubscriber);
+        closeSubscriber.awaitTerminalEvent();
+        closeSubscriber.assertNoErrors();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class DateHeaderCacheTest {
+
+    @Test(timeout = 60000)
+    public void testRefreshCancelledWhenLastServerStops() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        EventLoop eventLoop = channel.eventLoop();
+
+        DateHeaderCache.start(eventLoop);
+        DateHeaderCache.start(eventLoop);
+        assertThat("Value not cached.", DateHeaderCache.currentDate(eventLoop),
+                   sameInstance(DateHeaderCache.currentDate(eventLoop)));
+        assertThat("Refresh not scheduled.", channel.runScheduledPendingTasks(), not(-1L));
+
+        DateHeaderCache.stop(eventLoop);
+        assertThat("Refresh cancelled while a server uses the cache.", channel.runScheduledPendingTasks(), not(-1L));
+
+        DateHeaderCache.stop(eventLoop);
+        assertThat("Refresh not cancelled.", channel.runScheduledPendingTasks(), is(-1L));
+        assertThat("Value cached after stop.", DateHeaderCache.currentDate(eventLoop),
+                   not(sameInstance(DateHeaderCache.currentDate(eventLoop))));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.reactivex.netty.client.Host;
+import io.reactivex.netty.client.pool.SingleHostPoolingProviderFactory;
+import io.reactivex.netty.protocol.http.client.HttpClient;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class DomainSocketHttpTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private DomainSocketAddress address;
+    private HttpServer<ByteBuf, ByteBuf> server;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue("Native epoll transport not available.", Epoll.isAvailable());
+        address = new DomainSocketAddress(new File(folder.getRoot(), "rxnetty-http.sock"));
+        server = HttpServer.newServer(address).start(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                return response.writeString(Observable.just(request.getHeader(HOST)));
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (null != server) {
+            server.shutdown();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testRequest() throws Exception {
+        assertThat("Unexpected host header.", sendRequest(HttpClient.newClient(address)), equalTo("localhost"));
+    }
+
+    @Test(timeout = 60000)
+    public void testPooledRequests() throws Exception {
+        HttpClient<ByteBuf, ByteBuf> client =
+                HttpClient.newClient(SingleHostPoolingProviderFactory.<ByteBuf, ByteBuf>createBounded(1),
+                                     Observable.just(new Host(address)));
+        assertThat("Unexpected host header.", sendRequest(client), equalTo("localhost"));
+        assertThat("Unexpected host header.", sendRequest(client), equalTo("localhost"));
+    }
+
+    private static String sendRequest(HttpClient<ByteBuf, ByteBuf> client) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        client.createGet("/")
+              .flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<String>>() {
+                  @Override
+                  public Observable<String> call(HttpClientResponse<ByteBuf> response) {
+                      return response.getContent()
+                                     .map(new Func1<ByteBuf, String>() {
+                                         @Override
+                                         public String call(ByteBuf byteBuf) {
+                                             return byteBuf.toString(Charset.defaultCharset());
+                                         }
+                                     });
+                  }
+              })
+              .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        assertThat("Unexpected number of content chunks.", subscriber.getOnNextEvents(), hasSize(1));
+        return subscriber.getOnNextEvents().get(0);
+    }
+}
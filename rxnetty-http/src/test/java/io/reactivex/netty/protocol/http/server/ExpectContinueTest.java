@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+import static java.util.concurrent.TimeUnit.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class ExpectContinueTest {
+
+    @Rule
+    public final HttpServerRule serverRule = new HttpServerRule();
+
+    @Test(timeout = 30000)
+    public void testContentSentOnContinue() throws Exception {
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                return response.writeString(request.getContent().map(new Func1<ByteBuf, String>() {
+                    @Override
+                    public String call(ByteBuf byteBuf) {
+                        return byteBuf.toString(CharsetUtil.UTF_8);
+                    }
+                }));
+            }
+        });
+
+        /*Continue timeout is longer than the test timeout, so the content is only sent on a 100 (Continue).*/
+        HttpClientResponse<ByteBuf> response =
+                serverRule.sendRequest(serverRule.getClient()
+                                                 .createPost("/")
+                                                 .expectContinue(1, MINUTES)
+                                                 .writeStringContent(Observable.just("Hello")));
+
+        assertThat("Unexpected response status.", response.getStatus(), is(OK));
+
+        TestSubscriber<String> contentSub = new TestSubscriber<>();
+        response.getContent().map(new Func1<ByteBuf, String>() {
+            @Override
+            public String call(ByteBuf byteBuf) {
+                return byteBuf.toString(CharsetUtil.UTF_8);
+            }
+        }).subscribe(contentSub);
+
+        contentSub.awaitTerminalEvent();
+        contentSub.assertNoErrors();
+        assertThat("Unexpected response content.", contentSub.getOnNextEvents(), contains("Hello"));
+    }
+
+    @Test(timeout = 30000)
+    public void testContentNotSentOnRejection() throws Exception {
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                return response.setStatus(UNAUTHORIZED);
+            }
+        });
+
+        final AtomicBoolean contentSubscribed = new AtomicBoolean();
+        Observable<String> content = Observable.just("Hello").doOnSubscribe(new Action0() {
+            @Override
+            public void call() {
+                contentSubscribed.set(true);
+            }
+        });
+
+        HttpClientResponse<ByteBuf> response =
+                serverRule.sendRequest(serverRule.getClient()
+                                                 .createPost("/")
+                                                 .expectContinue(1, MINUTES)
+                                                 .writeStringContent(content));
+
+        assertThat("Unexpected response status.", response.getStatus(), is(UNAUTHORIZED));
+        assertThat("Content sent for a rejected request.", contentSubscribed.get(), is(false));
+        assertThat("Rejected connection not closed.", response.isKeepAlive(), is(false));
+    }
+}
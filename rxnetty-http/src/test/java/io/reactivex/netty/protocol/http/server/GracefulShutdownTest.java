@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.server.events.HttpServerEventsListener;
+import io.reactivex.netty.protocol.tcp.client.TcpClient;
+import io.reactivex.netty.protocol.tcp.server.DrainConnectionEvent;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.observers.TestSubscriber;
+import rx.subjects.ReplaySubject;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class GracefulShutdownTest {
+
+    @Rule
+    public final HttpServerRule serverRule = new HttpServerRule();
+
+    private final AtomicInteger forciblyClosed = new AtomicInteger(-1);
+
+    @Test(timeout = 60000)
+    public void testIdleConnectionClosedOnDrain() throws Exception {
+        serverRule.startServer();
+
+        Connection<ByteBuf, ByteBuf> idle = TcpClient.newClient(serverRule.getServerAddress())
+                                                     .createConnectionRequest()
+                                                     .toBlocking()
+                                                     .single();
+
+        shutdownGracefully(30, SECONDS);
+
+        TestSubscriber<Void> closeSubscriber = new TestSubscriber<>();
+        idle.closeListener().subscribe(closeSubscriber);
+        closeSubscriber.awaitTerminalEvent();
+
+        assertThat("Idle connection forcibly closed.", forciblyClosed.get(), is(0));
+    }
+
+    @Test(timeout = 60000)
+    public void testInFlightRequestCompletesWithConnectionClose() throws Exception {
+        final ReplaySubject<Void> drainStarted = ReplaySubject.create();
+        final CountDownLatch requestReceived = new CountDownLatch(1);
+
+        serverRule.setServer(serverRule.getServer()
+                                       .<ByteBuf, ByteBuf>addChannelHandlerLast("drain-listener",
+                                                                                drainListener(drainStarted)));
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                requestReceived.countDown();
+                /*Response is written only after the drain starts, so that it carries the Connection: close header*/
+                return drainStarted.concatWith(response.writeString(Observable.just("Hello")));
+            }
+        });
+
+        TestSubscriber<HttpClientResponse<ByteBuf>> subscriber = new TestSubscriber<>();
+        serverRule.getClient().createGet("/").subscribe(subscriber);
+        requestReceived.await();
+
+        shutdownGracefully(30, SECONDS);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+
+        HttpClientResponse<ByteBuf> response = subscriber.getOnNextEvents().get(0);
+        assertThat("Connection: close not sent while draining.", response.getHeader(HttpHeaderNames.CONNECTION),
+                   equalToIgnoringCase(HttpHeaderValues.CLOSE.toString()));
+        assertThat("In-flight connection forcibly closed.", forciblyClosed.get(), is(0));
+    }
+
+    @Test(timeout = 60000)
+    public void testConnectionForciblyClosedAfterDrainTimeout() throws Exception {
+        final CountDownLatch requestReceived = new CountDownLatch(1);
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                requestReceived.countDown();
+                return Observable.never();
+            }
+        });
+
+        TestSubscriber<HttpClientResponse<ByteBuf>> subscriber = new TestSubscriber<>();
+        serverRule.getClient().createGet("/").subscribe(subscriber);
+        requestReceived.await();
+
+        shutdownGracefully(100, MILLISECONDS);
+
+        subscriber.awaitTerminalEvent();
+        assertThat("Unexpected forcibly closed connections.", forciblyClosed.get(), is(1));
+    }
+
+    private void shutdownGracefully(long drainTimeout, TimeUnit timeUnit) {
+        serverRule.getServer().subscribe(new HttpServerEventsListener() {
+            @Override
+            public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) {
+                forciblyClosed.set(forciblyClosedConnections);
+            }
+        });
+        serverRule.getServer().shutdownGracefully(drainTimeout, timeUnit);
+    }
+
+    private static Func0<ChannelHandler> drainListener(final ReplaySubject<Void> drainStarted) {
+        return new Func0<ChannelHandler>() {
+            @Override
+            public ChannelHandler call() {
+                return new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+                        if (evt instanceof DrainConnectionEvent) {
+                            drainStarted.onCompleted();
+                        }
+                        super.userEventTriggered(ctx, evt);
+                    }
+                };
+            }
+        };
+    }
+}
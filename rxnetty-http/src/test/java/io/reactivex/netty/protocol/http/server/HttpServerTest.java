@@ -19,9 +19,22 @@ package io.reactivex.netty.protocol.http.server;
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
 import org.junit.Rule;
 import org.junit.Test;
 import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
 
 public class HttpServerTest {
 
@@ -105,4 +118,107 @@ public class HttpServerTest {
 
         serverRule.assertEmptyBodyWithContentLengthZero();
     }
+
+    @Test(timeout = 60000)
+    public void testDateHeaderSent() throws Exception {
+        serverRule.setServer(serverRule.getServer().sendDateHeader(true));
+        serverRule.startServer();
+
+        HttpClientResponse<ByteBuf> response = serverRule.sendRequest(serverRule.getClient().createGet("/"));
+
+        assertThat("Date header not sent.", response.getDateHeader(HttpHeaderNames.DATE, -1), not(-1L));
+        serverRule.assertResponseContent(response);
+    }
+
+    @Test(timeout = 60000)
+    public void testDateHeaderNotSentByDefault() throws Exception {
+        serverRule.startServer();
+
+        HttpClientResponse<ByteBuf> response = serverRule.sendRequest(serverRule.getClient().createGet("/"));
+
+        assertThat("Date header sent when not enabled.", response.containsHeader(HttpHeaderNames.DATE), is(false));
+        serverRule.assertResponseContent(response);
+    }
+
+    @Test(timeout = 60000)
+    public void testDeadlineHeaderRead() throws Exception {
+        serverRule.setServer(serverRule.getServer().readDeadlineHeader(true));
+        startServerWritingRemainingTime();
+
+        HttpClientResponse<ByteBuf> response =
+                serverRule.sendRequest(serverRule.getClient().createGet("/").deadline(1, TimeUnit.MINUTES));
+
+        long remaining = Long.parseLong(readContent(response));
+        assertThat("Unexpected remaining time.", remaining, allOf(greaterThan(0L),
+                                                                  lessThanOrEqualTo(TimeUnit.MINUTES.toMillis(1))));
+    }
+
+    @Test(timeout = 60000)
+    public void testDeadlineHeaderNotReadByDefault() throws Exception {
+        startServerWritingRemainingTime();
+
+        HttpClientResponse<ByteBuf> response =
+                serverRule.sendRequest(serverRule.getClient().createGet("/").deadline(1, TimeUnit.MINUTES));
+
+        assertThat("Deadline read when not enabled.", readContent(response), equalTo("none"));
+    }
+
+    @Test(timeout = 60000)
+    public void testExpiredRequestRespondedOnSameConnection() throws Exception {
+        serverRule.setServer(serverRule.getServer().readDeadlineHeader(true));
+        startServerWritingRemainingTime();
+
+        String responses;
+        try (Socket socket = new Socket("127.0.0.1", serverRule.getServer().getServerPort())) {
+            OutputStream out = socket.getOutputStream();
+            /*Pipelined, the second request closes the connection after it is responded.*/
+            out.write(("GET /expired HTTP/1.1\r\nHost: localhost\r\nx-request-timeout-ms: 0\r\n\r\n"
+                       + "GET /next HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                              .getBytes(CharsetUtil.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                received.write(buffer, 0, read);
+            }
+            responses = received.toString("US-ASCII");
+        }
+
+        assertThat("Expired request not responded.", responses, startsWith("HTTP/1.1 504"));
+        assertThat("Request after the expired request not responded.", responses, containsString("HTTP/1.1 200"));
+    }
+
+    private void startServerWritingRemainingTime() {
+        serverRule.startServer(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request, HttpServerResponse<ByteBuf> response) {
+                String remaining = request.hasDeadline()
+                        ? String.valueOf(request.getRemainingTime(TimeUnit.MILLISECONDS)) : "none";
+                return response.writeString(Observable.just(remaining));
+            }
+        });
+    }
+
+    private static String readContent(HttpClientResponse<ByteBuf> response) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        response.getContent()
+                .map(new Func1<ByteBuf, String>() {
+                    @Override
+                    public String call(ByteBuf byteBuf) {
+                        return byteBuf.toString(CharsetUtil.UTF_8);
+                    }
+                })
+                .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        StringBuilder content = new StringBuilder();
+        for (String chunk : subscriber.getOnNextEvents()) {
+            content.append(chunk);
+        }
+        return content.toString();
+    }
 }
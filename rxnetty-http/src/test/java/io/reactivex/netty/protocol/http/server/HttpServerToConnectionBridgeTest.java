@@ -1,16 +1,33 @@
 package io.reactivex.netty.protocol.http.server;
 
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
 import io.reactivex.netty.protocol.http.internal.AbstractHttpConnectionBridge;
 import io.reactivex.netty.protocol.http.internal.AbstractHttpConnectionBridgeTest.AbstractHttpConnectionBridgeMock;
 import io.reactivex.netty.protocol.http.internal.AbstractHttpConnectionBridgeTest.HandlerRule;
 import io.reactivex.netty.protocol.http.internal.HttpContentSubscriberEvent;
 import io.reactivex.netty.protocol.http.server.events.HttpServerEventPublisher;
+import io.reactivex.netty.protocol.tcp.server.DrainConnectionEvent;
 import io.reactivex.netty.protocol.tcp.server.events.TcpServerEventPublisher;
 import org.junit.Rule;
 import org.junit.Test;
 import rx.observers.TestSubscriber;
 
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
 
 public class HttpServerToConnectionBridgeTest {
 
@@ -42,4 +59,35 @@ public class HttpServerToConnectionBridgeTest {
         subscriber.assertNoErrors();
         subscriber1.assertError(ClosedChannelException.class);
     }
-}
\ No newline at end of file
+
+    @Test(timeout = 60000)
+    public void testDrainClosesAfterResponseWritten() throws Exception {
+        handlerRule.setupAndAssertConnectionInputSub();
+        EmbeddedChannel channel = handlerRule.getChannel();
+        final List<ChannelPromise> pendingWrites = new ArrayList<>();
+        /*Holds all writes, as a slow socket would.*/
+        channel.pipeline().addFirst(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+                ReferenceCountUtil.release(msg);
+                pendingWrites.add(promise);
+            }
+        });
+
+        channel.writeInbound(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"));
+        channel.pipeline().fireUserEventTriggered(DrainConnectionEvent.INSTANCE);
+
+        assertThat("Connection with a request in progress closed on drain.", channel.isOpen(), is(true));
+
+        channel.write(new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK), channel.voidPromise());
+        channel.write(LastHttpContent.EMPTY_LAST_CONTENT, channel.voidPromise());
+
+        assertThat("Connection closed before the response is written.", channel.isOpen(), is(true));
+
+        for (ChannelPromise pendingWrite : pendingWrites) {
+            pendingWrite.trySuccess();
+        }
+
+        assertThat("Connection not closed after the response is written.", channel.isOpen(), is(false));
+    }
+}
@@ -47,7 +47,7 @@ public class PipeliningTest {
 
         serverRule.startServer();
 
-        /*Since HTTP client does not yet support pipeling, this example uses a TCP client*/
+        /*Uses a TCP client, so that the requests are written together, irrespective of the client dispatch.*/
         TestSubscriber<String> testSubscriber = new TestSubscriber<>();
         TcpClient.newClient(serverRule.getServerAddress())
                 .<FullHttpRequest, FullHttpResponse>pipelineConfigurator(new Action1<ChannelPipeline>() {
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.admission;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.reactivex.netty.protocol.http.client.HttpClient;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.server.HttpServer;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class AdmissionControllerTest {
+
+    @Test(timeout = 60000)
+    public void testRejectOverLimit() throws Exception {
+        AdmissionController controller = new AdmissionController(new FixedConcurrencyLimit(2));
+
+        assertThat("First request not admitted.", controller.tryAcquire(null), is(true));
+        assertThat("Second request not admitted.", controller.tryAcquire(null), is(true));
+        assertThat("Request over limit admitted.", controller.tryAcquire(null), is(false));
+        assertThat("Unexpected in-flight count.", controller.getInFlight(), is(2));
+        assertThat("Unexpected shed count.", controller.getShedCount(), is(1L));
+
+        controller.release();
+
+        assertThat("Request not admitted after release.", controller.tryAcquire(null), is(true));
+    }
+
+    @Test(timeout = 60000)
+    public void testPriorityShare() throws Exception {
+        AdmissionController controller = new AdmissionController(new FixedConcurrencyLimit(4),
+                                                                  new Func1<HttpServerRequest<?>, Priority>() {
+                                                                      @Override
+                                                                      public Priority call(HttpServerRequest<?> r) {
+                                                                          return Priority.Sheddable;
+                                                                      }
+                                                                  }, 1);
+
+        assertThat("First request not admitted.", controller.tryAcquire(null), is(true));
+        assertThat("Second request not admitted.", controller.tryAcquire(null), is(true));
+        assertThat("Sheddable request admitted over its share.", controller.tryAcquire(null), is(false));
+    }
+
+    @Test(timeout = 60000)
+    public void testAdaptiveLimitReducesWithLatency() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 1, 1000);
+
+        limit.onLatencySample(1000);
+        for (int i = 0; i < 50; i++) {
+            limit.onLatencySample(10000);
+        }
+
+        assertThat("Limit did not reduce with increased latency.", limit.getLimit(), lessThan(100));
+        assertThat("Limit reduced below minimum.", limit.getLimit(), greaterThanOrEqualTo(1));
+    }
+
+    @Test(timeout = 60000)
+    public void testAdaptiveLimitGrowsWithStableLatency() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 1000);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onAdmitted(limit.getLimit());
+            limit.onLatencySample(1000);
+        }
+
+        assertThat("Limit did not grow with stable latency.", limit.getLimit(), greaterThan(10));
+    }
+
+    @Test(timeout = 60000)
+    public void testAdaptiveLimitDoesNotGrowWhenAppLimited() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 1000);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onAdmitted(1);
+            limit.onLatencySample(1000);
+        }
+
+        assertThat("Limit grew without being used.", limit.getLimit(), is(10));
+    }
+
+    @Test(timeout = 60000)
+    public void testControllerPerServer() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit();
+        AdmissionController controller = new AdmissionController(limit);
+
+        assertThat("First server does not use the controller.", controller.forServer(), is(sameInstance(controller)));
+
+        AdmissionController other = controller.forServer();
+        assertThat("Second server shares the controller.", other, is(not(sameInstance(controller))));
+        assertThat("Second server shares the limit.", other.getLimit(), is(not(sameInstance((Object) limit))));
+
+        controller.tryAcquire(null);
+        assertThat("Second server shares requests in flight.", other.getInFlight(), is(0));
+    }
+
+    @Test(timeout = 60000)
+    public void testServerRejectsOverLimit() throws Exception {
+        final AtomicInteger handlerInvocations = new AtomicInteger();
+        final CountDownLatch firstRequestReceived = new CountDownLatch(1);
+        final PublishSubject<Void> completeFirstRequest = PublishSubject.create();
+        HttpServer<ByteBuf, ByteBuf> server =
+                HttpServer.newServer()
+                          .admissionControl(new AdmissionController(new FixedConcurrencyLimit(1)))
+                          .start(new RequestHandler<ByteBuf, ByteBuf>() {
+                              @Override
+                              public Observable<Void> handle(HttpServerRequest<ByteBuf> request,
+                                                             HttpServerResponse<ByteBuf> response) {
+                                  handlerInvocations.incrementAndGet();
+                                  firstRequestReceived.countDown();
+                                  /*Holds the only permit till the test completes.*/
+                                  return completeFirstRequest;
+                              }
+                          });
+        try {
+            HttpClient<ByteBuf, ByteBuf> client = HttpClient.newClient("127.0.0.1", server.getServerPort());
+
+            client.createGet("/").subscribe(new TestSubscriber<HttpClientResponse<ByteBuf>>());
+            firstRequestReceived.await(1, TimeUnit.MINUTES);
+
+            TestSubscriber<HttpClientResponse<ByteBuf>> subscriber = new TestSubscriber<>();
+            client.createGet("/").subscribe(subscriber);
+            subscriber.awaitTerminalEvent();
+            subscriber.assertNoErrors();
+
+            HttpClientResponse<ByteBuf> response = subscriber.getOnNextEvents().get(0);
+            response.discardContent().subscribe(new TestSubscriber<Void>());
+
+            assertThat("Unexpected response status.", response.getStatus(),
+                       is(HttpResponseStatus.SERVICE_UNAVAILABLE));
+            assertThat("Retry-After not sent.", response.getHeader(HttpHeaderNames.RETRY_AFTER),
+                       equalTo(String.valueOf(AdmissionController.DEFAULT_RETRY_AFTER_SECONDS)));
+            assertThat("Handler invoked for a rejected request.", handlerInvocations.get(), is(1));
+        } finally {
+            completeFirstRequest.onCompleted();
+            server.shutdown();
+        }
+    }
+}
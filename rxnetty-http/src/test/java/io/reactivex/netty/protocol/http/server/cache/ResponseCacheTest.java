@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.protocol.http.client.HttpClientRequest;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.server.HttpServerInterceptorChain;
+import io.reactivex.netty.protocol.http.server.HttpServerRequest;
+import io.reactivex.netty.protocol.http.server.HttpServerResponse;
+import io.reactivex.netty.protocol.http.server.HttpServerRule;
+import io.reactivex.netty.protocol.http.server.RequestHandler;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.observers.TestSubscriber;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class ResponseCacheTest {
+
+    @Rule
+    public final HttpServerRule serverRule = new HttpServerRule();
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @Test(timeout = 60000)
+    public void testCachedResponse() throws Exception {
+        startServer(new ResponseCache<ByteBuf>(1024 * 1024));
+
+        HttpClientResponse<ByteBuf> first = send(serverRule.getClient().createGet("/cached"));
+        assertThat("Unexpected content.", readContent(first), equalTo("response 1"));
+
+        HttpClientResponse<ByteBuf> second = send(serverRule.getClient().createGet("/cached"));
+        assertThat("Unexpected content.", readContent(second), equalTo("response 1"));
+        assertThat("Missing Age header.", second.containsHeader(AGE), is(true));
+        assertThat("Unexpected content length.", second.getContentLength(), is((long) "response 1".length()));
+        assertThat("Handler invoked for a cached response.", handled.get(), is(1));
+    }
+
+    @Test(timeout = 60000)
+    public void testNoStoreResponse() throws Exception {
+        startServer(new ResponseCache<ByteBuf>(1024 * 1024));
+
+        readContent(send(serverRule.getClient().createGet("/no-store")));
+        HttpClientResponse<ByteBuf> second = send(serverRule.getClient().createGet("/no-store"));
+
+        assertThat("Unexpected content.", readContent(second), equalTo("response 2"));
+        assertThat("No-store response cached.", handled.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testRequestNoCache() throws Exception {
+        startServer(new ResponseCache<ByteBuf>(1024 * 1024));
+
+        readContent(send(serverRule.getClient().createGet("/cached")));
+        HttpClientRequest<ByteBuf, ByteBuf> noCache = serverRule.getClient().createGet("/cached")
+                                                                .setHeader(CACHE_CONTROL, "no-cache");
+        assertThat("Unexpected content.", readContent(send(noCache)), equalTo("response 2"));
+        assertThat("Unexpected content.", readContent(send(serverRule.getClient().createGet("/cached"))),
+                   equalTo("response 2"));
+        assertThat("Unexpected handler invocations.", handled.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testVary() throws Exception {
+        startServer(new ResponseCache<ByteBuf>(1024 * 1024));
+
+        HttpClientRequest<ByteBuf, ByteBuf> english = serverRule.getClient().createGet("/vary")
+                                                                .setHeader(ACCEPT_LANGUAGE, "en");
+        HttpClientRequest<ByteBuf, ByteBuf> french = serverRule.getClient().createGet("/vary")
+                                                               .setHeader(ACCEPT_LANGUAGE, "fr");
+
+        assertThat("Unexpected content.", readContent(send(english)), equalTo("response 1"));
+        assertThat("Unexpected content.", readContent(send(french)), equalTo("response 2"));
+        assertThat("Unexpected content.", readContent(send(english)), equalTo("response 1"));
+        assertThat("Unexpected content.", readContent(send(french)), equalTo("response 2"));
+        assertThat("Unexpected handler invocations.", handled.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testHostIsPartOfKey() throws Exception {
+        startServer(new ResponseCache<ByteBuf>(1024 * 1024));
+
+        HttpClientRequest<ByteBuf, ByteBuf> first = serverRule.getClient().createGet("/cached")
+                                                              .setHeader(HOST, "first.example.com");
+        HttpClientRequest<ByteBuf, ByteBuf> second = serverRule.getClient().createGet("/cached")
+                                                               .setHeader(HOST, "second.example.com");
+
+        assertThat("Unexpected content.", readContent(send(first)), equalTo("response 1"));
+        assertThat("Response cached for another host served.", readContent(send(second)), equalTo("response 2"));
+        assertThat("Unexpected content.", readContent(send(first)), equalTo("response 1"));
+        assertThat("Unexpected handler invocations.", handled.get(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testEviction() throws Exception {
+        ResponseCache<ByteBuf> cache = new ResponseCache<>(100);
+        startServer(cache);
+
+        readContent(send(serverRule.getClient().createGet("/cached?1")));
+        readContent(send(serverRule.getClient().createGet("/cached?2")));
+        readContent(send(serverRule.getClient().createGet("/cached?3")));
+
+        assertThat("Cache larger than max size.", cache.size(), lessThanOrEqualTo(100L));
+        readContent(send(serverRule.getClient().createGet("/cached?1")));
+        assertThat("Least recently used entry not evicted.", handled.get(), is(4));
+    }
+
+    @Test(timeout = 60000)
+    public void testDirectives() throws Exception {
+        assertThat("Unexpected max-age.", ResponseCache.directiveSeconds("public, max-age=60", "max-age"), is(60L));
+        assertThat("Unexpected s-maxage.", ResponseCache.directiveSeconds("s-maxage=\"5\"", "s-maxage"), is(5L));
+        assertThat("Directive prefix matched.", ResponseCache.directiveSeconds("s-maxage=5", "maxage"), is(-1L));
+        assertThat("No-store not found.", ResponseCache.hasDirective("private, No-Store", "no-store"), is(true));
+        assertThat("Absent directive found.", ResponseCache.hasDirective("no-cache", "no-store"), is(false));
+    }
+
+    private void startServer(ResponseCache<ByteBuf> cache) {
+        serverRule.startServer(HttpServerInterceptorChain.<ByteBuf, ByteBuf>start()
+                                                         .next(cache)
+                                                         .end(new RequestHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(HttpServerRequest<ByteBuf> request,
+                                           HttpServerResponse<ByteBuf> response) {
+                String content = "response " + handled.incrementAndGet();
+                if (request.getDecodedPath().startsWith("/no-store")) {
+                    response.setHeader(CACHE_CONTROL, "no-store");
+                } else {
+                    response.setHeader(CACHE_CONTROL, "max-age=60");
+                }
+                if (request.getDecodedPath().startsWith("/vary")) {
+                    response.setHeader(VARY, ACCEPT_LANGUAGE);
+                }
+                /*Padding, so that the cache in the eviction test holds a single response.*/
+                response.setHeader("X-Padding", "0123456789");
+                return response.writeString(Observable.just(content));
+            }
+        }));
+    }
+
+    private HttpClientResponse<ByteBuf> send(HttpClientRequest<ByteBuf, ByteBuf> request) {
+        return serverRule.sendRequest(request);
+    }
+
+    private static String readContent(HttpClientResponse<ByteBuf> response) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        response.getContent()
+                .map(new Func1<ByteBuf, String>() {
+                    @Override
+                    public String call(ByteBuf byteBuf) {
+                        return byteBuf.toString(CharsetUtil.UTF_8);
+                    }
+                })
+                .reduce("", new Func2<String, String, String>() {
+                    @Override
+                    public String call(String prefix, String chunk) {
+                        return prefix + chunk;
+                    }
+                })
+                .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        return subscriber.getOnNextEvents().get(0);
+    }
+}
@@ -43,6 +43,13 @@ public class HttpServerEventPublisherTest {
         rule.listener.assertMethodsCalled(HttpEvent.ReqRecv);
     }
 
+    @Test(timeout = 60000)
+    public void testOnRequestShed() throws Exception {
+        rule.publisher.onRequestShed();
+
+        rule.listener.assertMethodsCalled(HttpEvent.ReqShed);
+    }
+
     @Test(timeout = 60000)
     public void testOnRequestHandlingStart() throws Exception {
         rule.publisher.onRequestHandlingStart(1, TimeUnit.MILLISECONDS);
@@ -196,6 +203,34 @@ public class HttpServerEventPublisherTest {
         rule.listener.getTcpDelegate().getConnDelegate().assertMethodsCalled(Event.BytesWritten);
     }
 
+    @Test(timeout = 60000)
+    public void testOnAcceptPaused() throws Exception {
+        rule.publisher.onAcceptPaused();
+
+        rule.listener.getTcpDelegate().assertMethodsCalled(ServerEvent.AcceptPaused);
+    }
+
+    @Test(timeout = 60000)
+    public void testOnAcceptResumed() throws Exception {
+        rule.publisher.onAcceptResumed(1, TimeUnit.MILLISECONDS);
+
+        rule.listener.getTcpDelegate().assertMethodsCalled(ServerEvent.AcceptResumed);
+    }
+
+    @Test(timeout = 60000)
+    public void testOnDrainStart() throws Exception {
+        rule.publisher.onDrainStart(1, TimeUnit.MILLISECONDS, 1);
+
+        rule.listener.getTcpDelegate().assertMethodsCalled(ServerEvent.DrainStart);
+    }
+
+    @Test(timeout = 60000)
+    public void testOnDrainComplete() throws Exception {
+        rule.publisher.onDrainComplete(1, TimeUnit.MILLISECONDS, 0);
+
+        rule.listener.getTcpDelegate().assertMethodsCalled(ServerEvent.DrainComplete);
+    }
+
     @Test(timeout = 60000)
     public void testOnConnectionHandlingFailed() throws Exception {
         rule.publisher.onConnectionHandlingFailed(1, TimeUnit.MILLISECONDS, new NullPointerException());
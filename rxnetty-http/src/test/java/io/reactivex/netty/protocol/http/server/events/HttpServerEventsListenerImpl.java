@@ -28,7 +28,7 @@ import static org.hamcrest.Matchers.*;
 public class HttpServerEventsListenerImpl extends HttpServerEventsListener {
 
     public enum HttpEvent {
-        ReqRecv, HandlingStart, HandlingSuccess, HandlingFailed, ReqHdrsReceived, ReqContentReceived,
+        ReqRecv, ReqShed, HandlingStart, HandlingSuccess, HandlingFailed, ReqHdrsReceived, ReqContentReceived,
         ReqReceiveComplete, RespWriteStart, RespWriteSuccess, RespWriteFailed
     }
 
@@ -49,6 +49,11 @@ public class HttpServerEventsListenerImpl extends HttpServerEventsListener {
         methodsCalled.add(HttpEvent.ReqRecv);
     }
 
+    @Override
+    public void onRequestShed() {
+        methodsCalled.add(HttpEvent.ReqShed);
+    }
+
     @Override
     public void onRequestHandlingStart(long duration, TimeUnit timeUnit) {
         this.duration = duration;
@@ -134,6 +139,26 @@ public class HttpServerEventsListenerImpl extends HttpServerEventsListener {
         tcpDelegate.onConnectionHandlingSuccess(duration, timeUnit);
     }
 
+    @Override
+    public void onAcceptPaused() {
+        tcpDelegate.onAcceptPaused();
+    }
+
+    @Override
+    public void onAcceptResumed(long duration, TimeUnit timeUnit) {
+        tcpDelegate.onAcceptResumed(duration, timeUnit);
+    }
+
+    @Override
+    public void onDrainStart(long drainTimeout, TimeUnit timeUnit, int activeConnections) {
+        tcpDelegate.onDrainStart(drainTimeout, timeUnit, activeConnections);
+    }
+
+    @Override
+    public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) {
+        tcpDelegate.onDrainComplete(duration, timeUnit, forciblyClosedConnections);
+    }
+
     @Override
     public void onConnectionHandlingFailed(long duration, TimeUnit timeUnit,
                                            Throwable recievedError) {
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.file;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import io.reactivex.netty.protocol.http.client.HttpClientRequest;
+import io.reactivex.netty.protocol.http.client.HttpClientResponse;
+import io.reactivex.netty.protocol.http.server.HttpServerRule;
+import io.reactivex.netty.protocol.http.server.file.StaticFileRequestHandler.ByteRange;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.observers.TestSubscriber;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class StaticFileRequestHandlerTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @Rule
+    public final HttpServerRule serverRule = new HttpServerRule();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws Exception {
+        File root = folder.newFolder("static");
+        try (FileOutputStream out = new FileOutputStream(new File(root, "file.txt"))) {
+            out.write(CONTENT.getBytes(CharsetUtil.UTF_8));
+        }
+        folder.newFile("outside.txt");
+        serverRule.startServer(new StaticFileRequestHandler(root));
+    }
+
+    @Test(timeout = 60000)
+    public void testServeFile() throws Exception {
+        HttpClientResponse<ByteBuf> response = serverRule.sendRequest(serverRule.getClient().createGet("/file.txt"));
+
+        assertThat("Unexpected response status.", response.getStatus(), is(OK));
+        assertThat("Unexpected content length.", response.getContentLength(), is((long) CONTENT.length()));
+        assertThat("Missing ETag.", response.containsHeader(ETAG), is(true));
+        assertThat("Missing Last-Modified.", response.containsHeader(LAST_MODIFIED), is(true));
+        assertThat("Unexpected content.", readContent(response), equalTo(CONTENT));
+    }
+
+    @Test(timeout = 60000)
+    public void testRangeRequest() throws Exception {
+        HttpClientRequest<ByteBuf, ByteBuf> request = serverRule.getClient().createGet("/file.txt")
+                                                                .setHeader(RANGE, "bytes=2-5");
+        HttpClientResponse<ByteBuf> response = serverRule.sendRequest(request);
+
+        assertThat("Unexpected response status.", response.getStatus(), is(PARTIAL_CONTENT));
+        assertThat("Unexpected content range.", response.getHeader(CONTENT_RANGE),
+                   equalTo("bytes 2-5/" + CONTENT.length()));
+        assertThat("Unexpected content.", readContent(response), equalTo(CONTENT.substring(2, 6)));
+    }
+
+    @Test(timeout = 60000)
+    public void testUnsatisfiableRange() throws Exception {
+        HttpClientRequest<ByteBuf, ByteBuf> request = serverRule.getClient().createGet("/file.txt")
+                                                                .setHeader(RANGE, "bytes=100-");
+        HttpClientResponse<ByteBuf> response = serverRule.sendRequest(request);
+
+        assertThat("Unexpected response status.", response.getStatus(), is(REQUESTED_RANGE_NOT_SATISFIABLE));
+        assertThat("Unexpected content range.", response.getHeader(CONTENT_RANGE),
+                   equalTo("bytes */" + CONTENT.length()));
+    }
+
+    @Test(timeout = 60000)
+    public void testIfNoneMatch() throws Exception {
+        HttpClientResponse<ByteBuf> first = serverRule.sendRequest(serverRule.getClient().createGet("/file.txt"));
+        String etag = first.getHeader(ETAG);
+        readContent(first);
+
+        HttpClientRequest<ByteBuf, ByteBuf> request = serverRule.getClient().createGet("/file.txt")
+                                                                .setHeader(IF_NONE_MATCH, etag);
+        HttpClientResponse<ByteBuf> response = serverRule.sendRequest(request);
+
+        assertThat("Unexpected response status.", response.getStatus(), is(NOT_MODIFIED));
+    }
+
+    @Test(timeout = 60000)
+    public void testPathOutsideRoot() throws Exception {
+        HttpClientResponse<ByteBuf> response =
+                serverRule.sendRequest(serverRule.getClient().createGet("/../outside.txt"));
+
+        assertThat("Unexpected response status.", response.getStatus(), is(NOT_FOUND));
+    }
+
+    @Test(timeout = 60000)
+    public void testMethodNotAllowed() throws Exception {
+        HttpClientResponse<ByteBuf> response = serverRule.sendRequest(serverRule.getClient().createPost("/file.txt"));
+
+        assertThat("Unexpected response status.", response.getStatus(), is(METHOD_NOT_ALLOWED));
+    }
+
+    @Test(timeout = 60000)
+    public void testParseRange() throws Exception {
+        ByteRange suffix = ByteRange.parse("bytes=-5", 20);
+        assertThat("Unexpected suffix range start.", suffix.start, is(15L));
+        assertThat("Unexpected suffix range end.", suffix.end, is(19L));
+
+        ByteRange open = ByteRange.parse("bytes=10-", 20);
+        assertThat("Unexpected open range start.", open.start, is(10L));
+        assertThat("Unexpected open range end.", open.end, is(19L));
+
+        assertThat("Multiple ranges must be ignored.", ByteRange.parse("bytes=0-1,5-6", 20), is(nullValue()));
+        assertThat("Invalid range must be ignored.", ByteRange.parse("bytes=5-1", 20), is(nullValue()));
+        assertThat("Unknown unit must be ignored.", ByteRange.parse("items=0-1", 20), is(nullValue()));
+        assertThat("Range beyond content must be unsatisfiable.", ByteRange.parse("bytes=20-", 20),
+                   is(ByteRange.UNSATISFIABLE));
+    }
+
+    private static String readContent(HttpClientResponse<ByteBuf> response) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        response.getContent()
+                .map(new Func1<ByteBuf, String>() {
+                    @Override
+                    public String call(ByteBuf byteBuf) {
+                        return byteBuf.toString(CharsetUtil.UTF_8);
+                    }
+                })
+                .reduce(new StringBuilder(), new Func2<StringBuilder, String, StringBuilder>() {
+                    @Override
+                    public StringBuilder call(StringBuilder builder, String chunk) {
+                        return builder.append(chunk);
+                    }
+                })
+                .map(new Func1<StringBuilder, String>() {
+                    @Override
+                    public String call(StringBuilder builder) {
+                        return builder.toString();
+                    }
+                })
+                .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        return subscriber.getOnNextEvents().get(0);
+    }
+}
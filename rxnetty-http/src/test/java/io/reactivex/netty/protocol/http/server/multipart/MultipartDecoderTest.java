@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.http.server.multipart;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCounted;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class MultipartDecoderTest {
+
+    private static final String BOUNDARY = "----boundary42";
+    private static final String CONTENT = "preamble\r\n"
+                                          + "--" + BOUNDARY + "\r\n"
+                                          + "Content-Disposition: form-data; name=\"field\"\r\n"
+                                          + "\r\n"
+                                          + "value\r\n"
+                                          + "--" + BOUNDARY + "  \r\n"
+                                          + "Content-Disposition: form-data; name=\"file\"; filename=\"a;b.txt\"\r\n"
+                                          + "Content-Type: text/plain\r\n"
+                                          + "\r\n"
+                                          + "line1\r\nline2\r\n--not-a-boundary\r\n"
+                                          + "--" + BOUNDARY + "--\r\n"
+                                          + "epilogue";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 60000)
+    public void testDecodeSingleBuffer() throws Exception {
+        assertParts(decode(CONTENT, CONTENT.length()));
+    }
+
+    @Test(timeout = 60000)
+    public void testDecodeSingleByteBuffers() throws Exception {
+        assertParts(decode(CONTENT, 1));
+    }
+
+    @Test(timeout = 60000)
+    public void testDecodeAllSplits() throws Exception {
+        for (int chunkSize = 2; chunkSize < CONTENT.length(); chunkSize++) {
+            assertParts(decode(CONTENT, chunkSize));
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testMissingCloseDelimiter() throws Exception {
+        TestSubscriber<MultipartChunk> subscriber = new TestSubscriber<>();
+        String content = "--" + BOUNDARY + "\r\n\r\nvalue";
+        toBuffers(content, 4).compose(MultipartDecoder.forBoundary(BOUNDARY)).subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertError(DecoderException.class);
+        release(subscriber.getOnNextEvents());
+    }
+
+    @Test(timeout = 60000)
+    public void testHeadersTooLong() throws Exception {
+        TestSubscriber<MultipartChunk> subscriber = new TestSubscriber<>();
+        String content = "--" + BOUNDARY + "\r\nX-Large: " + new String(new char[100]).replace('\0', 'x') + "\r\n";
+        toBuffers(content, 8).compose(MultipartDecoder.forBoundary(BOUNDARY).maxHeaderSize(64)).subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertError(TooLongFrameException.class);
+    }
+
+    @Test(timeout = 60000)
+    public void testBoundaryFromContentType() throws Exception {
+        assertThat("Unexpected boundary.",
+                   MultipartDecoder.parameter("multipart/form-data; boundary=\"" + BOUNDARY + '"', "boundary"),
+                   equalTo(BOUNDARY));
+        assertThat("Unexpected boundary.",
+                   MultipartDecoder.parameter("multipart/form-data; charset=utf-8; boundary=" + BOUNDARY, "boundary"),
+                   equalTo(BOUNDARY));
+        assertThat("Multipart not detected.", MultipartDecoder.isMultipart("Multipart/Form-Data; boundary=x"),
+                   is(true));
+        assertThat("Non multipart detected as multipart.", MultipartDecoder.isMultipart("text/plain"), is(false));
+    }
+
+    @Test(timeout = 60000, expected = IllegalArgumentException.class)
+    public void testContentTypeWithoutBoundary() throws Exception {
+        MultipartDecoder.forContentType("multipart/form-data");
+    }
+
+    @Test(timeout = 60000)
+    public void testAggregateInMemory() throws Exception {
+        List<AggregatedPart> parts = aggregate(new MultipartAggregator(1024, folder.getRoot()));
+
+        assertThat("Unexpected number of parts.", parts, hasSize(2));
+        assertThat("Part not in memory.", parts.get(1).isInMemory(), is(true));
+        assertThat("Unexpected content.", parts.get(1).getContentAsString(CharsetUtil.UTF_8),
+                   equalTo("line1\r\nline2\r\n--not-a-boundary"));
+        release(parts);
+    }
+
+    @Test(timeout = 60000)
+    public void testAggregateSpillsToFile() throws Exception {
+        List<AggregatedPart> parts = aggregate(new MultipartAggregator(8, folder.getRoot()));
+
+        assertThat("Unexpected number of parts.", parts, hasSize(2));
+        assertThat("Small part not in memory.", parts.get(0).isInMemory(), is(true));
+        assertThat("Unexpected content.", parts.get(0).getContentAsString(CharsetUtil.UTF_8), equalTo("value"));
+
+        AggregatedPart filePart = parts.get(1);
+        assertThat("Large part not spilled to file.", filePart.isInMemory(), is(false));
+        File file = filePart.getFile();
+        assertThat("Unexpected file content.", new String(Files.readAllBytes(file.toPath()), CharsetUtil.UTF_8),
+                   equalTo("line1\r\nline2\r\n--not-a-boundary"));
+        assertThat("Unexpected length.", filePart.getLength(), is(file.length()));
+
+        release(parts);
+        assertThat("Temporary file not deleted on release.", file.exists(), is(false));
+    }
+
+    private List<AggregatedPart> aggregate(MultipartAggregator aggregator) {
+        TestSubscriber<AggregatedPart> subscriber = new TestSubscriber<>();
+        toBuffers(CONTENT, 3).compose(MultipartDecoder.forBoundary(BOUNDARY))
+                             .compose(aggregator)
+                             .subscribe(subscriber);
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        return subscriber.getOnNextEvents();
+    }
+
+    private static void assertParts(List<MultipartChunk> chunks) {
+        List<MultipartPart> parts = new ArrayList<>();
+        List<StringBuilder> contents = new ArrayList<>();
+        boolean partEnded = true;
+        for (MultipartChunk chunk : chunks) {
+            if (partEnded) {
+                parts.add(chunk.getPart());
+                contents.add(new StringBuilder());
+            }
+            assertThat("Chunk of a different part.", chunk.getPart(), sameInstance(parts.get(parts.size() - 1)));
+            contents.get(contents.size() - 1).append(chunk.content().toString(CharsetUtil.UTF_8));
+            partEnded = chunk.isLastChunk();
+        }
+        release(chunks);
+
+        assertThat("Last part not ended.", partEnded, is(true));
+        assertThat("Unexpected number of parts.", parts, hasSize(2));
+
+        assertThat("Unexpected field name.", parts.get(0).getName(), equalTo("field"));
+        assertThat("Field detected as file.", parts.get(0).isFile(), is(false));
+        assertThat("Unexpected field value.", contents.get(0).toString(), equalTo("value"));
+
+        assertThat("Unexpected file field name.", parts.get(1).getName(), equalTo("file"));
+        assertThat("Unexpected file name.", parts.get(1).getFileName(), equalTo("a;b.txt"));
+        assertThat("Unexpected content type.", parts.get(1).getContentType(), equalTo("text/plain"));
+        assertThat("Unexpected file content.", contents.get(1).toString(),
+                   equalTo("line1\r\nline2\r\n--not-a-boundary"));
+    }
+
+    private static List<MultipartChunk> decode(String content, int chunkSize) {
+        TestSubscriber<MultipartChunk> subscriber = new TestSubscriber<>();
+        toBuffers(content, chunkSize).compose(MultipartDecoder.forBoundary(BOUNDARY)).subscribe(subscriber);
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        return subscriber.getOnNextEvents();
+    }
+
+    private static Observable<ByteBuf> toBuffers(String content, int chunkSize) {
+        List<ByteBuf> buffers = new ArrayList<>();
+        byte[] bytes = content.getBytes(CharsetUtil.UTF_8);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            buffers.add(Unpooled.copiedBuffer(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+        return Observable.from(buffers);
+    }
+
+    private static void release(List<? extends ReferenceCounted> toRelease) {
+        for (ReferenceCounted referenceCounted : toRelease) {
+            referenceCounted.release();
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package io.reactivex.netty.protocol.http.sse;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.reactivex.netty.protocol.http.client.HttpClient;
 import io.reactivex.netty.protocol.http.client.HttpClientResponse;
 import io.reactivex.netty.protocol.http.server.HttpServer;
@@ -29,13 +31,17 @@ import org.junit.Test;
 import rx.Observable;
 import rx.functions.Func1;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import static rx.Observable.*;
 
 public class ServerSentEventEndToEndTest {
 
     private HttpServer<ByteBuf, ByteBuf> sseServer;
+    private boolean enableContentDecompression;
 
     @After
     public void tearDown() throws Exception {
@@ -84,6 +90,25 @@ public class ServerSentEventEndToEndTest {
         receiveAndAssertSingleEvent();
     }
 
+    @Test(timeout = 60000)
+    public void testGzipEncodedEvents() throws Exception {
+        final byte[] gzipped = gzip("data: interval 1\n");
+        sseServer = HttpServer.newServer()
+                              .start(new RequestHandler<ByteBuf, ByteBuf>() {
+                                  @Override
+                                  public Observable<Void> handle(HttpServerRequest<ByteBuf> request,
+                                                                 HttpServerResponse<ByteBuf> response) {
+                                      return response.setHeader(HttpHeaderNames.CONTENT_ENCODING,
+                                                                HttpHeaderValues.GZIP)
+                                                     .transformToServerSentEvents()
+                                                     .writeBytesAndFlushOnEach(just(gzipped));
+                                  }
+                              });
+        enableContentDecompression = true;
+
+        receiveAndAssertSingleEvent();
+    }
+
     protected void receiveAndAssertSingleEvent() {
         ServerSentEvent result = receivesSingleEvent();
         Assert.assertNotNull("Unexpected server sent event received.", result);
@@ -105,14 +130,17 @@ public class ServerSentEventEndToEndTest {
 
     private Observable<ServerSentEvent> receiveSse() {
 
-        return HttpClient.newClient("127.0.0.1", sseServer.getServerPort())
-                         .createGet("/")
-                         .flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<ServerSentEvent>>() {
-                             @Override
-                             public Observable<ServerSentEvent> call(HttpClientResponse<ByteBuf> resp) {
-                                 return resp.getContentAsServerSentEvents();
-                             }
-                         });
+        HttpClient<ByteBuf, ByteBuf> client = HttpClient.newClient("127.0.0.1", sseServer.getServerPort());
+        if (enableContentDecompression) {
+            client = client.enableContentDecompression();
+        }
+        return client.createGet("/")
+                     .flatMap(new Func1<HttpClientResponse<ByteBuf>, Observable<ServerSentEvent>>() {
+                         @Override
+                         public Observable<ServerSentEvent> call(HttpClientResponse<ByteBuf> resp) {
+                             return resp.getContentAsServerSentEvents();
+                         }
+                     });
     }
 
     private void startServer(final Func1<HttpServerResponse<ServerSentEvent>, Observable<Void>> f) {
@@ -125,4 +153,12 @@ public class ServerSentEventEndToEndTest {
                                   }
                               });
     }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes());
+        }
+        return bytes.toByteArray();
+    }
 }
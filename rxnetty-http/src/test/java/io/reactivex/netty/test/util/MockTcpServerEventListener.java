@@ -28,13 +28,14 @@ import static org.hamcrest.Matchers.*;
 public class MockTcpServerEventListener extends TcpServerEventListener {
 
     public enum ServerEvent {
-        NewClient, HandlingStart, HandlingSuccess, HandlingFailed
+        NewClient, HandlingStart, HandlingSuccess, HandlingFailed, DrainStart, DrainComplete, AcceptPaused, AcceptResumed
     }
 
     private final List<ServerEvent> methodsCalled = new ArrayList<>();
     private long duration;
     private TimeUnit timeUnit;
     private Throwable recievedError;
+    private int connectionCount;
 
     private final MockConnectionEventListener connDelegate;
 
@@ -69,6 +70,34 @@ public class MockTcpServerEventListener extends TcpServerEventListener {
         methodsCalled.add(ServerEvent.HandlingFailed);
     }
 
+    @Override
+    public void onDrainStart(long drainTimeout, TimeUnit timeUnit, int activeConnections) {
+        duration = drainTimeout;
+        this.timeUnit = timeUnit;
+        connectionCount = activeConnections;
+        methodsCalled.add(ServerEvent.DrainStart);
+    }
+
+    @Override
+    public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) {
+        this.duration = duration;
+        this.timeUnit = timeUnit;
+        connectionCount = forciblyClosedConnections;
+        methodsCalled.add(ServerEvent.DrainComplete);
+    }
+
+    @Override
+    public void onAcceptPaused() {
+        methodsCalled.add(ServerEvent.AcceptPaused);
+    }
+
+    @Override
+    public void onAcceptResumed(long duration, TimeUnit timeUnit) {
+        this.duration = duration;
+        this.timeUnit = timeUnit;
+        methodsCalled.add(ServerEvent.AcceptResumed);
+    }
+
     public long getDuration() {
         return duration;
     }
@@ -81,6 +110,10 @@ public class MockTcpServerEventListener extends TcpServerEventListener {
         return recievedError;
     }
 
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
     @Override
     public void onCompleted() {
         connDelegate.onCompleted();
@@ -194,6 +194,16 @@ public class HttpClientListener extends HttpClientEventsListener {
         tcpDelegate.onConnectSuccess(duration, timeUnit);
     }
 
+    @Override
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {
+        tcpDelegate.onTlsHandshakeSuccess(duration, timeUnit, sessionResumed);
+    }
+
+    @Override
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+        tcpDelegate.onTlsHandshakeFailed(duration, timeUnit, throwable);
+    }
+
     @Override
     public void onConnectStart() {
         tcpDelegate.onConnectStart();
@@ -17,6 +17,7 @@
 
 package io.reactivex.netty.spectator.http;
 
+import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Spectator;
 import io.reactivex.netty.protocol.http.server.events.HttpServerEventsListener;
@@ -26,6 +27,8 @@ import io.reactivex.netty.spectator.tcp.TcpServerListener;
 
 import java.util.concurrent.TimeUnit;
 
+import static io.reactivex.netty.spectator.internal.SpectatorUtils.*;
+
 /**
  * HttpServerListener.
  */
@@ -34,6 +37,7 @@ public class HttpServerListener extends HttpServerEventsListener {
     private final EventMetric requestRead;
     private final EventMetric requestProcessing;
     private final EventMetric responseWrite;
+    private final Counter requestsShed;
 
     private final ResponseCodesHolder responseCodesHolder;
     private final TcpServerListener tcpDelegate;
@@ -46,6 +50,7 @@ public class HttpServerListener extends HttpServerEventsListener {
         requestRead = new EventMetric(registry, "request", monitorId, "action", "read");
         requestProcessing = new EventMetric(registry, "request", monitorId, "action", "processing");
         responseWrite = new EventMetric(registry, "response", monitorId, "action", "write");
+        requestsShed = newCounter(registry, "request", monitorId, "action", "shed");
         responseCodesHolder = new ResponseCodesHolder(registry, monitorId);
         tcpDelegate = new TcpServerListener(registry, monitorId);
     }
@@ -54,6 +59,11 @@ public class HttpServerListener extends HttpServerEventsListener {
         return new HttpServerListener(monitorId);
     }
     
+    @Override
+    public void onRequestShed() {
+        requestsShed.increment();
+    }
+
     @Override
     public void onRequestHandlingFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
         requestProcessing.failure(duration, timeUnit);
@@ -94,6 +104,26 @@ public class HttpServerListener extends HttpServerEventsListener {
         responseWrite.start();
     }
 
+    @Override
+    public void onAcceptPaused() {
+        tcpDelegate.onAcceptPaused();
+    }
+
+    @Override
+    public void onAcceptResumed(long duration, TimeUnit timeUnit) {
+        tcpDelegate.onAcceptResumed(duration, timeUnit);
+    }
+
+    @Override
+    public void onDrainStart(long drainTimeout, TimeUnit timeUnit, int activeConnections) {
+        tcpDelegate.onDrainStart(drainTimeout, timeUnit, activeConnections);
+    }
+
+    @Override
+    public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) {
+        tcpDelegate.onDrainComplete(duration, timeUnit, forciblyClosedConnections);
+    }
+
     @Override
     public void onConnectionHandlingFailed(long duration, TimeUnit timeUnit,
                                            Throwable throwable) {
@@ -38,6 +38,8 @@ public class TcpClientListener extends TcpClientEventListener {
     private final EventMetric poolRelease;
     private final Counter poolEvictions;
     private final Counter poolReuse;
+    private final EventMetric tlsHandshake;
+    private final Counter tlsSessionResumed;
 
     private final EventMetric write;
     private final EventMetric flush;
@@ -53,6 +55,8 @@ public class TcpClientListener extends TcpClientEventListener {
         poolRelease = new EventMetric(registry, "connection.pool", monitorId, "action", "release");
         poolEvictions = newCounter(registry, "connection.pool", monitorId, "action", "evict");
         poolReuse = newCounter(registry, "connection.pool", monitorId, "action", "reuse");
+        tlsHandshake = new EventMetric(registry, "connection", monitorId, "action", "tlsHandshake");
+        tlsSessionResumed = newCounter(registry, "connection", monitorId, "action", "tlsSessionResumed");
 
         write = new EventMetric(registry, "writes", monitorId, "action", "write");
         flush = new EventMetric(registry, "writes", monitorId, "action", "flush");
@@ -165,6 +169,19 @@ public class TcpClientListener extends TcpClientEventListener {
         connection.success(duration, timeUnit);
     }
 
+    @Override
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {
+        tlsHandshake.success(duration, timeUnit);
+        if (sessionResumed) {
+            tlsSessionResumed.increment();
+        }
+    }
+
+    @Override
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+        tlsHandshake.failure(duration, timeUnit);
+    }
+
     @Override
     public void onConnectStart() {
         connection.start();
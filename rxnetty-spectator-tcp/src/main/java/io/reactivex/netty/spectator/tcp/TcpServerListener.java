@@ -42,6 +42,9 @@ public class TcpServerListener extends TcpServerEventListener {
     private final Counter bytesRead;
     private final Counter bytesWritten;
 
+    private final Counter drainForcedCloses;
+    private final Counter acceptPauses;
+
     public TcpServerListener(Registry registry, String monitorId) {
         connectionAccept = newCounter(registry, "connection", monitorId, "rtype", "count",
                                       "action", "accept");
@@ -53,6 +56,10 @@ public class TcpServerListener extends TcpServerEventListener {
 
         bytesWritten = newCounter(registry, "bytes", monitorId, "rtype", "count", "action", "write");
         bytesRead = newCounter(registry, "bytes", monitorId, "rtype", "count", "action", "read");
+
+        drainForcedCloses = newCounter(registry, "connection", monitorId, "rtype", "count", "action",
+                                       "drainForceClose");
+        acceptPauses = newCounter(registry, "connection", monitorId, "rtype", "count", "action", "acceptPause");
     }
 
     public TcpServerListener(String monitorId) {
@@ -74,6 +81,16 @@ public class TcpServerListener extends TcpServerEventListener {
         connectionHandling.start(duration, timeUnit);
     }
 
+    @Override
+    public void onAcceptPaused() {
+        acceptPauses.increment();
+    }
+
+    @Override
+    public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) {
+        drainForcedCloses.increment(forciblyClosedConnections);
+    }
+
     @Override
     public void onConnectionCloseStart() {
         connectionClose.start();
@@ -25,11 +25,13 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.reactivex.netty.client.ChannelProviderFactory;
 import io.reactivex.netty.client.ConnectionProviderFactory;
 import io.reactivex.netty.client.Host;
+import io.reactivex.netty.ssl.ClientSslCodec;
 import io.reactivex.netty.ssl.SslCodec;
 import rx.Observable;
 import rx.functions.Action1;
@@ -289,6 +291,22 @@ public abstract class TcpClient<W, R> extends InterceptingTcpClient<W,R> {
      */
     public abstract TcpClient<W, R> secure(SslCodec sslCodec);
 
+    /**
+     * Creates a new client instance, inheriting all configurations from this client and using the passed
+     * {@code sslContext} for all secured connections created by the newly created client instance.
+     *
+     * All connections share the passed context, so a new connection to a server resumes the TLS session negotiated
+     * by an earlier connection to the same server, instead of performing a full handshake. The server certificate is
+     * verified against the host this client connects to; use {@link ClientSslCodec#withoutHostnameVerification}
+     * with {@link #secure(SslCodec)} to opt-out. See {@link ClientSslCodec} for details.
+     *
+     * @param sslContext Client {@link SslContext} for all secured connections created by the newly created client
+     * instance.
+     *
+     * @return A new {@link TcpClient} instance.
+     */
+    public abstract TcpClient<W, R> secure(SslContext sslContext);
+
     /**
      * Creates a new client instance, inheriting all configurations from this client and using a trust-all
      * {@link TrustManagerFactory}for all secured connections created by the newly created client instance.
@@ -322,7 +340,9 @@ public abstract class TcpClient<W, R> extends InterceptingTcpClient<W,R> {
     }
 
     /**
-     * Creates a new TCP client instance with the passed address of the target server.
+     * Creates a new TCP client instance with the passed address of the target server. If the address is a unix domain
+     * socket address ({@code io.netty.channel.unix.DomainSocketAddress}), the client connects using the native epoll
+     * transport.
      *
      * @param serverAddress Socket address for the target server.
      *
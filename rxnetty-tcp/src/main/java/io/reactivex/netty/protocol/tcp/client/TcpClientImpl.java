@@ -26,6 +26,7 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.handler.logging.LogLevel;
+import io.netty.handler.ssl.SslContext;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.reactivex.netty.HandlerNames;
 import io.reactivex.netty.channel.ChannelSubscriberEvent;
@@ -172,6 +173,11 @@ public final class TcpClientImpl<W, R> extends TcpClient<W, R> {
         return copy(state.secure(sslCodec), eventPublisher);
     }
 
+    @Override
+    public TcpClient<W, R> secure(SslContext sslContext) {
+        return copy(state.secure(sslContext), eventPublisher);
+    }
+
     @Override
     public TcpClient<W, R> unsafeSecure() {
         return copy(state.unsafeSecure(), eventPublisher);
@@ -281,7 +287,7 @@ public final class TcpClientImpl<W, R> extends TcpClient<W, R> {
                                           Host host, ChannelProvider channelProvider, ClientState<W, R> state) {
             this.host = host;
             this.channelProvider = channelProvider;
-            bootstrap = state.newBootstrap(hostEventPublisher, hostEventPublisher);
+            bootstrap = state.newBootstrap(hostEventPublisher, hostEventPublisher, host.getHost());
         }
 
         @Override
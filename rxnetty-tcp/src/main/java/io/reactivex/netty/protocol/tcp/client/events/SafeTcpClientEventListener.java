@@ -58,6 +58,20 @@ final class SafeTcpClientEventListener extends TcpClientEventListener implements
         }
     }
 
+    @Override
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {
+        if (!completed.get()) {
+            delegate.onTlsHandshakeSuccess(duration, timeUnit, sessionResumed);
+        }
+    }
+
+    @Override
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+        if (!completed.get()) {
+            delegate.onTlsHandshakeFailed(duration, timeUnit, throwable);
+        }
+    }
+
     @Override
     public void onPoolReleaseStart() {
         if (!completed.get()) {
@@ -55,6 +55,22 @@ public final class TcpClientEventPublisher extends TcpClientEventListener
                 }
             };
 
+    public static final Action4<TcpClientEventListener, Long, TimeUnit, Boolean> TLS_HANDSHAKE_SUCCESS_ACTION =
+            new Action4<TcpClientEventListener, Long, TimeUnit, Boolean>() {
+                @Override
+                public void call(TcpClientEventListener l, Long duration, TimeUnit timeUnit, Boolean resumed) {
+                    l.onTlsHandshakeSuccess(duration, timeUnit, resumed);
+                }
+            };
+
+    public static final Action4<TcpClientEventListener, Long, TimeUnit, Throwable> TLS_HANDSHAKE_FAILED_ACTION =
+            new Action4<TcpClientEventListener, Long, TimeUnit, Throwable>() {
+                @Override
+                public void call(TcpClientEventListener l, Long duration, TimeUnit timeUnit, Throwable t) {
+                    l.onTlsHandshakeFailed(duration, timeUnit, t);
+                }
+            };
+
     public static final Action1<TcpClientEventListener> EVICTION_ACTION = new Action1<TcpClientEventListener>() {
         @Override
         public void call(TcpClientEventListener l) {
@@ -143,6 +159,16 @@ public final class TcpClientEventPublisher extends TcpClientEventListener
         listeners.invokeListeners(CONN_FAILED_ACTION, duration, timeUnit, throwable);
     }
 
+    @Override
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {
+        listeners.invokeListeners(TLS_HANDSHAKE_SUCCESS_ACTION, duration, timeUnit, sessionResumed);
+    }
+
+    @Override
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+        listeners.invokeListeners(TLS_HANDSHAKE_FAILED_ACTION, duration, timeUnit, throwable);
+    }
+
     @Override
     public void onPoolReleaseStart() {
         listeners.invokeListeners(RELEASE_START_ACTION);
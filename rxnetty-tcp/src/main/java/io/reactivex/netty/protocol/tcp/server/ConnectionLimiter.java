@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.tcp.server;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.reactivex.netty.events.Clock;
+import io.reactivex.netty.protocol.tcp.server.events.TcpServerEventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * Limits the number of concurrent connections of a server by pausing accepting new connections (disabling auto-read on
+ * the server channels) when the maximum number of connections is reached, instead of accepting and immediately closing
+ * connections. Pending connections wait in the socket's accept backlog, till the number of active connections falls
+ * to the resume threshold, at which point accepting is resumed.
+ *
+ * Since a server channel accepts a batch of connections on every read, the number of connections may exceed the
+ * maximum by the size of a batch ({@link io.netty.channel.ChannelOption#MAX_MESSAGES_PER_READ}) per acceptor.
+ */
+final class ConnectionLimiter implements ChannelFutureListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionLimiter.class);
+
+    private final int maxConnections;
+    private final int resumeConnections;
+    private final Iterable<Channel> serverChannels;
+    private final TcpServerEventPublisher eventPublisher;
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    private boolean paused; /*Guarded by this*/
+    private long pauseStartTimeNanos; /*Guarded by this*/
+
+    ConnectionLimiter(int maxConnections, int resumeConnections, Iterable<Channel> serverChannels,
+                      TcpServerEventPublisher eventPublisher) {
+        this.maxConnections = maxConnections;
+        this.resumeConnections = resumeConnections;
+        this.serverChannels = serverChannels;
+        this.eventPublisher = eventPublisher;
+    }
+
+    void onNewConnection(Channel channel) {
+        channel.closeFuture().addListener(this);
+        if (activeConnections.incrementAndGet() >= maxConnections) {
+            pauseIfRequired();
+        }
+    }
+
+    @Override
+    public void operationComplete(ChannelFuture closeFuture) throws Exception {
+        if (activeConnections.decrementAndGet() <= resumeConnections) {
+            resumeIfRequired();
+        }
+    }
+
+    private synchronized void pauseIfRequired() {
+        /*Count is checked again as a connection may have been closed after the count was incremented.*/
+        if (!paused && activeConnections.get() >= maxConnections) {
+            paused = true;
+            pauseStartTimeNanos = Clock.newStartTimeNanos();
+            setAutoRead(false);
+            logger.warn("Maximum connections (" + maxConnections + ") reached, pausing accepting new connections.");
+            if (eventPublisher.publishingEnabled()) {
+                eventPublisher.onAcceptPaused();
+            }
+        }
+    }
+
+    private synchronized void resumeIfRequired() {
+        if (paused && activeConnections.get() <= resumeConnections) {
+            paused = false;
+            setAutoRead(true);
+            logger.info("Active connections fell to " + resumeConnections + ", resuming accepting new connections.");
+            if (eventPublisher.publishingEnabled()) {
+                eventPublisher.onAcceptResumed(Clock.onEndNanos(pauseStartTimeNanos), NANOSECONDS);
+            }
+        }
+    }
+
+    private void setAutoRead(boolean autoRead) {
+        for (Channel serverChannel : serverChannels) {
+            /*Enabling auto-read also triggers a read, so pending connections are accepted immediately.*/
+            serverChannel.config().setAutoRead(autoRead);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.tcp.server;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandler;
+
+/**
+ * An event fired on the pipeline of every active connection when the server starts draining connections as a result of
+ * {@link TcpServer#shutdownGracefully(long, java.util.concurrent.TimeUnit)}.
+ *
+ * TCP itself has no notion of an idle connection, so by default, a connection is left untouched till it is closed by
+ * the connection handler, the peer or at the end of the drain timeout. Protocols which can tell when a connection is
+ * idle, should handle this event in {@link ChannelInboundHandler#userEventTriggered(ChannelHandlerContext, Object)} to
+ * close idle connections immediately and close the others as soon as they are idle.
+ */
+public final class DrainConnectionEvent {
+
+    public static final DrainConnectionEvent INSTANCE = new DrainConnectionEvent();
+
+    private DrainConnectionEvent() {
+    }
+}
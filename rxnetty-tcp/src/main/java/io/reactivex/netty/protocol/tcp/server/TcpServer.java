@@ -72,6 +72,64 @@ public abstract class TcpServer<R, W> implements EventSource<TcpServerEventListe
      */
     public abstract <T> TcpServer<R, W> clientChannelOption(ChannelOption<T> option, T value);
 
+    /**
+     * Creates a new server instance, inheriting all configurations from this server and binding the passed number of
+     * server sockets (acceptors) to the server address, using {@code SO_REUSEPORT}. The kernel distributes new
+     * connections across these sockets and each socket is registered with a different event loop of the server's
+     * event loop group (for the default event loops, one per core), so accepting connections does not funnel through a
+     * single event loop. This improves accept throughput and the distribution of connections for workloads with many
+     * short-lived connections.
+     *
+     * Typically, the number of acceptors would be equal to the number of event loops used by the server.
+     *
+     * <b>This is only supported by the native epoll transport.</b> If the server is not using the epoll transport when
+     * started, a single acceptor is bound.
+     *
+     * @param acceptorCount Number of server sockets to bind. {@code 1} binds a single socket without
+     * {@code SO_REUSEPORT}, which is the default.
+     *
+     * @return A new {@link TcpServer} instance.
+     *
+     * @throws IllegalStateException If the acceptor count is more than 1 and the native epoll transport is not
+     * available or the server is bound to a unix domain socket.
+     */
+    public abstract TcpServer<R, W> reusePortAcceptors(int acceptorCount);
+
+    /**
+     * Creates a new server instance, inheriting all configurations from this server and limiting the number of
+     * concurrent connections to the passed {@code maxConnections}. Accepting new connections resumes when the number of
+     * active connections falls to 90% of the maximum. This is the same as calling
+     * {@link #maxConnections(int, int)} with a resume threshold of
+     * {@code maxConnections - max(1, maxConnections / 10)}.
+     *
+     * @param maxConnections Maximum number of concurrent connections, {@code 0} for no limit.
+     *
+     * @return A new {@link TcpServer} instance.
+     */
+    public abstract TcpServer<R, W> maxConnections(int maxConnections);
+
+    /**
+     * Creates a new server instance, inheriting all configurations from this server and limiting the number of
+     * concurrent connections to the passed {@code maxConnections}.
+     *
+     * When the maximum number of connections is reached, the server stops accepting new connections, as opposed to
+     * accepting and closing them, so that new connections wait in the socket's accept backlog instead of consuming
+     * file descriptors and memory. Accepting is resumed when the number of active connections falls to
+     * {@code resumeConnections}; the gap between the two avoids toggling accepting on every connection close. Pausing
+     * and resuming is published to {@link TcpServerEventListener#onAcceptPaused()} and
+     * {@link TcpServerEventListener#onAcceptResumed(long, TimeUnit)}.
+     *
+     * Since a batch of connections is accepted on every read of the server socket, the number of connections may
+     * exceed the maximum by the size of the batch ({@link ChannelOption#MAX_MESSAGES_PER_READ}) per acceptor.
+     *
+     * @param maxConnections Maximum number of concurrent connections, {@code 0} for no limit.
+     * @param resumeConnections Number of active connections at which accepting is resumed, must be less than
+     * {@code maxConnections}.
+     *
+     * @return A new {@link TcpServer} instance.
+     */
+    public abstract TcpServer<R, W> maxConnections(int maxConnections, int resumeConnections);
+
     /**
      * Adds a {@link ChannelHandler} to {@link ChannelPipeline} for all connections created by this server.
      * The specified handler is added at the first position of the pipeline as specified by
@@ -326,6 +384,26 @@ public abstract class TcpServer<R, W> implements EventSource<TcpServerEventListe
      */
     public abstract void shutdown();
 
+    /**
+     * Gracefully shutdown this server by draining all active connections, waiting till all connections are closed or
+     * the passed {@code drainTimeout} elapses. This method:
+     *
+     * <ul>
+     <li>Closes the server socket, so no new connections are accepted.</li>
+     <li>Fires a {@link DrainConnectionEvent} on every active connection, so that protocols that understand idle
+     connections can close them as soon as they are idle.</li>
+     <li>Waits for all active connections to be closed, for a maximum of the passed {@code drainTimeout}.</li>
+     <li>Forcibly closes any connection that is still active after the drain timeout.</li>
+     </ul>
+     *
+     * The progress of the drain is published to {@link TcpServerEventListener#onDrainStart(long, TimeUnit, int)} and
+     * {@link TcpServerEventListener#onDrainComplete(long, TimeUnit, int)}.
+     *
+     * @param drainTimeout Maximum time to wait for the active connections to complete.
+     * @param timeUnit Time unit for the drain timeout.
+     */
+    public abstract void shutdownGracefully(long drainTimeout, TimeUnit timeUnit);
+
     /**
      * Waits for the shutdown of this server.
      *
@@ -401,7 +479,9 @@ public abstract class TcpServer<R, W> implements EventSource<TcpServerEventListe
     }
 
     /**
-     * Creates a new server using the passed address.
+     * Creates a new server using the passed address. If the address is a unix domain socket address
+     * ({@code io.netty.channel.unix.DomainSocketAddress}), the server listens on the domain socket using the native
+     * epoll transport.
      *
      * @param socketAddress Socket address for the server.
      * @return A new {@link TcpServer}
@@ -17,14 +17,21 @@
 package io.reactivex.netty.protocol.tcp.server;
 
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.ChannelGroupFuture;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.handler.logging.LogLevel;
 import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.reactivex.netty.events.Clock;
 import io.reactivex.netty.protocol.tcp.server.events.TcpServerEventListener;
 import io.reactivex.netty.protocol.tcp.server.events.TcpServerEventPublisher;
 import io.reactivex.netty.server.ServerState;
@@ -42,6 +49,8 @@ import java.net.SocketAddress;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static java.util.concurrent.TimeUnit.*;
+
 public class TcpServerImpl<R, W> extends TcpServer<R, W> {
 
     private static final Logger logger = LoggerFactory.getLogger(TcpServerImpl.class);
@@ -50,6 +59,10 @@ public class TcpServerImpl<R, W> extends TcpServer<R, W> {
 
     private final ServerState<R, W> state;
     private ChannelFuture bindFuture;
+    /*All bound server sockets, more than one if the server uses multiple SO_REUSEPORT acceptors.*/
+    private final ChannelGroup serverChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    /*All accepted connections, closed connections are removed automatically by the group.*/
+    private final ChannelGroup activeConnections = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     protected final AtomicReference<ServerStatus> serverStateRef;
 
     public TcpServerImpl(SocketAddress socketAddress) {
@@ -78,6 +91,21 @@ public class TcpServerImpl<R, W> extends TcpServer<R, W> {
         return copy(state.clientChannelOption(option, value));
     }
 
+    @Override
+    public TcpServer<R, W> reusePortAcceptors(int acceptorCount) {
+        return copy(((TcpServerState<R, W>)state).reusePortAcceptors(acceptorCount));
+    }
+
+    @Override
+    public TcpServer<R, W> maxConnections(int maxConnections) {
+        return maxConnections(maxConnections, maxConnections > 0 ? maxConnections - Math.max(1, maxConnections / 10) : 0);
+    }
+
+    @Override
+    public TcpServer<R, W> maxConnections(int maxConnections, int resumeConnections) {
+        return copy(((TcpServerState<R, W>)state).maxConnections(maxConnections, resumeConnections));
+    }
+
     @Override
     public <RR, WW> TcpServer<RR, WW> addChannelHandlerFirst(String name, Func0<ChannelHandler> handlerFactory) {
         return copy(state.<RR, WW>addChannelHandlerFirst(name, handlerFactory));
@@ -186,9 +214,18 @@ public class TcpServerImpl<R, W> extends TcpServer<R, W> {
             throw new IllegalStateException("Server already started");
         }
         try {
+            final TcpServerState<R, W> tcpServerState = (TcpServerState<R, W>) state;
+            final ConnectionLimiter limiter = tcpServerState.getMaxConnections() > 0
+                    ? new ConnectionLimiter(tcpServerState.getMaxConnections(), tcpServerState.getResumeConnections(),
+                                            serverChannels, tcpServerState.getEventPublisher())
+                    : null;
             Action1<ChannelPipeline> handlerFactory = new Action1<ChannelPipeline>() {
                 @Override
                 public void call(ChannelPipeline pipeline) {
+                    activeConnections.add(pipeline.channel());
+                    if (null != limiter) {
+                        limiter.onNewConnection(pipeline.channel());
+                    }
                     TcpServerState<R, W> tcpState = (TcpServerState<R, W>) state;
                     TcpServerConnectionToChannelBridge.addToPipeline(pipeline, connectionHandler,
                                                                      tcpState.getEventPublisher(), tcpState.isSecure());
@@ -199,6 +236,8 @@ public class TcpServerImpl<R, W> extends TcpServer<R, W> {
             if (!bindFuture.isSuccess()) {
                 throw new RuntimeException(bindFuture.cause());
             }
+            serverChannels.add(bindFuture.channel());
+            bindAdditionalAcceptors(newState);
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -216,13 +255,55 @@ public class TcpServerImpl<R, W> extends TcpServer<R, W> {
             throw new IllegalStateException("The server is already shutdown.");
         } else {
             try {
-                bindFuture.channel().close().sync();
+                serverChannels.close().sync();
             } catch (InterruptedException e) {
                 logger.error("Interrupted while waiting for the server socket to close.", e);
             }
         }
     }
 
+    @Override
+    public void shutdownGracefully(long drainTimeout, TimeUnit timeUnit) {
+        if (!serverStateRef.compareAndSet(ServerStatus.Started, ServerStatus.Shutdown)) {
+            throw new IllegalStateException("The server is already shutdown.");
+        }
+
+        final TcpServerEventPublisher eventPublisher = getEventPublisher();
+        final long startTimeNanos = Clock.newStartTimeNanos();
+        int forciblyClosed = 0;
+        try {
+            /*Stop accepting new connections before draining, else the drain may never complete.*/
+            serverChannels.close().sync();
+
+            /*Close future is created before firing the event, so that connections closed immediately are accounted.*/
+            final ChannelGroupFuture allClosed = activeConnections.newCloseFuture();
+            if (eventPublisher.publishingEnabled()) {
+                eventPublisher.onDrainStart(drainTimeout, timeUnit, activeConnections.size());
+            }
+
+            for (Channel connection : activeConnections) {
+                connection.pipeline().fireUserEventTriggered(DrainConnectionEvent.INSTANCE);
+            }
+
+            if (!allClosed.await(drainTimeout, timeUnit)) {
+                forciblyClosed = activeConnections.size();
+                logger.warn("Connections not drained within the timeout, forcibly closing " + forciblyClosed
+                            + " connections.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            logger.error("Interrupted while draining connections, forcibly closing remaining connections.", e);
+            forciblyClosed = activeConnections.size();
+        } finally {
+            /*No op if all connections are closed, else, these are connections that could not be drained.*/
+            activeConnections.close().awaitUninterruptibly();
+        }
+
+        if (eventPublisher.publishingEnabled()) {
+            eventPublisher.onDrainComplete(Clock.onEndNanos(startTimeNanos), NANOSECONDS, forciblyClosed);
+        }
+    }
+
     @Override
     public void awaitShutdown() {
         ServerStatus status = serverStateRef.get();
@@ -275,6 +356,26 @@ public class TcpServerImpl<R, W> extends TcpServer<R, W> {
         return ((TcpServerState<R, W>)state).getEventPublisher().subscribe(listener);
     }
 
+    private void bindAdditionalAcceptors(TcpServerState<R, W> newState) throws InterruptedException {
+        final int acceptorCount = newState.getAcceptorCount();
+        if (acceptorCount <= 1) {
+            return;
+        }
+
+        if (!(bindFuture.channel() instanceof EpollServerSocketChannel)) {
+            logger.warn("Multiple acceptors are only supported by the native epoll transport, server channel: "
+                        + bindFuture.channel().getClass().getName() + ". Using a single acceptor.");
+            return;
+        }
+
+        /*Bind to the address of the first acceptor, so that an ephemeral port is shared by all acceptors. Every bind
+        registers the server channel with the next event loop in the group, so the acceptors are spread across loops.*/
+        final SocketAddress boundAddress = bindFuture.channel().localAddress();
+        for (int i = 1; i < acceptorCount; i++) {
+            serverChannels.add(newState.getBootstrap().bind(boundAddress).sync().channel());
+        }
+    }
+
     private static <RR, WW> TcpServer<RR, WW> copy(ServerState<RR, WW> newState) {
         return new TcpServerImpl<>(newState);
     }
@@ -21,12 +21,15 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import io.reactivex.netty.RxNetty;
 import io.reactivex.netty.channel.DetachedChannelPipeline;
+import io.reactivex.netty.channel.DomainSockets;
 import io.reactivex.netty.protocol.tcp.server.events.TcpServerEventPublisher;
 import io.reactivex.netty.server.ServerState;
 import io.reactivex.netty.ssl.DefaultSslCodec;
@@ -48,36 +51,75 @@ public class TcpServerState<R, W> extends ServerState<R, W> {
 
     private final TcpServerEventPublisher eventPublisher;
     private final boolean secure;
+    private final int acceptorCount;
+    private final int maxConnections;
+    private final int resumeConnections;
 
     protected TcpServerState(SocketAddress socketAddress, EventLoopGroup parent,
                              EventLoopGroup child,
                              Class<? extends ServerChannel> channelClass) {
         super(socketAddress, parent, child, channelClass);
         secure = false;
+        acceptorCount = 1;
+        maxConnections = 0;
+        resumeConnections = 0;
         eventPublisher = new TcpServerEventPublisher();
     }
 
     protected TcpServerState(TcpServerState<?, ?> toCopy, SslCodec sslCodec) {
         super(toCopy, toCopy.detachedPipeline.configure(sslCodec));
         secure = true;
+        acceptorCount = toCopy.acceptorCount;
+        maxConnections = toCopy.maxConnections;
+        resumeConnections = toCopy.resumeConnections;
         eventPublisher = toCopy.eventPublisher.copy();
     }
 
     protected TcpServerState(TcpServerState<R, W> toCopy, SocketAddress socketAddress) {
         super(toCopy, socketAddress);
         secure = toCopy.secure;
+        acceptorCount = toCopy.acceptorCount;
+        maxConnections = toCopy.maxConnections;
+        resumeConnections = toCopy.resumeConnections;
         eventPublisher = toCopy.eventPublisher.copy();
     }
 
     protected TcpServerState(TcpServerState<R, W> toCopy, ServerBootstrap clone) {
         super(toCopy, clone);
         secure = toCopy.secure;
+        acceptorCount = toCopy.acceptorCount;
+        maxConnections = toCopy.maxConnections;
+        resumeConnections = toCopy.resumeConnections;
         eventPublisher = toCopy.eventPublisher.copy();
     }
 
     protected TcpServerState(TcpServerState<?, ?> toCopy, DetachedChannelPipeline newPipeline) {
         super(toCopy, newPipeline);
         secure = toCopy.secure;
+        acceptorCount = toCopy.acceptorCount;
+        maxConnections = toCopy.maxConnections;
+        resumeConnections = toCopy.resumeConnections;
+        eventPublisher = toCopy.eventPublisher.copy();
+    }
+
+    protected TcpServerState(TcpServerState<R, W> toCopy, int acceptorCount) {
+        super(toCopy, toCopy.bootstrap.clone());
+        secure = toCopy.secure;
+        this.acceptorCount = acceptorCount;
+        maxConnections = toCopy.maxConnections;
+        resumeConnections = toCopy.resumeConnections;
+        eventPublisher = toCopy.eventPublisher.copy();
+        if (acceptorCount > 1) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+    }
+
+    protected TcpServerState(TcpServerState<R, W> toCopy, int maxConnections, int resumeConnections) {
+        super(toCopy, toCopy.bootstrap.clone());
+        secure = toCopy.secure;
+        acceptorCount = toCopy.acceptorCount;
+        this.maxConnections = maxConnections;
+        this.resumeConnections = resumeConnections;
         eventPublisher = toCopy.eventPublisher.copy();
     }
 
@@ -93,6 +135,31 @@ public class TcpServerState<R, W> extends ServerState<R, W> {
         return new TcpServerState<>(this, sslCodec);
     }
 
+    public TcpServerState<R, W> reusePortAcceptors(int acceptorCount) {
+        if (acceptorCount < 1) {
+            throw new IllegalArgumentException("Acceptor count must be at least 1, found: " + acceptorCount);
+        }
+        if (acceptorCount > 1 && DomainSockets.isDomainSocketAddress(socketAddress)) {
+            throw new IllegalStateException("Multiple acceptors can not be bound to a unix domain socket.");
+        }
+        if (acceptorCount > 1 && !Epoll.isAvailable()) {
+            throw new IllegalStateException("Multiple acceptors require SO_REUSEPORT, which is only supported by the "
+                                            + "native epoll transport.", Epoll.unavailabilityCause());
+        }
+        return new TcpServerState<>(this, acceptorCount);
+    }
+
+    public TcpServerState<R, W> maxConnections(int maxConnections, int resumeConnections) {
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("Max connections can not be negative, found: " + maxConnections);
+        }
+        if (maxConnections > 0 && (resumeConnections < 0 || resumeConnections >= maxConnections)) {
+            throw new IllegalArgumentException("Resume connections must be between 0 and max connections ("
+                                               + maxConnections + "), found: " + resumeConnections);
+        }
+        return new TcpServerState<>(this, maxConnections, resumeConnections);
+    }
+
     public TcpServerState<R, W> unsafeSecure() {
         return secure(new DefaultSslCodec(new Func1<ByteBufAllocator, SSLEngine>() {
             @Override
@@ -129,6 +196,18 @@ public class TcpServerState<R, W> extends ServerState<R, W> {
         return secure;
     }
 
+    public int getAcceptorCount() {
+        return acceptorCount;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getResumeConnections() {
+        return resumeConnections;
+    }
+
     public TcpServerEventPublisher getEventPublisher() {
         return eventPublisher;
     }
@@ -138,6 +217,10 @@ public class TcpServerState<R, W> extends ServerState<R, W> {
     }
 
     public static <RR, WW> TcpServerState<RR, WW> create(SocketAddress socketAddress) {
+        if (DomainSockets.isDomainSocketAddress(socketAddress)) {
+            return create(socketAddress, RxNetty.getRxEventLoopProvider().globalServerDomainSocketEventLoop(),
+                          DomainSockets.serverChannelClass());
+        }
         return create(socketAddress, RxNetty.getRxEventLoopProvider().globalServerEventLoop(true),
                       RxNetty.isUsingNativeTransport() ? EpollServerSocketChannel.class : NioServerSocketChannel.class);
     }
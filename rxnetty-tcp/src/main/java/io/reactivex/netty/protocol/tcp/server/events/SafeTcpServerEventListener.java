@@ -66,6 +66,34 @@ final class SafeTcpServerEventListener extends TcpServerEventListener implements
         }
     }
 
+    @Override
+    public void onDrainStart(long drainTimeout, TimeUnit timeUnit, int activeConnections) {
+        if (!completed.get()) {
+            delegate.onDrainStart(drainTimeout, timeUnit, activeConnections);
+        }
+    }
+
+    @Override
+    public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) {
+        if (!completed.get()) {
+            delegate.onDrainComplete(duration, timeUnit, forciblyClosedConnections);
+        }
+    }
+
+    @Override
+    public void onAcceptPaused() {
+        if (!completed.get()) {
+            delegate.onAcceptPaused();
+        }
+    }
+
+    @Override
+    public void onAcceptResumed(long duration, TimeUnit timeUnit) {
+        if (!completed.get()) {
+            delegate.onAcceptResumed(duration, timeUnit);
+        }
+    }
+
     @Override
     public void onByteRead(long bytesRead) {
         if (!completed.get()) {
@@ -57,4 +57,43 @@ public abstract class TcpServerEventListener extends ConnectionEventListener {
      */
     @SuppressWarnings("unused")
     public void onConnectionHandlingFailed(long duration, TimeUnit timeUnit, Throwable throwable) { }
+
+    /**
+     * Event when the server starts draining its connections, as a result of
+     * {@link TcpServer#shutdownGracefully(long, TimeUnit)}. At this point, the server has stopped accepting new
+     * connections.
+     *
+     * @param drainTimeout Maximum time the server waits for the active connections to complete.
+     * @param timeUnit Time unit for the drain timeout.
+     * @param activeConnections Number of connections that are active when the drain starts.
+     */
+    @SuppressWarnings("unused")
+    public void onDrainStart(long drainTimeout, TimeUnit timeUnit, int activeConnections) { }
+
+    /**
+     * Event when the server completes draining its connections.
+     *
+     * @param duration Time taken to drain the connections.
+     * @param timeUnit Time unit for the duration.
+     * @param forciblyClosedConnections Number of connections that did not complete within the drain timeout and hence
+     * were forcibly closed.
+     */
+    @SuppressWarnings("unused")
+    public void onDrainComplete(long duration, TimeUnit timeUnit, int forciblyClosedConnections) { }
+
+    /**
+     * Event when the server stops accepting new connections, as the configured maximum number of connections
+     * ({@link TcpServer#maxConnections(int, int)}) is reached.
+     */
+    public void onAcceptPaused() { }
+
+    /**
+     * Event when the server resumes accepting new connections after a pause, as the number of active connections fell to
+     * the configured resume threshold.
+     *
+     * @param duration Time for which accepting new connections was paused.
+     * @param timeUnit Time unit for the duration.
+     */
+    @SuppressWarnings("unused")
+    public void onAcceptResumed(long duration, TimeUnit timeUnit) { }
 }
@@ -63,6 +63,39 @@ public final class TcpServerEventPublisher extends TcpServerEventListener
                 }
             };
 
+    private static final Action4<TcpServerEventListener, Long, TimeUnit, Integer> DRAIN_START_ACTION =
+            new Action4<TcpServerEventListener, Long, TimeUnit, Integer>() {
+                @Override
+                public void call(TcpServerEventListener l, Long drainTimeout, TimeUnit timeUnit,
+                                 Integer activeConnections) {
+                    l.onDrainStart(drainTimeout, timeUnit, activeConnections);
+                }
+            };
+
+    private static final Action4<TcpServerEventListener, Long, TimeUnit, Integer> DRAIN_COMPLETE_ACTION =
+            new Action4<TcpServerEventListener, Long, TimeUnit, Integer>() {
+                @Override
+                public void call(TcpServerEventListener l, Long duration, TimeUnit timeUnit,
+                                 Integer forciblyClosedConnections) {
+                    l.onDrainComplete(duration, timeUnit, forciblyClosedConnections);
+                }
+            };
+
+    private static final Action1<TcpServerEventListener> ACCEPT_PAUSED_ACTION = new Action1<TcpServerEventListener>() {
+        @Override
+        public void call(TcpServerEventListener l) {
+            l.onAcceptPaused();
+        }
+    };
+
+    private static final Action3<TcpServerEventListener, Long, TimeUnit> ACCEPT_RESUMED_ACTION =
+            new Action3<TcpServerEventListener, Long, TimeUnit>() {
+                @Override
+                public void call(TcpServerEventListener l, Long duration, TimeUnit timeUnit) {
+                    l.onAcceptResumed(duration, timeUnit);
+                }
+            };
+
     private final ListenersHolder<TcpServerEventListener> listeners;
     private final ConnectionEventPublisher<TcpServerEventListener> connDelegate;
 
@@ -96,6 +129,26 @@ public final class TcpServerEventPublisher extends TcpServerEventListener
         listeners.invokeListeners(HANDLE_FAILED_ACTION, duration, timeUnit, throwable);
     }
 
+    @Override
+    public void onDrainStart(final long drainTimeout, final TimeUnit timeUnit, final int activeConnections) {
+        listeners.invokeListeners(DRAIN_START_ACTION, drainTimeout, timeUnit, activeConnections);
+    }
+
+    @Override
+    public void onDrainComplete(final long duration, final TimeUnit timeUnit, final int forciblyClosedConnections) {
+        listeners.invokeListeners(DRAIN_COMPLETE_ACTION, duration, timeUnit, forciblyClosedConnections);
+    }
+
+    @Override
+    public void onAcceptPaused() {
+        listeners.invokeListeners(ACCEPT_PAUSED_ACTION);
+    }
+
+    @Override
+    public void onAcceptResumed(final long duration, final TimeUnit timeUnit) {
+        listeners.invokeListeners(ACCEPT_RESUMED_ACTION, duration, timeUnit);
+    }
+
     @Override
     public void onByteRead(long bytesRead) {
         connDelegate.onByteRead(bytesRead);
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.tcp.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.protocol.tcp.server.ConnectionHandler;
+import io.reactivex.netty.protocol.tcp.server.TcpServer;
+import io.reactivex.netty.ssl.ClientSslCodec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import javax.net.ssl.SSLEngine;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class HostnameVerificationTest {
+
+    private TcpServer<ByteBuf, ByteBuf> server;
+    private SslContext clientContext;
+
+    @Before
+    public void setUp() throws Exception {
+        /*Certificate trusted by the client, but issued for a different host than the one the client connects to.*/
+        SelfSignedCertificate certificate = new SelfSignedCertificate("example.com");
+        final SslContext serverContext = SslContextBuilder.forServer(certificate.certificate(),
+                                                                     certificate.privateKey())
+                                                          .build();
+        server = TcpServer.newServer()
+                          .secure(new Func1<ByteBufAllocator, SSLEngine>() {
+                              @Override
+                              public SSLEngine call(ByteBufAllocator allocator) {
+                                  return serverContext.newEngine(allocator);
+                              }
+                          })
+                          .start(new ConnectionHandler<ByteBuf, ByteBuf>() {
+                              @Override
+                              public Observable<Void> handle(Connection<ByteBuf, ByteBuf> newConnection) {
+                                  return newConnection.writeAndFlushOnEach(newConnection.getInput());
+                              }
+                          });
+
+        clientContext = SslContextBuilder.forClient()
+                                         .trustManager(certificate.certificate())
+                                         .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test(timeout = 60000)
+    public void testCertificateForWrongHostRejected() throws Exception {
+        TestSubscriber<Connection<ByteBuf, ByteBuf>> subscriber = connect(TcpClient.newClient("localhost",
+                                                                                              server.getServerPort())
+                                                                                   .secure(clientContext));
+
+        assertThat("Certificate for a different host accepted.", subscriber.getOnErrorEvents(), hasSize(1));
+    }
+
+    @Test(timeout = 60000)
+    public void testCertificateForWrongHostAcceptedWithoutVerification() throws Exception {
+        TcpClient<ByteBuf, ByteBuf> client =
+                TcpClient.newClient("localhost", server.getServerPort())
+                         .secure(ClientSslCodec.withoutHostnameVerification(clientContext));
+
+        TestSubscriber<Connection<ByteBuf, ByteBuf>> subscriber = connect(client);
+
+        subscriber.assertNoErrors();
+        subscriber.assertValueCount(1);
+        subscriber.getOnNextEvents().get(0).closeNow();
+    }
+
+    private static TestSubscriber<Connection<ByteBuf, ByteBuf>> connect(TcpClient<ByteBuf, ByteBuf> client) {
+        TestSubscriber<Connection<ByteBuf, ByteBuf>> subscriber = new TestSubscriber<>();
+        client.createConnectionRequest().subscribe(subscriber);
+        subscriber.awaitTerminalEvent();
+        return subscriber;
+    }
+}
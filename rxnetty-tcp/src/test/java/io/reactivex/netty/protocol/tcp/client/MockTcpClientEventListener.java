@@ -56,6 +56,20 @@ public class MockTcpClientEventListener extends TcpClientEventListener {
         return mockDelegate.getTimeUnit();
     }
 
+    public boolean isSessionResumed() {
+        return mockDelegate.isSessionResumed();
+    }
+
+    @Override
+    public void onTlsHandshakeSuccess(long duration, TimeUnit timeUnit, boolean sessionResumed) {
+        mockDelegate.onTlsHandshakeSuccess(duration, timeUnit, sessionResumed);
+    }
+
+    @Override
+    public void onTlsHandshakeFailed(long duration, TimeUnit timeUnit, Throwable throwable) {
+        mockDelegate.onTlsHandshakeFailed(duration, timeUnit, throwable);
+    }
+
     @Override
     public void onByteRead(long bytesRead) {
         mockDelegate.onByteRead(bytesRead);
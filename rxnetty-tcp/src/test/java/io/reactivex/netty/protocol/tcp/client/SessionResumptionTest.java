@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.tcp.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.protocol.tcp.server.ConnectionHandler;
+import io.reactivex.netty.protocol.tcp.server.TcpServer;
+import io.reactivex.netty.test.util.MockClientEventListener.ClientEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import javax.net.ssl.SSLEngine;
+import java.nio.charset.Charset;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class SessionResumptionTest {
+
+    private TcpServer<ByteBuf, ByteBuf> server;
+    private TcpClient<ByteBuf, ByteBuf> client;
+
+    @Before
+    public void setUp() throws Exception {
+        SelfSignedCertificate certificate = new SelfSignedCertificate("localhost");
+        final SslContext serverContext = SslContextBuilder.forServer(certificate.certificate(),
+                                                                     certificate.privateKey())
+                                                          .build();
+        server = TcpServer.newServer()
+                          .secure(new Func1<ByteBufAllocator, SSLEngine>() {
+                              @Override
+                              public SSLEngine call(ByteBufAllocator allocator) {
+                                  return serverContext.newEngine(allocator);
+                              }
+                          })
+                          .start(new ConnectionHandler<ByteBuf, ByteBuf>() {
+                              @Override
+                              public Observable<Void> handle(Connection<ByteBuf, ByteBuf> newConnection) {
+                                  return newConnection.writeAndFlushOnEach(newConnection.getInput());
+                              }
+                          });
+
+        SslContext clientContext = SslContextBuilder.forClient()
+                                                    .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                                                    .build();
+        client = TcpClient.newClient("localhost", server.getServerPort())
+                          .secure(clientContext);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test(timeout = 60000)
+    public void testSessionResumedOnReconnect() throws Exception {
+        MockTcpClientEventListener listener = new MockTcpClientEventListener();
+        client.subscribe(listener);
+
+        assertEchoes(client);
+        listener.assertMethodCalled(ClientEvent.TlsHandshakeSuccess);
+        assertThat("First handshake resumed a session.", listener.isSessionResumed(), is(false));
+
+        assertEchoes(client);
+        assertThat("Session not resumed on reconnect.", listener.isSessionResumed(), is(true));
+    }
+
+    private static void assertEchoes(TcpClient<ByteBuf, ByteBuf> client) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        client.createConnectionRequest()
+              .flatMap(new Func1<Connection<ByteBuf, ByteBuf>, Observable<String>>() {
+                  @Override
+                  public Observable<String> call(Connection<ByteBuf, ByteBuf> c) {
+                      return c.writeString(Observable.just("Hello"))
+                              .cast(ByteBuf.class)
+                              .concatWith(c.getInput())
+                              .take(1)
+                              .map(new Func1<ByteBuf, String>() {
+                                  @Override
+                                  public String call(ByteBuf byteBuf) {
+                                      return byteBuf.toString(Charset.defaultCharset());
+                                  }
+                              });
+                  }
+              })
+              .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        assertThat("Unexpected echo.", subscriber.getOnNextEvents(), contains("Hello"));
+    }
+}
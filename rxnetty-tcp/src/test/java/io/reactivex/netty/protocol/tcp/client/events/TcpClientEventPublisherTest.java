@@ -65,6 +65,30 @@ public class TcpClientEventPublisherTest {
         assertThat("Listener not called with error.", rule.listener.getRecievedError(), is(expected));
     }
 
+    @Test(timeout = 60000)
+    public void testOnTlsHandshakeSuccess() throws Exception {
+        rule.publisher.onTlsHandshakeSuccess(1, TimeUnit.MILLISECONDS, true);
+
+        rule.listener.assertMethodsCalled(ClientEvent.TlsHandshakeSuccess);
+
+        assertThat("Listener not called with duration.", rule.listener.getDuration(), is(1L));
+        assertThat("Listener not called with time unit.", rule.listener.getTimeUnit(), is(TimeUnit.MILLISECONDS));
+        assertThat("Listener not called with session resumption.", rule.listener.isSessionResumed(), is(true));
+    }
+
+    @Test(timeout = 60000)
+    public void testOnTlsHandshakeFailed() throws Exception {
+        final Throwable expected = new NullPointerException();
+
+        rule.publisher.onTlsHandshakeFailed(1, TimeUnit.MILLISECONDS, expected);
+
+        rule.listener.assertMethodsCalled(ClientEvent.TlsHandshakeFailed);
+
+        assertThat("Listener not called with duration.", rule.listener.getDuration(), is(1L));
+        assertThat("Listener not called with time unit.", rule.listener.getTimeUnit(), is(TimeUnit.MILLISECONDS));
+        assertThat("Listener not called with error.", rule.listener.getRecievedError(), is(expected));
+    }
+
     @Test(timeout = 60000)
     public void testOnPoolReleaseStart() throws Exception {
         rule.publisher.onPoolReleaseStart();
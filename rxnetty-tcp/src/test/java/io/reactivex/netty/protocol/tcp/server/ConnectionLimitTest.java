@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.tcp.server;
+
+import io.netty.buffer.ByteBuf;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.protocol.tcp.server.events.TcpServerEventListener;
+import org.junit.Test;
+import rx.Observable;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class ConnectionLimitTest {
+
+    @Test(timeout = 60000, expected = IllegalArgumentException.class)
+    public void testResumeNotLessThanMax() throws Exception {
+        TcpServer.newServer().maxConnections(10, 10);
+    }
+
+    @Test(timeout = 60000, expected = IllegalArgumentException.class)
+    public void testNegativeMax() throws Exception {
+        TcpServer.newServer().maxConnections(-1);
+    }
+
+    @Test(timeout = 60000)
+    public void testAcceptPausedAndResumed() throws Exception {
+        final CountDownLatch paused = new CountDownLatch(1);
+        final CountDownLatch resumed = new CountDownLatch(1);
+        TcpServer<ByteBuf, ByteBuf> server = TcpServer.newServer().maxConnections(1, 0);
+        server.subscribe(new TcpServerEventListener() {
+            @Override
+            public void onAcceptPaused() {
+                paused.countDown();
+            }
+
+            @Override
+            public void onAcceptResumed(long duration, TimeUnit timeUnit) {
+                resumed.countDown();
+            }
+        });
+        server.start(new ConnectionHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(Connection<ByteBuf, ByteBuf> newConnection) {
+                return newConnection.writeAndFlushOnEach(newConnection.getInput());
+            }
+        });
+
+        try {
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getServerPort());
+            try (Socket first = new Socket()) {
+                first.connect(address);
+                assertEchoes(first);
+                assertThat("Accept not paused at max connections.", paused.await(1, TimeUnit.MINUTES), is(true));
+                assertThat("Accept resumed before a connection closed.", resumed.getCount(), is(1L));
+            }
+
+            assertThat("Accept not resumed after connection close.", resumed.await(1, TimeUnit.MINUTES), is(true));
+
+            try (Socket second = new Socket()) {
+                second.connect(address);
+                assertEchoes(second);
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static void assertEchoes(Socket socket) throws Exception {
+        OutputStream out = socket.getOutputStream();
+        out.write('a');
+        out.flush();
+        InputStream in = socket.getInputStream();
+        assertThat("Unexpected echo.", in.read(), is((int) 'a'));
+    }
+}
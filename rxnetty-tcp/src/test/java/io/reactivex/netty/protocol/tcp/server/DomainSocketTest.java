@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.tcp.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.client.Host;
+import io.reactivex.netty.client.pool.SingleHostPoolingProviderFactory;
+import io.reactivex.netty.protocol.tcp.client.TcpClient;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class DomainSocketTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private DomainSocketAddress address;
+    private TcpServer<ByteBuf, ByteBuf> server;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue("Native epoll transport not available.", Epoll.isAvailable());
+        address = new DomainSocketAddress(new File(folder.getRoot(), "rxnetty.sock"));
+        server = TcpServer.newServer(address).start(new ConnectionHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(Connection<ByteBuf, ByteBuf> newConnection) {
+                return newConnection.writeAndFlushOnEach(newConnection.getInput());
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (null != server) {
+            server.shutdown();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testServerAddress() throws Exception {
+        assertThat("Unexpected server address.", server.getServerAddress(),
+                   is(instanceOf(DomainSocketAddress.class)));
+        assertThat("Unexpected server port.", server.getServerPort(), is(0));
+    }
+
+    @Test(timeout = 60000)
+    public void testEcho() throws Exception {
+        assertEchoes(TcpClient.newClient(address));
+    }
+
+    @Test(timeout = 60000)
+    public void testPooledEcho() throws Exception {
+        TcpClient<ByteBuf, ByteBuf> client =
+                TcpClient.newClient(SingleHostPoolingProviderFactory.<ByteBuf, ByteBuf>createBounded(1),
+                                    Observable.just(new Host(address)));
+        assertEchoes(client);
+        assertEchoes(client);
+    }
+
+    @Test(timeout = 60000, expected = IllegalStateException.class)
+    public void testMultipleAcceptors() throws Exception {
+        TcpServer.newServer(new DomainSocketAddress(new File(folder.getRoot(), "other.sock")))
+                 .reusePortAcceptors(2);
+    }
+
+    private static void assertEchoes(TcpClient<ByteBuf, ByteBuf> client) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        client.createConnectionRequest()
+              .flatMap(new Func1<Connection<ByteBuf, ByteBuf>, Observable<String>>() {
+                  @Override
+                  public Observable<String> call(Connection<ByteBuf, ByteBuf> c) {
+                      return c.writeString(Observable.just("Hello"))
+                              .cast(ByteBuf.class)
+                              .concatWith(c.getInput())
+                              .take(1)
+                              .map(new Func1<ByteBuf, String>() {
+                                  @Override
+                                  public String call(ByteBuf byteBuf) {
+                                      return byteBuf.toString(Charset.defaultCharset());
+                                  }
+                              });
+                  }
+              })
+              .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        assertThat("Unexpected echo.", subscriber.getOnNextEvents(), contains("Hello"));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.tcp.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.protocol.tcp.client.TcpClient;
+import org.junit.Assume;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import java.nio.charset.Charset;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class ReusePortAcceptorsTest {
+
+    @Test(timeout = 60000, expected = IllegalArgumentException.class)
+    public void testInvalidAcceptorCount() throws Exception {
+        TcpServer.newServer().reusePortAcceptors(0);
+    }
+
+    @Test(timeout = 60000)
+    public void testSingleAcceptor() throws Exception {
+        TcpServer<ByteBuf, ByteBuf> server = TcpServer.newServer().reusePortAcceptors(1).start(echoHandler());
+        try {
+            assertEchoes(server, 1);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testMultipleAcceptors() throws Exception {
+        Assume.assumeTrue("Native epoll transport not available.", Epoll.isAvailable());
+
+        EpollEventLoopGroup group = new EpollEventLoopGroup(2);
+        TcpServer<ByteBuf, ByteBuf> server = TcpServer.newServer(0, group, EpollServerSocketChannel.class)
+                                                      .reusePortAcceptors(2)
+                                                      .start(echoHandler());
+        try {
+            assertEchoes(server, 10);
+        } finally {
+            server.shutdown();
+            group.shutdownGracefully();
+        }
+    }
+
+    private static void assertEchoes(TcpServer<ByteBuf, ByteBuf> server, int connections) {
+        for (int i = 0; i < connections; i++) {
+            TestSubscriber<String> subscriber = new TestSubscriber<>();
+            TcpClient.newClient(server.getServerAddress())
+                     .createConnectionRequest()
+                     .flatMap(new Func1<Connection<ByteBuf, ByteBuf>, Observable<String>>() {
+                         @Override
+                         public Observable<String> call(Connection<ByteBuf, ByteBuf> c) {
+                             return c.writeString(Observable.just("Hello"))
+                                     .cast(ByteBuf.class)
+                                     .concatWith(c.getInput())
+                                     .take(1)
+                                     .map(new Func1<ByteBuf, String>() {
+                                         @Override
+                                         public String call(ByteBuf byteBuf) {
+                                             return byteBuf.toString(Charset.defaultCharset());
+                                         }
+                                     });
+                         }
+                     })
+                     .subscribe(subscriber);
+
+            subscriber.awaitTerminalEvent();
+            subscriber.assertNoErrors();
+            assertThat("Unexpected echo.", subscriber.getOnNextEvents(), contains("Hello"));
+        }
+    }
+
+    private static ConnectionHandler<ByteBuf, ByteBuf> echoHandler() {
+        return new ConnectionHandler<ByteBuf, ByteBuf>() {
+            @Override
+            public Observable<Void> handle(Connection<ByteBuf, ByteBuf> newConnection) {
+                return newConnection.writeAndFlushOnEach(newConnection.getInput());
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.reactivex.netty.protocol.tcp.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.util.concurrent.EventExecutor;
+import io.reactivex.netty.channel.Connection;
+import io.reactivex.netty.protocol.tcp.client.TcpClient;
+import io.reactivex.netty.ssl.BoundedSslExecutorGroup;
+import io.reactivex.netty.ssl.DefaultSslCodec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+
+import javax.net.ssl.SSLEngine;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class SslExecutorOffloadTest {
+
+    private BoundedSslExecutorGroup sslExecutor;
+    private NioEventLoopGroup serverEventLoop;
+    private TcpServer<ByteBuf, ByteBuf> server;
+    private final AtomicReference<EventExecutor> sslHandlerExecutor = new AtomicReference<>();
+    private final AtomicReference<EventExecutor> eventLoop = new AtomicReference<>();
+
+    @Before
+    public void setUp() throws Exception {
+        sslExecutor = new BoundedSslExecutorGroup(1, 1);
+        /*Single event loop, so that all connections share the same event loop.*/
+        serverEventLoop = new NioEventLoopGroup(1);
+        SelfSignedCertificate certificate = new SelfSignedCertificate("localhost");
+        final SslContext serverContext = SslContextBuilder.forServer(certificate.certificate(),
+                                                                     certificate.privateKey())
+                                                          .build();
+        server = TcpServer.newServer(0, serverEventLoop, NioServerSocketChannel.class)
+                          .secure(new DefaultSslCodec(new Func1<ByteBufAllocator, SSLEngine>() {
+                              @Override
+                              public SSLEngine call(ByteBufAllocator allocator) {
+                                  return serverContext.newEngine(allocator);
+                              }
+                          }, sslExecutor))
+                          .start(new ConnectionHandler<ByteBuf, ByteBuf>() {
+                              @Override
+                              public Observable<Void> handle(Connection<ByteBuf, ByteBuf> newConnection) {
+                                  Channel channel = newConnection.unsafeNettyChannel();
+                                  sslHandlerExecutor.set(channel.pipeline().context(SslHandler.class).executor());
+                                  eventLoop.set(channel.eventLoop());
+                                  return newConnection.writeAndFlushOnEach(newConnection.getInput());
+                              }
+                          });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        sslExecutor.shutdownGracefully();
+        serverEventLoop.shutdownGracefully();
+    }
+
+    @Test(timeout = 60000)
+    public void testHandlerExecutesOnSslExecutor() throws Exception {
+        SslContext clientContext = SslContextBuilder.forClient()
+                                                    .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                                                    .build();
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        TcpClient.newClient("localhost", server.getServerPort())
+                 .secure(clientContext)
+                 .createConnectionRequest()
+                 .flatMap(new Func1<Connection<ByteBuf, ByteBuf>, Observable<String>>() {
+                     @Override
+                     public Observable<String> call(Connection<ByteBuf, ByteBuf> c) {
+                         return c.writeString(Observable.just("Hello"))
+                                 .cast(ByteBuf.class)
+                                 .concatWith(c.getInput())
+                                 .take(1)
+                                 .map(new Func1<ByteBuf, String>() {
+                                     @Override
+                                     public String call(ByteBuf byteBuf) {
+                                         return byteBuf.toString(Charset.defaultCharset());
+                                     }
+                                 });
+                     }
+                 })
+                 .subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent();
+        subscriber.assertNoErrors();
+        assertThat("Unexpected echo.", subscriber.getOnNextEvents(), contains("Hello"));
+        assertThat("SSL handler executor is not from the SSL executor group.", sslHandlerExecutor.get().parent(),
+                   is((Object) sslExecutor));
+        assertThat("SSL handler executes on the event loop.", sslHandlerExecutor.get(),
+                   not(sameInstance(eventLoop.get())));
+    }
+
+    @Test(timeout = 60000)
+    public void testSaturationOnlyFailsNewHandshakes() throws Exception {
+        SslContext clientContext = SslContextBuilder.forClient()
+                                                    .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                                                    .build();
+        TcpClient<ByteBuf, ByteBuf> client = TcpClient.newClient("localhost", server.getServerPort())
+                                                      .secure(clientContext);
+
+        Connection<ByteBuf, ByteBuf> established = client.createConnectionRequest().toBlocking().single();
+        final BlockingQueue<String> echoes = new LinkedBlockingQueue<>();
+        established.getInput()
+                   .subscribe(new Action1<ByteBuf>() {
+                       @Override
+                       public void call(ByteBuf byteBuf) {
+                           echoes.offer(byteBuf.toString(Charset.defaultCharset()));
+                       }
+                   }, new Action1<Throwable>() {
+                       @Override
+                       public void call(Throwable throwable) {
+                           // Connection closed on shutdown.
+                       }
+                   });
+        established.writeString(Observable.just("Hello")).toBlocking().lastOrDefault(null);
+        assertThat("Unexpected echo before saturation.", echoes.poll(30, TimeUnit.SECONDS), is("Hello"));
+
+        /*A plain socket never sends a client hello, so the server side handshake stays in progress.*/
+        try (Socket stalled = new Socket("127.0.0.1", server.getServerPort())) {
+            while (sslExecutor.getPendingHandshakes() < 1) {
+                Thread.sleep(10);
+            }
+
+            TestSubscriber<Connection<ByteBuf, ByteBuf>> rejected = new TestSubscriber<>();
+            client.createConnectionRequest().subscribe(rejected);
+            rejected.awaitTerminalEvent();
+            assertThat("Handshake not rejected when saturated.", rejected.getOnErrorEvents(), hasSize(1));
+
+            established.writeString(Observable.just("World")).toBlocking().lastOrDefault(null);
+            assertThat("Established connection stalled when saturated.", echoes.poll(30, TimeUnit.SECONDS),
+                       is("World"));
+            assertThat("Handshake in progress not retained.", sslExecutor.getPendingHandshakes(), is(1));
+        }
+    }
+}
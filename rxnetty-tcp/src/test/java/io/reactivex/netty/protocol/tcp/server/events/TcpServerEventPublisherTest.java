@@ -74,6 +74,46 @@ public class TcpServerEventPublisherTest {
         assertThat("Listener not called with error.", rule.listener.getRecievedError(), is(expected));
     }
 
+    @Test(timeout = 60000)
+    public void testOnDrainStart() throws Exception {
+        rule.publisher.onDrainStart(1, MILLISECONDS, 2);
+
+        rule.listener.assertMethodsCalled(ServerEvent.DrainStart);
+
+        assertThat("Listener not called with drain timeout.", rule.listener.getDuration(), is(1L));
+        assertThat("Listener not called with time unit.", rule.listener.getTimeUnit(), is(MILLISECONDS));
+        assertThat("Listener not called with active connections.", rule.listener.getConnectionCount(), is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testOnDrainComplete() throws Exception {
+        rule.publisher.onDrainComplete(1, MILLISECONDS, 2);
+
+        rule.listener.assertMethodsCalled(ServerEvent.DrainComplete);
+
+        assertThat("Listener not called with duration.", rule.listener.getDuration(), is(1L));
+        assertThat("Listener not called with time unit.", rule.listener.getTimeUnit(), is(MILLISECONDS));
+        assertThat("Listener not called with forcibly closed connections.", rule.listener.getConnectionCount(),
+                   is(2));
+    }
+
+    @Test(timeout = 60000)
+    public void testOnAcceptPaused() throws Exception {
+        rule.publisher.onAcceptPaused();
+
+        rule.listener.assertMethodsCalled(ServerEvent.AcceptPaused);
+    }
+
+    @Test(timeout = 60000)
+    public void testOnAcceptResumed() throws Exception {
+        rule.publisher.onAcceptResumed(1, MILLISECONDS);
+
+        rule.listener.assertMethodsCalled(ServerEvent.AcceptResumed);
+
+        assertThat("Listener not called with duration.", rule.listener.getDuration(), is(1L));
+        assertThat("Listener not called with time unit.", rule.listener.getTimeUnit(), is(MILLISECONDS));
+    }
+
     @Test(timeout = 60000)
     public void testOnByteRead() throws Exception {
         rule.publisher.onByteRead(1);